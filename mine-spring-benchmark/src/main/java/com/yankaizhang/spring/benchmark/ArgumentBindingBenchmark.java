@@ -0,0 +1,139 @@
+package com.yankaizhang.spring.benchmark;
+
+import com.yankaizhang.spring.benchmark.app.BenchmarkController;
+import com.yankaizhang.spring.benchmark.app.Item;
+import com.yankaizhang.spring.mock.MockHttpServletRequest;
+import com.yankaizhang.spring.mock.MockHttpServletResponse;
+import com.yankaizhang.spring.web.method.HandlerMethod;
+import com.yankaizhang.spring.web.method.invoker.LambdaMethodInvokerFactory;
+import com.yankaizhang.spring.web.method.invoker.MethodHandleMethodInvokerFactory;
+import com.yankaizhang.spring.web.method.invoker.MethodInvokerFactory;
+import com.yankaizhang.spring.web.method.invoker.ReflectiveMethodInvokerFactory;
+import com.yankaizhang.spring.web.model.ModelAndView;
+import com.yankaizhang.spring.webmvc.HandlerAdapter;
+import com.yankaizhang.spring.webmvc.HandlerMapping;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 参数绑定的基准测试<br/>
+ * 直接调用{@link HandlerAdapter#handle}，handler方法返回null，
+ * 测量结果是解析参数和调用方法的开销，不包含路由和响应渲染<br/>
+ * invoker参数对比几种{@link MethodInvokerFactory}调用策略
+ * @author dzzhyk
+ * @since 2026-10-18 19:43:40
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArgumentBindingBenchmark {
+
+    @Param({"lambda", "methodHandle", "reflective"})
+    private String invoker;
+
+    private HandlerAdapter handlerAdapter;
+
+    private HandlerMapping noArguments;
+
+    private HandlerMapping requestParams;
+
+    private HandlerMapping pathVariables;
+
+    private HandlerMapping requestBody;
+
+    private MockHttpServletRequest noArgumentsRequest;
+
+    private MockHttpServletRequest paramsRequest;
+
+    private MockHttpServletRequest pathRequest;
+
+    private MockHttpServletRequest bodyRequest;
+
+    private Map<String, String> uriVariables;
+
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() throws Exception {
+        handlerAdapter = new HandlerAdapter();
+        handlerAdapter.setMethodInvokerFactory(createMethodInvokerFactory(invoker));
+        BenchmarkController controller = new BenchmarkController();
+        noArguments = createHandlerMapping(controller, "bindNone");
+        requestParams = createHandlerMapping(controller, "bindParams", long.class, String.class, int.class, boolean.class);
+        pathVariables = createHandlerMapping(controller, "bindPath", long.class, String.class);
+        requestBody = createHandlerMapping(controller, "bindBody", Item.class);
+
+        noArgumentsRequest = new MockHttpServletRequest("GET", "/bench/bind/none");
+        paramsRequest = new MockHttpServletRequest("GET", "/bench/bind/params")
+                .setQueryString("id=123456&name=mine-spring&page=3&active=true");
+        pathRequest = new MockHttpServletRequest("GET", "/bench/bind/path/123456/mine-spring");
+        uriVariables = new HashMap<>();
+        uriVariables.put("id", "123456");
+        uriVariables.put("name", "mine-spring");
+        bodyRequest = new MockHttpServletRequest("POST", "/bench/bind/body")
+                .setContent(new ObjectMapper().writeValueAsBytes(Item.create(1).get(0)), "application/json");
+        response = new MockHttpServletResponse();
+    }
+
+    private static MethodInvokerFactory createMethodInvokerFactory(String name) {
+        switch (name) {
+            case "lambda":
+                return new LambdaMethodInvokerFactory();
+            case "methodHandle":
+                return new MethodHandleMethodInvokerFactory();
+            case "reflective":
+                return new ReflectiveMethodInvokerFactory();
+            default:
+                throw new IllegalArgumentException("未知的调用策略 : " + name);
+        }
+    }
+
+    private HandlerMapping createHandlerMapping(Object controller, String methodName, Class<?>... parameterTypes)
+            throws NoSuchMethodException {
+        Method method = BenchmarkController.class.getMethod(methodName, parameterTypes);
+        HandlerMapping handlerMapping = new HandlerMapping(controller, new HandlerMethod(controller, method), null);
+        String invokerName = handlerAdapter.prepare(handlerMapping).getInvoker().getClass().getSimpleName();
+        // 不支持的方法会退回到后备策略，那样测量的就不是指定的调用策略了
+        if (!invokerName.toLowerCase().startsWith(invoker.toLowerCase())) {
+            throw new IllegalStateException(methodName + " 使用了 " + invokerName + " 而不是 " + invoker);
+        }
+        return handlerMapping;
+    }
+
+    @Benchmark
+    public ModelAndView noArguments() throws Exception {
+        noArgumentsRequest.reset();
+        response.reset();
+        return handlerAdapter.handle(noArgumentsRequest, response, noArguments);
+    }
+
+    @Benchmark
+    public ModelAndView requestParams() throws Exception {
+        paramsRequest.reset();
+        response.reset();
+        return handlerAdapter.handle(paramsRequest, response, requestParams);
+    }
+
+    @Benchmark
+    public ModelAndView pathVariables() throws Exception {
+        pathRequest.reset();
+        pathRequest.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, uriVariables);
+        response.reset();
+        return handlerAdapter.handle(pathRequest, response, pathVariables);
+    }
+
+    @Benchmark
+    public ModelAndView requestBody() throws Exception {
+        bodyRequest.reset();
+        response.reset();
+        return handlerAdapter.handle(bodyRequest, response, requestBody);
+    }
+}
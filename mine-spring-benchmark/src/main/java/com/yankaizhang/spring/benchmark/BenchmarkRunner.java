@@ -0,0 +1,72 @@
+package com.yankaizhang.spring.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * benchmarks.jar的入口，参数和JMH的命令行参数相同<br/>
+ * <ul>
+ * <li>默认开启gc分析器，结果中的gc.alloc.rate.norm是每次操作分配的字节数</li>
+ * <li>在JDK 9以上运行时为测试进程添加--add-opens参数，框架需要反射读取注解的代理对象</li>
+ * </ul>
+ * 例如只运行路由测试：java -jar target/benchmarks.jar RoutingBenchmark -p handlerCount=1000
+ * @author dzzhyk
+ * @since 2026-10-18 19:48:20
+ */
+public class BenchmarkRunner {
+
+    private static final String[] ADD_OPENS = {
+            "--add-opens", "java.base/java.lang.reflect=ALL-UNNAMED",
+            "--add-opens", "java.base/sun.reflect.annotation=ALL-UNNAMED"
+    };
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions;
+        try {
+            commandLineOptions = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("错误的参数 : " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        // 帮助和列表等命令直接交给JMH处理
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList() ||
+                commandLineOptions.shouldListWithParams() || commandLineOptions.shouldListProfilers() ||
+                commandLineOptions.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLineOptions);
+
+        boolean gcProfiler = false;
+        for (ProfilerConfig profiler : commandLineOptions.getProfilers()) {
+            if (profiler.getKlass().equals(GCProfiler.class.getName()) || "gc".equals(profiler.getKlass())) {
+                gcProfiler = true;
+            }
+        }
+        if (!gcProfiler) {
+            builder.addProfiler(GCProfiler.class);
+        }
+
+        if (!System.getProperty("java.specification.version").startsWith("1.")) {
+            List<String> jvmArgs = new ArrayList<>();
+            if (commandLineOptions.getJvmArgsAppend().hasValue()) {
+                jvmArgs.addAll(commandLineOptions.getJvmArgsAppend().get());
+            }
+            jvmArgs.addAll(Arrays.asList(ADD_OPENS));
+            builder.jvmArgsAppend(jvmArgs.toArray(new String[0]));
+        }
+
+        new Runner(builder.build()).run();
+    }
+}
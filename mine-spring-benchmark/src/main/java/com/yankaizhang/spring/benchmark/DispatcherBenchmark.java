@@ -0,0 +1,133 @@
+package com.yankaizhang.spring.benchmark;
+
+import com.yankaizhang.spring.benchmark.app.Item;
+import com.yankaizhang.spring.benchmark.support.BenchmarkServlets;
+import com.yankaizhang.spring.mock.MockHttpServletRequest;
+import com.yankaizhang.spring.mock.MockHttpServletResponse;
+import com.yankaizhang.spring.webmvc.servlet.DispatcherServlet;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import javax.servlet.ServletContext;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DispatcherServlet完整处理流程的基准测试，使用内存中的请求和响应，不经过网络<br/>
+ * 包含路由、参数绑定、handler调用和json写出；metricsEnabled和compressionEnabled分别测量这两个功能的开销<br/>
+ * requestParamJsonList返回listSize个元素，大约是listSize * 150字节，覆盖压缩阈值
+ * （{@link com.yankaizhang.spring.webmvc.compress.CompressionConfig}默认1024字节）以下和以上的情况；
+ * 实际写出的响应字节数作为responseBytes辅助结果一起输出，用来对比压缩节省的字节数和消耗的时间
+ * @author dzzhyk
+ * @since 2026-10-18 19:46:20
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DispatcherBenchmark {
+
+    @Param({"false", "true"})
+    private boolean metricsEnabled;
+
+    @Param({"false", "true"})
+    private boolean compressionEnabled;
+
+    @Param({"2", "20", "200"})
+    private int listSize;
+
+    private DispatcherServlet servlet;
+
+    private MockHttpServletRequest pingRequest;
+
+    private MockHttpServletRequest itemRequest;
+
+    private MockHttpServletRequest listRequest;
+
+    private MockHttpServletRequest echoRequest;
+
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("metrics.enabled", String.valueOf(metricsEnabled));
+        // 每次测试都会创建新的DispatcherServlet，不注册MBean避免名称冲突
+        properties.setProperty("metrics.jmx.enabled", "false");
+        properties.setProperty("compression.enabled", String.valueOf(compressionEnabled));
+        servlet = BenchmarkServlets.createDispatcherServlet(properties);
+
+        ServletContext servletContext = servlet.getServletContext();
+        pingRequest = createRequest("GET", "/bench/ping", servletContext);
+        itemRequest = createRequest("GET", "/bench/items/42", servletContext);
+        listRequest = createRequest("GET", "/bench/items", servletContext).setQueryString("size=" + listSize);
+        echoRequest = createRequest("POST", "/bench/echo", servletContext)
+                .setContent(new ObjectMapper().writeValueAsBytes(Item.create(1).get(0)), "application/json");
+        response = new MockHttpServletResponse();
+
+        // 确认请求都能正常处理，避免测量的是错误处理流程
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{pingRequest, itemRequest, listRequest, echoRequest}) {
+            if (dispatch(request) <= 0 || response.getStatus() != 200) {
+                throw new IllegalStateException("请求处理失败 : " + request.getRequestURI() + " => " + response.getStatus());
+            }
+        }
+    }
+
+    private static MockHttpServletRequest createRequest(String method, String uri, ServletContext servletContext) {
+        return new MockHttpServletRequest(method, uri)
+                .setServletContext(servletContext)
+                .addHeader("Accept", "application/json")
+                .addHeader("Accept-Encoding", "gzip, deflate");
+    }
+
+    @TearDown
+    public void tearDown() {
+        servlet.destroy();
+    }
+
+    private long dispatch(MockHttpServletRequest request) throws Exception {
+        request.reset();
+        response.reset();
+        servlet.service(request, response);
+        return response.getContentSize();
+    }
+
+    @Benchmark
+    public long ping(ResponseSize size) throws Exception {
+        return size.record(dispatch(pingRequest));
+    }
+
+    @Benchmark
+    public long pathVariableJson(ResponseSize size) throws Exception {
+        return size.record(dispatch(itemRequest));
+    }
+
+    @Benchmark
+    public long requestParamJsonList(ResponseSize size) throws Exception {
+        return size.record(dispatch(listRequest));
+    }
+
+    @Benchmark
+    public long requestBodyEcho(ResponseSize size) throws Exception {
+        return size.record(dispatch(echoRequest));
+    }
+
+
+    /**
+     * 以辅助结果的形式输出每个响应写出的字节数
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ResponseSize {
+
+        /** 最近一次响应的字节数，同一个测试中每次请求的响应都相同 */
+        public long responseBytes;
+
+        long record(long bytes) {
+            responseBytes = bytes;
+            return bytes;
+        }
+    }
+}
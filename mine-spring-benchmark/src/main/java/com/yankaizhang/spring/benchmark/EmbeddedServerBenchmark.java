@@ -0,0 +1,117 @@
+package com.yankaizhang.spring.benchmark;
+
+import com.yankaizhang.spring.benchmark.app.BenchmarkController;
+import com.yankaizhang.spring.benchmark.support.HttpClientConnection;
+import com.yankaizhang.spring.context.impl.AnnotationConfigApplicationContext;
+import com.yankaizhang.spring.webmvc.embedded.EmbeddedServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过本地回环网络测量嵌入式服务器的完整处理流程<br/>
+ * 每个测试线程使用一个保持连接的客户端，可以通过 -t 设置并发的连接数；
+ * pipelined每次发送{@link #PIPELINE_DEPTH}个流水线请求，结果按单个请求计算
+ * @author dzzhyk
+ * @since 2026-10-18 19:47:40
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmbeddedServerBenchmark {
+
+    static final int PIPELINE_DEPTH = 16;
+
+    private static final String PING = "GET /bench/ping HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+    private static final String ITEMS = "GET /bench/items?size=20 HTTP/1.1\r\nHost: localhost\r\nAccept: application/json\r\n\r\n";
+
+    /**
+     * 所有测试线程共享的服务器
+     */
+    @State(Scope.Benchmark)
+    public static class ServerState {
+
+        /** 工作线程数量，设置为virtual时使用虚拟线程，default表示使用服务器的默认值 */
+        @Param({"default"})
+        private String workerThreads;
+
+        private EmbeddedServer server;
+
+        @Setup
+        public void start() throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("server.port", "0");
+            properties.setProperty("server.host", "127.0.0.1");
+            properties.setProperty("metrics.jmx.enabled", "false");
+            if (!"default".equals(workerThreads)) {
+                properties.setProperty("server.workerThreads", workerThreads);
+            }
+            server = new EmbeddedServer(new AnnotationConfigApplicationContext(BenchmarkController.class), properties);
+            server.start();
+        }
+
+        @TearDown
+        public void stop() {
+            server.stop();
+        }
+    }
+
+    /**
+     * 每个测试线程自己的连接
+     */
+    @State(Scope.Thread)
+    public static class ClientState {
+
+        private HttpClientConnection connection;
+
+        private final byte[] ping = PING.getBytes(StandardCharsets.ISO_8859_1);
+
+        private final byte[] items = ITEMS.getBytes(StandardCharsets.ISO_8859_1);
+
+        private byte[] pipelinedPing;
+
+        @Setup
+        public void connect(ServerState serverState) throws IOException {
+            connection = new HttpClientConnection("127.0.0.1", serverState.server.getPort());
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < PIPELINE_DEPTH; i++) {
+                builder.append(PING);
+            }
+            pipelinedPing = builder.toString().getBytes(StandardCharsets.ISO_8859_1);
+        }
+
+        @TearDown
+        public void close() throws IOException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public long ping(ClientState client) throws IOException {
+        client.connection.send(client.ping);
+        return client.connection.readResponse();
+    }
+
+    @Benchmark
+    public long jsonList(ClientState client) throws IOException {
+        client.connection.send(client.items);
+        return client.connection.readResponse();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE_DEPTH)
+    public long pipelined(ClientState client) throws IOException {
+        client.connection.send(client.pipelinedPing);
+        long total = 0;
+        for (int i = 0; i < PIPELINE_DEPTH; i++) {
+            total += client.connection.readResponse();
+        }
+        return total;
+    }
+}
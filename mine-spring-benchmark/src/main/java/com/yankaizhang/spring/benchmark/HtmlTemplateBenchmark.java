@@ -0,0 +1,109 @@
+package com.yankaizhang.spring.benchmark;
+
+import com.yankaizhang.spring.web.view.template.HtmlTemplate;
+import com.yankaizhang.spring.web.view.template.HtmlTemplateCompiler;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * html模板渲染的基准测试<br/>
+ * 模板大小由templateSize控制，表达式数量由placeholders控制，
+ * 分别测量拼接整个页面和按段流式写出两种方式
+ * @author dzzhyk
+ * @since 2026-10-18 19:45:00
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HtmlTemplateBenchmark {
+
+    /** 模板大小，单位字符 */
+    @Param({"5000", "50000"})
+    private int templateSize;
+
+    @Param({"10", "500"})
+    private int placeholders;
+
+    private String source;
+
+    private HtmlTemplate template;
+
+    private Map<String, Object> model;
+
+    private final CountingWriter writer = new CountingWriter();
+
+    @Setup
+    public void setup() {
+        model = new HashMap<>();
+        int literalSize = Math.max(1, templateSize / (placeholders + 1));
+        StringBuilder builder = new StringBuilder(templateSize + placeholders * 16);
+        builder.append("<html><body>\n");
+        for (int i = 0; i < placeholders; i++) {
+            appendLiteral(builder, literalSize);
+            builder.append("${value").append(i).append('}');
+            model.put("value" + i, "值-" + i);
+        }
+        appendLiteral(builder, literalSize);
+        builder.append("</body></html>\n");
+        source = builder.toString();
+        template = HtmlTemplateCompiler.compile(source);
+    }
+
+    private static void appendLiteral(StringBuilder builder, int size) {
+        for (int i = 0; i < size; i++) {
+            builder.append(i % 64 == 63 ? '\n' : (char) ('a' + i % 26));
+        }
+    }
+
+    @Benchmark
+    public String render() {
+        return template.render(model);
+    }
+
+    @Benchmark
+    public long stream() throws IOException {
+        writer.count = 0;
+        template.writeTo(model, writer, 8192);
+        return writer.count;
+    }
+
+    @Benchmark
+    public HtmlTemplate compile() {
+        return HtmlTemplateCompiler.compile(source);
+    }
+
+
+    /**
+     * 只记录字符数量的writer
+     */
+    private static class CountingWriter extends Writer {
+
+        private long count;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
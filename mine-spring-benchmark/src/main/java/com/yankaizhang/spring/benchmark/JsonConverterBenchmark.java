@@ -0,0 +1,64 @@
+package com.yankaizhang.spring.benchmark;
+
+import com.yankaizhang.spring.benchmark.app.Item;
+import com.yankaizhang.spring.mock.MockHttpServletRequest;
+import com.yankaizhang.spring.mock.MockHttpServletResponse;
+import com.yankaizhang.spring.web.http.converter.JsonConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JsonConverter}读写的基准测试，数据量由itemCount控制，
+ * 每个元素序列化之后大约200字节
+ * @author dzzhyk
+ * @since 2026-10-18 19:44:20
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonConverterBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int itemCount;
+
+    /** 是否先写入缓冲区再设置Content-Length */
+    @Param({"true", "false"})
+    private boolean contentLength;
+
+    private JsonConverter converter;
+
+    private List<Item> items;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() throws Exception {
+        converter = new JsonConverter();
+        converter.setContentLengthEnabled(contentLength);
+        items = Item.create(itemCount);
+        response = new MockHttpServletResponse();
+        converter.write(items, JsonConverter.DEFAULT_CONTENT_TYPE, response);
+        byte[] content = response.getContentAsString().getBytes(response.getCharacterEncoding());
+        request = new MockHttpServletRequest("POST", "/bench/echo").setContent(content, "application/json");
+    }
+
+    @Benchmark
+    public long write() throws Exception {
+        response.reset();
+        converter.write(items, JsonConverter.DEFAULT_CONTENT_TYPE, response);
+        return response.getContentSize();
+    }
+
+    @Benchmark
+    public Object read() throws Exception {
+        request.reset();
+        return converter.read(Item[].class, request);
+    }
+}
@@ -0,0 +1,140 @@
+package com.yankaizhang.spring.benchmark;
+
+import com.yankaizhang.spring.benchmark.app.BenchmarkController;
+import com.yankaizhang.spring.mock.MockHttpServletRequest;
+import com.yankaizhang.spring.web.method.HandlerMethod;
+import com.yankaizhang.spring.webmvc.HandlerMapping;
+import com.yankaizhang.spring.webmvc.support.RouteMatch;
+import com.yankaizhang.spring.webmvc.support.RouteTrie;
+import com.yankaizhang.spring.webmvc.support.UriTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 路由查找的基准测试<br/>
+ * 注册handlerCount个映射，一半是字面路径，一半是URI模板，按照DispatcherServlet中的步骤
+ * 查找路由、按请求条件选择映射并且提取模板变量<br/>
+ * strategy为scan时使用路由树之前的做法，按照注册顺序逐个匹配正则表达式，作为对比的基线
+ * @author dzzhyk
+ * @since 2026-10-18 19:43:00
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoutingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int handlerCount;
+
+    /** trie: 路由树，scan: 逐个匹配正则表达式 */
+    @Param({"trie", "scan"})
+    private String strategy;
+
+    private RouteTrie routeTrie;
+
+    /** 按照注册顺序保存的映射，供scan使用 */
+    private List<HandlerMapping> handlerMappings;
+
+    private String literalPath;
+
+    private String templatePath;
+
+    private String missingPath;
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setup() throws Exception {
+        Object controller = new BenchmarkController();
+        Method method = BenchmarkController.class.getMethod("bindNone");
+        routeTrie = new RouteTrie();
+        handlerMappings = new ArrayList<>(handlerCount);
+        for (int i = 0; i < handlerCount; i++) {
+            String url = (i % 2 == 0 ? "/api/v1/resource" + i + "/list" : "/api/v1/resource" + i + "/items/{id}");
+            UriTemplate template = UriTemplate.parse(url);
+            Pattern pattern = (template != null ? template.getPattern() : Pattern.compile(url));
+            HandlerMapping handlerMapping = new HandlerMapping(controller, new HandlerMethod(controller, method), pattern);
+            handlerMapping.setUriTemplate(template);
+            handlerMappings.add(handlerMapping);
+            if (template != null) {
+                routeTrie.register(template, handlerMapping);
+            } else {
+                routeTrie.register(url, handlerMapping);
+            }
+        }
+        // 选择靠后的映射，线性查找时这是比较差的情况
+        int last = handlerCount - 1;
+        literalPath = "/api/v1/resource" + (last - (last % 2)) + "/list";
+        templatePath = "/api/v1/resource" + (last - ((last + 1) % 2)) + "/items/42";
+        missingPath = "/api/v1/resource" + handlerCount + "/missing";
+        request = new MockHttpServletRequest("GET", literalPath);
+    }
+
+    @Benchmark
+    public HandlerMapping literalHit() throws Exception {
+        if ("scan".equals(strategy)) {
+            return scan(literalPath);
+        }
+        RouteMatch match = routeTrie.lookup(literalPath);
+        return match.getCandidates().select(request);
+    }
+
+    @Benchmark
+    public Map<String, String> templateHit() throws Exception {
+        if ("scan".equals(strategy)) {
+            return scanUriVariables(templatePath);
+        }
+        RouteMatch match = routeTrie.lookup(templatePath);
+        HandlerMapping handlerMapping = match.getCandidates().select(request);
+        return match.getUriVariables(handlerMapping);
+    }
+
+    @Benchmark
+    public Object miss() {
+        if ("scan".equals(strategy)) {
+            return scan(missingPath);
+        }
+        return routeTrie.lookup(missingPath);
+    }
+
+    /**
+     * 路由树之前的查找方式，返回第一个匹配的映射
+     */
+    private HandlerMapping scan(String url) {
+        for (HandlerMapping handlerMapping : handlerMappings) {
+            if (handlerMapping.getPattern().matcher(url).matches()) {
+                return handlerMapping;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 逐个匹配之后再用同一个正则表达式提取模板变量
+     */
+    private Map<String, String> scanUriVariables(String url) {
+        for (HandlerMapping handlerMapping : handlerMappings) {
+            Matcher matcher = handlerMapping.getPattern().matcher(url);
+            if (matcher.matches()) {
+                String[] names = handlerMapping.getUriTemplate().getVariableNames();
+                Map<String, String> variables = new HashMap<>(names.length * 2);
+                for (int i = 0; i < names.length; i++) {
+                    variables.put(names[i], matcher.group(i + 1));
+                }
+                return variables;
+            }
+        }
+        return null;
+    }
+}
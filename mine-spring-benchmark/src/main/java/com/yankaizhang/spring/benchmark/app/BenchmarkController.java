@@ -0,0 +1,70 @@
+package com.yankaizhang.spring.benchmark.app;
+
+import com.yankaizhang.spring.context.annotation.Controller;
+import com.yankaizhang.spring.web.model.ModelAndView;
+import com.yankaizhang.spring.webmvc.annotation.*;
+
+import java.util.List;
+
+/**
+ * 基准测试使用的controller，覆盖常见的参数绑定和返回值类型
+ * @author dzzhyk
+ * @since 2026-10-18 19:42:10
+ */
+@Controller
+@RequestMapping("/bench")
+public class BenchmarkController {
+
+    /** 预先生成的返回数据，避免把生成数据的开销算进测量结果 */
+    private static final List<Item> ITEMS = Item.create(1000);
+
+    // ---------------- 只有参数绑定，返回null表示不需要渲染 ----------------
+    // 返回ModelAndView而不是void，函数式调用器不支持void方法
+
+    @RequestMapping("/bind/none")
+    public ModelAndView bindNone() {
+        return null;
+    }
+
+    @RequestMapping("/bind/params")
+    public ModelAndView bindParams(@RequestParam("id") long id, @RequestParam("name") String name,
+                                   @RequestParam("page") int page, @RequestParam("active") boolean active) {
+        return null;
+    }
+
+    @RequestMapping("/bind/path/{id}/{name}")
+    public ModelAndView bindPath(@PathVariable("id") long id, @PathVariable("name") String name) {
+        return null;
+    }
+
+    @RequestMapping("/bind/body")
+    public ModelAndView bindBody(@RequestBody Item item) {
+        return null;
+    }
+
+    // ---------------- 完整的请求 ----------------
+
+    @RequestMapping("/ping")
+    @ResponseBody
+    public String ping() {
+        return "pong";
+    }
+
+    @RequestMapping("/items/{id}")
+    @ResponseBody
+    public Item item(@PathVariable("id") int id) {
+        return ITEMS.get(id % ITEMS.size());
+    }
+
+    @RequestMapping("/items")
+    @ResponseBody
+    public List<Item> items(@RequestParam("size") int size) {
+        return ITEMS.subList(0, Math.min(size, ITEMS.size()));
+    }
+
+    @RequestMapping("/echo")
+    @ResponseBody
+    public Item echo(@RequestBody Item item) {
+        return item;
+    }
+}
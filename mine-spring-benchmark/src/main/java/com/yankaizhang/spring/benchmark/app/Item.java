@@ -0,0 +1,92 @@
+package com.yankaizhang.spring.benchmark.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 基准测试中使用的json数据
+ * @author dzzhyk
+ * @since 2026-10-18 19:41:40
+ */
+public class Item {
+
+    private long id;
+    private String name;
+    private String description;
+    private double price;
+    private boolean active;
+    private List<String> tags;
+
+    public Item() {
+    }
+
+    public Item(long id, String name, String description, double price, boolean active, List<String> tags) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.active = active;
+        this.tags = tags;
+    }
+
+    /**
+     * 生成指定数量的数据
+     */
+    public static List<Item> create(int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new Item(i, "item-" + i, "第" + i + "个商品的描述，包含一些中文和 ascii text",
+                    i * 1.25, i % 2 == 0, Arrays.asList("tag-" + (i % 7), "tag-" + (i % 13))));
+        }
+        return items;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+}
@@ -0,0 +1,61 @@
+package com.yankaizhang.spring.benchmark.support;
+
+import com.yankaizhang.spring.benchmark.app.BenchmarkController;
+import com.yankaizhang.spring.context.impl.AnnotationConfigApplicationContext;
+import com.yankaizhang.spring.webmvc.embedded.EmbeddedServletContext;
+import com.yankaizhang.spring.webmvc.servlet.DispatcherServlet;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import java.io.File;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Properties;
+
+/**
+ * 创建基准测试使用的DispatcherServlet<br/>
+ * 打包之后的benchmarks.jar中无法扫描包路径，所以直接注册controller类
+ * @author dzzhyk
+ * @since 2026-10-18 19:45:40
+ */
+public final class BenchmarkServlets {
+
+    private BenchmarkServlets() {}
+
+    /**
+     * 创建并且初始化DispatcherServlet
+     * @param properties 配置，没有设置的配置项使用默认值
+     * @return 初始化完成的DispatcherServlet
+     */
+    public static DispatcherServlet createDispatcherServlet(Properties properties) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(BenchmarkController.class);
+        DispatcherServlet servlet = new DispatcherServlet(context, properties);
+        ServletContext servletContext = createServletContext();
+        servlet.init(new ServletConfig() {
+            @Override
+            public String getServletName() {
+                return "dispatcherServlet";
+            }
+
+            @Override
+            public ServletContext getServletContext() {
+                return servletContext;
+            }
+
+            @Override
+            public String getInitParameter(String name) {
+                return null;
+            }
+
+            @Override
+            public Enumeration<String> getInitParameterNames() {
+                return Collections.emptyEnumeration();
+            }
+        });
+        return servlet;
+    }
+
+    public static ServletContext createServletContext() {
+        return new EmbeddedServletContext("", new File(System.getProperty("java.io.tmpdir")));
+    }
+}
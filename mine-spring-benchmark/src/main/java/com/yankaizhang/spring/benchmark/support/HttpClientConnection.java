@@ -0,0 +1,116 @@
+package com.yankaizhang.spring.benchmark.support;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * 基准测试使用的最简单的HTTP/1.1客户端连接，保持连接并且支持流水线请求<br/>
+ * 只读取状态码、Content-Length和chunked响应体，响应体直接丢弃
+ * @author dzzhyk
+ * @since 2026-10-18 19:47:00
+ */
+public class HttpClientConnection implements AutoCloseable {
+
+    private final Socket socket;
+
+    private final OutputStream out;
+
+    private final InputStream in;
+
+    private final byte[] line = new byte[8192];
+
+    private final byte[] discard = new byte[8192];
+
+    public HttpClientConnection(String host, int port) throws IOException {
+        socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(new InetSocketAddress(host, port));
+        out = socket.getOutputStream();
+        in = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+    }
+
+    /**
+     * 发送已经编码好的一个或者多个请求
+     */
+    public void send(byte[] requests) throws IOException {
+        out.write(requests);
+        out.flush();
+    }
+
+    /**
+     * 读取一个响应
+     * @return 响应体的字节数
+     */
+    public long readResponse() throws IOException {
+        int length = readLine();
+        if (length < 12 || line[9] != '2') {
+            throw new IOException("请求失败 : " + new String(line, 0, length, "ISO-8859-1"));
+        }
+        long contentLength = -1;
+        boolean chunked = false;
+        while ((length = readLine()) > 0) {
+            String header = new String(line, 0, length, "ISO-8859-1");
+            int colon = header.indexOf(':');
+            String name = header.substring(0, colon).trim();
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                contentLength = Long.parseLong(header.substring(colon + 1).trim());
+            } else if ("Transfer-Encoding".equalsIgnoreCase(name)) {
+                chunked = header.toLowerCase().contains("chunked");
+            }
+        }
+        if (!chunked) {
+            skip(Math.max(contentLength, 0));
+            return contentLength;
+        }
+        long total = 0;
+        while (true) {
+            length = readLine();
+            long size = Long.parseLong(new String(line, 0, length, "ISO-8859-1").trim(), 16);
+            if (size == 0) {
+                readLine();
+                return total;
+            }
+            skip(size);
+            readLine();
+            total += size;
+        }
+    }
+
+    /**
+     * 读取一行，不包含CRLF
+     * @return 行的长度
+     */
+    private int readLine() throws IOException {
+        int length = 0;
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException("连接已经关闭");
+            }
+            if (b != '\r' && length < line.length) {
+                line[length++] = (byte) b;
+            }
+        }
+        return length;
+    }
+
+    private void skip(long n) throws IOException {
+        while (n > 0) {
+            int read = in.read(discard, 0, (int) Math.min(n, discard.length));
+            if (read < 0) {
+                throw new EOFException("连接已经关闭");
+            }
+            n -= read;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
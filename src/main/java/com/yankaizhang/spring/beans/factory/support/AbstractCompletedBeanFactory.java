@@ -14,6 +14,7 @@ import com.yankaizhang.spring.beans.holder.MutablePropertyValues;
 import com.yankaizhang.spring.beans.holder.PropertyValue;
 import com.yankaizhang.spring.context.annotation.Component;
 import com.yankaizhang.spring.context.annotation.Controller;
+import com.yankaizhang.spring.context.annotation.ControllerAdvice;
 import com.yankaizhang.spring.context.annotation.Service;
 import com.yankaizhang.spring.util.AnnotationUtils;
 import com.yankaizhang.spring.util.StringUtils;
@@ -347,6 +348,7 @@ public abstract class AbstractCompletedBeanFactory extends AbstractConfigurableB
         // 只能给组件类中显式标注了@Autowired注解的属性执行自动属性注入
         Class<?> clazz = bean.getClass();
         if (!(clazz.isAnnotationPresent(Controller.class) ||
+                clazz.isAnnotationPresent(ControllerAdvice.class) ||
                 clazz.isAnnotationPresent(Service.class) ||
                 clazz.isAnnotationPresent(Component.class))) {
             return;
@@ -0,0 +1,17 @@
+package com.yankaizhang.spring.context.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 全局的controller增强对象，本身也是{@link Component}对象<br/>
+ * 其中的{@link com.yankaizhang.spring.webmvc.annotation.ExceptionHandler}方法处理所有controller抛出的异常
+ * @author dzzhyk
+ * @since 2026-10-18 18:32:45
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Component
+public @interface ControllerAdvice {
+    String value() default "";
+}
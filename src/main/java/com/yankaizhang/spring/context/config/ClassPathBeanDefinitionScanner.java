@@ -71,6 +71,7 @@ public class ClassPathBeanDefinitionScanner {
                 !(beanMetadata.isAnnotated(Component.class) ||
                   beanMetadata.isAnnotated(Configuration.class) ||
                   beanMetadata.isAnnotated(Controller.class) ||
+                  beanMetadata.isAnnotated(ControllerAdvice.class) ||
                   beanMetadata.isAnnotated(Service.class)));
     }
 
@@ -6,6 +6,9 @@ import com.yankaizhang.spring.web.method.HandlerMethod;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.Arrays;
 import java.util.Objects;
 
@@ -23,6 +26,12 @@ public class MethodParameter {
     /** 该参数的类型 */
     private Class<?> parameterType;
 
+    /** 该参数的泛型类型 */
+    private Type genericParameterType;
+
+    /** 数组或者集合参数的元素类型，不是多值参数时为Void */
+    private Class<?> elementType;
+
     /** 该参数的名称 */
     private String parameterName;
 
@@ -47,6 +56,19 @@ public class MethodParameter {
         getParameterAnnotations();
     }
 
+    /**
+     * 使用指定的参数类型创建，用于实际类型和声明类型不一致的情况，比如异步结果
+     */
+    protected MethodParameter(Method method, int parameterIndex, Class<?> parameterType) {
+        assert method != null;
+        this.method = method;
+        this.parameterIndex = parameterIndex;
+        this.parameterType = parameterType;
+
+        getParameterName();
+        getParameterAnnotations();
+    }
+
     public MethodParameter(int parameterIndex) {
         this.method = null;
         this.parameterIndex = parameterIndex;
@@ -73,6 +95,44 @@ public class MethodParameter {
         return this.parameterType;
     }
 
+    public Type getGenericParameterType() {
+        if (this.genericParameterType == null){
+            if (this.parameterIndex < 0) {
+                // 返回值，使用实际类型创建时没有泛型信息
+                this.genericParameterType = (this.method != null && getParameterType() == this.method.getReturnType()
+                        ? this.method.getGenericReturnType() : getParameterType());
+            }else{
+                this.genericParameterType = this.method.getGenericParameterTypes()[this.parameterIndex];
+            }
+        }
+        return this.genericParameterType;
+    }
+
+    /**
+     * 获取数组或者集合参数的元素类型，集合没有声明泛型时为Object
+     * @return 元素类型，不是数组或者集合时返回null
+     */
+    public Class<?> getElementType() {
+        if (this.elementType == null){
+            Class<?> type = getParameterType();
+            Class<?> result = Void.class;
+            if (type.isArray()) {
+                result = type.getComponentType();
+            } else if (Collection.class.isAssignableFrom(type)) {
+                result = Object.class;
+                Type genericType = getGenericParameterType();
+                if (genericType instanceof ParameterizedType) {
+                    Type[] arguments = ((ParameterizedType) genericType).getActualTypeArguments();
+                    if (arguments.length == 1 && arguments[0] instanceof Class) {
+                        result = (Class<?>) arguments[0];
+                    }
+                }
+            }
+            this.elementType = result;
+        }
+        return (this.elementType == Void.class ? null : this.elementType);
+    }
+
     public String getParameterName() {
         if (this.parameterIndex < 0) {
             return null;
@@ -151,6 +211,17 @@ public class MethodParameter {
             this.returnValue = returnValue;
         }
 
+        /**
+         * 使用返回值的实际类型创建
+         * @param method 方法
+         * @param returnValue 返回值
+         * @param returnType 返回值的实际类型
+         */
+        public ReturnValueMethodParameter(HandlerMethod method, Object returnValue, Class<?> returnType) {
+            super(method.getMethod(), -1, returnType);
+            this.returnValue = returnValue;
+        }
+
         public Object getReturnValue() {
             return returnValue;
         }
@@ -0,0 +1,19 @@
+package com.yankaizhang.spring.core.convert;
+
+/**
+ * 类型转换失败时抛出的异常
+ * @author dzzhyk
+ * @since 2026-10-18 16:05:31
+ */
+public class ConversionFailedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ConversionFailedException(String message) {
+        super(message);
+    }
+
+    public ConversionFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,23 @@
+package com.yankaizhang.spring.core.convert;
+
+/**
+ * 类型转换服务
+ * @author dzzhyk
+ * @since 2026-10-18 16:04:52
+ */
+public interface ConversionService {
+
+    /**
+     * 判断是否可以把sourceType类型的对象转换为targetType类型
+     */
+    boolean canConvert(Class<?> sourceType, Class<?> targetType);
+
+    /**
+     * 转换对象
+     * @param source 源对象
+     * @param targetType 目标类型，可以是基本类型
+     * @return 转换结果，源对象为null时返回null
+     * @throws ConversionFailedException 没有可用的转换器或者转换失败
+     */
+    <T> T convert(Object source, Class<T> targetType);
+}
@@ -0,0 +1,18 @@
+package com.yankaizhang.spring.core.convert;
+
+/**
+ * 类型转换器，把S类型的对象转换为T类型<br/>
+ * 实现类需要是线程安全的
+ * @author dzzhyk
+ * @since 2026-10-18 16:02:14
+ */
+@FunctionalInterface
+public interface Converter<S, T> {
+
+    /**
+     * 转换对象
+     * @param source 源对象，不会为null
+     * @return 转换结果
+     */
+    T convert(S source);
+}
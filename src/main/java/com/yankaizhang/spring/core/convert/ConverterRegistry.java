@@ -0,0 +1,23 @@
+package com.yankaizhang.spring.core.convert;
+
+/**
+ * 类型转换器注册接口
+ * @author dzzhyk
+ * @since 2026-10-18 16:03:40
+ */
+public interface ConverterRegistry {
+
+    /**
+     * 注册转换器，源类型和目标类型从转换器实现类的泛型声明中解析
+     * @param converter 转换器，不能是lambda表达式
+     */
+    void addConverter(Converter<?, ?> converter);
+
+    /**
+     * 注册指定源类型和目标类型的转换器
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @param converter 转换器
+     */
+    <S, T> void addConverter(Class<S> sourceType, Class<T> targetType, Converter<? super S, ? extends T> converter);
+}
@@ -0,0 +1,344 @@
+package com.yankaizhang.spring.core.convert.support;
+
+import com.yankaizhang.spring.core.convert.ConversionFailedException;
+import com.yankaizhang.spring.core.convert.ConversionService;
+import com.yankaizhang.spring.core.convert.Converter;
+import com.yankaizhang.spring.core.convert.ConverterRegistry;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 默认的类型转换服务<br/>
+ * 内置了字符串到基本类型、包装类型、大数字、枚举、日期和UUID的转换器<br/>
+ * 每个 (源类型, 目标类型) 只在第一次转换时查找转换器，之后直接使用缓存的查找结果
+ * @author dzzhyk
+ * @since 2026-10-18 16:08:26
+ */
+public class DefaultConversionService implements ConversionService, ConverterRegistry {
+
+    /** 源类型已经是目标类型时使用的转换器 */
+    private static final Converter<Object, Object> NO_OP = source -> source;
+
+    /** 表示没有可用转换器的缓存占位对象 */
+    private static final Converter<Object, Object> NO_MATCH = source -> {
+        throw new IllegalStateException("NO_MATCH");
+    };
+
+    /** 常用的日期时间格式 */
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static volatile DefaultConversionService sharedInstance;
+
+    /** 注册的转换器 */
+    private final Map<ConvertiblePair, Converter<Object, Object>> converters = new ConcurrentHashMap<>(64);
+
+    /** 转换器查找结果缓存，先按源类型再按目标类型查找，查询时不需要创建键对象 */
+    private final Map<Class<?>, Map<Class<?>, Converter<Object, Object>>> converterCache =
+            new ConcurrentHashMap<>(16);
+
+    public DefaultConversionService() {
+        addDefaultConverters(this);
+    }
+
+    /**
+     * 获取共享的默认实例，没有注册自定义转换器时使用
+     */
+    public static ConversionService getSharedInstance() {
+        DefaultConversionService instance = sharedInstance;
+        if (instance == null) {
+            synchronized (DefaultConversionService.class) {
+                instance = sharedInstance;
+                if (instance == null) {
+                    instance = new DefaultConversionService();
+                    sharedInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 注册内置的转换器
+     */
+    public static void addDefaultConverters(ConverterRegistry registry) {
+        registry.addConverter(String.class, Integer.class, source -> Integer.valueOf(source.trim()));
+        registry.addConverter(String.class, Long.class, source -> Long.valueOf(source.trim()));
+        registry.addConverter(String.class, Short.class, source -> Short.valueOf(source.trim()));
+        registry.addConverter(String.class, Byte.class, source -> Byte.valueOf(source.trim()));
+        registry.addConverter(String.class, Double.class, source -> Double.valueOf(source.trim()));
+        registry.addConverter(String.class, Float.class, source -> Float.valueOf(source.trim()));
+        registry.addConverter(String.class, BigDecimal.class, source -> new BigDecimal(source.trim()));
+        registry.addConverter(String.class, BigInteger.class, source -> new BigInteger(source.trim()));
+        registry.addConverter(String.class, Boolean.class, DefaultConversionService::toBoolean);
+        registry.addConverter(String.class, Character.class, source -> source.charAt(0));
+        registry.addConverter(String.class, UUID.class, source -> UUID.fromString(source.trim()));
+        registry.addConverter(String.class, LocalDate.class, source -> LocalDate.parse(source.trim()));
+        registry.addConverter(String.class, LocalTime.class, source -> LocalTime.parse(source.trim()));
+        registry.addConverter(String.class, LocalDateTime.class, DefaultConversionService::toLocalDateTime);
+        registry.addConverter(String.class, Date.class, DefaultConversionService::toDate);
+        registry.addConverter(Number.class, Integer.class, Number::intValue);
+        registry.addConverter(Number.class, Long.class, Number::longValue);
+        registry.addConverter(Number.class, Double.class, Number::doubleValue);
+        registry.addConverter(Object.class, String.class, Object::toString);
+    }
+
+    @Override
+    public void addConverter(Converter<?, ?> converter) {
+        Class<?>[] types = resolveConverterTypes(converter.getClass());
+        if (types == null) {
+            throw new IllegalArgumentException("无法解析 [" + converter.getClass().getName() +
+                    "] 的源类型和目标类型，请使用addConverter(Class, Class, Converter)注册");
+        }
+        registerConverter(types[0], types[1], converter);
+    }
+
+    @Override
+    public <S, T> void addConverter(Class<S> sourceType, Class<T> targetType,
+                                    Converter<? super S, ? extends T> converter) {
+        registerConverter(sourceType, targetType, converter);
+    }
+
+    /**
+     * 保存转换器，调用方保证转换器的源类型和目标类型与参数一致
+     */
+    @SuppressWarnings("unchecked")
+    private void registerConverter(Class<?> sourceType, Class<?> targetType, Converter<?, ?> converter) {
+        converters.put(new ConvertiblePair(boxed(sourceType), boxed(targetType)), (Converter<Object, Object>) converter);
+        converterCache.clear();
+    }
+
+    @Override
+    public boolean canConvert(Class<?> sourceType, Class<?> targetType) {
+        return getConverter(sourceType, targetType) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T convert(Object source, Class<T> targetType) {
+        if (source instanceof String && targetType != String.class && ((String) source).trim().isEmpty()) {
+            // 空字符串表示没有值
+            source = null;
+        }
+        if (source == null) {
+            if (targetType.isPrimitive()) {
+                throw new ConversionFailedException("无法将null转换为基本类型 " + targetType.getName());
+            }
+            return null;
+        }
+        Converter<Object, Object> converter = getConverter(source.getClass(), targetType);
+        if (converter == null) {
+            throw new ConversionFailedException("没有从 " + source.getClass().getName() +
+                    " 到 " + targetType.getName() + " 的转换器");
+        }
+        try {
+            return (T) converter.convert(source);
+        } catch (ConversionFailedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new ConversionFailedException("无法将 [" + source + "] 转换为 " + targetType.getName(), e);
+        }
+    }
+
+    /**
+     * 获取转换器，查找结果会被缓存
+     * @return 转换器，找不到返回null
+     */
+    public Converter<Object, Object> getConverter(Class<?> sourceType, Class<?> targetType) {
+        Map<Class<?>, Converter<Object, Object>> cache = converterCache.get(sourceType);
+        if (cache == null) {
+            cache = converterCache.computeIfAbsent(sourceType, key -> new ConcurrentHashMap<>(16));
+        }
+        Converter<Object, Object> converter = cache.get(targetType);
+        if (converter == null) {
+            converter = findConverter(boxed(sourceType), boxed(targetType));
+            cache.put(targetType, converter);
+        }
+        return (converter == NO_MATCH ? null : converter);
+    }
+
+    /**
+     * 沿着源类型的继承层次查找转换器
+     */
+    private Converter<Object, Object> findConverter(Class<?> sourceType, Class<?> targetType) {
+        if (targetType.isAssignableFrom(sourceType)) {
+            return NO_OP;
+        }
+        for (Class<?> candidate : getClassHierarchy(sourceType)) {
+            Converter<Object, Object> converter = converters.get(new ConvertiblePair(candidate, targetType));
+            if (converter != null) {
+                return converter;
+            }
+            if (candidate == String.class && targetType.isEnum()) {
+                return new StringToEnumConverter(targetType);
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * 获取类型自身、父类和接口，Object放在最后
+     */
+    private static List<Class<?>> getClassHierarchy(Class<?> type) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            Class<?> candidate = queue.poll();
+            if (candidate == Object.class || hierarchy.contains(candidate)) {
+                continue;
+            }
+            hierarchy.add(candidate);
+            if (candidate.getSuperclass() != null) {
+                queue.add(candidate.getSuperclass());
+            }
+            Collections.addAll(queue, candidate.getInterfaces());
+        }
+        hierarchy.add(Object.class);
+        return hierarchy;
+    }
+
+    /**
+     * 从转换器实现类的泛型声明中解析源类型和目标类型
+     */
+    private static Class<?>[] resolveConverterTypes(Class<?> clazz) {
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Type type : current.getGenericInterfaces()) {
+                if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == Converter.class) {
+                    Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+                    if (arguments[0] instanceof Class && arguments[1] instanceof Class) {
+                        return new Class<?>[]{(Class<?>) arguments[0], (Class<?>) arguments[1]};
+                    }
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 基本类型转换为对应的包装类型
+     */
+    private static Class<?> boxed(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) return Integer.class;
+        if (type == long.class) return Long.class;
+        if (type == boolean.class) return Boolean.class;
+        if (type == double.class) return Double.class;
+        if (type == float.class) return Float.class;
+        if (type == short.class) return Short.class;
+        if (type == byte.class) return Byte.class;
+        if (type == char.class) return Character.class;
+        return Void.class;
+    }
+
+    private static Boolean toBoolean(String source) {
+        String value = source.trim().toLowerCase(Locale.ROOT);
+        switch (value) {
+            case "true": case "on": case "yes": case "1":
+                return Boolean.TRUE;
+            case "false": case "off": case "no": case "0":
+                return Boolean.FALSE;
+            default:
+                throw new IllegalArgumentException("无效的布尔值 : " + source);
+        }
+    }
+
+    /**
+     * 支持ISO格式和 yyyy-MM-dd HH:mm:ss 格式，只有日期时取当天零点
+     */
+    private static LocalDateTime toLocalDateTime(String source) {
+        String value = source.trim();
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay();
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.parse(value, DATE_TIME_FORMATTER);
+        }
+    }
+
+    /**
+     * 支持毫秒时间戳和{@link #toLocalDateTime(String)}中的格式，使用系统时区
+     */
+    private static Date toDate(String source) {
+        String value = source.trim();
+        boolean digits = true;
+        for (int i = 0; i < value.length() && digits; i++) {
+            digits = Character.isDigit(value.charAt(i));
+        }
+        if (digits) {
+            return new Date(Long.parseLong(value));
+        }
+        return Date.from(toLocalDateTime(value).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+
+    /**
+     * 字符串到枚举的转换器，每个枚举类型一个，创建时按照名称建立常量表
+     */
+    private static final class StringToEnumConverter implements Converter<Object, Object> {
+
+        private final Class<?> enumType;
+
+        private final Map<String, Object> constants = new HashMap<>();
+
+        StringToEnumConverter(Class<?> enumType) {
+            this.enumType = enumType;
+            for (Object constant : enumType.getEnumConstants()) {
+                constants.put(((Enum<?>) constant).name(), constant);
+            }
+        }
+
+        @Override
+        public Object convert(Object source) {
+            Object constant = constants.get(((String) source).trim());
+            if (constant == null) {
+                throw new IllegalArgumentException("枚举 " + enumType.getName() + " 中没有常量 " + source);
+            }
+            return constant;
+        }
+    }
+
+
+    /**
+     * 注册表的键：源类型和目标类型
+     */
+    private static final class ConvertiblePair {
+
+        private final Class<?> sourceType;
+
+        private final Class<?> targetType;
+
+        ConvertiblePair(Class<?> sourceType, Class<?> targetType) {
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ConvertiblePair)) return false;
+            ConvertiblePair that = (ConvertiblePair) o;
+            return sourceType == that.sourceType && targetType == that.targetType;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sourceType.hashCode() + targetType.hashCode();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.yankaizhang.spring.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.Checksum;
+
+/**
+ * 自制流工具类
+ * @author dzzhyk
+ * @since 2026-10-18 13:24:05
+ */
+public class StreamUtils {
+
+    /** 默认的缓冲区大小 */
+    public static final int BUFFER_SIZE = 8192;
+
+    /**
+     * 把输入流的全部内容复制到输出流，不关闭两个流
+     * @param in 输入流
+     * @param out 输出流
+     * @return 复制的字节数
+     * @throws IOException 读写异常
+     */
+    public static long copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long count = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            count += read;
+        }
+        out.flush();
+        return count;
+    }
+
+    /**
+     * 把输入通道的全部内容复制到输出通道，同时计算校验和，不关闭两个通道
+     * @param in 输入通道
+     * @param out 输出通道
+     * @param checksum 校验和，可以为null
+     * @return 复制的字节数
+     * @throws IOException 读写异常
+     */
+    public static long copy(ReadableByteChannel in, WritableByteChannel out, Checksum checksum)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long count = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (checksum != null && read > 0) {
+                checksum.update(buffer.array(), 0, read);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+            count += read;
+        }
+        return count;
+    }
+
+    /**
+     * 使用{@link FileChannel#transferTo}把文件的一部分写入输出流，不关闭两个流<br/>
+     * 输出流只能包装为普通的{@link WritableByteChannel}，由JDK决定是否能够避免复制
+     * @param channel 文件通道
+     * @param position 开始位置
+     * @param count 字节数
+     * @param out 输出流
+     * @return 写出的字节数
+     * @throws IOException 读写异常
+     */
+    public static long transfer(FileChannel channel, long position, long count, OutputStream out)
+            throws IOException {
+        long transferred = transfer(channel, position, count, Channels.newChannel(out));
+        out.flush();
+        return transferred;
+    }
+
+    /**
+     * 使用{@link FileChannel#transferTo}把文件的一部分写入目标通道，不关闭通道
+     * @param channel 文件通道
+     * @param position 开始位置
+     * @param count 字节数
+     * @param target 目标通道
+     * @return 写出的字节数
+     * @throws IOException 读写异常
+     */
+    public static long transfer(FileChannel channel, long position, long count, WritableByteChannel target)
+            throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long written = channel.transferTo(position, remaining, target);
+            if (written <= 0) {
+                // 已经到达文件末尾，文件可能被截断了
+                break;
+            }
+            position += written;
+            remaining -= written;
+        }
+        return count - remaining;
+    }
+}
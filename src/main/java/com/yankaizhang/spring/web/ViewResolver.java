@@ -3,6 +3,7 @@ package com.yankaizhang.spring.web;
 import com.yankaizhang.spring.util.BeanUtils;
 import com.yankaizhang.spring.util.StringUtils;
 import com.yankaizhang.spring.web.view.AbstractView;
+import com.yankaizhang.spring.web.view.HtmlView;
 import com.yankaizhang.spring.web.view.JspView;
 import com.yankaizhang.spring.web.view.View;
 import com.yankaizhang.spring.web.model.ModelAndView;
@@ -10,6 +11,9 @@ import com.yankaizhang.spring.web.model.ModelAndView;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 根据模板名称选择合适的模板解析引擎
@@ -39,9 +43,40 @@ public class ViewResolver {
     /** contentType */
     private String contentType;
 
+    /** HtmlView是否使用流式渲染 */
+    private boolean htmlStreaming = false;
+
+    /** HtmlView流式渲染时的flush阈值 */
+    private int htmlFlushThreshold = HtmlView.DEFAULT_FLUSH_THRESHOLD;
+
     /** 项目根目录 */
     public static String PROJECT_DIR = null;
 
+    /** 默认的视图缓存数量上限 */
+    public static final int DEFAULT_CACHE_LIMIT = 1024;
+
+    /** 视图缓存数量上限，小于等于0表示不缓存 */
+    private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
+
+    /** 是否缓存无法解析的视图名称 */
+    private boolean cacheUnresolved = true;
+
+    /** 并发读取的视图缓存 */
+    private final Map<String, View> viewAccessCache = new ConcurrentHashMap<>(DEFAULT_CACHE_LIMIT);
+
+    /** 按照创建顺序排列的视图缓存，用于淘汰超出上限的视图 */
+    private final Map<String, View> viewCreationCache =
+            new LinkedHashMap<String, View>(DEFAULT_CACHE_LIMIT, 0.75f) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, View> eldest) {
+                    if (size() > getCacheLimit()) {
+                        viewAccessCache.remove(eldest.getKey());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
 
     /** 内置的默认view对象 */
     private static final View UNRESOLVED_VIEW = new View() {
@@ -85,13 +120,78 @@ public class ViewResolver {
             return UNRESOLVED_VIEW;
         }
 
-        View view = buildView(viewName);
-        if (null == view){
-            view = UNRESOLVED_VIEW;
+        if (!isCache()) {
+            View view = buildView(viewName);
+            return (view == null ? UNRESOLVED_VIEW : view);
+        }
+
+        View view = viewAccessCache.get(viewName);
+        if (view == null) {
+            synchronized (viewCreationCache) {
+                view = viewCreationCache.get(viewName);
+                if (view == null) {
+                    view = buildView(viewName);
+                    if (view == null) {
+                        view = UNRESOLVED_VIEW;
+                    }
+                    if (view != UNRESOLVED_VIEW || isCacheUnresolved()) {
+                        viewAccessCache.put(viewName, view);
+                        viewCreationCache.put(viewName, view);
+                    }
+                }
+            }
         }
         return view;
     }
 
+    /**
+     * 移除某个视图名称的缓存
+     * @param viewName 视图名称
+     */
+    public void removeFromCache(String viewName) {
+        synchronized (viewCreationCache) {
+            viewAccessCache.remove(viewName);
+            viewCreationCache.remove(viewName);
+        }
+    }
+
+    /**
+     * 清空视图缓存，修改解析器配置之后需要调用
+     */
+    public void clearCache() {
+        synchronized (viewCreationCache) {
+            viewAccessCache.clear();
+            viewCreationCache.clear();
+        }
+    }
+
+    /**
+     * 是否开启了视图缓存
+     */
+    public boolean isCache() {
+        return cacheLimit > 0;
+    }
+
+    public int getCacheLimit() {
+        return cacheLimit;
+    }
+
+    /**
+     * 设置视图缓存数量上限，小于等于0表示不缓存
+     */
+    public void setCacheLimit(int cacheLimit) {
+        this.cacheLimit = cacheLimit;
+        clearCache();
+    }
+
+    public boolean isCacheUnresolved() {
+        return cacheUnresolved;
+    }
+
+    public void setCacheUnresolved(boolean cacheUnresolved) {
+        this.cacheUnresolved = cacheUnresolved;
+    }
+
     @Override
     public String toString() {
         return "ViewResolver{" +
@@ -119,6 +219,7 @@ public class ViewResolver {
 
     public void setContentType(String contentType) {
         this.contentType = contentType;
+        clearCache();
     }
 
     /**
@@ -138,18 +239,44 @@ public class ViewResolver {
         if (contentType != null) {
             view.setContentType(contentType);
         }
+        if (view instanceof HtmlView) {
+            HtmlView htmlView = (HtmlView) view;
+            htmlView.setStreaming(isHtmlStreaming());
+            htmlView.setFlushThreshold(getHtmlFlushThreshold());
+        }
         return view;
     }
 
+    public boolean isHtmlStreaming() {
+        return htmlStreaming;
+    }
+
+    public void setHtmlStreaming(boolean htmlStreaming) {
+        this.htmlStreaming = htmlStreaming;
+        clearCache();
+    }
+
+    public int getHtmlFlushThreshold() {
+        return htmlFlushThreshold;
+    }
+
+    public void setHtmlFlushThreshold(int htmlFlushThreshold) {
+        this.htmlFlushThreshold = htmlFlushThreshold;
+        clearCache();
+    }
+
     public void setViewClass(Class<?> viewClass) {
         this.viewClass = viewClass;
+        clearCache();
     }
 
     public void setPrefix(String prefix) {
         this.prefix = prefix;
+        clearCache();
     }
 
     public void setSuffix(String suffix) {
         this.suffix = suffix;
+        clearCache();
     }
 }
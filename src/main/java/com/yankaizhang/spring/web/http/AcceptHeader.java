@@ -0,0 +1,212 @@
+package com.yankaizhang.spring.web.http;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 解析好的Accept请求头<br/>
+ * 媒体范围按照q值从高到低排列，q值相同时更具体的类型优先，其次保持原有顺序；
+ * 解析结果按照请求头字符串缓存，同样的请求头只解析一次
+ * @author dzzhyk
+ * @since 2026-10-18 17:48:12
+ */
+public final class AcceptHeader {
+
+    /** 缓存的请求头数量上限，超过之后清空重新缓存 */
+    private static final int CACHE_LIMIT = 512;
+
+    private static final Map<String, AcceptHeader> CACHE = new ConcurrentHashMap<>(64);
+
+    /** 没有Accept头时等价于 *&#47;* */
+    public static final AcceptHeader ALL = new AcceptHeader("*/*",
+            Collections.singletonList(new MediaRange("*", "*", 1.0, 0)));
+
+    private final String value;
+
+    private final List<MediaRange> mediaRanges;
+
+    private final boolean wildcard;
+
+    private AcceptHeader(String value, List<MediaRange> mediaRanges) {
+        this.value = value;
+        this.mediaRanges = mediaRanges;
+        this.wildcard = (mediaRanges.size() == 1 && mediaRanges.get(0).isWildcard());
+    }
+
+    /**
+     * 解析Accept请求头，结果会被缓存
+     * @param header 请求头，可以为null
+     * @return 解析结果
+     */
+    public static AcceptHeader parse(String header) {
+        if (header == null) {
+            return ALL;
+        }
+        AcceptHeader accept = CACHE.get(header);
+        if (accept == null) {
+            accept = doParse(header);
+            if (CACHE.size() >= CACHE_LIMIT) {
+                CACHE.clear();
+            }
+            CACHE.put(header, accept);
+        }
+        return accept;
+    }
+
+    private static AcceptHeader doParse(String header) {
+        List<MediaRange> ranges = new ArrayList<>(4);
+        int order = 0;
+        for (String part : header.split(",")) {
+            MediaRange range = MediaRange.parse(part, order++);
+            if (range != null) {
+                ranges.add(range);
+            }
+        }
+        if (ranges.isEmpty()) {
+            return ALL;
+        }
+        ranges.sort(MediaRange.PREFERENCE_ORDER);
+        return new AcceptHeader(header, Collections.unmodifiableList(ranges));
+    }
+
+    /**
+     * 媒体范围列表，已经按照客户端偏好排序，q=0的范围也包含在内
+     */
+    public List<MediaRange> getMediaRanges() {
+        return mediaRanges;
+    }
+
+    /**
+     * 客户端对某个具体类型的q值，由包含它的最具体的媒体范围决定<br/>
+     * 例如 application/json;q=0, *&#47;* 中application/json的q值为0，也就是被排除
+     * @param mediaType 具体的类型
+     * @return q值，没有媒体范围包含这个类型时为0
+     */
+    public double getQuality(MediaType mediaType) {
+        MediaRange match = null;
+        for (MediaRange range : mediaRanges) {
+            // 列表已经按q值排序，具体程度相同的范围取排在前面的
+            if (range.includes(mediaType) && (match == null || range.getSpecificity() > match.getSpecificity())) {
+                match = range;
+            }
+        }
+        return (match == null ? 0 : match.quality);
+    }
+
+    /**
+     * 是否只接受 *&#47;*，即客户端没有偏好
+     */
+    public boolean isWildcard() {
+        return wildcard;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+
+    /**
+     * Accept头中的一个媒体范围
+     */
+    public static final class MediaRange {
+
+        /** q值降序，具体程度降序，原有顺序升序 */
+        static final Comparator<MediaRange> PREFERENCE_ORDER = (a, b) -> {
+            int result = Double.compare(b.quality, a.quality);
+            if (result == 0) {
+                result = Integer.compare(b.getSpecificity(), a.getSpecificity());
+            }
+            return (result != 0 ? result : Integer.compare(a.order, b.order));
+        };
+
+        private final String type;
+
+        private final String subtype;
+
+        private final double quality;
+
+        private final int order;
+
+        MediaRange(String type, String subtype, double quality, int order) {
+            this.type = type;
+            this.subtype = subtype;
+            this.quality = quality;
+            this.order = order;
+        }
+
+        static MediaRange parse(String text, int order) {
+            String[] params = text.split(";");
+            String base = params[0].trim().toLowerCase(Locale.ROOT);
+            if ("*".equals(base)) {
+                base = "*/*";
+            }
+            int slash = base.indexOf('/');
+            if (slash <= 0 || slash == base.length() - 1) {
+                return null;
+            }
+            double quality = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    quality = parseQuality(param.substring(2).trim());
+                }
+            }
+            return new MediaRange(base.substring(0, slash), base.substring(slash + 1), quality, order);
+        }
+
+        /**
+         * 解析q值，限制在[0, 1]之间，格式错误或者NaN、Infinity这样的非有限值按照0处理
+         */
+        private static double parseQuality(String text) {
+            double quality;
+            try {
+                quality = Double.parseDouble(text);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+            if (Double.isNaN(quality) || Double.isInfinite(quality)) {
+                return 0;
+            }
+            return Math.max(0, Math.min(1, quality));
+        }
+
+        /**
+         * 判断是否包含某个具体的类型
+         */
+        public boolean includes(MediaType mediaType) {
+            return mediaType.getType() != null &&
+                    ("*".equals(type) || type.equals(mediaType.getType())) &&
+                    ("*".equals(subtype) || subtype.equals(mediaType.getSubtype()));
+        }
+
+        public boolean isWildcard() {
+            return "*".equals(type) && "*".equals(subtype);
+        }
+
+        private int getSpecificity() {
+            return ("*".equals(type) ? 0 : 1) + ("*".equals(subtype) ? 0 : 1);
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getSubtype() {
+            return subtype;
+        }
+
+        public double getQuality() {
+            return quality;
+        }
+
+        @Override
+        public String toString() {
+            return type + "/" + subtype + (quality < 1.0 ? ";q=" + quality : "");
+        }
+    }
+}
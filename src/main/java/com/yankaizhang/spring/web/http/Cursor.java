@@ -0,0 +1,16 @@
+package com.yankaizhang.spring.web.http;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * 按需拉取数据的游标，controller方法可以直接返回，例如包装数据库的结果集<br/>
+ * 作为{@link com.yankaizhang.spring.webmvc.annotation.ResponseBody}返回时逐个元素写出，
+ * 写出完成、出错或者客户端断开连接之后都会被关闭
+ * @author dzzhyk
+ * @param <T> 元素类型
+ * @since 2026-10-18 18:12:27
+ */
+public interface Cursor<T> extends Iterator<T>, Closeable {
+
+}
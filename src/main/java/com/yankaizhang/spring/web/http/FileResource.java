@@ -0,0 +1,75 @@
+package com.yankaizhang.spring.web.http;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * controller方法可以直接返回的文件资源<br/>
+ * 与直接返回{@link File}或者{@link Path}相比，可以指定下载时的文件名和contentType
+ * @author dzzhyk
+ * @since 2026-10-18 13:58:40
+ */
+public class FileResource {
+
+    /** 文件路径 */
+    private final Path path;
+
+    /** 下载时的文件名，不为null时以附件形式返回 */
+    private String filename;
+
+    /** contentType，为null时根据文件名判断 */
+    private String contentType;
+
+    public FileResource(Path path) {
+        this.path = path;
+    }
+
+    public FileResource(File file) {
+        this(file.toPath());
+    }
+
+    /**
+     * 以附件形式下载文件
+     * @param path 文件路径
+     * @param filename 下载时的文件名
+     */
+    public FileResource(Path path, String filename) {
+        this.path = path;
+        this.filename = filename;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * 是否以附件形式下载
+     */
+    public boolean isAttachment() {
+        return filename != null;
+    }
+
+    @Override
+    public String toString() {
+        return "FileResource{" +
+                "path=" + path +
+                ", filename='" + filename + '\'' +
+                '}';
+    }
+}
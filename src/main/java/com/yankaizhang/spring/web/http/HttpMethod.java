@@ -11,7 +11,7 @@ import java.util.Map;
 @SuppressWarnings("all")
 public enum HttpMethod {
 
-    GET, POST, DELETE, PUT, OPTIONS, PATCH, TRACE;
+    GET, HEAD, POST, DELETE, PUT, OPTIONS, PATCH, TRACE;
 
     private static final Map<String, HttpMethod> mappings;
 
@@ -0,0 +1,133 @@
+package com.yankaizhang.spring.web.http;
+
+import com.yankaizhang.spring.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Range请求头中的一个字节范围，支持以下三种写法
+ * <ul>
+ * <li>bytes=0-499 从第一个位置到第二个位置
+ * <li>bytes=500- 从某个位置到结尾
+ * <li>bytes=-500 最后500个字节
+ * </ul>
+ * @author dzzhyk
+ * @since 2026-10-18 13:58:40
+ */
+public class HttpRange {
+
+    private static final String BYTE_RANGE_PREFIX = "bytes=";
+
+    /** 第一个位置，-1表示后缀范围 */
+    private final long firstPos;
+
+    /** 第二个位置，-1表示到结尾；后缀范围时表示长度 */
+    private final long lastPos;
+
+    private HttpRange(long firstPos, long lastPos) {
+        this.firstPos = firstPos;
+        this.lastPos = lastPos;
+    }
+
+    /**
+     * 解析Range请求头
+     * @param header Range请求头
+     * @return 范围列表，请求头为空时返回空列表
+     * @throws IllegalArgumentException 请求头格式错误
+     */
+    public static List<HttpRange> parseRanges(String header) {
+        if (StringUtils.isEmpty(header)) {
+            return Collections.emptyList();
+        }
+        if (!header.startsWith(BYTE_RANGE_PREFIX)) {
+            throw new IllegalArgumentException("Range请求头格式错误 => " + header);
+        }
+        List<HttpRange> ranges = new ArrayList<>(1);
+        for (String range : header.substring(BYTE_RANGE_PREFIX.length()).split(",")) {
+            range = range.trim();
+            if (range.isEmpty()) {
+                // 列表中的空元素直接忽略
+                continue;
+            }
+            int dash = range.indexOf('-');
+            if (dash < 0) {
+                throw new IllegalArgumentException("Range请求头格式错误 => " + header);
+            }
+            if (dash == 0) {
+                ranges.add(new HttpRange(-1, parsePosition(range.substring(1), header)));
+            } else if (dash == range.length() - 1) {
+                ranges.add(new HttpRange(parsePosition(range.substring(0, dash), header), -1));
+            } else {
+                long firstPos = parsePosition(range.substring(0, dash), header);
+                long lastPos = parsePosition(range.substring(dash + 1), header);
+                if (firstPos > lastPos) {
+                    throw new IllegalArgumentException("Range请求头格式错误 => " + header);
+                }
+                ranges.add(new HttpRange(firstPos, lastPos));
+            }
+        }
+        if (ranges.isEmpty()) {
+            throw new IllegalArgumentException("Range请求头格式错误 => " + header);
+        }
+        return ranges;
+    }
+
+    /**
+     * 解析位置，只允许数字，不接受正负号
+     */
+    private static long parsePosition(String value, String header) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Range请求头格式错误 => " + header);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Range请求头格式错误 => " + header);
+            }
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Range请求头格式错误 => " + header, e);
+        }
+    }
+
+    /**
+     * 判断该范围对于某个长度的资源是否可以满足
+     */
+    public boolean isSatisfiable(long length) {
+        if (firstPos < 0) {
+            return lastPos > 0 && length > 0;
+        }
+        return firstPos < length;
+    }
+
+    /**
+     * 获取开始位置
+     * @param length 资源长度
+     */
+    public long getRangeStart(long length) {
+        if (firstPos < 0) {
+            return Math.max(0, length - lastPos);
+        }
+        return firstPos;
+    }
+
+    /**
+     * 获取结束位置，包含该位置
+     * @param length 资源长度
+     */
+    public long getRangeEnd(long length) {
+        if (firstPos < 0 || lastPos < 0) {
+            return length - 1;
+        }
+        return Math.min(lastPos, length - 1);
+    }
+
+    @Override
+    public String toString() {
+        return (firstPos < 0 ? "" : String.valueOf(firstPos)) + "-" + (lastPos < 0 ? "" : String.valueOf(lastPos));
+    }
+}
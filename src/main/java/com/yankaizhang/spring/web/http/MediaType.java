@@ -2,6 +2,10 @@ package com.yankaizhang.spring.web.http;
 
 import com.yankaizhang.spring.util.StringUtils;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * 一些contentType枚举
  * @author dzzhyk
@@ -16,6 +20,7 @@ public enum MediaType {
     TEXT_HTML("text/html"),
     TEXT_MARKDOWN("text/markdown"),
     TEXT_PLAIN("text/plain"),
+    TEXT_PLAIN_UTF8("text/plain;charset=UTF-8"),
     TEXT_XML("text/xml"),
     TEXT_CSS("text/css"),
     TEXT_JAVASCRIPT("text/javascript"),
@@ -29,13 +34,47 @@ public enum MediaType {
     JSON("json"),
     APPLICATION_JSON("application/json"),
     APPLICATION_JSON_UTF8("application/json;charset=UTF-8"),
+    /** jackson smile二进制json */
+    APPLICATION_SMILE("application/x-jackson-smile"),
+    /** ndjson，每行一个json对象 */
+    APPLICATION_NDJSON("application/x-ndjson"),
+    /** 二进制数据 */
+    APPLICATION_OCTET_STREAM("application/octet-stream"),
     /** 表单 */
     APPLICATION_FORM_URLENCODED("application/x-www-form-urlencoded");
 
     private final String contentType;
 
+    /** 主类型，不是合法的contentType时为null */
+    private final String type;
+
+    /** 子类型，不是合法的contentType时为null */
+    private final String subtype;
+
+    /** contentType字符串到枚举对象的映射 */
+    private static final Map<String, MediaType> MAPPINGS;
+
+    /** 不带参数的 type/subtype 到枚举对象的映射，同一类型取第一个声明的 */
+    private static final Map<String, MediaType> BASE_MAPPINGS;
+
+    static {
+        MAPPINGS = new HashMap<>(32);
+        BASE_MAPPINGS = new HashMap<>(32);
+        for (MediaType value : values()) {
+            MAPPINGS.put(value.getContentType(), value);
+            if (value.type != null) {
+                BASE_MAPPINGS.putIfAbsent(value.type + "/" + value.subtype, value);
+            }
+        }
+    }
+
     MediaType(String s) {
         this.contentType = s;
+        int semicolon = s.indexOf(';');
+        String base = (semicolon < 0 ? s : s.substring(0, semicolon)).toLowerCase(Locale.ROOT);
+        int slash = base.indexOf('/');
+        this.type = (slash > 0 ? base.substring(0, slash) : null);
+        this.subtype = (slash > 0 ? base.substring(slash + 1) : null);
     }
 
     /**
@@ -45,13 +84,28 @@ public enum MediaType {
         if (StringUtils.isEmpty(contentType)){
             return null;
         }
-        MediaType[] values = MediaType.values();
-        for (MediaType value : values) {
-            if (value.getContentType().equals(contentType)){
-                return value;
-            }
+        return MAPPINGS.get(contentType);
+    }
+
+    /**
+     * 根据contentType字符串获取MediaType对象，先精确匹配，再忽略大小写、空白和参数匹配
+     */
+    public static MediaType parse(String contentType){
+        MediaType mediaType = getMediaType(contentType);
+        if (mediaType != null || StringUtils.isEmpty(contentType)){
+            return mediaType;
         }
-        return null;
+        int semicolon = contentType.indexOf(';');
+        String base = (semicolon < 0 ? contentType : contentType.substring(0, semicolon));
+        return BASE_MAPPINGS.get(base.trim().toLowerCase(Locale.ROOT));
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getSubtype() {
+        return subtype;
     }
 
     public String getContentType() {
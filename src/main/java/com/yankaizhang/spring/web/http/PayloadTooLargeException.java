@@ -0,0 +1,24 @@
+package com.yankaizhang.spring.web.http;
+
+import java.io.IOException;
+
+/**
+ * 请求体超出允许的大小，DispatcherServlet返回413
+ * @author dzzhyk
+ * @since 2026-10-18 20:09:14
+ */
+public class PayloadTooLargeException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long maxSize;
+
+    public PayloadTooLargeException(long maxSize) {
+        super("请求体超出限制 : " + maxSize + " 字节");
+        this.maxSize = maxSize;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+}
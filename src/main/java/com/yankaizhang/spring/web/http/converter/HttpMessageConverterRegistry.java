@@ -0,0 +1,326 @@
+package com.yankaizhang.spring.web.http.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.yankaizhang.spring.web.http.AcceptHeader;
+import com.yankaizhang.spring.web.http.HttpMessageConverter;
+import com.yankaizhang.spring.web.http.MediaType;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 容器共享的{@link HttpMessageConverter}注册表<br/>
+ * 持有唯一的{@link ObjectMapper}，并且缓存每个 (数据类型, contentType) 对应的转换器选择结果<br/>
+ * 用户注册的转换器优先于内置的转换器，内置json、smile和纯文本转换器<br/>
+ * 内容协商时按照Accept头的偏好选择转换器，选择结果按照 (数据类型, Accept头) 缓存
+ * @author dzzhyk
+ * @since 2026-10-18 11:48:03
+ */
+public class HttpMessageConverterRegistry {
+
+    /** 表示没有可用转换器的缓存占位对象 */
+    private static final HttpMessageConverter<?> NO_CONVERTER = new HttpMessageConverter<Object>() {
+
+        @Override
+        public boolean canRead(Class<?> clazz, MediaType mediaType) {
+            return false;
+        }
+
+        @Override
+        public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+            return false;
+        }
+
+        @Override
+        public List<MediaType> getSupportedMimeTypes() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Object read(Class<?> clazz, ServletRequest request) {
+            return null;
+        }
+
+        @Override
+        public void write(Object value, MediaType contentType, ServletResponse response) {}
+    };
+
+    /** 共享的ObjectMapper */
+    private final ObjectMapper objectMapper;
+
+    /** 用户注册的转换器 */
+    private final List<HttpMessageConverter<?>> customConverters = new CopyOnWriteArrayList<>();
+
+    /** 内置的转换器 */
+    private final List<HttpMessageConverter<?>> defaultConverters = new CopyOnWriteArrayList<>();
+
+    /** 读取时的转换器选择缓存 */
+    private final Map<ConverterKey, HttpMessageConverter<?>> readConverterCache = new ConcurrentHashMap<>(64);
+
+    /** 写出时的转换器选择缓存 */
+    private final Map<ConverterKey, HttpMessageConverter<?>> writeConverterCache = new ConcurrentHashMap<>(64);
+
+    /** 内容协商缓存的数量上限，超过之后清空重新缓存 */
+    private static final int NEGOTIATION_CACHE_LIMIT = 1024;
+
+    /** 内容协商的结果缓存 */
+    private final Map<NegotiationKey, List<NegotiatedConverter>> negotiationCache = new ConcurrentHashMap<>(64);
+
+    public HttpMessageConverterRegistry() {
+        this(new ObjectMapper());
+    }
+
+    /**
+     * 使用已经配置好的ObjectMapper创建注册表，smile转换器沿用这个ObjectMapper的配置和注册的模块
+     * @param objectMapper 共享的ObjectMapper对象
+     */
+    public HttpMessageConverterRegistry(ObjectMapper objectMapper) {
+        this(objectMapper, new SmileConverter(objectMapper));
+    }
+
+    /**
+     * 分别使用已经配置好的ObjectMapper和SmileMapper创建注册表
+     * @param objectMapper 共享的ObjectMapper对象
+     * @param smileMapper smile格式使用的ObjectMapper
+     */
+    public HttpMessageConverterRegistry(ObjectMapper objectMapper, SmileMapper smileMapper) {
+        this(objectMapper, new SmileConverter(smileMapper));
+    }
+
+    private HttpMessageConverterRegistry(ObjectMapper objectMapper, SmileConverter smileConverter) {
+        this.objectMapper = objectMapper;
+        this.defaultConverters.add(new JsonConverter(objectMapper));
+        this.defaultConverters.add(smileConverter);
+        this.defaultConverters.add(new StringConverter());
+    }
+
+    /**
+     * 注册一个转换器，它会优先于内置的转换器被选择
+     * @param converter 转换器
+     */
+    public void addConverter(HttpMessageConverter<?> converter) {
+        if (converter != null && !customConverters.contains(converter)) {
+            customConverters.add(converter);
+            clearCache();
+        }
+    }
+
+    /**
+     * 获取能够读取该类型数据的转换器
+     * @param clazz 目标类型
+     * @param mediaType 请求的contentType
+     * @return 转换器，找不到返回null
+     */
+    public HttpMessageConverter<Object> getReadConverter(Class<?> clazz, MediaType mediaType) {
+        ConverterKey key = new ConverterKey(clazz, mediaType);
+        HttpMessageConverter<?> converter = readConverterCache.get(key);
+        if (converter == null) {
+            converter = NO_CONVERTER;
+            for (HttpMessageConverter<?> candidate : getConverters()) {
+                if (candidate.canRead(clazz, mediaType)) {
+                    converter = candidate;
+                    break;
+                }
+            }
+            readConverterCache.put(key, converter);
+        }
+        return (converter == NO_CONVERTER ? null : asObjectConverter(converter));
+    }
+
+    /**
+     * 获取能够写出该类型数据的转换器
+     * @param clazz 返回值类型
+     * @param mediaType 响应的contentType
+     * @return 转换器，找不到返回null
+     */
+    public HttpMessageConverter<Object> getWriteConverter(Class<?> clazz, MediaType mediaType) {
+        ConverterKey key = new ConverterKey(clazz, mediaType);
+        HttpMessageConverter<?> converter = writeConverterCache.get(key);
+        if (converter == null) {
+            converter = NO_CONVERTER;
+            for (HttpMessageConverter<?> candidate : getConverters()) {
+                if (candidate.canWrite(clazz, mediaType)) {
+                    converter = candidate;
+                    break;
+                }
+            }
+            writeConverterCache.put(key, converter);
+        }
+        return (converter == NO_CONVERTER ? null : asObjectConverter(converter));
+    }
+
+    /**
+     * 内容协商：按照客户端偏好列出能够写出该类型数据的转换器和对应的contentType<br/>
+     * 每个转换器只出现一次，使用偏好最高的contentType；q=0的媒体范围被忽略
+     * @param clazz 返回值类型
+     * @param accept 解析好的Accept头
+     * @return 按偏好排序的候选，没有可用转换器时为空列表
+     */
+    public List<NegotiatedConverter> getWriteConverters(Class<?> clazz, AcceptHeader accept) {
+        NegotiationKey key = new NegotiationKey(clazz, accept.getValue());
+        List<NegotiatedConverter> result = negotiationCache.get(key);
+        if (result == null) {
+            result = negotiate(clazz, accept);
+            if (negotiationCache.size() >= NEGOTIATION_CACHE_LIMIT) {
+                negotiationCache.clear();
+            }
+            negotiationCache.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * 转换器只会被用来读写它声明支持的类型，可以按照Object使用
+     */
+    @SuppressWarnings("unchecked")
+    private static HttpMessageConverter<Object> asObjectConverter(HttpMessageConverter<?> converter) {
+        return (HttpMessageConverter<Object>) converter;
+    }
+
+    private List<NegotiatedConverter> negotiate(Class<?> clazz, AcceptHeader accept) {
+        List<HttpMessageConverter<?>> converters = getConverters();
+        List<NegotiatedConverter> result = new ArrayList<>(converters.size());
+        for (AcceptHeader.MediaRange range : accept.getMediaRanges()) {
+            if (range.getQuality() <= 0) {
+                continue;
+            }
+            for (HttpMessageConverter<?> converter : converters) {
+                if (containsConverter(result, converter)) {
+                    continue;
+                }
+                for (MediaType mediaType : converter.getSupportedMimeTypes()) {
+                    // 被更具体的q=0范围排除的类型不能被通配范围选中
+                    if (range.includes(mediaType) && accept.getQuality(mediaType) > 0
+                            && converter.canWrite(clazz, mediaType)) {
+                        result.add(new NegotiatedConverter(asObjectConverter(converter), mediaType));
+                        break;
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static boolean containsConverter(List<NegotiatedConverter> candidates, HttpMessageConverter<?> converter) {
+        for (NegotiatedConverter candidate : candidates) {
+            if (candidate.converter == converter) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取所有转换器，用户注册的在前
+     */
+    public List<HttpMessageConverter<?>> getConverters() {
+        List<HttpMessageConverter<?>> converters =
+                new ArrayList<>(customConverters.size() + defaultConverters.size());
+        converters.addAll(customConverters);
+        converters.addAll(defaultConverters);
+        return converters;
+    }
+
+    /**
+     * 清空转换器选择缓存
+     */
+    public void clearCache() {
+        readConverterCache.clear();
+        writeConverterCache.clear();
+        negotiationCache.clear();
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+
+    /**
+     * 内容协商的结果：转换器和写出时使用的contentType
+     */
+    public static final class NegotiatedConverter {
+
+        private final HttpMessageConverter<Object> converter;
+
+        private final MediaType mediaType;
+
+        NegotiatedConverter(HttpMessageConverter<Object> converter, MediaType mediaType) {
+            this.converter = converter;
+            this.mediaType = mediaType;
+        }
+
+        public HttpMessageConverter<Object> getConverter() {
+            return converter;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+    }
+
+
+    /**
+     * 内容协商缓存的键：数据类型和Accept头字符串
+     */
+    private static final class NegotiationKey {
+
+        private final Class<?> clazz;
+
+        private final String accept;
+
+        NegotiationKey(Class<?> clazz, String accept) {
+            this.clazz = clazz;
+            this.accept = accept;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof NegotiationKey)) return false;
+            NegotiationKey that = (NegotiationKey) o;
+            return clazz == that.clazz && accept.equals(that.accept);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(clazz) + accept.hashCode();
+        }
+    }
+
+
+    /**
+     * 缓存的键：数据类型和contentType
+     */
+    private static final class ConverterKey {
+
+        private final Class<?> clazz;
+
+        private final MediaType mediaType;
+
+        ConverterKey(Class<?> clazz, MediaType mediaType) {
+            this.clazz = clazz;
+            this.mediaType = mediaType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ConverterKey)) return false;
+            ConverterKey that = (ConverterKey) o;
+            return clazz == that.clazz && mediaType == that.mediaType;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(clazz) + Objects.hashCode(mediaType);
+        }
+    }
+}
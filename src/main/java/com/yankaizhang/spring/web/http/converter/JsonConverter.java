@@ -1,30 +1,50 @@
 package com.yankaizhang.spring.web.http.converter;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.yankaizhang.spring.web.http.HttpMessageConverter;
 import com.yankaizhang.spring.web.http.MediaType;
 
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * 用于解析json输入和输出的转换器
+ * 用于解析json输入和输出的转换器<br/>
+ * 输出时直接以UTF-8写入response的OutputStream，不再生成中间字符串
  * @author dzzhyk
  * @since 2020-11-28 13:44:59
  */
 public class JsonConverter implements HttpMessageConverter<Object> {
 
-    protected ObjectMapper objectMapper = new ObjectMapper();
+    protected final ObjectMapper objectMapper;
 
-    /** 当前转换器支持的contentType列表 */
+    /** json转换器支持的contentType列表 */
     private static final List<MediaType> MEDIA_TYPES = new ArrayList<>();
 
     /** 默认的contentType */
     public static final MediaType DEFAULT_CONTENT_TYPE = MediaType.APPLICATION_JSON_UTF8;
 
+    /** 缓冲区的初始大小 */
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    /** 超过这个大小的缓冲区用完之后不再复用，避免长期占用内存 */
+    private static final int MAX_POOLED_BUFFER_SIZE = 256 * 1024;
+
+    /** 池中最多保留的空闲缓冲区数量 */
+    private static final int MAX_IDLE_BUFFERS = Runtime.getRuntime().availableProcessors() * 2;
+
     static {
         // 支持json格式的contentType
         MEDIA_TYPES.add(MediaType.JSON);
@@ -32,22 +52,66 @@ public class JsonConverter implements HttpMessageConverter<Object> {
         MEDIA_TYPES.add(MediaType.APPLICATION_JSON_UTF8);
     }
 
-    public JsonConverter() {}
+    /** 当前转换器支持的contentType列表 */
+    private final List<MediaType> supportedMediaTypes;
+
+    /** 每种目标类型对应的ObjectReader */
+    private final Map<Class<?>, ObjectReader> readerCache = new ConcurrentHashMap<>(64);
+
+    /** 每种返回值类型对应的ObjectWriter */
+    private final Map<Class<?>, ObjectWriter> writerCache = new ConcurrentHashMap<>(64);
+
+    /**
+     * 复用的输出缓冲区，只在需要设置Content-Length时使用<br/>
+     * 由转换器对象持有而不是放在ThreadLocal中，不会在容器的工作线程上遗留缓冲区和类加载器的引用
+     */
+    private final Queue<PooledByteArrayOutputStream> bufferPool = new ConcurrentLinkedQueue<>();
+
+    /** 池中空闲缓冲区的数量 */
+    private final AtomicInteger idleBuffers = new AtomicInteger();
+
+    /**
+     * 是否先在缓冲区中完成序列化，然后设置Content-Length再写出<br/>
+     * 默认为false，直接写入response的输出流，由容器使用chunked方式传输
+     */
+    private boolean contentLengthEnabled = false;
+
+    public JsonConverter() {
+        this(new ObjectMapper());
+    }
+
+    /**
+     * 使用已经配置好的ObjectMapper创建转换器
+     * @param objectMapper 共享的ObjectMapper对象
+     */
+    public JsonConverter(ObjectMapper objectMapper) {
+        this(objectMapper, MEDIA_TYPES);
+    }
+
+    /**
+     * 供其他jackson数据格式的转换器使用
+     * @param objectMapper 对应数据格式的ObjectMapper
+     * @param supportedMediaTypes 支持的contentType列表
+     */
+    protected JsonConverter(ObjectMapper objectMapper, List<MediaType> supportedMediaTypes) {
+        this.objectMapper = objectMapper;
+        this.supportedMediaTypes = supportedMediaTypes;
+    }
 
     @Override
     public boolean canRead(Class<?> clazz, MediaType mediaType) {
         JavaType javaType = objectMapper.getTypeFactory().constructType(clazz);
-        return objectMapper.canDeserialize(javaType) && MEDIA_TYPES.contains(mediaType);
+        return supportedMediaTypes.contains(mediaType) && objectMapper.canDeserialize(javaType);
     }
 
     @Override
     public boolean canWrite(Class<?> clazz, MediaType mediaType) {
-        return objectMapper.canSerialize(clazz) && MEDIA_TYPES.contains(mediaType);
+        return supportedMediaTypes.contains(mediaType) && objectMapper.canSerialize(clazz);
     }
 
     @Override
     public List<MediaType> getSupportedMimeTypes() {
-        return MEDIA_TYPES;
+        return supportedMediaTypes;
     }
 
     /**
@@ -59,11 +123,7 @@ public class JsonConverter implements HttpMessageConverter<Object> {
      */
     @Override
     public Object read(Class<?> clazz, ServletRequest request) throws Exception {
-
-        JavaType javaType = objectMapper.getTypeFactory().constructType(clazz);
-        Object result = objectMapper.readValue(request.getInputStream(), javaType);
-
-        return result;
+        return getReader(clazz).readValue(request.getInputStream());
     }
 
     /**
@@ -76,12 +136,110 @@ public class JsonConverter implements HttpMessageConverter<Object> {
     @Override
     public void write(Object value, MediaType mediaType, ServletResponse response) throws Exception {
 
-        String contentType = mediaType.name();
+        prepareResponse(mediaType, response);
+
+        ObjectWriter writer = getWriter(value == null ? Object.class : value.getClass());
+        OutputStream outputStream = response.getOutputStream();
+
+        if (!contentLengthEnabled) {
+            // 直接以UTF-8写入输出流
+            writer.writeValue(outputStream, value);
+            return;
+        }
+
+        PooledByteArrayOutputStream buffer = borrowBuffer();
+        try {
+            writer.writeValue(buffer, value);
+            response.setContentLength(buffer.size());
+            buffer.writeTo(outputStream);
+            outputStream.flush();
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    /**
+     * 获取一个缓冲区，池中没有时新建
+     */
+    private PooledByteArrayOutputStream borrowBuffer() {
+        PooledByteArrayOutputStream buffer = bufferPool.poll();
+        if (buffer != null) {
+            idleBuffers.decrementAndGet();
+            return buffer;
+        }
+        return new PooledByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+    }
+
+    /**
+     * 归还缓冲区，过大的缓冲区或者池已满时直接丢弃
+     */
+    private void releaseBuffer(PooledByteArrayOutputStream buffer) {
+        if (buffer.capacity() > MAX_POOLED_BUFFER_SIZE) {
+            return;
+        }
+        buffer.reset();
+        if (idleBuffers.incrementAndGet() <= MAX_IDLE_BUFFERS) {
+            bufferPool.offer(buffer);
+        } else {
+            idleBuffers.decrementAndGet();
+        }
+    }
+
+    /**
+     * 写出之前设置响应的contentType，json固定使用UTF-8
+     */
+    protected void prepareResponse(MediaType mediaType, ServletResponse response) {
         response.setCharacterEncoding("UTF-8");
-        response.setContentType(contentType);
+        response.setContentType(mediaType.getContentType());
+    }
+
+    /**
+     * 获取某种类型的ObjectReader
+     */
+    protected ObjectReader getReader(Class<?> clazz) {
+        ObjectReader reader = readerCache.get(clazz);
+        if (reader == null) {
+            reader = readerCache.computeIfAbsent(clazz, c -> objectMapper.readerFor(c));
+        }
+        return reader;
+    }
+
+    /**
+     * 获取某种类型的ObjectWriter，写出之后不关闭response的输出流
+     */
+    protected ObjectWriter getWriter(Class<?> clazz) {
+        ObjectWriter writer = writerCache.get(clazz);
+        if (writer == null) {
+            writer = writerCache.computeIfAbsent(clazz,
+                    c -> objectMapper.writerFor(c).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+        }
+        return writer;
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    public boolean isContentLengthEnabled() {
+        return contentLengthEnabled;
+    }
+
+    public void setContentLengthEnabled(boolean contentLengthEnabled) {
+        this.contentLengthEnabled = contentLengthEnabled;
+    }
+
+
+    /**
+     * 可以复用的字节输出缓冲区
+     */
+    private static class PooledByteArrayOutputStream extends ByteArrayOutputStream {
 
-        String result = objectMapper.writeValueAsString(value);
-        response.getWriter().write(result);
+        PooledByteArrayOutputStream(int size) {
+            super(size);
+        }
 
+        int capacity() {
+            return this.buf.length;
+        }
     }
 }
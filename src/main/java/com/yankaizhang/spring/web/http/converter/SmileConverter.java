@@ -0,0 +1,70 @@
+package com.yankaizhang.spring.web.http.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.yankaizhang.spring.web.http.MediaType;
+
+import javax.servlet.ServletResponse;
+import java.util.Collections;
+
+/**
+ * Smile二进制json格式的转换器，contentType为 application/x-jackson-smile<br/>
+ * 和json使用相同的数据模型，体积更小，序列化和反序列化更快，适合同样使用jackson的客户端
+ * @author dzzhyk
+ * @since 2026-10-18 17:55:36
+ */
+public class SmileConverter extends JsonConverter {
+
+    public SmileConverter() {
+        this(new SmileMapper());
+    }
+
+    /**
+     * 使用已经配置好的SmileMapper创建转换器
+     * @param smileMapper 使用SmileFactory的ObjectMapper
+     */
+    public SmileConverter(SmileMapper smileMapper) {
+        super(smileMapper, Collections.singletonList(MediaType.APPLICATION_SMILE));
+    }
+
+    /**
+     * 使用json的ObjectMapper的配置创建转换器，同一个对象在json和smile中的序列化结果保持一致
+     * @param objectMapper 共享的ObjectMapper对象
+     */
+    public SmileConverter(ObjectMapper objectMapper) {
+        this(new SharedConfigSmileMapper(objectMapper));
+    }
+
+
+    /**
+     * 共用另一个ObjectMapper配置的SmileMapper<br/>
+     * 序列化和反序列化的配置（命名策略、日期格式、mixin等）以及注册的模块提供的序列化器和反序列化器都来自原来的ObjectMapper，
+     * 只有底层的数据格式换成smile；序列化器的缓存各自独立
+     */
+    private static final class SharedConfigSmileMapper extends SmileMapper {
+
+        private static final long serialVersionUID = 1L;
+
+        SharedConfigSmileMapper(ObjectMapper source) {
+            super();
+            _typeFactory = source.getTypeFactory();
+            _injectableValues = source.getInjectableValues();
+            _subtypeResolver = source.getSubtypeResolver();
+            _serializationConfig = source.getSerializationConfig();
+            _deserializationConfig = source.getDeserializationConfig();
+            _serializerFactory = source.getSerializerFactory();
+            _serializerProvider = ((DefaultSerializerProvider) source.getSerializerProvider()).copy();
+            _deserializationContext = ((DefaultDeserializationContext) source.getDeserializationContext()).copy();
+        }
+    }
+
+    /**
+     * 二进制格式，不设置字符集
+     */
+    @Override
+    protected void prepareResponse(MediaType mediaType, ServletResponse response) {
+        response.setContentType(mediaType.getContentType());
+    }
+}
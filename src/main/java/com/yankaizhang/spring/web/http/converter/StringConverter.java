@@ -0,0 +1,93 @@
+package com.yankaizhang.spring.web.http.converter;
+
+import com.yankaizhang.spring.web.http.HttpMessageConverter;
+import com.yankaizhang.spring.web.http.MediaType;
+import com.yankaizhang.spring.web.http.PayloadTooLargeException;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 纯文本转换器，contentType为 text/plain<br/>
+ * 可以读取字符串，可以写出字符串、数字、布尔值和字符，写出时使用UTF-8并且设置Content-Length；
+ * 读取的请求体大小受maxBodySize限制，Content-Length只作为缓冲区初始大小的参考
+ * @author dzzhyk
+ * @since 2026-10-18 17:58:04
+ */
+public class StringConverter implements HttpMessageConverter<Object> {
+
+    private static final List<MediaType> MEDIA_TYPES =
+            Collections.unmodifiableList(Arrays.asList(MediaType.TEXT_PLAIN, MediaType.TEXT_PLAIN_UTF8));
+
+    /** 默认的请求体大小上限，1MB */
+    public static final long DEFAULT_MAX_BODY_SIZE = 1024 * 1024;
+
+    /** 按照Content-Length预先分配的缓冲区最多这么大，之后随读取的数据增长 */
+    private static final int MAX_INITIAL_BUFFER_SIZE = 8192;
+
+    private long maxBodySize = DEFAULT_MAX_BODY_SIZE;
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return (clazz == String.class || clazz == CharSequence.class) && MEDIA_TYPES.contains(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return MEDIA_TYPES.contains(mediaType) && (CharSequence.class.isAssignableFrom(clazz) ||
+                Number.class.isAssignableFrom(clazz) || clazz == Boolean.class || clazz == Character.class ||
+                (clazz.isPrimitive() && clazz != void.class));
+    }
+
+    @Override
+    public List<MediaType> getSupportedMimeTypes() {
+        return MEDIA_TYPES;
+    }
+
+    @Override
+    public Object read(Class<?> clazz, ServletRequest request) throws Exception {
+        String encoding = request.getCharacterEncoding();
+        Charset charset = (encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding));
+        long contentLength = request.getContentLengthLong();
+        if (contentLength > maxBodySize) {
+            throw new PayloadTooLargeException(maxBodySize);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(
+                (int) Math.min(Math.max(contentLength, 256), MAX_INITIAL_BUFFER_SIZE));
+        byte[] buffer = new byte[4096];
+        try (InputStream in = request.getInputStream()) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                if (out.size() + (long) n > maxBodySize) {
+                    throw new PayloadTooLargeException(maxBodySize);
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+        return new String(out.toByteArray(), charset);
+    }
+
+    @Override
+    public void write(Object value, MediaType contentType, ServletResponse response) throws Exception {
+        byte[] bytes = (value == null ? new byte[0] : value.toString().getBytes(StandardCharsets.UTF_8));
+        response.setCharacterEncoding("UTF-8");
+        response.setContentType(MediaType.TEXT_PLAIN.getContentType());
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    public long getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(long maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+}
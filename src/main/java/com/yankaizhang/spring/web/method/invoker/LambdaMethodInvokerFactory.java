@@ -0,0 +1,135 @@
+package com.yankaizhang.spring.web.method.invoker;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * 使用{@link LambdaMetafactory}在初始化阶段为方法生成函数式接口实现的调用策略，这是默认策略<br/>
+ * 生成的调用等同于直接调用，没有反射和参数数组展开的开销<br/>
+ * 只支持public类的public实例方法、参数不超过{@value #MAX_ARITY}个并且有返回值的情况，其他情况退回到后备策略
+ * @author dzzhyk
+ * @since 2026-10-18 11:02:15
+ */
+public class LambdaMethodInvokerFactory implements MethodInvokerFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(LambdaMethodInvokerFactory.class);
+
+    /** 支持的最大参数个数 */
+    public static final int MAX_ARITY = 4;
+
+    /** 各个参数个数对应的函数式接口 */
+    private static final Class<?>[] FUNCTION_TYPES = {
+            Function0.class, Function1.class, Function2.class, Function3.class, Function4.class
+    };
+
+    private final MethodInvokerFactory fallback;
+
+    public LambdaMethodInvokerFactory() {
+        this(new MethodHandleMethodInvokerFactory());
+    }
+
+    public LambdaMethodInvokerFactory(MethodInvokerFactory fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public MethodInvoker createInvoker(Method method) {
+        if (!isSupported(method)) {
+            return fallback.createInvoker(method);
+        }
+        try {
+            return new LambdaInvoker(method, createFunction(method));
+        } catch (Throwable e) {
+            log.debug("无法为方法生成函数式调用器，使用后备策略 => {}", method, e);
+            return fallback.createInvoker(method);
+        }
+    }
+
+    /**
+     * 判断该方法能否生成函数式调用器
+     */
+    private boolean isSupported(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (method.getParameterCount() > MAX_ARITY || method.getReturnType() == void.class ||
+                Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers()) ||
+                !Modifier.isPublic(declaringClass.getModifiers())) {
+            return false;
+        }
+        // 生成的类由本类的类加载器定义，目标类必须对它可见
+        try {
+            return Class.forName(declaringClass.getName(), false,
+                    LambdaMethodInvokerFactory.class.getClassLoader()) == declaringClass;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private Object createFunction(Method method) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle implMethod = lookup.unreflect(method);
+        int arity = method.getParameterCount();
+        Class<?> functionType = FUNCTION_TYPES[arity];
+        CallSite callSite = LambdaMetafactory.metafactory(lookup, "invoke",
+                MethodType.methodType(functionType),
+                MethodType.genericMethodType(arity + 1),
+                implMethod,
+                implMethod.type().wrap());
+        return callSite.getTarget().invoke();
+    }
+
+
+    private static class LambdaInvoker implements MethodInvoker {
+
+        private final Method method;
+
+        private final int arity;
+
+        private final Object function;
+
+        LambdaInvoker(Method method, Object function) {
+            this.method = method;
+            this.arity = method.getParameterCount();
+            this.function = function;
+        }
+
+        @Override
+        public Object invoke(Object target, Object[] args) throws Throwable {
+            switch (arity) {
+                case 0:
+                    return ((Function0) function).invoke(target);
+                case 1:
+                    return ((Function1) function).invoke(target, args[0]);
+                case 2:
+                    return ((Function2) function).invoke(target, args[0], args[1]);
+                case 3:
+                    return ((Function3) function).invoke(target, args[0], args[1], args[2]);
+                case 4:
+                    return ((Function4) function).invoke(target, args[0], args[1], args[2], args[3]);
+                default:
+                    throw new IllegalStateException("不支持的参数个数 => " + arity);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "LambdaInvoker{" + method + '}';
+        }
+    }
+
+    /*
+      生成的函数式接口，第一个参数为目标对象
+     */
+    interface Function0 { Object invoke(Object target); }
+    interface Function1 { Object invoke(Object target, Object a0); }
+    interface Function2 { Object invoke(Object target, Object a0, Object a1); }
+    interface Function3 { Object invoke(Object target, Object a0, Object a1, Object a2); }
+    interface Function4 { Object invoke(Object target, Object a0, Object a1, Object a2, Object a3); }
+}
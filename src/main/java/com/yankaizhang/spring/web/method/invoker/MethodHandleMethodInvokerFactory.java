@@ -0,0 +1,81 @@
+package com.yankaizhang.spring.web.method.invoker;
+
+import com.yankaizhang.spring.util.ReflectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * 使用{@link MethodHandle}调用的策略<br/>
+ * 初始化时把方法适配为统一的{@code (Object, Object[])Object}形式，调用时不再做反射访问检查<br/>
+ * 无法创建时退回到后备策略
+ * @author dzzhyk
+ * @since 2026-10-18 11:02:15
+ */
+public class MethodHandleMethodInvokerFactory implements MethodInvokerFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandleMethodInvokerFactory.class);
+
+    private final MethodInvokerFactory fallback;
+
+    public MethodHandleMethodInvokerFactory() {
+        this(new ReflectiveMethodInvokerFactory());
+    }
+
+    public MethodHandleMethodInvokerFactory(MethodInvokerFactory fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public MethodInvoker createInvoker(Method method) {
+        try {
+            return new MethodHandleInvoker(method, createHandle(method));
+        } catch (Exception e) {
+            log.debug("无法为方法创建MethodHandle，使用后备策略 => {}", method, e);
+            return fallback.createInvoker(method);
+        }
+    }
+
+    /**
+     * 创建形如{@code (Object target, Object[] args)Object}的方法句柄
+     */
+    static MethodHandle createHandle(Method method) throws IllegalAccessException {
+        ReflectionUtils.makeAccessible(method);
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        int parameterCount = method.getParameterCount();
+        if (Modifier.isStatic(method.getModifiers())) {
+            // 静态方法也接收一个被忽略的target参数
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(MethodType.genericMethodType(parameterCount + 1))
+                .asSpreader(Object[].class, parameterCount);
+    }
+
+
+    private static class MethodHandleInvoker implements MethodInvoker {
+
+        private final Method method;
+
+        private final MethodHandle handle;
+
+        MethodHandleInvoker(Method method, MethodHandle handle) {
+            this.method = method;
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object target, Object[] args) throws Throwable {
+            return (Object) handle.invokeExact(target, args);
+        }
+
+        @Override
+        public String toString() {
+            return "MethodHandleInvoker{" + method + '}';
+        }
+    }
+}
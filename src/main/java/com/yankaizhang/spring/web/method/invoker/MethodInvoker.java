@@ -0,0 +1,19 @@
+package com.yankaizhang.spring.web.method.invoker;
+
+/**
+ * handler方法调用器，由{@link MethodInvokerFactory}在初始化阶段为每个方法生成
+ * @author dzzhyk
+ * @since 2026-10-18 11:02:15
+ */
+public interface MethodInvoker {
+
+    /**
+     * 调用方法
+     * @param target 目标对象，静态方法会忽略该参数
+     * @param args 已经解析好的方法参数
+     * @return 方法返回值，void方法返回null
+     * @throws Throwable 目标方法抛出的原始异常
+     */
+    Object invoke(Object target, Object[] args) throws Throwable;
+
+}
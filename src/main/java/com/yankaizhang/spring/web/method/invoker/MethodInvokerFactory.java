@@ -0,0 +1,20 @@
+package com.yankaizhang.spring.web.method.invoker;
+
+import java.lang.reflect.Method;
+
+/**
+ * handler方法调用策略接口<br/>
+ * 可以在容器中注册名为{@code handlerMethodInvokerFactory}的bean来替换默认策略
+ * @author dzzhyk
+ * @since 2026-10-18 11:02:15
+ */
+public interface MethodInvokerFactory {
+
+    /**
+     * 为某个方法创建调用器
+     * @param method 需要调用的方法
+     * @return 调用器，不能为null
+     */
+    MethodInvoker createInvoker(Method method);
+
+}
@@ -0,0 +1,47 @@
+package com.yankaizhang.spring.web.method.invoker;
+
+import com.yankaizhang.spring.util.ReflectionUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * 使用{@link Method#invoke}调用的策略，也是其他策略最终的后备实现
+ * @author dzzhyk
+ * @since 2026-10-18 11:02:15
+ */
+public class ReflectiveMethodInvokerFactory implements MethodInvokerFactory {
+
+    @Override
+    public MethodInvoker createInvoker(Method method) {
+        ReflectionUtils.makeAccessible(method);
+        return new ReflectiveMethodInvoker(method);
+    }
+
+
+    private static class ReflectiveMethodInvoker implements MethodInvoker {
+
+        private final Method method;
+
+        ReflectiveMethodInvoker(Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public Object invoke(Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                // 抛出目标方法自己的异常
+                throw e.getTargetException();
+            } catch (IllegalAccessException e) {
+                throw new Exception("invoke方法出错，非法访问 => " + method.getName(), e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "ReflectiveMethodInvoker{" + method + '}';
+        }
+    }
+}
@@ -75,9 +75,23 @@ public class ArgumentResolverComposite implements ArgumentResolver {
         return resolver.resolveArgument(parameter, webRequest);
     }
 
+    /**
+     * 获取能够处理该方法参数的resolver，结果会被缓存
+     * @param parameter 方法参数
+     * @return 对应的resolver，找不到返回null
+     */
+    public ArgumentResolver getArgumentResolver(MethodParameter parameter) {
+        return selectResolver(parameter);
+    }
+
     private ArgumentResolver selectResolver(MethodParameter parameter) {
+        ArgumentResolver result = this.argumentResolverCache.get(parameter);
+        if (result != null){
+            return result;
+        }
         for (ArgumentResolver resolver : argumentResolvers) {
             if (resolver.supportsParameter(parameter)){
+                this.argumentResolverCache.put(parameter, resolver);
                 return resolver;
             }
         }
@@ -0,0 +1,119 @@
+package com.yankaizhang.spring.web.method.support;
+
+import com.yankaizhang.spring.webmvc.annotation.ExceptionHandler;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 查找一个类中处理指定异常类型的{@link ExceptionHandler}方法<br/>
+ * 多个方法都能处理时选择声明的异常类型与实际异常继承距离最近的方法，查找结果按异常类型缓存
+ * @author dzzhyk
+ * @since 2026-10-18 18:34:05
+ */
+public class ExceptionHandlerMethodResolver {
+
+    /** 缓存中表示没有对应方法的标记 */
+    private static final Method NO_MATCHING_METHOD;
+
+    static {
+        try {
+            NO_MATCHING_METHOD = ExceptionHandlerMethodResolver.class.getDeclaredMethod("noMatchingExceptionHandler");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** 声明的异常类型 => 处理方法 */
+    private final Map<Class<? extends Throwable>, Method> mappedMethods = new HashMap<>(16);
+
+    /** 实际异常类型 => 处理方法 */
+    private final Map<Class<? extends Throwable>, Method> exceptionLookupCache = new ConcurrentHashMap<>(16);
+
+    public ExceptionHandlerMethodResolver(Class<?> handlerType) {
+        for (Class<?> clazz = handlerType; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                ExceptionHandler exceptionHandler = method.getAnnotation(ExceptionHandler.class);
+                if (exceptionHandler == null) {
+                    continue;
+                }
+                for (Class<? extends Throwable> exceptionType : detectExceptionMappings(method, exceptionHandler)) {
+                    Method previous = mappedMethods.get(exceptionType);
+                    if (previous == null) {
+                        mappedMethods.put(exceptionType, method);
+                    } else if (previous.getDeclaringClass() == method.getDeclaringClass()) {
+                        throw new IllegalStateException("异常类型 " + exceptionType.getName() +
+                                " 存在多个@ExceptionHandler方法 => " + previous + " , " + method);
+                    }
+                    // 子类中的方法优先于父类中的方法
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取方法处理的异常类型，注解中没有声明时使用方法参数中的异常类型
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Class<? extends Throwable>> detectExceptionMappings(Method method,
+                                                                            ExceptionHandler exceptionHandler) {
+        List<Class<? extends Throwable>> result = new ArrayList<>();
+        Collections.addAll(result, exceptionHandler.value());
+        if (result.isEmpty()) {
+            for (Class<?> parameterType : method.getParameterTypes()) {
+                if (Throwable.class.isAssignableFrom(parameterType)) {
+                    result.add((Class<? extends Throwable>) parameterType);
+                }
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalStateException("@ExceptionHandler方法没有声明处理的异常类型 => " + method);
+        }
+        return result;
+    }
+
+    public boolean hasExceptionMappings() {
+        return !mappedMethods.isEmpty();
+    }
+
+    /**
+     * 查找处理该异常的方法
+     * @param exception 异常对象
+     * @return 处理方法，没有时返回null
+     */
+    public Method resolveMethod(Throwable exception) {
+        return resolveMethodByExceptionType(exception.getClass());
+    }
+
+    /**
+     * 查找处理该异常类型的方法
+     * @param exceptionType 异常类型
+     * @return 处理方法，没有时返回null
+     */
+    public Method resolveMethodByExceptionType(Class<? extends Throwable> exceptionType) {
+        Method method = exceptionLookupCache.get(exceptionType);
+        if (method == null) {
+            method = getMappedMethod(exceptionType);
+            exceptionLookupCache.put(exceptionType, method);
+        }
+        return (method != NO_MATCHING_METHOD ? method : null);
+    }
+
+    /**
+     * 沿着异常的继承关系向上查找，第一个声明过的类型就是距离最近的
+     */
+    private Method getMappedMethod(Class<? extends Throwable> exceptionType) {
+        for (Class<?> clazz = exceptionType; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            Method method = mappedMethods.get(clazz);
+            if (method != null) {
+                return method;
+            }
+        }
+        return NO_MATCHING_METHOD;
+    }
+
+    @SuppressWarnings("unused")
+    private void noMatchingExceptionHandler() {
+    }
+}
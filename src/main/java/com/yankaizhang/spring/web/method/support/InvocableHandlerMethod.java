@@ -2,25 +2,27 @@ package com.yankaizhang.spring.web.method.support;
 
 import com.yankaizhang.spring.core.MethodParameter;
 import com.yankaizhang.spring.util.ObjectUtils;
-import com.yankaizhang.spring.util.ReflectionUtils;
 import com.yankaizhang.spring.web.method.HandlerMethod;
 import com.yankaizhang.spring.web.method.ArgumentResolver;
+import com.yankaizhang.spring.web.method.ReturnValueResolver;
+import com.yankaizhang.spring.web.method.invoker.MethodInvoker;
+import com.yankaizhang.spring.web.method.invoker.MethodInvokerFactory;
 import com.yankaizhang.spring.web.model.ModelAndViewBuilder;
 import com.yankaizhang.spring.web.request.WebRequest;
 import com.yankaizhang.spring.webmvc.annotation.RequestBody;
+import com.yankaizhang.spring.webmvc.metrics.DispatchStage;
+import com.yankaizhang.spring.webmvc.metrics.StageTimer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Arrays;
 
 
 /**
  * {@link HandlerMethod} 的一个扩展类<br/>
- * 这个类在invoke真正的方法之前，根据需要被处理的参数<br/>
- * 在已知的{@link ArgumentResolver}对象集合中寻找到一个可以处理的，然后处理该参数<br/>
- * 处理完成之后再invoke该方法
+ * 这个类在创建时就为每个方法参数在已知的{@link ArgumentResolver}对象集合中选好解析器，<br/>
+ * 同时选好返回值解析器，作为该handler不可变的调用计划<br/>
+ * 每次请求只需要按照计划处理参数，然后invoke该方法
  * @author dzzhyk
  * @since 2020-11-28 13:44:43
  */
@@ -32,76 +34,145 @@ public class InvocableHandlerMethod extends HandlerMethod {
     private static final Object[] EMPTY_ARGS = new Object[0];
 
     /** 传入参数处理器对象集合类 */
-    private ArgumentResolverComposite argumentResolvers;
+    private final ArgumentResolverComposite argumentResolvers;
 
     /** 返回值处理器对象集合类 */
-    private ReturnValueResolverComposite returnValueResolvers;
+    private final ReturnValueResolverComposite returnValueResolvers;
 
-    /** 该handlerMethod方法是否合法 */
-    private boolean valid = true;
+    /** 每个方法参数对应的解析器，下标与方法参数一致 */
+    private final ArgumentResolver[] parameterResolvers;
 
-    public InvocableHandlerMethod(Object bean, Method method) {
-        super(bean, method);
-    }
+    /** 返回类型 */
+    private final MethodParameter returnType;
 
-    public InvocableHandlerMethod(Object bean, String methodName, Class<?>... parameterTypes) throws NoSuchMethodException {
-        super(bean, methodName, parameterTypes);
-    }
+    /** 返回值对应的解析器，可能为null */
+    private final ReturnValueResolver returnValueResolver;
+
+    /** 方法调用器 */
+    private final MethodInvoker invoker;
+
+    /** 该handlerMethod方法是否合法 */
+    private boolean valid = true;
 
     /**
-     * 从一个{@link HandlerMethod}对象创建该对象
+     * 从一个{@link HandlerMethod}对象创建该对象，同时生成调用计划
+     * @param method handler方法
+     * @param argumentResolvers 传入参数处理器集合
+     * @param returnValueResolvers 返回值处理器集合
+     * @param invokerFactory 方法调用策略
      */
-    public InvocableHandlerMethod(HandlerMethod method) {
+    public InvocableHandlerMethod(HandlerMethod method, ArgumentResolverComposite argumentResolvers,
+                                  ReturnValueResolverComposite returnValueResolvers,
+                                  MethodInvokerFactory invokerFactory) {
         super(method);
         validate();
+        this.argumentResolvers = argumentResolvers;
+        this.returnValueResolvers = returnValueResolvers;
+        this.parameterResolvers = initParameterResolvers();
+        this.returnType = new MethodParameter.ReturnValueMethodParameter(this, null);
+        this.returnValueResolver = returnValueResolvers.getReturnValueResolver(this.returnType);
+        this.invoker = invokerFactory.createInvoker(getMethod());
     }
 
-    public ArgumentResolverComposite getArgumentResolvers() {
-        return argumentResolvers;
+    /**
+     * 为每个方法参数选择解析器
+     * @throws IllegalStateException 某个参数没有能够处理它的解析器
+     */
+    private ArgumentResolver[] initParameterResolvers() {
+        MethodParameter[] methodParameters = getMethodParameters();
+        ArgumentResolver[] resolvers = new ArgumentResolver[methodParameters.length];
+        for (int i = 0; i < methodParameters.length; i++) {
+            MethodParameter parameter = methodParameters[i];
+            resolvers[i] = this.argumentResolvers.getArgumentResolver(parameter);
+            if (resolvers[i] == null){
+                throw new IllegalStateException("找不到对应的ArgumentResolver => 方法 " + parameter.getMethod()
+                        + "，参数位置 " + parameter.getParameterIndex() + "，参数名 " + parameter.getParameterName()
+                        + "，参数类型 " + parameter.getParameterType().getName()
+                        + "，或许你需要自定义解析该种类型的ArgumentResolver ?");
+            }
+        }
+        return resolvers;
     }
 
-    public void setArgumentResolvers(ArgumentResolverComposite argumentResolvers) {
-        this.argumentResolvers = argumentResolvers;
+    public ArgumentResolverComposite getArgumentResolvers() {
+        return argumentResolvers;
     }
 
     public ReturnValueResolverComposite getReturnValueResolvers() {
         return returnValueResolvers;
     }
 
-    public void setReturnValueResolvers(ReturnValueResolverComposite returnValueResolvers) {
-        this.returnValueResolvers = returnValueResolvers;
+    public MethodParameter getReturnType() {
+        return returnType;
+    }
+
+    public MethodInvoker getInvoker() {
+        return invoker;
     }
 
     /**
      * 执行方法
      */
     public void invokeAndHandle(WebRequest webRequest, ModelAndViewBuilder mav) throws Exception {
+        invokeAndHandle(webRequest, mav, null);
+    }
+
+    /**
+     * 执行方法，同时记录参数解析、方法执行和返回值处理的耗时
+     * @param timer 耗时记录，为null时不记录
+     */
+    public void invokeAndHandle(WebRequest webRequest, ModelAndViewBuilder mav, StageTimer timer) throws Exception {
 
         // 调用传参解析器解析传入参数，然后执行这个方法，拿到原始返回值
-        Object returnValue = invokeForRequest(webRequest);
+        Object[] args = getMethodArgumentValues(webRequest);
+        if (log.isDebugEnabled()){
+            log.debug("参数 : " + Arrays.toString(args));
+        }
+        if (timer != null){
+            timer.mark(DispatchStage.ARGUMENTS);
+        }
+        Object returnValue = doInvoke(args);
+        if (timer != null){
+            timer.mark(DispatchStage.INVOCATION);
+        }
 
         // 如果没有返回值
         if (null == returnValue){
             return;
         }
 
+        if (this.returnValueResolver == null){
+            throw new Exception("找不到对应的ReturnValueResolver => " + this.returnType);
+        }
+
         // 调用返回值处理器来包装处理得到最终的返回值对象到一个ModelAndView
-        this.returnValueResolvers.resolveReturnValue(returnValue,
-                new MethodParameter.ReturnValueMethodParameter(this, returnValue), mav, webRequest);
+        this.returnValueResolver.resolveReturnValue(returnValue, this.returnType, mav, webRequest);
+        if (timer != null){
+            timer.mark(DispatchStage.RENDERING);
+        }
     }
 
     /**
-     * 解析请求参数，并且使用这些参数执行目标方法
+     * 处理异步返回值到达之后的结果，按照结果的实际类型选择返回值解析器
+     * @param value 异步处理的结果
+     * @param webRequest 请求包装类
+     * @param mav ModelAndViewBuilder对象
      */
-    private Object invokeForRequest(WebRequest request) throws Exception {
-        Object[] args = getMethodArgumentValues(request);
-        log.debug("参数 : " + Arrays.toString(args));
-        return doInvoke(args);
+    public void handleAsyncResult(Object value, WebRequest webRequest, ModelAndViewBuilder mav) throws Exception {
+        if (null == value){
+            return;
+        }
+        MethodParameter asyncReturnType =
+                new MethodParameter.ReturnValueMethodParameter(this, null, value.getClass());
+        ReturnValueResolver resolver = this.returnValueResolvers.getReturnValueResolver(asyncReturnType);
+        if (resolver == null){
+            throw new Exception("找不到对应的ReturnValueResolver => " + asyncReturnType);
+        }
+        resolver.resolveReturnValue(value, asyncReturnType, mav, webRequest);
     }
 
-
     /**
-     * 获取方法参数值，并且使用可能的{@link ArgumentResolver}实现类来处理参数
+     * 按照调用计划获取方法参数值
      */
     private Object[] getMethodArgumentValues(WebRequest webRequest) throws Exception {
         MethodParameter[] methodParameters = getMethodParameters();
@@ -109,20 +180,9 @@ public class InvocableHandlerMethod extends HandlerMethod {
             return EMPTY_ARGS;
         }
 
-        // 如果方法参数列表不为空，就开始处理参数了！
         Object[] args = new Object[methodParameters.length];
-
-        // 这里不要第一个返回值参数
         for (int i = 0; i < methodParameters.length; i++) {
-            MethodParameter parameter = methodParameters[i];
-
-            // 检查当前resolver集合是否有解析器内容
-            if (!this.argumentResolvers.supportsParameter(parameter)) {
-                throw new Exception("当前resolvers对于参数 => " + parameter.getParameterName() + " 缺少解析器");
-            }
-
-            // 如果找到了合适的解析器，就使用该解析器解析得到该参数对象
-            args[i] = this.argumentResolvers.resolveArgument(parameter, webRequest);
+            args[i] = this.parameterResolvers[i].resolveArgument(methodParameters[i], webRequest);
         }
 
         return args;
@@ -134,23 +194,14 @@ public class InvocableHandlerMethod extends HandlerMethod {
      * @return 调用方法产生的原始结果
      */
     private Object doInvoke(Object[] args) throws Exception {
-        Method method = getMethod();
-        ReflectionUtils.makeAccessible(method);
-        Object result;
         try {
-            result = method.invoke(getBean(), args);
-        } catch (IllegalAccessException e) {
-
-            log.error("invoke非法访问 => " + method.getName());
-            throw new Exception("invoke方法出错，非法访问 => " + method.getName());
-
-        } catch (InvocationTargetException e) {
-
-            log.error("invoke方法出错 => " + method.getName());
-            throw new Exception("invoke方法出错 => " + method.getName());
-
+            return this.invoker.invoke(getBean(), args);
+        } catch (Exception | Error e) {
+            // 目标方法的原始异常直接抛出，交给异常处理流程
+            throw e;
+        } catch (Throwable e) {
+            throw new Exception("invoke方法出错 => " + getMethod().getName(), e);
         }
-        return result;
     }
 
     public boolean isValid() {
@@ -9,6 +9,8 @@ import com.yankaizhang.spring.web.request.WebRequest;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * {@link ReturnValueResolver}对象的一个集合类
@@ -20,6 +22,10 @@ public class ReturnValueResolverComposite implements ReturnValueResolver {
     /** 返回值解析器列表 */
     private final List<ReturnValueResolver> returnValueResolvers = new ArrayList<>();
 
+    /** 已经处理过的cache */
+    private final Map<MethodParameter, ReturnValueResolver> returnValueResolverCache =
+            new ConcurrentHashMap<>(256);
+
     public ReturnValueResolverComposite addResolver(ReturnValueResolver resolver){
         this.returnValueResolvers.add(resolver);
         return this;
@@ -58,9 +64,22 @@ public class ReturnValueResolverComposite implements ReturnValueResolver {
      * 根据返回值和返回类型选择相应的返回值处理器
      */
     private ReturnValueResolver selectHandler(Object returnValue, MethodParameter returnType) {
+        return getReturnValueResolver(returnType);
+    }
 
+    /**
+     * 根据返回类型获取相应的返回值处理器，结果会被缓存
+     * @param returnType 返回类型
+     * @return 对应的返回值处理器，找不到返回null
+     */
+    public ReturnValueResolver getReturnValueResolver(MethodParameter returnType) {
+        ReturnValueResolver result = this.returnValueResolverCache.get(returnType);
+        if (result != null){
+            return result;
+        }
         for (ReturnValueResolver resolver : this.returnValueResolvers) {
             if (resolver.supportsReturnType(returnType)){
+                this.returnValueResolverCache.put(returnType, resolver);
                 return resolver;
             }
         }
@@ -1,5 +1,6 @@
 package com.yankaizhang.spring.web.model;
 
+import com.yankaizhang.spring.util.CollectionUtils;
 import com.yankaizhang.spring.web.view.View;
 
 import java.util.Map;
@@ -25,6 +26,23 @@ public class ModelAndViewBuilder {
         return modelAndView;
     }
 
+    /**
+     * 判断是否没有任何需要渲染的内容
+     */
+    public boolean isEmpty(){
+        return view == null && viewName == null && CollectionUtils.isEmpty(model);
+    }
+
+    /**
+     * 清空内容，用于复用
+     */
+    public void reset(){
+        this.view = null;
+        this.viewName = null;
+        this.model = null;
+        this.cleared = true;
+    }
+
     public void from(ModelAndView other){
         this.view = other.getView();
         this.model = other.getModel();
@@ -0,0 +1,58 @@
+package com.yankaizhang.spring.web.model;
+
+import javax.servlet.ServletRequest;
+import java.util.*;
+
+/**
+ * 合并了handler返回的model和request属性的只读视图<br/>
+ * 按名称查找时直接读取request属性，只有遍历时才把所有内容复制到一个Map中；
+ * 同名时request属性优先
+ * @author dzzhyk
+ * @since 2026-10-18 19:13:40
+ */
+public class RequestAttributeModel extends AbstractMap<String, Object> {
+
+    /** handler返回的model，可能为null */
+    private final Map<String, ?> model;
+
+    private final ServletRequest request;
+
+    /** 遍历时才创建的合并结果 */
+    private Map<String, Object> merged;
+
+    public RequestAttributeModel(Map<String, ?> model, ServletRequest request) {
+        this.model = model;
+        this.request = request;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        Object value = request.getAttribute((String) key);
+        if (value != null) {
+            return value;
+        }
+        return (model != null ? model.get(key) : null);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null || (model != null && model.containsKey(key));
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (merged == null) {
+            Map<String, Object> result = (model != null ? new LinkedHashMap<>(model) : new LinkedHashMap<>());
+            Enumeration<String> attributeNames = request.getAttributeNames();
+            while (attributeNames.hasMoreElements()) {
+                String name = attributeNames.nextElement();
+                result.put(name, request.getAttribute(name));
+            }
+            merged = Collections.unmodifiableMap(result);
+        }
+        return merged.entrySet();
+    }
+}
@@ -1,19 +1,19 @@
 package com.yankaizhang.spring.web.view;
 
 import com.yankaizhang.spring.web.model.ModelAndView;
+import com.yankaizhang.spring.web.view.template.HtmlTemplate;
+import com.yankaizhang.spring.web.view.template.HtmlTemplateCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
- * 这是内置的HtmlView类型，目前可以支持简单了el表达式解析，继承自{@link View}
+ * 这是内置的HtmlView类型，目前可以支持简单了el表达式解析，继承自{@link View}<br/>
+ * 模板文件只在第一次使用时编译，之后从{@link HtmlTemplateCache}中获取
  * @author dzzhyk
  * @since 2020-11-28 13:43:27
  */
@@ -21,7 +21,20 @@ public class HtmlView extends AbstractView {
 
     private final Logger log = LoggerFactory.getLogger(HtmlView.class);
 
-    private static final String EL_PATTERN = "\\$\\{[^}]+}";
+    /** 所有HtmlView共享的模板缓存 */
+    private static final HtmlTemplateCache TEMPLATE_CACHE = new HtmlTemplateCache();
+
+    /** 默认的flush阈值，单位字符 */
+    public static final int DEFAULT_FLUSH_THRESHOLD = 8192;
+
+    /** 模板文件的完整路径，第一次渲染时计算 */
+    private volatile String templatePath;
+
+    /** 是否按段直接写入响应，不在内存中拼接整个页面 */
+    private boolean streaming = false;
+
+    /** 流式渲染时的flush阈值，单位字符 */
+    private int flushThreshold = DEFAULT_FLUSH_THRESHOLD;
 
     public HtmlView() {}
 
@@ -36,61 +49,62 @@ public class HtmlView extends AbstractView {
     public void render(ModelAndView mav, HttpServletRequest req, HttpServletResponse resp)
             throws Exception {
 
-        // 获取文件url
         String url = getUrl();
-
-        String classPath = Objects.requireNonNull(this.getClass().getClassLoader().getResource("")).getPath();
-
-        String finalPath = (classPath + File.separator + url).replaceAll("/+", "/");
-
-        log.debug("[内置HTML渲染] 渲染至 : " + url);
-        StringBuilder builder = new StringBuilder();
-
-        try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(
-                        new FileInputStream(finalPath), StandardCharsets.UTF_8))
-        ) {
-            String line = null;
-            while (null != (line = br.readLine())) {
-                line = new String(line.getBytes(StandardCharsets.UTF_8));
-                // 用正则表达式匹配模板中的动态内容 ${abc}
-                Pattern pattern = Pattern.compile(EL_PATTERN, Pattern.CASE_INSENSITIVE);
-                Matcher matcher = pattern.matcher(line);
-
-                // 遍历解析所有模板中的动态内容
-                while (matcher.find()) {
-                    String paramName = matcher.group();
-                    // 去掉${ }外壳
-                    paramName = paramName.replaceAll("\\$\\{|}", "");
-                    Object paramValue = mav.getModel().get(paramName);
-                    if (null == paramValue) {
-                        continue;
-                    }
-
-                    line = matcher.replaceFirst(makeStringForRegExp(paramValue.toString()));
-                    matcher = pattern.matcher(line);
-                }
-                builder.append(line);
-            }
+        log.debug("[内置HTML渲染] 渲染至 : {}", url);
+
+        HtmlTemplate template = TEMPLATE_CACHE.getTemplate(getTemplatePath());
+        if (streaming) {
+            // 边渲染边写出，可以更早地发送第一个字节
+            resp.setCharacterEncoding("UTF-8");
+            template.writeTo(mav.getModel(), resp.getWriter(), flushThreshold);
+            return;
         }
+
+        String content = template.render(mav.getModel());
         resp.setCharacterEncoding("UTF-8");
-        resp.getWriter().write(builder.toString());
+        resp.getWriter().write(content);
+    }
+
+    /**
+     * 获取模板文件的完整路径
+     */
+    private String getTemplatePath() {
+        String path = this.templatePath;
+        if (path == null) {
+            String classPath = Objects.requireNonNull(this.getClass().getClassLoader().getResource("")).getPath();
+            path = (classPath + File.separator + getUrl()).replaceAll("/+", "/");
+            this.templatePath = path;
+        }
+        return path;
+    }
+
+    @Override
+    public void setUrl(String url) {
+        super.setUrl(url);
+        this.templatePath = null;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
     }
 
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
 
+    public int getFlushThreshold() {
+        return flushThreshold;
+    }
+
+    public void setFlushThreshold(int flushThreshold) {
+        this.flushThreshold = flushThreshold;
+    }
 
     /**
-     * 从字符串创建得到正则字符串
+     * 获取共享的模板缓存，可以用来设置缓存上限和开发模式下的修改检查
      */
-    private String makeStringForRegExp(String str){
-        return str.replace("\\", "\\\\").replace("*", "\\*")
-                .replace("|", "\\|").replace("+", "\\+")
-                .replace("{", "\\{").replace("}", "\\}")
-                .replace("(", "\\(").replace(")", "\\)")
-                .replace("[", "\\[").replace("]", "\\]")
-                .replace("^", "\\^").replace("$", "\\$")
-                .replace("?", "\\?").replace(",", "\\,")
-                .replace(".", "\\.").replace("&", "\\&");
+    public static HtmlTemplateCache getTemplateCache() {
+        return TEMPLATE_CACHE;
     }
 
 }
@@ -0,0 +1,131 @@
+package com.yankaizhang.spring.web.view.template;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * 编译好的html模板<br/>
+ * 模板被拆分为交替出现的字面文本段和 ${name} 表达式段，渲染时只需要按顺序追加一遍
+ * @author dzzhyk
+ * @since 2026-10-18 12:52:16
+ */
+public class HtmlTemplate {
+
+    /** 字面文本段，数量比表达式段多一个 */
+    private final String[] literals;
+
+    /** 表达式段中的参数名称 */
+    private final String[] expressions;
+
+    /** 所有字面文本段的总长度，用于估算输出大小 */
+    private final int literalLength;
+
+    HtmlTemplate(String[] literals, String[] expressions) {
+        this.literals = literals;
+        this.expressions = expressions;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * 使用model中的参数渲染模板
+     * @param model 参数，可以为null
+     * @return 渲染结果
+     */
+    public String render(Map<String, ?> model) {
+        StringBuilder builder = new StringBuilder(estimateSize());
+        try {
+            renderTo(model, builder);
+        } catch (IOException e) {
+            // StringBuilder不会抛出IOException
+            throw new IllegalStateException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 使用model中的参数渲染模板，结果追加到out中<br/>
+     * model中没有的参数保留原样 ${name}
+     * @param model 参数，可以为null
+     * @param out 输出目标
+     * @throws IOException 写出异常
+     */
+    public void renderTo(Map<String, ?> model, Appendable out) throws IOException {
+        out.append(literals[0]);
+        for (int i = 0; i < expressions.length; i++) {
+            appendExpression(model, i, out);
+            out.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * 使用model中的参数渲染模板，按段直接写入out，不在内存中保存整个页面<br/>
+     * 每写出flushThreshold个字符就flush一次，让客户端尽早收到内容
+     * @param model 参数，可以为null
+     * @param out 输出目标
+     * @param flushThreshold flush阈值，小于等于0表示只在最后flush
+     * @throws IOException 写出异常
+     */
+    public void writeTo(Map<String, ?> model, Writer out, int flushThreshold) throws IOException {
+        int pending = write(literals[0], out);
+        for (int i = 0; i < expressions.length; i++) {
+            pending += write(resolveExpression(model, i), out);
+            pending += write(literals[i + 1], out);
+            if (flushThreshold > 0 && pending >= flushThreshold) {
+                out.flush();
+                pending = 0;
+            }
+        }
+        out.flush();
+    }
+
+    private static int write(String segment, Writer out) throws IOException {
+        out.write(segment);
+        return segment.length();
+    }
+
+    /**
+     * 追加第index个表达式的值
+     */
+    protected void appendExpression(Map<String, ?> model, int index, Appendable out) throws IOException {
+        String name = expressions[index];
+        Object value = (model == null ? null : model.get(name));
+        if (value == null) {
+            out.append("${").append(name).append('}');
+        } else {
+            out.append(value.toString());
+        }
+    }
+
+    /**
+     * 获取第index个表达式的值，model中没有时返回原样的 ${name}
+     */
+    protected String resolveExpression(Map<String, ?> model, int index) {
+        String name = expressions[index];
+        Object value = (model == null ? null : model.get(name));
+        return (value == null ? "${" + name + "}" : value.toString());
+    }
+
+    /**
+     * 估算渲染结果的大小
+     */
+    public int estimateSize() {
+        return literalLength + expressions.length * 16;
+    }
+
+    public int getExpressionCount() {
+        return expressions.length;
+    }
+
+    String[] getLiterals() {
+        return literals;
+    }
+
+    String[] getExpressions() {
+        return expressions;
+    }
+}
@@ -0,0 +1,149 @@
+package com.yankaizhang.spring.web.view.template;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 编译好的html模板缓存，按照模板文件路径保存<br/>
+ * 缓存数量有上限，超出之后淘汰最久没有使用的模板<br/>
+ * 开启checkModified之后每次获取都会比较文件的修改时间，适合开发时使用
+ * @author dzzhyk
+ * @since 2026-10-18 12:52:16
+ */
+public class HtmlTemplateCache {
+
+    private static final Logger log = LoggerFactory.getLogger(HtmlTemplateCache.class);
+
+    /** 默认的缓存数量上限 */
+    public static final int DEFAULT_CACHE_LIMIT = 256;
+
+    /** 缓存数量上限，小于等于0表示不缓存 */
+    private volatile int cacheLimit;
+
+    /** 是否检查模板文件的修改时间 */
+    private volatile boolean checkModified = false;
+
+    /** 按访问顺序排列的缓存 */
+    private final Map<String, CachedTemplate> cache =
+            new LinkedHashMap<String, CachedTemplate>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedTemplate> eldest) {
+                    return size() > cacheLimit;
+                }
+            };
+
+    public HtmlTemplateCache() {
+        this(DEFAULT_CACHE_LIMIT);
+    }
+
+    public HtmlTemplateCache(int cacheLimit) {
+        this.cacheLimit = cacheLimit;
+    }
+
+    /**
+     * 获取编译好的模板，缓存中没有或者文件已经修改时重新编译
+     * @param path 模板文件路径
+     * @return 编译好的模板
+     * @throws IOException 读取模板文件异常
+     */
+    public HtmlTemplate getTemplate(String path) throws IOException {
+        if (cacheLimit <= 0) {
+            return HtmlTemplateCompiler.compile(new File(path).toPath());
+        }
+
+        CachedTemplate cached;
+        synchronized (cache) {
+            cached = cache.get(path);
+        }
+
+        File file = null;
+        if (cached != null) {
+            if (!checkModified) {
+                return cached.template;
+            }
+            file = new File(path);
+            if (file.lastModified() == cached.lastModified) {
+                return cached.template;
+            }
+            log.debug("模板文件已经修改，重新编译 : {}", path);
+        }
+
+        // 在锁外编译，并发的首次请求可能重复编译，结果是一样的
+        if (file == null) {
+            file = new File(path);
+        }
+        long lastModified = file.lastModified();
+        HtmlTemplate template = HtmlTemplateCompiler.compile(file.toPath());
+        synchronized (cache) {
+            cache.put(path, new CachedTemplate(template, lastModified));
+        }
+        return template;
+    }
+
+    /**
+     * 移除某个模板的缓存
+     */
+    public void remove(String path) {
+        synchronized (cache) {
+            cache.remove(path);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public int getCacheLimit() {
+        return cacheLimit;
+    }
+
+    /**
+     * 设置缓存数量上限，小于等于0表示不缓存
+     */
+    public void setCacheLimit(int cacheLimit) {
+        this.cacheLimit = cacheLimit;
+        if (cacheLimit <= 0) {
+            clear();
+        }
+    }
+
+    public boolean isCheckModified() {
+        return checkModified;
+    }
+
+    public void setCheckModified(boolean checkModified) {
+        this.checkModified = checkModified;
+    }
+
+
+    /**
+     * 缓存项，记录编译时模板文件的修改时间
+     */
+    private static class CachedTemplate {
+
+        private final HtmlTemplate template;
+
+        private final long lastModified;
+
+        CachedTemplate(HtmlTemplate template, long lastModified) {
+            this.template = template;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.yankaizhang.spring.web.view.template;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * html模板编译器，把模板文本一次性解析为{@link HtmlTemplate}<br/>
+ * 表达式的语法为 ${name}，name不能为空，也不能跨行
+ * @author dzzhyk
+ * @since 2026-10-18 12:52:16
+ */
+public final class HtmlTemplateCompiler {
+
+    private static final String EXPRESSION_PREFIX = "${";
+
+    private static final char EXPRESSION_SUFFIX = '}';
+
+    private HtmlTemplateCompiler() {}
+
+    /**
+     * 读取并且编译模板文件，文件使用UTF-8编码
+     * @param path 模板文件路径
+     * @return 编译好的模板
+     * @throws IOException 读取异常
+     */
+    public static HtmlTemplate compile(Path path) throws IOException {
+        return compile(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 编译模板文本
+     * @param source 模板文本
+     * @return 编译好的模板
+     */
+    public static HtmlTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> expressions = new ArrayList<>();
+
+        int length = source.length();
+        int literalStart = 0;
+        int index = 0;
+        while (index < length) {
+            int start = source.indexOf(EXPRESSION_PREFIX, index);
+            if (start < 0) {
+                break;
+            }
+            int nameStart = start + EXPRESSION_PREFIX.length();
+            int end = findExpressionEnd(source, nameStart);
+            if (end < 0) {
+                // 不是合法的表达式，作为普通文本继续向后查找
+                index = nameStart;
+                continue;
+            }
+            literals.add(source.substring(literalStart, start));
+            expressions.add(source.substring(nameStart, end));
+            literalStart = end + 1;
+            index = literalStart;
+        }
+        literals.add(source.substring(literalStart));
+
+        return new HtmlTemplate(literals.toArray(new String[0]), expressions.toArray(new String[0]));
+    }
+
+    /**
+     * 查找表达式结尾的"}"，表达式为空或者遇到换行时返回-1
+     */
+    private static int findExpressionEnd(String source, int nameStart) {
+        for (int i = nameStart; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == EXPRESSION_SUFFIX) {
+                return (i == nameStart ? -1 : i);
+            }
+            if (c == '\n' || c == '\r') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,195 @@
+package com.yankaizhang.spring.webmvc;
+
+import com.yankaizhang.spring.web.method.HandlerMethod;
+import com.yankaizhang.spring.web.method.support.ExceptionHandlerMethodResolver;
+import com.yankaizhang.spring.web.method.support.InvocableHandlerMethod;
+import com.yankaizhang.spring.web.model.ModelAndView;
+import com.yankaizhang.spring.web.model.ModelAndViewBuilder;
+import com.yankaizhang.spring.web.request.WebRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 使用{@link com.yankaizhang.spring.webmvc.annotation.ExceptionHandler}方法处理异常<br/>
+ * 先查找抛出异常的controller中的方法，再按注册顺序查找
+ * {@link com.yankaizhang.spring.context.annotation.ControllerAdvice}中的方法<br/>
+ * 查找结果按(controller类型, 异常类型)缓存，同一种异常再次出现时不再查找，
+ * 异常处理方法的调用计划也只生成一次
+ * @author dzzhyk
+ * @since 2026-10-18 18:36:15
+ */
+public class ExceptionHandlerExceptionResolver implements HandlerExceptionResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(ExceptionHandlerExceptionResolver.class);
+
+    /** 缓存中表示没有对应方法的标记 */
+    private static final Object NO_MATCH = new Object();
+
+    /** 还没有找到handler时使用的缓存key */
+    private static final Class<?> NO_HANDLER_TYPE = Void.class;
+
+    /** 生成异常处理方法调用计划的适配器 */
+    private final HandlerAdapter handlerAdapter;
+
+    /** 全局的异常处理对象 */
+    private final List<AdviceBean> adviceBeans = new ArrayList<>();
+
+    /** controller类型 => 该类中的异常处理方法 */
+    private final Map<Class<?>, ExceptionHandlerMethodResolver> resolverCache = new ConcurrentHashMap<>(64);
+
+    /** controller类型 => (异常类型 => 调用计划或者NO_MATCH) */
+    private final Map<Class<?>, Map<Class<?>, Object>> exceptionHandlerCache = new ConcurrentHashMap<>(64);
+
+    /** (处理异常的对象, 异常处理方法) => 调用计划，父类中的同一个方法在不同的controller上需要不同的调用计划 */
+    private final Map<InvocableMethodKey, InvocableHandlerMethod> invocableMethodCache = new ConcurrentHashMap<>(16);
+
+    public ExceptionHandlerExceptionResolver(HandlerAdapter handlerAdapter) {
+        this.handlerAdapter = handlerAdapter;
+    }
+
+    /**
+     * 注册全局的异常处理对象，在初始化阶段调用
+     * @param bean 对象
+     * @param beanType 对象的实际类型
+     */
+    public void addAdviceBean(Object bean, Class<?> beanType) {
+        ExceptionHandlerMethodResolver resolver = new ExceptionHandlerMethodResolver(beanType);
+        if (resolver.hasExceptionMappings()) {
+            adviceBeans.add(new AdviceBean(bean, resolver));
+            log.debug("注册全局异常处理对象 : {}", beanType.getName());
+        }
+    }
+
+    public boolean hasAdviceBeans() {
+        return !adviceBeans.isEmpty();
+    }
+
+    @Override
+    public ModelAndView resolveException(HttpServletRequest req, HttpServletResponse resp,
+                                         HandlerMapping handler, Exception ex) {
+        InvocableHandlerMethod exceptionHandler = getExceptionHandlerMethod(handler, ex);
+        if (exceptionHandler == null) {
+            return null;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("使用 {} 处理异常 : {}", exceptionHandler.getMethod(), ex.toString());
+        }
+        // 丢弃handler已经写入但是还没有发送的内容
+        if (!resp.isCommitted()) {
+            resp.resetBuffer();
+        }
+        req.setAttribute(EXCEPTION_ATTRIBUTE, ex);
+        try {
+            ModelAndViewBuilder mavBuilder = new ModelAndViewBuilder();
+            exceptionHandler.invokeAndHandle(new WebRequest(req, resp), mavBuilder);
+            return mavBuilder.build();
+        } catch (Exception e) {
+            log.warn("@ExceptionHandler方法执行失败 => " + exceptionHandler.getMethod(), e);
+            return null;
+        } finally {
+            req.removeAttribute(EXCEPTION_ATTRIBUTE);
+        }
+    }
+
+    /**
+     * 查找处理该异常的方法，结果会被缓存
+     */
+    private InvocableHandlerMethod getExceptionHandlerMethod(HandlerMapping handler, Exception ex) {
+        HandlerMethod handlerMethod = (handler != null ? handler.getMethod() : null);
+        Class<?> handlerType = (handlerMethod != null ? handlerMethod.getBeanType() : NO_HANDLER_TYPE);
+        Map<Class<?>, Object> cache = exceptionHandlerCache.get(handlerType);
+        if (cache == null) {
+            cache = exceptionHandlerCache.computeIfAbsent(handlerType, key -> new ConcurrentHashMap<>(16));
+        }
+        Object cached = cache.get(ex.getClass());
+        if (cached == null) {
+            InvocableHandlerMethod resolved = lookupExceptionHandlerMethod(handlerMethod, ex);
+            cached = (resolved != null ? resolved : NO_MATCH);
+            cache.put(ex.getClass(), cached);
+        }
+        return (cached != NO_MATCH ? (InvocableHandlerMethod) cached : null);
+    }
+
+    /**
+     * controller自己的方法优先于全局的方法
+     */
+    private InvocableHandlerMethod lookupExceptionHandlerMethod(HandlerMethod handlerMethod, Exception ex) {
+        if (handlerMethod != null) {
+            ExceptionHandlerMethodResolver resolver =
+                    resolverCache.computeIfAbsent(handlerMethod.getBeanType(), ExceptionHandlerMethodResolver::new);
+            Method method = resolver.resolveMethod(ex);
+            if (method != null) {
+                return getInvocableMethod(handlerMethod.getBean(), method);
+            }
+        }
+        for (AdviceBean adviceBean : adviceBeans) {
+            Method method = adviceBean.resolver.resolveMethod(ex);
+            if (method != null) {
+                return getInvocableMethod(adviceBean.bean, method);
+            }
+        }
+        return null;
+    }
+
+    private InvocableHandlerMethod getInvocableMethod(Object bean, Method method) {
+        return invocableMethodCache.computeIfAbsent(new InvocableMethodKey(bean, method),
+                key -> handlerAdapter.createInvocableMethod(new HandlerMethod(bean, method)));
+    }
+
+
+    /**
+     * 调用计划缓存的键，对象按照引用比较
+     */
+    private static final class InvocableMethodKey {
+
+        private final Object bean;
+
+        private final Method method;
+
+        InvocableMethodKey(Object bean, Method method) {
+            this.bean = bean;
+            this.method = method;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof InvocableMethodKey)) {
+                return false;
+            }
+            InvocableMethodKey other = (InvocableMethodKey) o;
+            return bean == other.bean && method.equals(other.method);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(bean) * 31 + method.hashCode();
+        }
+    }
+
+
+    /**
+     * 全局的异常处理对象
+     */
+    private static class AdviceBean {
+
+        private final Object bean;
+
+        private final ExceptionHandlerMethodResolver resolver;
+
+        AdviceBean(Object bean, ExceptionHandlerMethodResolver resolver) {
+            this.bean = bean;
+            this.resolver = resolver;
+        }
+    }
+}
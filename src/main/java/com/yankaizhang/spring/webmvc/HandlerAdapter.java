@@ -1,13 +1,22 @@
 package com.yankaizhang.spring.webmvc;
 
+import com.yankaizhang.spring.core.convert.ConversionService;
+import com.yankaizhang.spring.core.convert.support.DefaultConversionService;
+import com.yankaizhang.spring.web.http.converter.HttpMessageConverterRegistry;
+import com.yankaizhang.spring.web.method.HandlerMethod;
 import com.yankaizhang.spring.web.method.ArgumentResolver;
 import com.yankaizhang.spring.web.method.ReturnValueResolver;
+import com.yankaizhang.spring.web.method.invoker.LambdaMethodInvokerFactory;
+import com.yankaizhang.spring.web.method.invoker.MethodInvokerFactory;
 import com.yankaizhang.spring.web.method.support.ArgumentResolverComposite;
 import com.yankaizhang.spring.web.method.support.InvocableHandlerMethod;
 import com.yankaizhang.spring.web.method.support.ReturnValueResolverComposite;
 import com.yankaizhang.spring.web.model.ModelAndView;
 import com.yankaizhang.spring.web.model.ModelAndViewBuilder;
 import com.yankaizhang.spring.web.request.WebRequest;
+import com.yankaizhang.spring.webmvc.async.WebAsyncManager;
+import com.yankaizhang.spring.webmvc.metrics.StageTimer;
+import com.yankaizhang.spring.webmvc.support.DispatchContext;
 import com.yankaizhang.spring.webmvc.resolver.*;
 
 import javax.servlet.http.HttpServletRequest;
@@ -33,7 +42,40 @@ public class HandlerAdapter {
     /** 返回值处理器对象集合类 */
     private final ReturnValueResolverComposite returnValueResolvers;
 
+    /** handler方法调用策略 */
+    private MethodInvokerFactory methodInvokerFactory = new LambdaMethodInvokerFactory();
+
+    /** 共享的转换器注册表 */
+    private final HttpMessageConverterRegistry converterRegistry;
+
+    /** 同时处理请求体与响应体的解析器，参数和返回值解析器共用一个对象 */
+    private final RequestResponseBodyMethodResolver requestResponseBodyResolver;
+
+    /** 异步请求管理器 */
+    private final WebAsyncManager asyncManager;
+
+    /** 请求参数的类型转换服务 */
+    private final ConversionService conversionService;
+
     public HandlerAdapter() {
+        this(new HttpMessageConverterRegistry());
+    }
+
+    public HandlerAdapter(HttpMessageConverterRegistry converterRegistry) {
+        this(converterRegistry, new WebAsyncManager());
+    }
+
+    public HandlerAdapter(HttpMessageConverterRegistry converterRegistry, WebAsyncManager asyncManager) {
+        this(converterRegistry, asyncManager, DefaultConversionService.getSharedInstance());
+    }
+
+    public HandlerAdapter(HttpMessageConverterRegistry converterRegistry, WebAsyncManager asyncManager,
+                          ConversionService conversionService) {
+        this.converterRegistry = converterRegistry;
+        this.asyncManager = asyncManager;
+        this.conversionService = conversionService;
+        this.requestResponseBodyResolver = new RequestResponseBodyMethodResolver(converterRegistry);
+
         List<ArgumentResolver> defaultArgumentResolvers = getDefaultArgumentResolvers();
         List<ReturnValueResolver> defaultReturnValueResolvers = getDefaultReturnValueResolvers();
 
@@ -48,30 +90,118 @@ public class HandlerAdapter {
         return (handler instanceof HandlerMapping);
     }
 
+    public WebAsyncManager getAsyncManager() {
+        return asyncManager;
+    }
+
+    public HttpMessageConverterRegistry getConverterRegistry() {
+        return converterRegistry;
+    }
+
+    public ConversionService getConversionService() {
+        return conversionService;
+    }
+
+    public MethodInvokerFactory getMethodInvokerFactory() {
+        return methodInvokerFactory;
+    }
+
+    /**
+     * 设置handler方法调用策略，需要在{@link #prepare(HandlerMapping)}之前设置
+     */
+    public void setMethodInvokerFactory(MethodInvokerFactory methodInvokerFactory) {
+        this.methodInvokerFactory = methodInvokerFactory;
+    }
+
+    /**
+     * 为handler生成不可变的调用计划，在初始化阶段调用
+     * @param handlerMapping handler包装类
+     * @return 调用计划
+     */
+    public InvocableHandlerMethod prepare(HandlerMapping handlerMapping) {
+        InvocableHandlerMethod invocableMethod = createInvocableMethod(handlerMapping.getMethod());
+        handlerMapping.setInvocableMethod(invocableMethod);
+        return invocableMethod;
+    }
+
+    /**
+     * 使用共享的解析器为任意方法生成调用计划，例如{@link com.yankaizhang.spring.webmvc.annotation.ExceptionHandler}方法
+     * @param handlerMethod 方法
+     * @return 调用计划
+     */
+    public InvocableHandlerMethod createInvocableMethod(HandlerMethod handlerMethod) {
+        return new InvocableHandlerMethod(handlerMethod, this.argumentResolvers, this.returnValueResolvers,
+                this.methodInvokerFactory);
+    }
+
     public ModelAndView handle(HttpServletRequest req, HttpServletResponse resp, Object handler) throws Exception {
+        return handle(req, resp, handler, null);
+    }
+
+    /**
+     * 处理请求，同时记录各阶段的耗时
+     * @param timer 耗时记录，为null时不记录
+     */
+    public ModelAndView handle(HttpServletRequest req, HttpServletResponse resp, Object handler,
+                               StageTimer timer) throws Exception {
         // handlerMapping是经过封装的handler对象
         HandlerMapping handlerMapping = (HandlerMapping) handler;
 
+        // 拿到初始化时生成的调用计划
+        InvocableHandlerMethod invocableMethod = handlerMapping.getInvocableMethod();
+        if (invocableMethod == null){
+            invocableMethod = prepare(handlerMapping);
+        }
+
         // 创建一个请求包装类WebRequest
         WebRequest webRequest = new WebRequest(req, resp);
 
-        // 拿到需要处理的方法
-        InvocableHandlerMethod invocableMethod = new InvocableHandlerMethod(handlerMapping.getMethod());
-
-        // 给这个方法设置当前已知的输入输出解析器
-        if (this.argumentResolvers != null) {
-            invocableMethod.setArgumentResolvers(this.argumentResolvers);
-        }
-        if (this.returnValueResolvers != null) {
-            invocableMethod.setReturnValueResolvers(this.returnValueResolvers);
-        }
-
         // 返回的mav内容
         ModelAndViewBuilder mavBuilder = new ModelAndViewBuilder();
 
         // 真正执行方法
-        invocableMethod.invokeAndHandle(webRequest, mavBuilder);
+        invocableMethod.invokeAndHandle(webRequest, mavBuilder, timer);
+
+        return mavBuilder.build();
+    }
+
+    /**
+     * 使用可复用的派发上下文处理请求，不创建请求包装类和ModelAndViewBuilder
+     * @param context 当前线程的派发上下文
+     * @param handlerMapping handler对象
+     * @return 处理结果，没有需要渲染的内容时为null
+     */
+    public ModelAndView handle(DispatchContext context, HandlerMapping handlerMapping) throws Exception {
+        InvocableHandlerMethod invocableMethod = handlerMapping.getInvocableMethod();
+        if (invocableMethod == null){
+            invocableMethod = prepare(handlerMapping);
+        }
+        ModelAndViewBuilder mavBuilder = context.getModelAndViewBuilder();
+        invocableMethod.invokeAndHandle(context.getWebRequest(), mavBuilder, context.getTimer());
+        // 例如@ResponseBody已经写出了响应，不需要创建ModelAndView
+        if (mavBuilder.isCleared() && mavBuilder.isEmpty()){
+            return null;
+        }
+        return mavBuilder.build();
+    }
 
+    /**
+     * 处理异步请求重新派发时带回的结果
+     * @param req 请求
+     * @param resp 响应
+     * @param handler handler对象
+     * @param result 异步处理得到的结果
+     * @return 处理结果
+     */
+    public ModelAndView handleAsyncResult(HttpServletRequest req, HttpServletResponse resp,
+                                          Object handler, Object result) throws Exception {
+        HandlerMapping handlerMapping = (HandlerMapping) handler;
+        InvocableHandlerMethod invocableMethod = handlerMapping.getInvocableMethod();
+        if (invocableMethod == null){
+            invocableMethod = prepare(handlerMapping);
+        }
+        ModelAndViewBuilder mavBuilder = new ModelAndViewBuilder();
+        invocableMethod.handleAsyncResult(result, new WebRequest(req, resp), mavBuilder);
         return mavBuilder.build();
     }
 
@@ -83,11 +213,14 @@ public class HandlerAdapter {
 
         // TODO: 在这里继续添加内置的ArgumentResolver参数处理器
         resolvers.add(new ModelAndViewMethodResolver());
-        resolvers.add(new RequestParamMethodArgumentResolver());
-        resolvers.add(new RequestResponseBodyMethodResolver());
+        resolvers.add(new RequestParamMethodArgumentResolver(this.conversionService));
+        resolvers.add(new PathVariableMethodArgumentResolver(this.conversionService));
+        resolvers.add(this.requestResponseBodyResolver);
         resolvers.add(new SimpleClassMethodResolver());
         resolvers.add(new ServletRequestMethodArgumentResolver());
         resolvers.add(new ServletResponseMethodArgumentResolver());
+        resolvers.add(new MultipartPartsMethodArgumentResolver());
+        resolvers.add(new ExceptionMethodArgumentResolver());
 
         return resolvers;
     }
@@ -99,9 +232,15 @@ public class HandlerAdapter {
         List<ReturnValueResolver> resolvers = new ArrayList<>();
 
         // TODO: 在这里继续添加内置的ReturnValueResolver返回值处理器
+        // 异步返回值需要最先处理，否则会被@ResponseBody的处理器当作普通对象写出
+        resolvers.add(new AsyncReturnValueResolver(this.asyncManager));
+        // 文件返回值需要在@ResponseBody之前处理
+        resolvers.add(new FileResourceReturnValueResolver());
+        // 流式返回值同样需要在@ResponseBody之前处理
+        resolvers.add(new StreamingResponseBodyReturnValueResolver(this.converterRegistry));
         resolvers.add(new ViewNameMethodReturnValueResolver());
         resolvers.add(new ModelAndViewMethodResolver());
-        resolvers.add(new RequestResponseBodyMethodResolver());
+        resolvers.add(this.requestResponseBodyResolver);
 
         return resolvers;
     }
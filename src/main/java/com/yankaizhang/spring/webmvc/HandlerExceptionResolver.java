@@ -0,0 +1,28 @@
+package com.yankaizhang.spring.webmvc;
+
+import com.yankaizhang.spring.web.model.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 处理handler执行过程中抛出的异常
+ * @author dzzhyk
+ * @since 2026-10-18 18:33:20
+ */
+public interface HandlerExceptionResolver {
+
+    /** 正在处理的异常在request中的属性名 */
+    String EXCEPTION_ATTRIBUTE = HandlerExceptionResolver.class.getName() + ".exception";
+
+    /**
+     * 尝试处理异常
+     * @param req 请求
+     * @param resp 响应
+     * @param handler 抛出异常的handler，还没有找到handler时为null
+     * @param ex 异常
+     * @return 处理结果，响应已经写出时返回空的ModelAndView，无法处理时返回null
+     */
+    ModelAndView resolveException(HttpServletRequest req, HttpServletResponse resp,
+                                  HandlerMapping handler, Exception ex);
+}
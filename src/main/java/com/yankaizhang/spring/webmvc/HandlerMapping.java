@@ -1,6 +1,10 @@
 package com.yankaizhang.spring.webmvc;
 
 import com.yankaizhang.spring.web.method.HandlerMethod;
+import com.yankaizhang.spring.web.method.support.InvocableHandlerMethod;
+import com.yankaizhang.spring.webmvc.condition.RequestMappingInfo;
+import com.yankaizhang.spring.webmvc.metrics.HandlerMetrics;
+import com.yankaizhang.spring.webmvc.support.UriTemplate;
 
 import java.util.regex.Pattern;
 
@@ -11,6 +15,12 @@ import java.util.regex.Pattern;
  */
 public class HandlerMapping {
 
+    /** 保存URI模板变量的请求属性名称 */
+    public static final String URI_TEMPLATE_VARIABLES_ATTRIBUTE = HandlerMapping.class.getName() + ".uriTemplateVariables";
+
+    /** 保存映射produces条件的请求属性名称 */
+    public static final String PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE = HandlerMapping.class.getName() + ".producibleMediaTypes";
+
     private Object controller;
 
     /** 处理器方法为包装类对象 */
@@ -18,6 +28,18 @@ public class HandlerMapping {
 
     private Pattern pattern;
 
+    /** 启动时编译好的请求条件，为null表示没有条件 */
+    private RequestMappingInfo mappingInfo;
+
+    /** 映射路径对应的URI模板，不是模板路径时为null */
+    private UriTemplate uriTemplate;
+
+    /** 初始化时生成的调用计划 */
+    private volatile InvocableHandlerMethod invocableMethod;
+
+    /** 该handler的统计数据，没有开启统计时为null */
+    private HandlerMetrics metrics;
+
     public HandlerMapping(Object controller, HandlerMethod method, Pattern pattern) {
         this.controller = controller;
         this.method = method;
@@ -47,4 +69,36 @@ public class HandlerMapping {
     public void setPattern(Pattern pattern) {
         this.pattern = pattern;
     }
+
+    public RequestMappingInfo getMappingInfo() {
+        return mappingInfo;
+    }
+
+    public void setMappingInfo(RequestMappingInfo mappingInfo) {
+        this.mappingInfo = mappingInfo;
+    }
+
+    public UriTemplate getUriTemplate() {
+        return uriTemplate;
+    }
+
+    public void setUriTemplate(UriTemplate uriTemplate) {
+        this.uriTemplate = uriTemplate;
+    }
+
+    public InvocableHandlerMethod getInvocableMethod() {
+        return invocableMethod;
+    }
+
+    public void setInvocableMethod(InvocableHandlerMethod invocableMethod) {
+        this.invocableMethod = invocableMethod;
+    }
+
+    public HandlerMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(HandlerMetrics metrics) {
+        this.metrics = metrics;
+    }
 }
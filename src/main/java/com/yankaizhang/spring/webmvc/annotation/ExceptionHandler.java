@@ -0,0 +1,21 @@
+package com.yankaizhang.spring.webmvc.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 异常处理方法<br/>
+ * 标注在controller中的方法只处理该controller抛出的异常，
+ * 标注在{@link com.yankaizhang.spring.context.annotation.ControllerAdvice}中的方法处理所有controller抛出的异常
+ * @author dzzhyk
+ * @since 2026-10-18 18:32:10
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ExceptionHandler {
+
+    /**
+     * 处理的异常类型，为空时使用方法参数中的异常类型
+     */
+    Class<? extends Throwable>[] value() default {};
+}
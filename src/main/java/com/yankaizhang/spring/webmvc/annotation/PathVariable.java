@@ -0,0 +1,21 @@
+package com.yankaizhang.spring.webmvc.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 把URI模板变量绑定到Controller方法的参数<br/>
+ * 例如 @RequestMapping("/users/{id}") 的方法可以使用 @PathVariable("id") long id 获取路径中的值
+ * @author dzzhyk
+ * @since 2026-10-18 16:52:19
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PathVariable {
+
+    /**
+     * 模板变量的名称，为空时使用参数名称
+     * @return 变量名称
+     */
+    String value() default "";
+}
@@ -1,9 +1,13 @@
 package com.yankaizhang.spring.webmvc.annotation;
 
+import com.yankaizhang.spring.web.http.HttpMethod;
+
 import java.lang.annotation.*;
 
 /**
  * Controller路径注解<br/>
+ * 除了路径之外还可以限定请求方法、请求与响应的contentType、请求参数和请求头，
+ * 这些条件在启动时编译，路径相同的多个方法按照条件区分
  * @author dzzhyk
  * @since 2020-11-28 13:42:53
  */
@@ -18,4 +22,34 @@ public @interface RequestMapping {
      */
     String[] value() default "";
 
+    /**
+     * 支持的请求方法，为空时支持所有方法，类和方法上的声明会合并
+     * @return 请求方法
+     */
+    HttpMethod[] method() default {};
+
+    /**
+     * 可以处理的请求contentType，例如"application/json"、"text/*"，"!"开头表示排除，方法上的声明覆盖类上的声明
+     * @return 请求contentType
+     */
+    String[] consumes() default {};
+
+    /**
+     * 可以返回的响应contentType，和请求的Accept头匹配，方法上的声明覆盖类上的声明
+     * @return 响应contentType
+     */
+    String[] produces() default {};
+
+    /**
+     * 请求参数条件，支持"name"、"!name"、"name=value"和"name!=value"，类和方法上的声明会合并
+     * @return 请求参数条件
+     */
+    String[] params() default {};
+
+    /**
+     * 请求头条件，格式和{@link #params()}相同，类和方法上的声明会合并
+     * @return 请求头条件
+     */
+    String[] headers() default {};
+
 }
@@ -0,0 +1,15 @@
+package com.yankaizhang.spring.webmvc.async;
+
+/**
+ * 异步请求超时异常
+ * @author dzzhyk
+ * @since 2026-10-18 12:20:31
+ */
+public class AsyncRequestTimeoutException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public AsyncRequestTimeoutException() {
+        super("异步请求处理超时");
+    }
+}
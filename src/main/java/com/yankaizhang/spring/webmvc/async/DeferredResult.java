@@ -0,0 +1,84 @@
+package com.yankaizhang.spring.webmvc.async;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 延迟结果，controller方法可以返回该对象，然后在任意线程中设置结果<br/>
+ * 设置结果之后，请求会重新派发到{@link com.yankaizhang.spring.webmvc.servlet.DispatcherServlet}完成渲染
+ * @author dzzhyk
+ * @param <T> 结果类型
+ * @since 2026-10-18 12:20:31
+ */
+public class DeferredResult<T> {
+
+    /** 超时时间，单位毫秒，为null时使用默认超时时间 */
+    private final Long timeout;
+
+    /** 超时的时候使用的结果，为null时按照超时异常处理 */
+    private final Object timeoutResult;
+
+    private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+    public DeferredResult() {
+        this(null, null);
+    }
+
+    public DeferredResult(Long timeout) {
+        this(timeout, null);
+    }
+
+    public DeferredResult(Long timeout, Object timeoutResult) {
+        this.timeout = timeout;
+        this.timeoutResult = timeoutResult;
+    }
+
+    /**
+     * 设置结果
+     * @param result 结果
+     * @return 如果结果已经被设置或者已经超时，返回false
+     */
+    public boolean setResult(T result) {
+        return future.complete(result);
+    }
+
+    /**
+     * 设置错误结果，如果是{@link Throwable}会按照异常处理，否则作为普通结果
+     * @param result 错误结果
+     * @return 如果结果已经被设置或者已经超时，返回false
+     */
+    public boolean setErrorResult(Object result) {
+        if (result instanceof Throwable) {
+            return future.completeExceptionally((Throwable) result);
+        }
+        return future.complete(result);
+    }
+
+    /**
+     * 是否已经设置了结果或者已经超时
+     */
+    public boolean isSetOrExpired() {
+        return future.isDone();
+    }
+
+    public Long getTimeout() {
+        return timeout;
+    }
+
+    public Object getTimeoutResult() {
+        return timeoutResult;
+    }
+
+    /**
+     * 超时处理
+     */
+    boolean expire() {
+        if (timeoutResult != null) {
+            return future.complete(timeoutResult);
+        }
+        return future.completeExceptionally(new AsyncRequestTimeoutException());
+    }
+
+    CompletableFuture<Object> getFuture() {
+        return future;
+    }
+}
@@ -0,0 +1,242 @@
+package com.yankaizhang.spring.webmvc.async;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步请求管理器<br/>
+ * controller方法返回{@link CompletionStage}、{@link Callable}或者{@link DeferredResult}时，
+ * 开启Servlet 3.x的{@link AsyncContext}并且释放容器线程<br/>
+ * 结果到达之后把结果保存在request中，再通过{@link AsyncContext#dispatch()}重新派发请求，
+ * 由DispatcherServlet按照普通返回值完成渲染
+ * @author dzzhyk
+ * @since 2026-10-18 12:20:31
+ */
+public class WebAsyncManager {
+
+    private static final Logger log = LoggerFactory.getLogger(WebAsyncManager.class);
+
+    /** 保存异步结果的request属性名 */
+    public static final String ASYNC_RESULT_ATTRIBUTE = WebAsyncManager.class.getName() + ".RESULT";
+
+    /** 默认超时时间，单位毫秒 */
+    public static final long DEFAULT_TIMEOUT = 30000L;
+
+    /** 执行{@link Callable}的线程池 */
+    private Executor executor;
+
+    /** 线程池是否是自己创建的 */
+    private boolean internalExecutor = false;
+
+    /** 超时时间，单位毫秒，小于等于0表示使用容器的超时时间 */
+    private long defaultTimeout = DEFAULT_TIMEOUT;
+
+    public WebAsyncManager() {}
+
+    public WebAsyncManager(Executor executor, long defaultTimeout) {
+        this.executor = executor;
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    /**
+     * 判断某种返回类型是否需要异步处理
+     */
+    public static boolean isAsyncReturnType(Class<?> type) {
+        return CompletionStage.class.isAssignableFrom(type) ||
+                Callable.class.isAssignableFrom(type) ||
+                DeferredResult.class.isAssignableFrom(type);
+    }
+
+    /**
+     * 开启异步处理，调用之后当前容器线程可以直接返回
+     * @param request 请求
+     * @param response 响应
+     * @param asyncValue controller方法返回的异步对象
+     */
+    public void startAsyncProcessing(ServletRequest request, ServletResponse response, Object asyncValue) {
+        long timeout = this.defaultTimeout;
+        if (asyncValue instanceof DeferredResult && ((DeferredResult<?>) asyncValue).getTimeout() != null) {
+            timeout = ((DeferredResult<?>) asyncValue).getTimeout();
+        }
+
+        AsyncContext asyncContext = request.startAsync(request, response);
+        if (timeout > 0) {
+            asyncContext.setTimeout(timeout);
+        }
+
+        CompletableFuture<?> future = toFuture(asyncValue);
+        // 只有执行Callable的future是这里创建的，controller返回的CompletionStage可能还在别处使用，不能取消
+        boolean ownFuture = (asyncValue instanceof Callable);
+        AtomicBoolean dispatched = new AtomicBoolean(false);
+
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                if (asyncValue instanceof DeferredResult) {
+                    ((DeferredResult<?>) asyncValue).expire();
+                    return;
+                }
+                // 先派发超时结果，再取消future，否则取消触发的回调会先把CancellationException派发出去
+                dispatch(asyncContext, dispatched, null, new AsyncRequestTimeoutException());
+                if (ownFuture) {
+                    future.cancel(true);
+                }
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                // 客户端断开等情况，不再需要结果
+                dispatched.set(true);
+                if (ownFuture) {
+                    future.cancel(true);
+                }
+                asyncContext.complete();
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {}
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {}
+        });
+
+        future.whenComplete((value, ex) -> dispatch(asyncContext, dispatched, value, ex));
+    }
+
+    /**
+     * 保存结果并且重新派发请求，只会执行一次
+     */
+    private void dispatch(AsyncContext asyncContext, AtomicBoolean dispatched, Object value, Throwable ex) {
+        if (!dispatched.compareAndSet(false, true)) {
+            return;
+        }
+        if (ex instanceof CompletionException && ex.getCause() != null) {
+            ex = ex.getCause();
+        }
+        try {
+            asyncContext.getRequest().setAttribute(ASYNC_RESULT_ATTRIBUTE, new AsyncResult(value, ex));
+            asyncContext.dispatch();
+        } catch (IllegalStateException e) {
+            // 请求已经结束了
+            log.debug("异步请求已经结束，忽略结果", e);
+        }
+    }
+
+    /**
+     * 把各种异步返回值统一转换为{@link CompletableFuture}
+     */
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<?> toFuture(Object asyncValue) {
+        if (asyncValue instanceof DeferredResult) {
+            return ((DeferredResult<?>) asyncValue).getFuture();
+        }
+        if (asyncValue instanceof CompletionStage) {
+            return ((CompletionStage<?>) asyncValue).toCompletableFuture();
+        }
+        Callable<Object> callable = (Callable<Object>) asyncValue;
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        try {
+            getExecutor().execute(() -> {
+                try {
+                    future.complete(callable.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 取出并且移除request中保存的异步结果
+     * @param request 重新派发的请求
+     * @return 异步结果，不是异步派发返回null
+     */
+    public static AsyncResult getAsyncResult(ServletRequest request) {
+        Object result = request.getAttribute(ASYNC_RESULT_ATTRIBUTE);
+        if (result instanceof AsyncResult) {
+            request.removeAttribute(ASYNC_RESULT_ATTRIBUTE);
+            return (AsyncResult) result;
+        }
+        return null;
+    }
+
+    /**
+     * 获取线程池，没有配置时创建默认的线程池
+     */
+    public synchronized Executor getExecutor() {
+        if (this.executor == null) {
+            int size = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+            AtomicInteger counter = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(size, size, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(1000), r -> {
+                        Thread thread = new Thread(r, "mine-spring-async-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            this.internalExecutor = true;
+        }
+        return this.executor;
+    }
+
+    public synchronized void setExecutor(Executor executor) {
+        this.executor = executor;
+        this.internalExecutor = false;
+    }
+
+    public long getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    public void setDefaultTimeout(long defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    /**
+     * 关闭自己创建的线程池
+     */
+    public synchronized void shutdown() {
+        if (internalExecutor && executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+
+    /**
+     * 异步处理的结果
+     */
+    public static class AsyncResult {
+
+        private final Object value;
+
+        private final Throwable error;
+
+        AsyncResult(Object value, Throwable error) {
+            this.value = value;
+            this.error = error;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        public boolean hasError() {
+            return error != null;
+        }
+    }
+}
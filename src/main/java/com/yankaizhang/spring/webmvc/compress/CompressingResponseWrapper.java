@@ -0,0 +1,303 @@
+package com.yankaizhang.spring.webmvc.compress;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * 按需gzip压缩的响应包装类<br/>
+ * 先缓存最多minResponseSize个字节，超过之后根据状态码、contentType、Content-Encoding等决定是否压缩；
+ * 响应结束时仍然没有超过阈值的内容直接原样发送
+ * @author dzzhyk
+ * @since 2026-10-18 14:31:52
+ */
+public class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    private final CompressionConfig config;
+
+    private final DeflaterPool deflaterPool;
+
+    /** 响应中声明的Content-Length，-1表示没有声明 */
+    private long declaredContentLength = -1;
+
+    private int status = SC_OK;
+
+    private CompressingOutputStream outputStream;
+
+    private PrintWriter writer;
+
+    public CompressingResponseWrapper(HttpServletResponse response, CompressionConfig config,
+                                      DeflaterPool deflaterPool) {
+        super(response);
+        this.config = config;
+        this.deflaterPool = deflaterPool;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter()已经被调用");
+        }
+        return getCompressingOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream()已经被调用");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(getCompressingOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    private CompressingOutputStream getCompressingOutputStream() {
+        if (outputStream == null) {
+            outputStream = new CompressingOutputStream();
+        }
+        return outputStream;
+    }
+
+    /**
+     * 结束响应，写出缓存的内容和gzip尾部
+     */
+    public void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (outputStream != null) {
+            outputStream.finish();
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (outputStream != null) {
+            outputStream.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (outputStream != null) {
+            outputStream.resetBuffer();
+        }
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        if (outputStream != null) {
+            outputStream.resetBuffer();
+        }
+        declaredContentLength = -1;
+        status = SC_OK;
+        super.reset();
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        this.declaredContentLength = len;
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        this.declaredContentLength = len;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            this.declaredContentLength = (value == null ? -1 : Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setHeader(name, value);
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            this.declaredContentLength = value;
+        } else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            this.declaredContentLength = value;
+        } else {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        this.status = sc;
+        super.setStatus(sc);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        this.status = sc;
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        this.status = sc;
+        super.sendError(sc, msg);
+    }
+
+    /**
+     * 判断当前响应是否需要压缩
+     */
+    private boolean shouldCompress() {
+        if (status == SC_NO_CONTENT || status == SC_PARTIAL_CONTENT || status == SC_NOT_MODIFIED) {
+            return false;
+        }
+        if (containsHeader("Content-Encoding") || containsHeader("Content-Range")) {
+            return false;
+        }
+        if (declaredContentLength >= 0 && declaredContentLength < config.getMinResponseSize()) {
+            return false;
+        }
+        return config.isCompressible(getContentType());
+    }
+
+
+    /**
+     * 先缓存再决定是否压缩的输出流
+     */
+    private class CompressingOutputStream extends ServletOutputStream {
+
+        /** 决定之前的缓冲区 */
+        private byte[] buffer = new byte[Math.max(config.getMinResponseSize(), 1)];
+
+        private int count = 0;
+
+        /** 决定之后实际写入的输出流 */
+        private OutputStream target;
+
+        private PooledGzipOutputStream gzipStream;
+
+        private boolean finished = false;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (target == null && count < buffer.length) {
+                buffer[count++] = (byte) b;
+                return;
+            }
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (finished) {
+                throw new IOException("响应已经结束");
+            }
+            if (target == null) {
+                if (count + len <= buffer.length) {
+                    System.arraycopy(b, off, buffer, count, len);
+                    count += len;
+                    return;
+                }
+                decide(true);
+            }
+            target.write(b, off, len);
+        }
+
+        /**
+         * 缓冲区中还没有决定的内容不会被刷新，最多延迟minResponseSize个字节
+         */
+        @Override
+        public void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (target == null) {
+                if (count == 0 && isCommitted()) {
+                    return;
+                }
+                decide(count >= config.getMinResponseSize());
+            }
+            if (gzipStream != null) {
+                gzipStream.finish();
+            } else {
+                target.flush();
+            }
+        }
+
+        void resetBuffer() {
+            if (target == null) {
+                count = 0;
+            }
+        }
+
+        /**
+         * 决定是否压缩，然后写出缓冲区中的内容
+         * @param largeEnough 内容是否已经达到压缩阈值
+         */
+        private void decide(boolean largeEnough) throws IOException {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (largeEnough && shouldCompress()) {
+                response.setHeader("Content-Encoding", "gzip");
+                response.addHeader("Vary", "Accept-Encoding");
+                gzipStream = new PooledGzipOutputStream(response.getOutputStream(), deflaterPool);
+                target = gzipStream;
+            } else {
+                if (declaredContentLength >= 0) {
+                    response.setContentLengthLong(declaredContentLength);
+                } else if (finished) {
+                    response.setContentLength(count);
+                }
+                target = response.getOutputStream();
+            }
+            if (count > 0) {
+                target.write(buffer, 0, count);
+            }
+            buffer = null;
+            count = 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("压缩响应不支持非阻塞写出");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.yankaizhang.spring.webmvc.compress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+/**
+ * 响应压缩配置<br/>
+ * 配置为名称是compressionConfig的bean，或者在配置文件中设置compression.enabled=true之后生效
+ * @author dzzhyk
+ * @since 2026-10-18 14:31:52
+ */
+public class CompressionConfig {
+
+    /** 默认压缩的contentType */
+    public static final String[] DEFAULT_MIME_TYPES = {
+            "text/html", "text/plain", "text/css", "text/javascript", "text/xml",
+            "application/json", "application/javascript", "application/xml"
+    };
+
+    /** 是否压缩响应 */
+    private boolean enabled = true;
+
+    /** 是否解压gzip格式的请求体 */
+    private boolean requestDecompressionEnabled = true;
+
+    /** 默认的解压后请求体大小上限，10MB */
+    public static final long DEFAULT_MAX_INFLATED_REQUEST_SIZE = 10 * 1024 * 1024;
+
+    /** 解压之后的请求体超过这个字节数时返回413，防止很小的压缩包解压出大量数据 */
+    private long maxInflatedRequestSize = DEFAULT_MAX_INFLATED_REQUEST_SIZE;
+
+    /** 小于这个字节数的响应不压缩 */
+    private int minResponseSize = 1024;
+
+    /** 压缩级别 */
+    private int level = Deflater.DEFAULT_COMPRESSION;
+
+    /** Deflater对象池大小 */
+    private int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+
+    /** 需要压缩的contentType，不包含参数部分 */
+    private final List<String> mimeTypes = new ArrayList<>(Arrays.asList(DEFAULT_MIME_TYPES));
+
+    /**
+     * 判断某种contentType的响应是否需要压缩
+     * @param contentType 响应的contentType，可以带有charset等参数
+     * @return 判断结果
+     */
+    public boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int index = contentType.indexOf(';');
+        String mimeType = (index < 0 ? contentType : contentType.substring(0, index)).trim().toLowerCase(Locale.ROOT);
+        return mimeTypes.contains(mimeType);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isRequestDecompressionEnabled() {
+        return requestDecompressionEnabled;
+    }
+
+    public void setRequestDecompressionEnabled(boolean requestDecompressionEnabled) {
+        this.requestDecompressionEnabled = requestDecompressionEnabled;
+    }
+
+    public long getMaxInflatedRequestSize() {
+        return maxInflatedRequestSize;
+    }
+
+    public void setMaxInflatedRequestSize(long maxInflatedRequestSize) {
+        this.maxInflatedRequestSize = maxInflatedRequestSize;
+    }
+
+    public int getMinResponseSize() {
+        return minResponseSize;
+    }
+
+    public void setMinResponseSize(int minResponseSize) {
+        this.minResponseSize = minResponseSize;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public List<String> getMimeTypes() {
+        return mimeTypes;
+    }
+
+    /**
+     * 设置需要压缩的contentType，会替换默认值
+     */
+    public void setMimeTypes(String... mimeTypes) {
+        this.mimeTypes.clear();
+        for (String mimeType : mimeTypes) {
+            this.mimeTypes.add(mimeType.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.yankaizhang.spring.webmvc.compress;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * DispatcherServlet中的压缩处理阶段<br/>
+ * 请求进入时包装请求和响应，请求处理结束后调用{@link #finish}写出压缩数据
+ * @author dzzhyk
+ * @since 2026-10-18 14:31:52
+ */
+public class CompressionHandler {
+
+    private final CompressionConfig config;
+
+    private final DeflaterPool deflaterPool;
+
+    public CompressionHandler(CompressionConfig config) {
+        this.config = config;
+        this.deflaterPool = new DeflaterPool(config.getLevel(), config.getPoolSize());
+    }
+
+    /**
+     * 请求体是gzip格式时包装为解压的请求
+     */
+    public HttpServletRequest wrapRequest(HttpServletRequest request) {
+        if (!config.isRequestDecompressionEnabled() || request instanceof GzipRequestWrapper) {
+            return request;
+        }
+        String contentEncoding = request.getHeader("Content-Encoding");
+        if (contentEncoding != null && "gzip".equalsIgnoreCase(contentEncoding.trim())) {
+            return new GzipRequestWrapper(request, config.getMaxInflatedRequestSize());
+        }
+        return request;
+    }
+
+    /**
+     * 客户端接受gzip时包装为压缩的响应
+     */
+    public HttpServletResponse wrapResponse(HttpServletRequest request, HttpServletResponse response) {
+        if (!config.isEnabled() || response instanceof CompressingResponseWrapper) {
+            return response;
+        }
+        if (!acceptsGzip(request.getHeader("Accept-Encoding"))) {
+            return response;
+        }
+        return new CompressingResponseWrapper(response, config, deflaterPool);
+    }
+
+    /**
+     * 结束响应，异步请求在异步处理结束之后再调用
+     */
+    public void finish(HttpServletResponse response) throws IOException {
+        if (response instanceof CompressingResponseWrapper) {
+            ((CompressingResponseWrapper) response).finish();
+        }
+    }
+
+    /**
+     * 释放Deflater对象池
+     */
+    public void destroy() {
+        deflaterPool.clear();
+    }
+
+    /**
+     * 判断Accept-Encoding中是否包含q值不为0的gzip
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!"gzip".equals(name) && !"*".equals(name)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        if (Double.parseDouble(param.substring(2)) <= 0) {
+                            return false;
+                        }
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public CompressionConfig getConfig() {
+        return config;
+    }
+}
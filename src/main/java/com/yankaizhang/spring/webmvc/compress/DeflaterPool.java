@@ -0,0 +1,65 @@
+package com.yankaizhang.spring.webmvc.compress;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+/**
+ * {@link Deflater}对象池<br/>
+ * Deflater持有本地内存，每个响应都创建和销毁的代价很高，这里复用不带zlib头的Deflater
+ * @author dzzhyk
+ * @since 2026-10-18 14:31:52
+ */
+public class DeflaterPool {
+
+    private final Queue<Deflater> pool = new ConcurrentLinkedQueue<>();
+
+    /** 池中空闲对象的数量 */
+    private final AtomicInteger idle = new AtomicInteger();
+
+    private final int level;
+
+    private final int maxIdle;
+
+    public DeflaterPool(int level, int maxIdle) {
+        this.level = level;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * 获取一个Deflater，池中没有时新建
+     */
+    public Deflater borrow() {
+        Deflater deflater = pool.poll();
+        if (deflater != null) {
+            idle.decrementAndGet();
+            return deflater;
+        }
+        return new Deflater(level, true);
+    }
+
+    /**
+     * 归还Deflater，池已满时直接释放
+     */
+    public void release(Deflater deflater) {
+        deflater.reset();
+        if (idle.incrementAndGet() <= maxIdle) {
+            pool.offer(deflater);
+        } else {
+            idle.decrementAndGet();
+            deflater.end();
+        }
+    }
+
+    /**
+     * 释放池中的所有Deflater
+     */
+    public void clear() {
+        Deflater deflater;
+        while ((deflater = pool.poll()) != null) {
+            idle.decrementAndGet();
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.yankaizhang.spring.webmvc.compress;
+
+import com.yankaizhang.spring.web.http.PayloadTooLargeException;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 解压gzip请求体的请求包装类，@RequestBody等读取请求体的地方可以直接得到解压后的内容<br/>
+ * 解压出的字节数超过上限时抛出{@link PayloadTooLargeException}，由DispatcherServlet返回413
+ * @author dzzhyk
+ * @since 2026-10-18 14:31:52
+ */
+public class GzipRequestWrapper extends HttpServletRequestWrapper {
+
+    private ServletInputStream inputStream;
+
+    private BufferedReader reader;
+
+    /** 解压之后允许的最大字节数 */
+    private final long maxInflatedSize;
+
+    public GzipRequestWrapper(HttpServletRequest request) {
+        this(request, CompressionConfig.DEFAULT_MAX_INFLATED_REQUEST_SIZE);
+    }
+
+    public GzipRequestWrapper(HttpServletRequest request, long maxInflatedSize) {
+        super(request);
+        this.maxInflatedSize = maxInflatedSize;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (reader != null) {
+            throw new IllegalStateException("getReader()已经被调用");
+        }
+        if (inputStream == null) {
+            inputStream = new GzipServletInputStream(new GZIPInputStream(super.getInputStream()), maxInflatedSize);
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            String encoding = getCharacterEncoding();
+            reader = new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? "ISO-8859-1" : encoding));
+        }
+        return reader;
+    }
+
+    /**
+     * 解压之后的长度未知
+     */
+    @Override
+    public int getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return -1;
+    }
+
+
+    /**
+     * 包装{@link GZIPInputStream}，统计解压出的字节数
+     */
+    private static class GzipServletInputStream extends ServletInputStream {
+
+        private final GZIPInputStream in;
+
+        private final long maxInflatedSize;
+
+        private long inflatedSize = 0;
+
+        private boolean finished = false;
+
+        GzipServletInputStream(GZIPInputStream in, long maxInflatedSize) {
+            this.in = in;
+            this.maxInflatedSize = maxInflatedSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkLimit(0);
+            int b = in.read();
+            if (b < 0) {
+                finished = true;
+            } else {
+                checkLimit(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkLimit(0);
+            int read = in.read(b, off, len);
+            if (read < 0) {
+                finished = true;
+            } else {
+                checkLimit(read);
+            }
+            return read;
+        }
+
+        /**
+         * 超出上限之后每次读取都会失败
+         */
+        private void checkLimit(int read) throws PayloadTooLargeException {
+            inflatedSize += read;
+            if (inflatedSize > maxInflatedSize) {
+                throw new PayloadTooLargeException(maxInflatedSize);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException("gzip请求体不支持非阻塞读取");
+        }
+    }
+}
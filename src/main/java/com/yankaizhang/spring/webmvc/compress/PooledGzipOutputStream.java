@@ -0,0 +1,134 @@
+package com.yankaizhang.spring.webmvc.compress;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 使用{@link DeflaterPool}中Deflater的gzip输出流<br/>
+ * 手动写出gzip头和尾部的CRC32校验与长度，finish之后归还Deflater，不关闭下层输出流
+ * @author dzzhyk
+ * @since 2026-10-18 14:31:52
+ */
+public class PooledGzipOutputStream extends OutputStream {
+
+    /** gzip头：魔数、deflate算法、无标志位、无修改时间、未知系统 */
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final OutputStream out;
+
+    private final DeflaterPool pool;
+
+    private final CRC32 crc = new CRC32();
+
+    private final byte[] buffer = new byte[8192];
+
+    private Deflater deflater;
+
+    private boolean headerWritten = false;
+
+    public PooledGzipOutputStream(OutputStream out, DeflaterPool pool) {
+        this.out = out;
+        this.pool = pool;
+        this.deflater = pool.borrow();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (len == 0) {
+            return;
+        }
+        writeHeader();
+        crc.update(b, off, len);
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            deflate(Deflater.NO_FLUSH);
+        }
+    }
+
+    /**
+     * 同步刷新，已经写入的数据都可以被客户端解压
+     */
+    @Override
+    public void flush() throws IOException {
+        if (deflater != null && headerWritten) {
+            // 缓冲区写满说明可能还有剩余数据
+            int length;
+            do {
+                length = deflate(Deflater.SYNC_FLUSH);
+            } while (length == buffer.length);
+        }
+        out.flush();
+    }
+
+    /**
+     * 写出剩余的压缩数据和gzip尾部，然后归还Deflater
+     */
+    public void finish() throws IOException {
+        if (deflater == null) {
+            return;
+        }
+        try {
+            writeHeader();
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+            writeTrailer(deflater.getBytesRead());
+            out.flush();
+        } finally {
+            pool.release(deflater);
+            deflater = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    private int deflate(int flushMode) throws IOException {
+        int length = deflater.deflate(buffer, 0, buffer.length, flushMode);
+        if (length > 0) {
+            out.write(buffer, 0, length);
+        }
+        return length;
+    }
+
+    private void writeHeader() throws IOException {
+        if (!headerWritten) {
+            out.write(GZIP_HEADER);
+            headerWritten = true;
+        }
+    }
+
+    /**
+     * gzip尾部：CRC32和原始数据长度，小端序
+     */
+    private void writeTrailer(long size) throws IOException {
+        byte[] trailer = new byte[8];
+        writeInt((int) crc.getValue(), trailer, 0);
+        writeInt((int) size, trailer, 4);
+        out.write(trailer);
+    }
+
+    private static void writeInt(int value, byte[] b, int offset) {
+        b[offset] = (byte) value;
+        b[offset + 1] = (byte) (value >> 8);
+        b[offset + 2] = (byte) (value >> 16);
+        b[offset + 3] = (byte) (value >> 24);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (deflater == null) {
+            throw new IOException("gzip输出流已经结束");
+        }
+    }
+}
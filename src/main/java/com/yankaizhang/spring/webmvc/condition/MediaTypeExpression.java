@@ -0,0 +1,122 @@
+package com.yankaizhang.spring.webmvc.condition;
+
+import com.yankaizhang.spring.web.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * consumes和produces条件中的一个contentType表达式，例如"application/json"、"text/*"或者"!text/plain"
+ * @author dzzhyk
+ * @since 2026-10-18 17:10:37
+ */
+public final class MediaTypeExpression {
+
+    private static final String WILDCARD = "*";
+
+    private final String type;
+
+    private final String subtype;
+
+    private final boolean negated;
+
+    private MediaTypeExpression(String type, String subtype, boolean negated) {
+        this.type = type;
+        this.subtype = subtype;
+        this.negated = negated;
+    }
+
+    /**
+     * 解析表达式，忽略contentType中的参数
+     */
+    public static MediaTypeExpression parse(String expression) {
+        String value = expression.trim();
+        boolean negated = value.startsWith("!");
+        if (negated) {
+            value = value.substring(1).trim();
+        }
+        String[] parts = parseMimeType(value);
+        if (parts == null) {
+            throw new IllegalArgumentException("无效的contentType表达式 : " + expression);
+        }
+        return new MediaTypeExpression(parts[0], parts[1], negated);
+    }
+
+    /**
+     * 把contentType解析为小写的 [type, subtype]，"*"等价于"*&#47;*"
+     * @return 解析结果，格式错误时返回null
+     */
+    public static String[] parseMimeType(String mimeType) {
+        if (mimeType == null) {
+            return null;
+        }
+        int semicolon = mimeType.indexOf(';');
+        String value = (semicolon < 0 ? mimeType : mimeType.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+        if (WILDCARD.equals(value)) {
+            return new String[]{WILDCARD, WILDCARD};
+        }
+        int slash = value.indexOf('/');
+        if (slash <= 0 || slash == value.length() - 1) {
+            return null;
+        }
+        return new String[]{value.substring(0, slash), value.substring(slash + 1)};
+    }
+
+    /**
+     * 判断是否包含某个具体的contentType，支持通配符
+     */
+    public boolean includes(String otherType, String otherSubtype) {
+        return (WILDCARD.equals(type) || type.equals(otherType)) &&
+                (WILDCARD.equals(subtype) || subtype.equals(otherSubtype));
+    }
+
+    /**
+     * 判断是否和另一个可能带通配符的contentType兼容
+     */
+    public boolean isCompatibleWith(String otherType, String otherSubtype) {
+        return (WILDCARD.equals(type) || WILDCARD.equals(otherType) || type.equals(otherType)) &&
+                (WILDCARD.equals(subtype) || WILDCARD.equals(otherSubtype) || subtype.equals(otherSubtype));
+    }
+
+    /**
+     * 判断contentType是否满足一组表达式，任意一个表达式满足即可
+     * @param expressions 表达式，为null表示没有限制
+     * @param mediaType 具体的contentType
+     */
+    public static boolean matchesAny(MediaTypeExpression[] expressions, MediaType mediaType) {
+        if (expressions == null) {
+            return true;
+        }
+        for (MediaTypeExpression expression : expressions) {
+            if (expression.includes(mediaType.getType(), mediaType.getSubtype()) != expression.negated) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isNegated() {
+        return negated;
+    }
+
+    public String getMimeType() {
+        return type + "/" + subtype;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MediaTypeExpression)) return false;
+        MediaTypeExpression that = (MediaTypeExpression) o;
+        return negated == that.negated && type.equals(that.type) && subtype.equals(that.subtype);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * type.hashCode() + subtype.hashCode()) + (negated ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return (negated ? "!" : "") + getMimeType();
+    }
+}
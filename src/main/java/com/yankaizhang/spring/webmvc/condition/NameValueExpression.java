@@ -0,0 +1,78 @@
+package com.yankaizhang.spring.webmvc.condition;
+
+import java.util.Objects;
+
+/**
+ * params和headers条件中的一个表达式，支持"name"、"!name"、"name=value"和"name!=value"
+ * @author dzzhyk
+ * @since 2026-10-18 17:12:05
+ */
+public final class NameValueExpression {
+
+    private final String name;
+
+    /** 为null表示只判断是否存在 */
+    private final String value;
+
+    private final boolean negated;
+
+    private NameValueExpression(String name, String value, boolean negated) {
+        this.name = name;
+        this.value = value;
+        this.negated = negated;
+    }
+
+    public static NameValueExpression parse(String expression) {
+        String text = expression.trim();
+        int separator = text.indexOf('=');
+        NameValueExpression result;
+        if (separator < 0) {
+            boolean negated = text.startsWith("!");
+            result = new NameValueExpression(negated ? text.substring(1).trim() : text, null, negated);
+        } else if (separator > 0 && text.charAt(separator - 1) == '!') {
+            result = new NameValueExpression(text.substring(0, separator - 1).trim(),
+                    text.substring(separator + 1).trim(), true);
+        } else {
+            result = new NameValueExpression(text.substring(0, separator).trim(),
+                    text.substring(separator + 1).trim(), false);
+        }
+        if (result.name.isEmpty()) {
+            throw new IllegalArgumentException("无效的条件表达式 : " + expression);
+        }
+        return result;
+    }
+
+    /**
+     * 判断实际的值是否满足条件
+     * @param actual 请求中的值，不存在时为null
+     */
+    public boolean matches(String actual) {
+        boolean matches = (value == null ? actual != null : value.equals(actual));
+        return matches != negated;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof NameValueExpression)) return false;
+        NameValueExpression that = (NameValueExpression) o;
+        return negated == that.negated && name.equals(that.name) && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, value, negated);
+    }
+
+    @Override
+    public String toString() {
+        if (value == null) {
+            return (negated ? "!" : "") + name;
+        }
+        return name + (negated ? "!=" : "=") + value;
+    }
+}
@@ -0,0 +1,40 @@
+package com.yankaizhang.spring.webmvc.condition;
+
+import com.yankaizhang.spring.web.http.HttpMethod;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * 请求路径匹配，但是没有满足条件的处理器时抛出，携带需要返回的状态码<br/>
+ * 405 请求方法不支持、415 请求contentType不支持、406 无法返回可接受的contentType、400 请求参数或请求头不满足条件
+ * @author dzzhyk
+ * @since 2026-10-18 17:14:26
+ */
+public class RequestConditionException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    /** 405时该路径支持的请求方法 */
+    private final Set<HttpMethod> allowedMethods;
+
+    public RequestConditionException(int status, String message) {
+        this(status, message, Collections.emptySet());
+    }
+
+    public RequestConditionException(int status, String message, Set<HttpMethod> allowedMethods) {
+        super(message);
+        this.status = status;
+        this.allowedMethods = allowedMethods;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Set<HttpMethod> getAllowedMethods() {
+        return allowedMethods;
+    }
+}
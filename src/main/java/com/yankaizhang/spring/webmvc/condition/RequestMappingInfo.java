@@ -0,0 +1,227 @@
+package com.yankaizhang.spring.webmvc.condition;
+
+import com.yankaizhang.spring.web.http.HttpMethod;
+import com.yankaizhang.spring.webmvc.annotation.RequestMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.*;
+
+/**
+ * 启动时由{@link RequestMapping}编译得到的请求条件<br/>
+ * 请求方法条件由路由索引按方法分组处理，这里负责其余条件的判断
+ * @author dzzhyk
+ * @since 2026-10-18 17:16:51
+ */
+public final class RequestMappingInfo {
+
+    /** 没有声明contentType的请求按照该类型处理 */
+    private static final String[] DEFAULT_CONTENT_TYPE = {"application", "octet-stream"};
+
+    private static final MediaTypeExpression[] EMPTY_MEDIA_TYPES = new MediaTypeExpression[0];
+
+    private static final NameValueExpression[] EMPTY_EXPRESSIONS = new NameValueExpression[0];
+
+    /** 支持的请求方法，为空表示支持所有方法 */
+    private final Set<HttpMethod> methods;
+
+    private final MediaTypeExpression[] consumes;
+
+    private final MediaTypeExpression[] produces;
+
+    private final NameValueExpression[] params;
+
+    private final NameValueExpression[] headers;
+
+    private RequestMappingInfo(Set<HttpMethod> methods, MediaTypeExpression[] consumes, MediaTypeExpression[] produces,
+                               NameValueExpression[] params, NameValueExpression[] headers) {
+        this.methods = methods;
+        this.consumes = consumes;
+        this.produces = produces;
+        this.params = params;
+        this.headers = headers;
+    }
+
+    /**
+     * 合并类和方法上的注解<br/>
+     * 请求方法、params和headers取并集，consumes和produces以方法上的声明为准
+     * @param typeMapping 类上的注解，可以为null
+     * @param methodMapping 方法上的注解
+     */
+    public static RequestMappingInfo of(RequestMapping typeMapping, RequestMapping methodMapping) {
+        Set<HttpMethod> methods = EnumSet.noneOf(HttpMethod.class);
+        List<String> params = new ArrayList<>();
+        List<String> headers = new ArrayList<>();
+        String[] consumes = methodMapping.consumes();
+        String[] produces = methodMapping.produces();
+        if (typeMapping != null) {
+            Collections.addAll(methods, typeMapping.method());
+            Collections.addAll(params, typeMapping.params());
+            Collections.addAll(headers, typeMapping.headers());
+            if (consumes.length == 0) {
+                consumes = typeMapping.consumes();
+            }
+            if (produces.length == 0) {
+                produces = typeMapping.produces();
+            }
+        }
+        Collections.addAll(methods, methodMapping.method());
+        Collections.addAll(params, methodMapping.params());
+        Collections.addAll(headers, methodMapping.headers());
+        return new RequestMappingInfo(Collections.unmodifiableSet(methods), parseMediaTypes(consumes),
+                parseMediaTypes(produces), parseExpressions(params), parseExpressions(headers));
+    }
+
+    private static MediaTypeExpression[] parseMediaTypes(String[] values) {
+        if (values.length == 0) {
+            return EMPTY_MEDIA_TYPES;
+        }
+        MediaTypeExpression[] result = new MediaTypeExpression[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = MediaTypeExpression.parse(values[i]);
+        }
+        return result;
+    }
+
+    private static NameValueExpression[] parseExpressions(List<String> values) {
+        if (values.isEmpty()) {
+            return EMPTY_EXPRESSIONS;
+        }
+        NameValueExpression[] result = new NameValueExpression[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = NameValueExpression.parse(values.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 判断请求的contentType是否满足consumes条件，任意一个表达式满足即可
+     */
+    public boolean matchesConsumes(HttpServletRequest request) {
+        if (consumes.length == 0) {
+            return true;
+        }
+        String[] contentType = MediaTypeExpression.parseMimeType(request.getContentType());
+        if (contentType == null) {
+            contentType = DEFAULT_CONTENT_TYPE;
+        }
+        for (MediaTypeExpression expression : consumes) {
+            if (expression.includes(contentType[0], contentType[1]) != expression.isNegated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断请求的Accept头是否满足produces条件，没有Accept头时总是满足
+     */
+    public boolean matchesProduces(HttpServletRequest request) {
+        if (produces.length == 0) {
+            return true;
+        }
+        String accept = request.getHeader("Accept");
+        if (accept == null || accept.trim().isEmpty()) {
+            return true;
+        }
+        for (String value : accept.split(",")) {
+            String[] acceptType = MediaTypeExpression.parseMimeType(value);
+            if (acceptType == null) {
+                continue;
+            }
+            for (MediaTypeExpression expression : produces) {
+                if (expression.isCompatibleWith(acceptType[0], acceptType[1]) != expression.isNegated()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断请求参数是否满足所有params条件
+     */
+    public boolean matchesParams(HttpServletRequest request) {
+        for (NameValueExpression expression : params) {
+            if (!expression.matches(request.getParameter(expression.getName()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 判断请求头是否满足所有headers条件
+     */
+    public boolean matchesHeaders(HttpServletRequest request) {
+        for (NameValueExpression expression : headers) {
+            if (!expression.matches(request.getHeader(expression.getName()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 除了请求方法之外是否还有其他条件
+     */
+    public boolean hasConditions() {
+        return consumes.length + produces.length + params.length + headers.length > 0;
+    }
+
+    /**
+     * 除了请求方法之外的条件数量，条件越多越优先匹配
+     */
+    public int getConditionCount() {
+        return consumes.length + produces.length + params.length + headers.length;
+    }
+
+    public Set<HttpMethod> getMethods() {
+        return methods;
+    }
+
+    public MediaTypeExpression[] getProduces() {
+        return produces;
+    }
+
+    public MediaTypeExpression[] getConsumes() {
+        return consumes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RequestMappingInfo)) return false;
+        RequestMappingInfo that = (RequestMappingInfo) o;
+        return methods.equals(that.methods) &&
+                new HashSet<>(Arrays.asList(consumes)).equals(new HashSet<>(Arrays.asList(that.consumes))) &&
+                new HashSet<>(Arrays.asList(produces)).equals(new HashSet<>(Arrays.asList(that.produces))) &&
+                new HashSet<>(Arrays.asList(params)).equals(new HashSet<>(Arrays.asList(that.params))) &&
+                new HashSet<>(Arrays.asList(headers)).equals(new HashSet<>(Arrays.asList(that.headers)));
+    }
+
+    @Override
+    public int hashCode() {
+        return methods.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        if (!methods.isEmpty()) {
+            builder.append(" methods=").append(methods);
+        }
+        if (consumes.length > 0) {
+            builder.append(" consumes=").append(Arrays.toString(consumes));
+        }
+        if (produces.length > 0) {
+            builder.append(" produces=").append(Arrays.toString(produces));
+        }
+        if (params.length > 0) {
+            builder.append(" params=").append(Arrays.toString(params));
+        }
+        if (headers.length > 0) {
+            builder.append(" headers=").append(Arrays.toString(headers));
+        }
+        return builder.length() == 0 ? "{}" : "{" + builder.substring(1) + "}";
+    }
+}
@@ -0,0 +1,268 @@
+package com.yankaizhang.spring.webmvc.embedded;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * 嵌入式服务器中的异步上下文<br/>
+ * 在service方法返回之前调用的dispatch和complete只做记录，返回之后由工作线程直接执行；
+ * 之后调用的dispatch和complete提交给工作线程池执行。等待结果期间不占用工作线程
+ * @author dzzhyk
+ * @since 2026-10-18 19:34:10
+ */
+class EmbeddedAsyncContext implements AsyncContext {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedAsyncContext.class);
+
+    private static final long DEFAULT_TIMEOUT = 30000;
+
+    /**
+     * service方法返回之后工作线程需要执行的操作
+     */
+    enum Action { WAIT, DISPATCH, COMPLETE }
+
+    private final HttpConnection connection;
+
+    private final EmbeddedHttpServletRequest request;
+
+    private final EmbeddedHttpServletResponse response;
+
+    private final ServletRequest servletRequest;
+
+    private final ServletResponse servletResponse;
+
+    private final List<AsyncListener> listeners = new ArrayList<>(2);
+
+    private long timeout = DEFAULT_TIMEOUT;
+
+    /** 开启异步处理的service方法是否还没有返回 */
+    private boolean inService = true;
+
+    /** service方法返回之前记录下来的操作 */
+    private Action pending = Action.WAIT;
+
+    /** 是否已经调用了dispatch或者complete */
+    private boolean finished = false;
+
+    private ScheduledFuture<?> timeoutFuture;
+
+    EmbeddedAsyncContext(HttpConnection connection, EmbeddedHttpServletRequest request,
+                         EmbeddedHttpServletResponse response, ServletRequest servletRequest,
+                         ServletResponse servletResponse, EmbeddedAsyncContext previous) {
+        this.connection = connection;
+        this.request = request;
+        this.response = response;
+        this.servletRequest = servletRequest;
+        this.servletResponse = servletResponse;
+        if (previous != null) {
+            // 重新派发之后再次开启异步处理，之前注册的监听器在最终结束时仍然需要通知
+            List<AsyncListener> inherited = previous.getListeners();
+            this.listeners.addAll(inherited);
+            AsyncEvent event = new AsyncEvent(this, servletRequest, servletResponse);
+            for (AsyncListener listener : inherited) {
+                try {
+                    listener.onStartAsync(event);
+                } catch (IOException e) {
+                    log.warn("异步监听器执行失败", e);
+                }
+            }
+        }
+    }
+
+    EmbeddedHttpServletRequest getEmbeddedRequest() {
+        return request;
+    }
+
+    EmbeddedHttpServletResponse getEmbeddedResponse() {
+        return response;
+    }
+
+    @Override
+    public ServletRequest getRequest() {
+        return servletRequest;
+    }
+
+    @Override
+    public ServletResponse getResponse() {
+        return servletResponse;
+    }
+
+    @Override
+    public boolean hasOriginalRequestAndResponse() {
+        return servletRequest == request && servletResponse == response;
+    }
+
+    @Override
+    public void dispatch() {
+        synchronized (this) {
+            if (finished) {
+                throw new IllegalStateException("异步请求已经结束");
+            }
+            finished = true;
+            cancelTimeout();
+            if (inService) {
+                pending = Action.DISPATCH;
+                return;
+            }
+        }
+        connection.getServer().execute(() -> connection.asyncDispatch(this));
+    }
+
+    @Override
+    public void dispatch(String path) {
+        throw new UnsupportedOperationException("嵌入式服务器只支持派发到原来的请求路径");
+    }
+
+    @Override
+    public void dispatch(ServletContext context, String path) {
+        dispatch(path);
+    }
+
+    @Override
+    public void complete() {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            cancelTimeout();
+            if (inService) {
+                pending = Action.COMPLETE;
+                return;
+            }
+        }
+        connection.getServer().execute(() -> connection.asyncComplete(this));
+    }
+
+    @Override
+    public void start(Runnable run) {
+        connection.getServer().execute(run);
+    }
+
+    @Override
+    public void addListener(AsyncListener listener) {
+        synchronized (this) {
+            listeners.add(listener);
+        }
+    }
+
+    @Override
+    public void addListener(AsyncListener listener, ServletRequest servletRequest, ServletResponse servletResponse) {
+        addListener(listener);
+    }
+
+    @Override
+    public <T extends AsyncListener> T createListener(Class<T> clazz) throws ServletException {
+        try {
+            return clazz.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ServletException("无法创建异步监听器 : " + clazz.getName(), e);
+        }
+    }
+
+    @Override
+    public synchronized void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public synchronized long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * 开启异步处理的service方法返回之后由工作线程调用
+     * @return 工作线程接下来需要执行的操作
+     */
+    synchronized Action serviceReturned() {
+        inService = false;
+        if (pending == Action.WAIT && timeout > 0) {
+            timeoutFuture = connection.getServer().schedule(this::onTimeout, timeout);
+        }
+        return pending;
+    }
+
+    private void cancelTimeout() {
+        if (timeoutFuture != null) {
+            timeoutFuture.cancel(false);
+            timeoutFuture = null;
+        }
+    }
+
+    /**
+     * 超时之后通知监听器，监听器没有结束请求时返回500
+     */
+    private void onTimeout() {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+        }
+        AsyncEvent event = new AsyncEvent(this, servletRequest, servletResponse);
+        for (AsyncListener listener : getListeners()) {
+            try {
+                listener.onTimeout(event);
+            } catch (IOException | RuntimeException e) {
+                log.warn("异步监听器执行失败", e);
+            }
+        }
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+        }
+        try {
+            if (!response.isCommitted()) {
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+        } catch (IOException e) {
+            log.debug("异步请求超时响应写出失败", e);
+        }
+        complete();
+    }
+
+    /**
+     * 等待结果期间连接被关闭
+     */
+    void onError(Throwable ex) {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+        }
+        AsyncEvent event = new AsyncEvent(this, servletRequest, servletResponse, ex);
+        for (AsyncListener listener : getListeners()) {
+            try {
+                listener.onError(event);
+            } catch (IOException | RuntimeException e) {
+                log.warn("异步监听器执行失败", e);
+            }
+        }
+        complete();
+    }
+
+    /**
+     * 响应最终结束之后通知监听器
+     */
+    void onComplete() {
+        AsyncEvent event = new AsyncEvent(this, servletRequest, servletResponse);
+        for (AsyncListener listener : getListeners()) {
+            try {
+                listener.onComplete(event);
+            } catch (IOException | RuntimeException e) {
+                log.warn("异步监听器执行失败", e);
+            }
+        }
+    }
+
+    private synchronized List<AsyncListener> getListeners() {
+        return new ArrayList<>(listeners);
+    }
+}
@@ -0,0 +1,725 @@
+package com.yankaizhang.spring.webmvc.embedded;
+
+import javax.servlet.*;
+import javax.servlet.http.*;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 嵌入式服务器中的请求对象<br/>
+ * 请求体已经完整地读入内存；请求参数在第一次访问时从查询字符串和urlencoded请求体中解析；
+ * 不支持session和原生的multipart解析，文件上传由{@link com.yankaizhang.spring.webmvc.multipart.MultipartResolver}处理
+ * @author dzzhyk
+ * @since 2026-10-18 19:32:30
+ */
+public class EmbeddedHttpServletRequest implements HttpServletRequest {
+
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+
+    private static final String[] DATE_FORMATS = {
+            "EEE, dd MMM yyyy HH:mm:ss zzz",
+            "EEEE, dd-MMM-yy HH:mm:ss zzz",
+            "EEE MMM d HH:mm:ss yyyy"
+    };
+
+    private final String method;
+
+    private final String requestURI;
+
+    private final String queryString;
+
+    private final String protocol;
+
+    private final Map<String, List<String>> headers;
+
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    private byte[] body;
+
+    private String characterEncoding;
+
+    private Map<String, String[]> parameters;
+
+    private ServletInputStream inputStream;
+
+    private BufferedReader reader;
+
+    private Cookie[] cookies;
+
+    private EmbeddedServletContext servletContext;
+
+    private InetSocketAddress localAddress;
+
+    private InetSocketAddress remoteAddress;
+
+    private DispatcherType dispatcherType = DispatcherType.REQUEST;
+
+    private HttpConnection connection;
+
+    private EmbeddedHttpServletResponse response;
+
+    /** 当前的异步上下文，重新派发之后清空 */
+    private volatile EmbeddedAsyncContext asyncContext;
+
+    /** 上一次的异步上下文，重新派发时再次开启异步处理需要继承其中的监听器 */
+    private EmbeddedAsyncContext previousAsyncContext;
+
+    EmbeddedHttpServletRequest(String method, String requestURI, String queryString, String protocol,
+                               Map<String, List<String>> headers) {
+        this.method = method;
+        this.requestURI = requestURI;
+        this.queryString = queryString;
+        this.protocol = protocol;
+        this.headers = headers;
+    }
+
+    void setBody(byte[] body) {
+        this.body = body;
+    }
+
+    void bind(HttpConnection connection, EmbeddedHttpServletResponse response) {
+        this.connection = connection;
+        this.response = response;
+        this.servletContext = connection.getServer().getServletContext();
+        this.localAddress = connection.getLocalAddress();
+        this.remoteAddress = connection.getRemoteAddress();
+    }
+
+    void setDispatcherType(DispatcherType dispatcherType) {
+        this.dispatcherType = dispatcherType;
+    }
+
+    /**
+     * 开始重新派发，之后可以再次开启异步处理
+     */
+    void clearAsyncContext() {
+        this.previousAsyncContext = this.asyncContext;
+        this.asyncContext = null;
+    }
+
+    EmbeddedAsyncContext getEmbeddedAsyncContext() {
+        return asyncContext;
+    }
+
+    /**
+     * 请求最终结束时需要通知的异步上下文，没有开启过异步处理时为null
+     */
+    EmbeddedAsyncContext getLastAsyncContext() {
+        EmbeddedAsyncContext context = asyncContext;
+        return context != null ? context : previousAsyncContext;
+    }
+
+    /**
+     * 根据协议版本和Connection请求头判断客户端是否希望保持连接
+     */
+    boolean isKeepAlive() {
+        String connectionHeader = getHeader("Connection");
+        if ("HTTP/1.0".equals(protocol)) {
+            return connectionHeader != null && connectionHeader.toLowerCase().contains("keep-alive");
+        }
+        return connectionHeader == null || !connectionHeader.toLowerCase().contains("close");
+    }
+
+    // ---------------- 请求行和请求头 ----------------
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestURI;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer();
+        url.append(getScheme()).append("://").append(getServerName());
+        int port = getServerPort();
+        if (port != 80) {
+            url.append(':').append(port);
+        }
+        return url.append(requestURI);
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getProtocol() {
+        return protocol;
+    }
+
+    @Override
+    public String getScheme() {
+        return "http";
+    }
+
+    @Override
+    public String getContextPath() {
+        return servletContext == null ? "" : servletContext.getContextPath();
+    }
+
+    @Override
+    public String getServletPath() {
+        String contextPath = getContextPath();
+        return requestURI.startsWith(contextPath) ? requestURI.substring(contextPath.length()) : requestURI;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return (values == null ? null : values.get(0));
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return Collections.enumeration(values == null ? Collections.<String>emptyList() : values);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        String value = getHeader(name);
+        if (value == null) {
+            return -1;
+        }
+        for (String format : DATE_FORMATS) {
+            SimpleDateFormat dateFormat = new SimpleDateFormat(format, Locale.US);
+            dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+            try {
+                return dateFormat.parse(value).getTime();
+            } catch (ParseException e) {
+                // 尝试下一种格式
+            }
+        }
+        throw new IllegalArgumentException("无法解析的日期请求头 " + name + " : " + value);
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return (value == null ? -1 : Integer.parseInt(value.trim()));
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        if (cookies == null) {
+            List<String> values = headers.get("Cookie");
+            if (values == null) {
+                return null;
+            }
+            List<Cookie> result = new ArrayList<>();
+            for (String value : values) {
+                for (String pair : value.split(";")) {
+                    int eq = pair.indexOf('=');
+                    if (eq > 0) {
+                        try {
+                            result.add(new Cookie(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim()));
+                        } catch (IllegalArgumentException e) {
+                            // 忽略名称不合法的cookie
+                        }
+                    }
+                }
+            }
+            cookies = result.toArray(new Cookie[0]);
+        }
+        return cookies.length == 0 ? null : cookies;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return getLocales().nextElement();
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        String acceptLanguage = getHeader("Accept-Language");
+        if (acceptLanguage == null || acceptLanguage.trim().isEmpty()) {
+            return Collections.enumeration(Collections.singletonList(Locale.getDefault()));
+        }
+        List<Locale.LanguageRange> ranges;
+        try {
+            ranges = Locale.LanguageRange.parse(acceptLanguage);
+        } catch (IllegalArgumentException e) {
+            return Collections.enumeration(Collections.singletonList(Locale.getDefault()));
+        }
+        List<Locale> locales = new ArrayList<>(ranges.size());
+        for (Locale.LanguageRange range : ranges) {
+            if (!"*".equals(range.getRange())) {
+                locales.add(Locale.forLanguageTag(range.getRange()));
+            }
+        }
+        if (locales.isEmpty()) {
+            locales.add(Locale.getDefault());
+        }
+        return Collections.enumeration(locales);
+    }
+
+    // ---------------- 请求体和请求参数 ----------------
+
+    @Override
+    public String getCharacterEncoding() {
+        if (characterEncoding == null) {
+            String contentType = getContentType();
+            if (contentType != null) {
+                for (String part : contentType.split(";")) {
+                    part = part.trim();
+                    if (part.toLowerCase().startsWith("charset=")) {
+                        characterEncoding = part.substring(8).replace("\"", "").trim();
+                    }
+                }
+            }
+        }
+        return characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String env) throws UnsupportedEncodingException {
+        if (reader == null && parameters == null) {
+            this.characterEncoding = env;
+        }
+    }
+
+    @Override
+    public int getContentLength() {
+        return body == null ? -1 : body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return getContentLength();
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader("Content-Type");
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (reader != null) {
+            throw new IllegalStateException("getReader()已经被调用");
+        }
+        if (inputStream == null) {
+            inputStream = new BodyInputStream(body == null ? new byte[0] : body);
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (inputStream != null) {
+            throw new IllegalStateException("getInputStream()已经被调用");
+        }
+        if (reader == null) {
+            String encoding = getCharacterEncoding();
+            reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body == null ? new byte[0] : body),
+                    encoding == null ? StandardCharsets.UTF_8.name() : encoding));
+        }
+        return reader;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = getParameterMap().get(name);
+        return (values == null ? null : values[0]);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(getParameterMap().keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return getParameterMap().get(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        if (parameters == null) {
+            parameters = parseParameters();
+        }
+        return parameters;
+    }
+
+    /**
+     * 合并查询字符串和表单请求体中的参数
+     */
+    private Map<String, String[]> parseParameters() {
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        String encoding = getCharacterEncoding();
+        if (encoding == null) {
+            encoding = StandardCharsets.UTF_8.name();
+        }
+        addParameters(values, queryString, encoding);
+        String contentType = getContentType();
+        if (contentType != null && contentType.toLowerCase().startsWith(FORM_CONTENT_TYPE) &&
+                inputStream == null && reader == null && body != null && body.length > 0) {
+            addParameters(values, new String(body, StandardCharsets.ISO_8859_1), encoding);
+        }
+        Map<String, String[]> result = new LinkedHashMap<>(values.size() * 2);
+        for (Map.Entry<String, List<String>> entry : values.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().toArray(new String[0]));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static void addParameters(Map<String, List<String>> values, String source, String encoding) {
+        if (source == null || source.isEmpty()) {
+            return;
+        }
+        for (String pair : source.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String name = decode(eq >= 0 ? pair.substring(0, eq) : pair, encoding);
+            String value = (eq >= 0 ? decode(pair.substring(eq + 1), encoding) : "");
+            values.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+        }
+    }
+
+    private static String decode(String value, String encoding) {
+        try {
+            return URLDecoder.decode(value, encoding);
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    // ---------------- 属性 ----------------
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object o) {
+        if (o == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, o);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    // ---------------- 连接信息 ----------------
+
+    @Override
+    public String getServerName() {
+        String host = getHeader("Host");
+        if (host != null && !host.isEmpty()) {
+            int colon = host.lastIndexOf(':');
+            return (colon > 0 && host.indexOf(']') < colon ? host.substring(0, colon) : host);
+        }
+        return getLocalName();
+    }
+
+    @Override
+    public int getServerPort() {
+        String host = getHeader("Host");
+        if (host != null) {
+            int colon = host.lastIndexOf(':');
+            if (colon > 0 && host.indexOf(']') < colon) {
+                try {
+                    return Integer.parseInt(host.substring(colon + 1));
+                } catch (NumberFormatException e) {
+                    // 使用本地端口
+                }
+            } else if (!host.isEmpty()) {
+                return 80;
+            }
+        }
+        return getLocalPort();
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return remoteAddress == null ? null : remoteAddress.getAddress().getHostAddress();
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return getRemoteAddr();
+    }
+
+    @Override
+    public int getRemotePort() {
+        return remoteAddress == null ? -1 : remoteAddress.getPort();
+    }
+
+    @Override
+    public String getLocalName() {
+        return localAddress == null ? null : localAddress.getHostString();
+    }
+
+    @Override
+    public String getLocalAddr() {
+        return localAddress == null ? null : localAddress.getAddress().getHostAddress();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return localAddress == null ? -1 : localAddress.getPort();
+    }
+
+    @Override
+    public boolean isSecure() {
+        return false;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    @Override
+    public RequestDispatcher getRequestDispatcher(String path) {
+        return servletContext == null ? null : servletContext.getRequestDispatcher(path);
+    }
+
+    @Override
+    @Deprecated
+    public String getRealPath(String path) {
+        return servletContext == null ? null : servletContext.getRealPath(path);
+    }
+
+    // ---------------- 异步处理 ----------------
+
+    @Override
+    public AsyncContext startAsync() throws IllegalStateException {
+        return startAsync(this, response);
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse)
+            throws IllegalStateException {
+        if (connection == null) {
+            throw new IllegalStateException("请求还没有开始处理");
+        }
+        if (asyncContext != null) {
+            throw new IllegalStateException("已经开启了异步处理");
+        }
+        EmbeddedAsyncContext context = new EmbeddedAsyncContext(connection, this, response,
+                servletRequest, servletResponse, previousAsyncContext);
+        previousAsyncContext = null;
+        asyncContext = context;
+        return context;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return asyncContext != null;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return true;
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        if (asyncContext == null) {
+            throw new IllegalStateException("没有开启异步处理");
+        }
+        return asyncContext;
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return dispatcherType;
+    }
+
+    // ---------------- 不支持的功能 ----------------
+
+    @Override
+    public HttpSession getSession(boolean create) {
+        if (create) {
+            throw new UnsupportedOperationException("嵌入式服务器不支持session");
+        }
+        return null;
+    }
+
+    @Override
+    public HttpSession getSession() {
+        return getSession(true);
+    }
+
+    @Override
+    public String changeSessionId() {
+        throw new IllegalStateException("嵌入式服务器不支持session");
+    }
+
+    @Override
+    public String getRequestedSessionId() {
+        return null;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdValid() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromCookie() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromURL() {
+        return false;
+    }
+
+    @Override
+    @Deprecated
+    public boolean isRequestedSessionIdFromUrl() {
+        return false;
+    }
+
+    @Override
+    public String getAuthType() {
+        return null;
+    }
+
+    @Override
+    public String getRemoteUser() {
+        return null;
+    }
+
+    @Override
+    public boolean isUserInRole(String role) {
+        return false;
+    }
+
+    @Override
+    public Principal getUserPrincipal() {
+        return null;
+    }
+
+    @Override
+    public boolean authenticate(HttpServletResponse response) throws IOException, ServletException {
+        throw new ServletException("嵌入式服务器不支持认证");
+    }
+
+    @Override
+    public void login(String username, String password) throws ServletException {
+        throw new ServletException("嵌入式服务器不支持认证");
+    }
+
+    @Override
+    public void logout() throws ServletException {
+        throw new ServletException("嵌入式服务器不支持认证");
+    }
+
+    @Override
+    public Collection<Part> getParts() throws IOException, ServletException {
+        throw new ServletException("嵌入式服务器不解析multipart请求，请使用MultipartResolver");
+    }
+
+    @Override
+    public Part getPart(String name) throws IOException, ServletException {
+        throw new ServletException("嵌入式服务器不解析multipart请求，请使用MultipartResolver");
+    }
+
+    @Override
+    public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) throws IOException, ServletException {
+        throw new ServletException("嵌入式服务器不支持协议升级");
+    }
+
+
+    /**
+     * 读取内存中请求体的输入流
+     */
+    private static class BodyInputStream extends ServletInputStream {
+
+        private final byte[] body;
+
+        private int position = 0;
+
+        BodyInputStream(byte[] body) {
+            this.body = body;
+        }
+
+        @Override
+        public int read() {
+            return position < body.length ? (body[position++] & 0xff) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position >= body.length) {
+                return -1;
+            }
+            int n = Math.min(len, body.length - position);
+            System.arraycopy(body, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return body.length - position;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return position >= body.length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                readListener.onDataAvailable();
+                readListener.onAllDataRead();
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
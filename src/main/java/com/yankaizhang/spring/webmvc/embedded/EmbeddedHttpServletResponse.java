@@ -0,0 +1,703 @@
+package com.yankaizhang.spring.webmvc.embedded;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+/**
+ * 嵌入式服务器中的响应对象<br/>
+ * 响应体先写入缓冲区：处理结束时还没有提交的响应一次性写出，并且带上Content-Length；
+ * 缓冲区写满或者主动flush时提交响应头，之后的内容使用chunked编码写出（HTTP/1.0写完之后关闭连接）
+ * @author dzzhyk
+ * @since 2026-10-18 19:33:20
+ */
+public class EmbeddedHttpServletResponse implements HttpServletResponse {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private static final byte[] LAST_CHUNK = {'0', '\r', '\n', '\r', '\n'};
+
+    private static final String DEFAULT_CHARSET = StandardCharsets.ISO_8859_1.name();
+
+    /** 缓存的Date响应头，每秒最多格式化一次 */
+    private static volatile String cachedDate;
+
+    private static volatile long cachedDateSecond;
+
+    private final HttpConnection connection;
+
+    private final EmbeddedHttpServletRequest request;
+
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    private final List<Cookie> cookies = new ArrayList<>(0);
+
+    private int status = SC_OK;
+
+    private String contentType;
+
+    private String characterEncoding;
+
+    private long contentLength = -1;
+
+    private Locale locale = Locale.getDefault();
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    private byte[] buffer;
+
+    private int count = 0;
+
+    private boolean committed = false;
+
+    private boolean chunked = false;
+
+    /** 调用sendError之后忽略后续写入的内容 */
+    private boolean errorSent = false;
+
+    private boolean finished = false;
+
+    /** 响应结束之后是否可以继续使用连接 */
+    private boolean keepAlive;
+
+    private ResponseOutputStream outputStream;
+
+    private PrintWriter writer;
+
+    EmbeddedHttpServletResponse(HttpConnection connection, EmbeddedHttpServletRequest request) {
+        this.connection = connection;
+        this.request = request;
+    }
+
+    // ---------------- 状态码和响应头 ----------------
+
+    @Override
+    public void setStatus(int sc) {
+        if (!committed) {
+            this.status = sc;
+        }
+    }
+
+    @Override
+    @Deprecated
+    public void setStatus(int sc, String sm) {
+        setStatus(sc);
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        sendError(sc, null);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        if (committed) {
+            throw new IllegalStateException("响应已经提交");
+        }
+        resetBuffer();
+        this.status = sc;
+        this.contentLength = -1;
+        headers.remove("Content-Encoding");
+        headers.remove("Content-Length");
+        setContentType("text/plain;charset=UTF-8");
+        byte[] content = (sc + " " + (msg == null ? reasonPhrase(sc) : msg)).getBytes(StandardCharsets.UTF_8);
+        ensureBuffer(content.length);
+        System.arraycopy(content, 0, buffer, 0, content.length);
+        count = content.length;
+        errorSent = true;
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        if (committed) {
+            throw new IllegalStateException("响应已经提交");
+        }
+        resetBuffer();
+        this.status = SC_FOUND;
+        if (!location.contains("://") && !location.startsWith("/")) {
+            String uri = request.getRequestURI();
+            location = uri.substring(0, uri.lastIndexOf('/') + 1) + location;
+        }
+        setHeader("Location", location);
+        errorSent = true;
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name) ||
+                ("Content-Type".equalsIgnoreCase(name) && contentType != null) ||
+                ("Content-Length".equalsIgnoreCase(name) && contentLength >= 0);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (committed || specialHeader(name, value)) {
+            return;
+        }
+        if (value == null) {
+            headers.remove(name);
+        } else {
+            List<String> values = new ArrayList<>(1);
+            values.add(value);
+            headers.put(name, values);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (committed || value == null || specialHeader(name, value)) {
+            return;
+        }
+        headers.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+    }
+
+    /**
+     * Content-Type和Content-Length单独保存
+     */
+    private boolean specialHeader(String name, String value) {
+        if ("Content-Type".equalsIgnoreCase(name)) {
+            setContentType(value);
+            return true;
+        }
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            contentLength = (value == null ? -1 : Long.parseLong(value.trim()));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, formatDate(date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, formatDate(date));
+    }
+
+    @Override
+    public String getHeader(String name) {
+        if ("Content-Type".equalsIgnoreCase(name)) {
+            return getContentType();
+        }
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            return contentLength < 0 ? null : String.valueOf(contentLength);
+        }
+        List<String> values = headers.get(name);
+        return (values == null ? null : values.get(0));
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        String special = ("Content-Type".equalsIgnoreCase(name) || "Content-Length".equalsIgnoreCase(name)) ?
+                getHeader(name) : null;
+        if (special != null) {
+            return Collections.singletonList(special);
+        }
+        List<String> values = headers.get(name);
+        return (values == null ? Collections.<String>emptyList() : new ArrayList<>(values));
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        Set<String> names = new LinkedHashSet<>(headers.keySet());
+        if (contentType != null) {
+            names.add("Content-Type");
+        }
+        if (contentLength >= 0) {
+            names.add("Content-Length");
+        }
+        return names;
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        if (!committed) {
+            cookies.add(cookie);
+        }
+    }
+
+    @Override
+    public String encodeURL(String url) {
+        return url;
+    }
+
+    @Override
+    public String encodeRedirectURL(String url) {
+        return url;
+    }
+
+    @Override
+    @Deprecated
+    public String encodeUrl(String url) {
+        return url;
+    }
+
+    @Override
+    @Deprecated
+    public String encodeRedirectUrl(String url) {
+        return url;
+    }
+
+    // ---------------- 内容类型和编码 ----------------
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding == null ? DEFAULT_CHARSET : characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        if (!committed && writer == null) {
+            this.characterEncoding = charset;
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        if (contentType == null) {
+            return null;
+        }
+        return characterEncoding == null ? contentType : contentType + ";charset=" + characterEncoding;
+    }
+
+    @Override
+    public void setContentType(String type) {
+        if (committed) {
+            return;
+        }
+        if (type == null) {
+            this.contentType = null;
+            return;
+        }
+        int semicolon = type.indexOf(';');
+        if (semicolon < 0) {
+            this.contentType = type.trim();
+            return;
+        }
+        this.contentType = type.substring(0, semicolon).trim();
+        for (String param : type.substring(semicolon + 1).split(";")) {
+            param = param.trim();
+            if (param.toLowerCase().startsWith("charset=")) {
+                setCharacterEncoding(param.substring(8).replace("\"", "").trim());
+            } else if (!param.isEmpty()) {
+                this.contentType = this.contentType + ";" + param;
+            }
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (!committed) {
+            this.contentLength = len;
+        }
+    }
+
+    @Override
+    public void setLocale(Locale loc) {
+        if (!committed && loc != null) {
+            this.locale = loc;
+            if (!headers.containsKey("Content-Language")) {
+                setHeader("Content-Language", loc.toLanguageTag());
+            }
+        }
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    // ---------------- 响应体 ----------------
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter()已经被调用");
+        }
+        if (outputStream == null) {
+            outputStream = new ResponseOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream()已经被调用");
+            }
+            outputStream = new ResponseOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+            if (characterEncoding == null) {
+                characterEncoding = DEFAULT_CHARSET;
+            }
+        }
+        return writer;
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        if (count > 0 || committed) {
+            throw new IllegalStateException("响应已经写入内容");
+        }
+        this.bufferSize = Math.max(size, 0);
+        this.buffer = null;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        flushInternal();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (committed) {
+            throw new IllegalStateException("响应已经提交");
+        }
+        count = 0;
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        status = SC_OK;
+        headers.clear();
+        cookies.clear();
+        contentType = null;
+        characterEncoding = null;
+        contentLength = -1;
+        errorSent = false;
+        writer = null;
+        outputStream = null;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed || errorSent;
+    }
+
+    private void ensureBuffer(int minSize) {
+        if (buffer == null || buffer.length < minSize) {
+            byte[] newBuffer = new byte[Math.max(bufferSize, minSize)];
+            if (buffer != null) {
+                System.arraycopy(buffer, 0, newBuffer, 0, count);
+            }
+            buffer = newBuffer;
+        }
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            throw new IOException("响应已经结束");
+        }
+        if (errorSent || len == 0) {
+            return;
+        }
+        if (count + len <= bufferSize) {
+            ensureBuffer(bufferSize);
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+            return;
+        }
+        flushInternal();
+        if (len < bufferSize) {
+            ensureBuffer(bufferSize);
+            System.arraycopy(b, off, buffer, 0, len);
+            count = len;
+        } else {
+            writeBody(ByteBuffer.wrap(b, off, len));
+        }
+    }
+
+    /**
+     * 提交响应头并且写出缓冲区中的内容
+     */
+    private void flushInternal() throws IOException {
+        if (finished || errorSent) {
+            return;
+        }
+        if (!committed) {
+            commit(false);
+        }
+        if (count > 0) {
+            writeBody(ByteBuffer.wrap(buffer, 0, count));
+            count = 0;
+        }
+    }
+
+    private void writeBody(ByteBuffer content) throws IOException {
+        if (!hasBody()) {
+            return;
+        }
+        if (chunked) {
+            byte[] size = (Integer.toHexString(content.remaining()) + "\r\n").getBytes(StandardCharsets.ISO_8859_1);
+            connection.write(ByteBuffer.wrap(size), content, ByteBuffer.wrap(CRLF));
+        } else {
+            connection.write(content);
+        }
+    }
+
+    /**
+     * 结束响应，写出还没有提交的响应或者chunked结束标记
+     * @return 是否可以继续使用连接
+     */
+    boolean finish() throws IOException {
+        if (finished) {
+            return keepAlive;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        if (!committed) {
+            ByteBuffer head = commit(true);
+            finished = true;
+            if (count > 0 && hasBody()) {
+                connection.write(head, ByteBuffer.wrap(buffer, 0, count));
+            } else {
+                connection.write(head);
+            }
+        } else {
+            finished = true;
+            if (chunked) {
+                connection.write(ByteBuffer.wrap(LAST_CHUNK));
+            }
+        }
+        return keepAlive;
+    }
+
+    /**
+     * 异常中断的响应不再写出内容，连接也不再继续使用
+     */
+    void abort() {
+        finished = true;
+        keepAlive = false;
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * HEAD请求和204、304等状态码没有响应体
+     */
+    private boolean hasBody() {
+        return !"HEAD".equals(request.getMethod()) &&
+                status != SC_NO_CONTENT && status != SC_NOT_MODIFIED && status >= 200;
+    }
+
+    /**
+     * 生成响应头，如果不是在响应结束时提交，写出响应头
+     * @param complete 是否是响应结束时提交，此时缓冲区中是全部的响应体
+     * @return 响应结束时提交返回响应头，否则返回null
+     */
+    private ByteBuffer commit(boolean complete) throws IOException {
+        committed = true;
+        keepAlive = request.isKeepAlive() && connection.isKeepAliveAllowed() && !hasCloseHeader();
+        boolean http10 = "HTTP/1.0".equals(request.getProtocol());
+
+        StringBuilder head = new StringBuilder(256);
+        head.append("HTTP/1.1 ").append(status).append(' ').append(reasonPhrase(status)).append("\r\n");
+        head.append("Date: ").append(currentDate()).append("\r\n");
+        String type = getContentType();
+        if (type != null) {
+            head.append("Content-Type: ").append(type).append("\r\n");
+        }
+        if (status == SC_NO_CONTENT || status == SC_NOT_MODIFIED || status < 200) {
+            // 没有响应体，也不需要长度
+        } else if (contentLength >= 0) {
+            head.append("Content-Length: ").append(contentLength).append("\r\n");
+        } else if (complete) {
+            head.append("Content-Length: ").append(count).append("\r\n");
+        } else if (!http10) {
+            chunked = true;
+            head.append("Transfer-Encoding: chunked\r\n");
+        } else {
+            // HTTP/1.0不支持chunked，通过关闭连接表示响应结束
+            keepAlive = false;
+        }
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            if ("Connection".equalsIgnoreCase(entry.getKey())) {
+                continue;
+            }
+            for (String value : entry.getValue()) {
+                head.append(entry.getKey()).append(": ").append(value).append("\r\n");
+            }
+        }
+        for (Cookie cookie : cookies) {
+            head.append("Set-Cookie: ").append(formatCookie(cookie)).append("\r\n");
+        }
+        if (!keepAlive) {
+            head.append("Connection: close\r\n");
+        } else if (http10) {
+            head.append("Connection: keep-alive\r\n");
+        }
+        head.append("\r\n");
+
+        ByteBuffer headBuffer = ByteBuffer.wrap(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        if (complete) {
+            return headBuffer;
+        }
+        connection.write(headBuffer);
+        return null;
+    }
+
+    private boolean hasCloseHeader() {
+        List<String> values = headers.get("Connection");
+        return values != null && values.get(0).toLowerCase().contains("close");
+    }
+
+    private static String formatCookie(Cookie cookie) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(cookie.getName()).append('=').append(cookie.getValue() == null ? "" : cookie.getValue());
+        if (cookie.getMaxAge() >= 0) {
+            builder.append("; Max-Age=").append(cookie.getMaxAge());
+            builder.append("; Expires=").append(formatDate(System.currentTimeMillis() + cookie.getMaxAge() * 1000L));
+        }
+        if (cookie.getDomain() != null) {
+            builder.append("; Domain=").append(cookie.getDomain());
+        }
+        if (cookie.getPath() != null) {
+            builder.append("; Path=").append(cookie.getPath());
+        }
+        if (cookie.getSecure()) {
+            builder.append("; Secure");
+        }
+        if (cookie.isHttpOnly()) {
+            builder.append("; HttpOnly");
+        }
+        return builder.toString();
+    }
+
+    private static String currentDate() {
+        long now = System.currentTimeMillis();
+        long second = now / 1000;
+        String date = cachedDate;
+        if (date == null || second != cachedDateSecond) {
+            date = formatDate(now);
+            cachedDateSecond = second;
+            cachedDate = date;
+        }
+        return date;
+    }
+
+    private static String formatDate(long date) {
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format.format(new Date(date));
+    }
+
+    static String reasonPhrase(int status) {
+        switch (status) {
+            case 100: return "Continue";
+            case 200: return "OK";
+            case 201: return "Created";
+            case 202: return "Accepted";
+            case 204: return "No Content";
+            case 206: return "Partial Content";
+            case 301: return "Moved Permanently";
+            case 302: return "Found";
+            case 303: return "See Other";
+            case 304: return "Not Modified";
+            case 307: return "Temporary Redirect";
+            case 308: return "Permanent Redirect";
+            case 400: return "Bad Request";
+            case 401: return "Unauthorized";
+            case 403: return "Forbidden";
+            case 404: return "Not Found";
+            case 405: return "Method Not Allowed";
+            case 406: return "Not Acceptable";
+            case 408: return "Request Timeout";
+            case 409: return "Conflict";
+            case 413: return "Payload Too Large";
+            case 415: return "Unsupported Media Type";
+            case 416: return "Range Not Satisfiable";
+            case 429: return "Too Many Requests";
+            case 431: return "Request Header Fields Too Large";
+            case 500: return "Internal Server Error";
+            case 501: return "Not Implemented";
+            case 503: return "Service Unavailable";
+            default: return status < 400 ? "OK" : (status < 500 ? "Client Error" : "Server Error");
+        }
+    }
+
+
+    /**
+     * 写入响应缓冲区的输出流
+     */
+    private class ResponseOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!finished && !errorSent && count < bufferSize) {
+                ensureBuffer(bufferSize);
+                buffer[count++] = (byte) b;
+                return;
+            }
+            EmbeddedHttpServletResponse.this.write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            EmbeddedHttpServletResponse.this.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushInternal();
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                writeListener.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.yankaizhang.spring.webmvc.embedded;
+
+import com.yankaizhang.spring.context.impl.AnnotationConfigApplicationContext;
+import com.yankaizhang.spring.webmvc.servlet.DispatcherServlet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于NIO selector的嵌入式HTTP/1.1服务器，不需要外部的servlet容器就可以运行{@link DispatcherServlet}<br/>
+ * 一个selector线程负责接受连接和读写数据，请求在工作线程池中处理，支持keep-alive和流水线请求。
+ * 支持的配置项：
+ * <ul>
+ * <li>server.port 监听端口，默认8080，0表示随机端口</li>
+ * <li>server.host 监听地址，默认监听所有地址</li>
+ * <li>server.contextPath 项目部署的路径，默认为空</li>
+ * <li>server.workerThreads 工作线程数量，设置为virtual时使用虚拟线程（需要JDK 21）</li>
+ * <li>server.idleTimeout 连接空闲超时时间，单位毫秒，默认60000</li>
+ * <li>server.maxHeaderSize 请求头的最大长度，默认8192</li>
+ * <li>server.maxRequestSize 请求体的最大长度，请求体完整地读入内存，默认10MB</li>
+ * <li>server.documentRoot 静态资源根目录，默认为当前工作目录</li>
+ * </ul>
+ * @author dzzhyk
+ * @since 2026-10-18 19:36:30
+ */
+public class EmbeddedServer {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedServer.class);
+
+    private static final String PORT = "server.port";
+
+    private static final String HOST = "server.host";
+
+    private static final String CONTEXT_PATH = "server.contextPath";
+
+    private static final String WORKER_THREADS = "server.workerThreads";
+
+    private static final String IDLE_TIMEOUT = "server.idleTimeout";
+
+    private static final String MAX_HEADER_SIZE = "server.maxHeaderSize";
+
+    private static final String MAX_REQUEST_SIZE = "server.maxRequestSize";
+
+    private static final String DOCUMENT_ROOT = "server.documentRoot";
+
+    private static final String VIRTUAL_THREADS = "virtual";
+
+    private final AnnotationConfigApplicationContext context;
+
+    private final Properties properties;
+
+    private final int configuredPort;
+
+    private final String host;
+
+    private final String contextPath;
+
+    private final long idleTimeout;
+
+    private final int maxHeaderSize;
+
+    private final long maxRequestSize;
+
+    private final File documentRoot;
+
+    /** 外部设置的工作线程池，服务器停止时不会关闭 */
+    private ExecutorService workerExecutor;
+
+    private boolean ownsWorkerExecutor = false;
+
+    private ScheduledExecutorService scheduler;
+
+    private EmbeddedServletContext servletContext;
+
+    private DispatcherServlet servlet;
+
+    private Selector selector;
+
+    private ServerSocketChannel serverChannel;
+
+    private Thread selectorThread;
+
+    private volatile boolean running = false;
+
+    private int port = -1;
+
+    /** 需要在selector线程中执行的任务 */
+    private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<>();
+
+    private final Set<HttpConnection> connections = ConcurrentHashMap.newKeySet();
+
+    public EmbeddedServer(AnnotationConfigApplicationContext context) {
+        this(context, new Properties());
+    }
+
+    public EmbeddedServer(AnnotationConfigApplicationContext context, Properties properties) {
+        this.context = context;
+        this.properties = properties;
+        this.configuredPort = Integer.parseInt(properties.getProperty(PORT, "8080").trim());
+        String host = properties.getProperty(HOST);
+        this.host = (host == null || host.trim().isEmpty() ? null : host.trim());
+        String contextPath = properties.getProperty(CONTEXT_PATH, "").trim();
+        if (contextPath.endsWith("/")) {
+            contextPath = contextPath.substring(0, contextPath.length() - 1);
+        }
+        this.contextPath = contextPath;
+        this.idleTimeout = Long.parseLong(properties.getProperty(IDLE_TIMEOUT, "60000").trim());
+        this.maxHeaderSize = Integer.parseInt(properties.getProperty(MAX_HEADER_SIZE, "8192").trim());
+        this.maxRequestSize = Long.parseLong(properties.getProperty(MAX_REQUEST_SIZE, String.valueOf(10 * 1024 * 1024)).trim());
+        this.documentRoot = new File(properties.getProperty(DOCUMENT_ROOT, System.getProperty("user.dir")).trim());
+    }
+
+    /**
+     * 使用自定义的工作线程池，需要在{@link #start()}之前设置
+     */
+    public void setWorkerExecutor(ExecutorService workerExecutor) {
+        this.workerExecutor = workerExecutor;
+    }
+
+    /**
+     * 初始化DispatcherServlet，绑定端口并且启动selector线程
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        long start = System.nanoTime();
+
+        servletContext = new EmbeddedServletContext(contextPath, documentRoot);
+        servlet = new DispatcherServlet(context, properties);
+        servlet.init(new EmbeddedServletConfig());
+
+        if (workerExecutor == null) {
+            workerExecutor = createWorkerExecutor();
+            ownsWorkerExecutor = true;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "mine-spring-http-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(host == null ? new InetSocketAddress(configuredPort) : new InetSocketAddress(host, configuredPort), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        port = ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+
+        running = true;
+        selectorThread = new Thread(this::runSelector, "mine-spring-http-selector");
+        selectorThread.start();
+        log.info("嵌入式服务器启动完成，监听端口 : {}，contextPath : \"{}\"，耗时 {} ms",
+                port, contextPath, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * 创建工作线程池，server.workerThreads为virtual时通过反射使用虚拟线程
+     */
+    private ExecutorService createWorkerExecutor() {
+        String workerThreads = properties.getProperty(WORKER_THREADS, "").trim();
+        if (VIRTUAL_THREADS.equalsIgnoreCase(workerThreads)) {
+            try {
+                ExecutorService executor = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                log.info("使用虚拟线程处理请求");
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                log.warn("当前JDK不支持虚拟线程，使用普通的工作线程池");
+                workerThreads = "";
+            }
+        }
+        int threads = (workerThreads.isEmpty() ?
+                Math.max(8, Runtime.getRuntime().availableProcessors() * 2) : Integer.parseInt(workerThreads));
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "mine-spring-http-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 关闭所有连接，停止线程并且销毁DispatcherServlet
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (HttpConnection connection : new ArrayList<>(connections)) {
+            connection.close();
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            log.warn("关闭监听端口失败", e);
+        }
+        if (ownsWorkerExecutor) {
+            workerExecutor.shutdown();
+            try {
+                workerExecutor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            workerExecutor = null;
+            ownsWorkerExecutor = false;
+        }
+        scheduler.shutdownNow();
+        servlet.destroy();
+        log.info("嵌入式服务器已经停止，端口 : {}", port);
+    }
+
+    /**
+     * selector线程的主循环
+     */
+    private void runSelector() {
+        long lastIdleCheck = System.currentTimeMillis();
+        while (running) {
+            try {
+                selector.select(1000);
+            } catch (IOException e) {
+                log.error("selector异常", e);
+                continue;
+            }
+            Runnable task;
+            while ((task = selectorTasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.warn("selector任务执行失败", e);
+                }
+            }
+            Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+            while (iterator.hasNext()) {
+                SelectionKey key = iterator.next();
+                iterator.remove();
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                    continue;
+                }
+                HttpConnection connection = (HttpConnection) key.attachment();
+                try {
+                    if (key.isWritable()) {
+                        connection.onWritable();
+                    }
+                    if (key.isValid() && key.isReadable()) {
+                        connection.onReadable();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.debug("连接异常，关闭 : {}", e.toString());
+                    connection.close();
+                }
+            }
+            long now = System.currentTimeMillis();
+            if (now - lastIdleCheck >= 1000) {
+                lastIdleCheck = now;
+                for (HttpConnection connection : connections) {
+                    connection.checkIdle(now, idleTimeout);
+                }
+            }
+        }
+    }
+
+    private void accept() {
+        SocketChannel channel;
+        try {
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                HttpConnection connection = new HttpConnection(this, channel, key);
+                key.attach(connection);
+                connections.add(connection);
+            }
+        } catch (IOException e) {
+            log.warn("接受连接失败", e);
+        }
+    }
+
+    /**
+     * 在selector线程中执行任务，当前就是selector线程时直接执行
+     */
+    void runInSelector(Runnable task) {
+        if (isSelectorThread()) {
+            task.run();
+            return;
+        }
+        selectorTasks.add(task);
+        selector.wakeup();
+    }
+
+    boolean isSelectorThread() {
+        return Thread.currentThread() == selectorThread;
+    }
+
+    void execute(Runnable task) {
+        try {
+            workerExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("服务器正在停止，丢弃任务");
+        }
+    }
+
+    ScheduledFuture<?> schedule(Runnable task, long delayMillis) {
+        return scheduler.schedule(() -> execute(task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void connectionClosed(HttpConnection connection) {
+        connections.remove(connection);
+    }
+
+    DispatcherServlet getServlet() {
+        return servlet;
+    }
+
+    EmbeddedServletContext getServletContext() {
+        return servletContext;
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    int getMaxHeaderSize() {
+        return maxHeaderSize;
+    }
+
+    long getMaxRequestSize() {
+        return maxRequestSize;
+    }
+
+    long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * 实际监听的端口，配置为0时在启动之后才能确定
+     */
+    public int getPort() {
+        return port;
+    }
+
+    public String getContextPath() {
+        return contextPath;
+    }
+
+
+    /**
+     * DispatcherServlet的初始化参数，IoC容器和配置已经通过构造方法传入
+     */
+    private class EmbeddedServletConfig implements ServletConfig {
+
+        @Override
+        public String getServletName() {
+            return "dispatcherServlet";
+        }
+
+        @Override
+        public ServletContext getServletContext() {
+            return servletContext;
+        }
+
+        @Override
+        public String getInitParameter(String name) {
+            return null;
+        }
+
+        @Override
+        public Enumeration<String> getInitParameterNames() {
+            return Collections.emptyEnumeration();
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.yankaizhang.spring.webmvc.embedded;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.*;
+import javax.servlet.descriptor.JspConfigDescriptor;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 嵌入式服务器中的ServletContext<br/>
+ * 只有一个DispatcherServlet，静态资源从documentRoot目录读取；不支持动态注册servlet、filter和listener
+ * @author dzzhyk
+ * @since 2026-10-18 19:34:50
+ */
+public class EmbeddedServletContext implements ServletContext {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedServletContext.class);
+
+    private static final String TEMP_DIR_ATTRIBUTE = "javax.servlet.context.tempdir";
+
+    private static final Map<String, String> MIME_TYPES = new HashMap<>();
+
+    static {
+        MIME_TYPES.put("html", "text/html");
+        MIME_TYPES.put("htm", "text/html");
+        MIME_TYPES.put("css", "text/css");
+        MIME_TYPES.put("js", "application/javascript");
+        MIME_TYPES.put("json", "application/json");
+        MIME_TYPES.put("xml", "application/xml");
+        MIME_TYPES.put("txt", "text/plain");
+        MIME_TYPES.put("csv", "text/csv");
+        MIME_TYPES.put("png", "image/png");
+        MIME_TYPES.put("jpg", "image/jpeg");
+        MIME_TYPES.put("jpeg", "image/jpeg");
+        MIME_TYPES.put("gif", "image/gif");
+        MIME_TYPES.put("svg", "image/svg+xml");
+        MIME_TYPES.put("ico", "image/x-icon");
+        MIME_TYPES.put("webp", "image/webp");
+        MIME_TYPES.put("woff", "font/woff");
+        MIME_TYPES.put("woff2", "font/woff2");
+        MIME_TYPES.put("pdf", "application/pdf");
+        MIME_TYPES.put("zip", "application/zip");
+        MIME_TYPES.put("wasm", "application/wasm");
+    }
+
+    private final String contextPath;
+
+    private final File documentRoot;
+
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    private final Map<String, String> initParameters = new ConcurrentHashMap<>();
+
+    public EmbeddedServletContext(String contextPath, File documentRoot) {
+        this.contextPath = contextPath;
+        this.documentRoot = documentRoot;
+        this.attributes.put(TEMP_DIR_ATTRIBUTE, new File(System.getProperty("java.io.tmpdir")));
+    }
+
+    @Override
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public ServletContext getContext(String uripath) {
+        return uripath != null && uripath.startsWith(contextPath) ? this : null;
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 3;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getEffectiveMajorVersion() {
+        return 3;
+    }
+
+    @Override
+    public int getEffectiveMinorVersion() {
+        return 1;
+    }
+
+    @Override
+    public String getMimeType(String file) {
+        int dot = file.lastIndexOf('.');
+        if (dot >= 0) {
+            String mimeType = MIME_TYPES.get(file.substring(dot + 1).toLowerCase());
+            if (mimeType != null) {
+                return mimeType;
+            }
+        }
+        return URLConnection.guessContentTypeFromName(file);
+    }
+
+    // ---------------- 静态资源 ----------------
+
+    /**
+     * 把路径解析为documentRoot中的文件，不允许访问documentRoot之外的文件
+     */
+    private File resolve(String path) {
+        if (path == null) {
+            return null;
+        }
+        try {
+            File root = documentRoot.getCanonicalFile();
+            File file = new File(root, path.startsWith("/") ? path.substring(1) : path).getCanonicalFile();
+            if (!file.toPath().startsWith(root.toPath())) {
+                return null;
+            }
+            return file;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String getRealPath(String path) {
+        File file = resolve(path);
+        if (file == null) {
+            return null;
+        }
+        String realPath = file.getPath();
+        return (path.endsWith("/") && !realPath.endsWith(File.separator) ? realPath + File.separator : realPath);
+    }
+
+    @Override
+    public Set<String> getResourcePaths(String path) {
+        File dir = resolve(path);
+        String[] names = (dir == null ? null : dir.list());
+        if (names == null) {
+            return null;
+        }
+        String prefix = path.endsWith("/") ? path : path + "/";
+        Set<String> paths = new TreeSet<>();
+        for (String name : names) {
+            paths.add(prefix + name + (new File(dir, name).isDirectory() ? "/" : ""));
+        }
+        return paths;
+    }
+
+    @Override
+    public URL getResource(String path) throws MalformedURLException {
+        File file = resolve(path);
+        return (file != null && file.exists() ? file.toURI().toURL() : null);
+    }
+
+    @Override
+    public InputStream getResourceAsStream(String path) {
+        File file = resolve(path);
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        try {
+            return new FileInputStream(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // ---------------- 请求派发 ----------------
+
+    /**
+     * 不支持转发到其他servlet，例如jsp
+     */
+    @Override
+    public RequestDispatcher getRequestDispatcher(String path) {
+        return new RequestDispatcher() {
+            @Override
+            public void forward(ServletRequest request, ServletResponse response) throws ServletException {
+                throw new ServletException("嵌入式服务器不支持转发请求 => \"" + path + "\"");
+            }
+
+            @Override
+            public void include(ServletRequest request, ServletResponse response) throws ServletException {
+                throw new ServletException("嵌入式服务器不支持包含请求 => \"" + path + "\"");
+            }
+        };
+    }
+
+    /**
+     * 名为default的servlet对应没有匹配到的请求，直接返回404
+     */
+    @Override
+    public RequestDispatcher getNamedDispatcher(String name) {
+        if (!"default".equals(name)) {
+            return null;
+        }
+        return new RequestDispatcher() {
+            @Override
+            public void forward(ServletRequest request, ServletResponse response) throws IOException {
+                ((HttpServletResponse) response).sendError(HttpServletResponse.SC_NOT_FOUND);
+            }
+
+            @Override
+            public void include(ServletRequest request, ServletResponse response) {}
+        };
+    }
+
+    @Override
+    @Deprecated
+    public Servlet getServlet(String name) {
+        return null;
+    }
+
+    @Override
+    @Deprecated
+    public Enumeration<Servlet> getServlets() {
+        return Collections.emptyEnumeration();
+    }
+
+    @Override
+    @Deprecated
+    public Enumeration<String> getServletNames() {
+        return Collections.emptyEnumeration();
+    }
+
+    // ---------------- 日志 ----------------
+
+    @Override
+    public void log(String msg) {
+        log.info(msg);
+    }
+
+    @Override
+    @Deprecated
+    public void log(Exception exception, String msg) {
+        log.error(msg, exception);
+    }
+
+    @Override
+    public void log(String message, Throwable throwable) {
+        log.error(message, throwable);
+    }
+
+    @Override
+    public String getServerInfo() {
+        return "mine-spring-embedded/1.0";
+    }
+
+    // ---------------- 参数和属性 ----------------
+
+    @Override
+    public String getInitParameter(String name) {
+        return initParameters.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getInitParameterNames() {
+        return Collections.enumeration(initParameters.keySet());
+    }
+
+    @Override
+    public boolean setInitParameter(String name, String value) {
+        return initParameters.putIfAbsent(name, value) == null;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object object) {
+        if (object == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, object);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public String getServletContextName() {
+        return "mine-spring";
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return Thread.currentThread().getContextClassLoader();
+    }
+
+    @Override
+    public String getVirtualServerName() {
+        return "mine-spring-embedded";
+    }
+
+    // ---------------- 不支持的动态注册 ----------------
+
+    @Override
+    public ServletRegistration.Dynamic addServlet(String servletName, String className) {
+        throw new UnsupportedOperationException("嵌入式服务器不支持动态注册servlet");
+    }
+
+    @Override
+    public ServletRegistration.Dynamic addServlet(String servletName, Servlet servlet) {
+        throw new UnsupportedOperationException("嵌入式服务器不支持动态注册servlet");
+    }
+
+    @Override
+    public ServletRegistration.Dynamic addServlet(String servletName, Class<? extends Servlet> servletClass) {
+        throw new UnsupportedOperationException("嵌入式服务器不支持动态注册servlet");
+    }
+
+    @Override
+    public <T extends Servlet> T createServlet(Class<T> clazz) {
+        throw new UnsupportedOperationException("嵌入式服务器不支持动态注册servlet");
+    }
+
+    @Override
+    public ServletRegistration getServletRegistration(String servletName) {
+        return null;
+    }
+
+    @Override
+    public Map<String, ? extends ServletRegistration> getServletRegistrations() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public FilterRegistration.Dynamic addFilter(String filterName, String className) {
+        throw new UnsupportedOperationException("嵌入式服务器不支持filter");
+    }
+
+    @Override
+    public FilterRegistration.Dynamic addFilter(String filterName, Filter filter) {
+        throw new UnsupportedOperationException("嵌入式服务器不支持filter");
+    }
+
+    @Override
+    public FilterRegistration.Dynamic addFilter(String filterName, Class<? extends Filter> filterClass) {
+        throw new UnsupportedOperationException("嵌入式服务器不支持filter");
+    }
+
+    @Override
+    public <T extends Filter> T createFilter(Class<T> clazz) {
+        throw new UnsupportedOperationException("嵌入式服务器不支持filter");
+    }
+
+    @Override
+    public FilterRegistration getFilterRegistration(String filterName) {
+        return null;
+    }
+
+    @Override
+    public Map<String, ? extends FilterRegistration> getFilterRegistrations() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public SessionCookieConfig getSessionCookieConfig() {
+        throw new UnsupportedOperationException("嵌入式服务器不支持session");
+    }
+
+    @Override
+    public void setSessionTrackingModes(Set<SessionTrackingMode> sessionTrackingModes) {
+        throw new UnsupportedOperationException("嵌入式服务器不支持session");
+    }
+
+    @Override
+    public Set<SessionTrackingMode> getDefaultSessionTrackingModes() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Set<SessionTrackingMode> getEffectiveSessionTrackingModes() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public void addListener(String className) {
+        throw new UnsupportedOperationException("嵌入式服务器不支持listener");
+    }
+
+    @Override
+    public <T extends EventListener> void addListener(T t) {
+        throw new UnsupportedOperationException("嵌入式服务器不支持listener");
+    }
+
+    @Override
+    public void addListener(Class<? extends EventListener> listenerClass) {
+        throw new UnsupportedOperationException("嵌入式服务器不支持listener");
+    }
+
+    @Override
+    public <T extends EventListener> T createListener(Class<T> clazz) {
+        throw new UnsupportedOperationException("嵌入式服务器不支持listener");
+    }
+
+    @Override
+    public JspConfigDescriptor getJspConfigDescriptor() {
+        return null;
+    }
+
+    @Override
+    public void declareRoles(String... roleNames) {
+        throw new UnsupportedOperationException("嵌入式服务器不支持安全角色");
+    }
+}
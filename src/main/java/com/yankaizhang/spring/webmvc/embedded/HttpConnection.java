@@ -0,0 +1,563 @@
+package com.yankaizhang.spring.webmvc.embedded;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 一个HTTP/1.1连接<br/>
+ * <ul>
+ * <li>读取和解析只在selector线程中进行，解析出的请求按顺序排队，同一时间只有一个请求在工作线程中处理，
+ * 保证流水线请求的响应顺序</li>
+ * <li>排队的请求达到上限时暂停读取，处理完之后继续</li>
+ * <li>工作线程直接以非阻塞方式写出响应，写不完的部分复制到写队列中由selector线程继续写出；
+ * 写队列超过上限时工作线程等待，避免慢客户端占用过多内存</li>
+ * </ul>
+ * @author dzzhyk
+ * @since 2026-10-18 19:35:40
+ */
+class HttpConnection {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpConnection.class);
+
+    /** 排队的流水线请求上限 */
+    private static final int MAX_PIPELINED_REQUESTS = 16;
+
+    /** 写队列的上限，超过之后工作线程等待 */
+    private static final int WRITE_HIGH_WATER_MARK = 64 * 1024;
+
+    private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final EmbeddedServer server;
+
+    private final SocketChannel channel;
+
+    private final SelectionKey key;
+
+    private final InetSocketAddress localAddress;
+
+    private final InetSocketAddress remoteAddress;
+
+    private final ByteBuffer readBuffer;
+
+    private final HttpRequestParser parser;
+
+    // ---------------- 以下字段由this保护 ----------------
+
+    /** 等待处理的请求或者解析错误 */
+    private final Deque<Object> pending = new ArrayDeque<>();
+
+    /** 是否有请求正在处理 */
+    private boolean inFlight = false;
+
+    /** 是否因为排队的请求太多而暂停读取 */
+    private boolean readPaused = false;
+
+    /** 客户端已经关闭输出或者请求格式错误，不再读取 */
+    private boolean inputClosed = false;
+
+    // ---------------- 以下字段由writeLock保护 ----------------
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final Condition drained = writeLock.newCondition();
+
+    private final Deque<ByteBuffer> writeQueue = new ArrayDeque<>();
+
+    private long queuedBytes = 0;
+
+    private boolean closeAfterWrite = false;
+
+    private volatile boolean closed = false;
+
+    private volatile long lastActivity = System.currentTimeMillis();
+
+    /** 正在等待结果的异步请求，连接关闭时需要通知 */
+    private volatile EmbeddedAsyncContext waitingAsync;
+
+    HttpConnection(EmbeddedServer server, SocketChannel channel, SelectionKey key) throws IOException {
+        this.server = server;
+        this.channel = channel;
+        this.key = key;
+        this.localAddress = (InetSocketAddress) channel.getLocalAddress();
+        this.remoteAddress = (InetSocketAddress) channel.getRemoteAddress();
+        this.readBuffer = ByteBuffer.allocate(Math.max(16384, server.getMaxHeaderSize() + 1024));
+        this.parser = new HttpRequestParser(server.getMaxHeaderSize(), server.getMaxRequestSize());
+    }
+
+    EmbeddedServer getServer() {
+        return server;
+    }
+
+    InetSocketAddress getLocalAddress() {
+        return localAddress;
+    }
+
+    InetSocketAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    boolean isKeepAliveAllowed() {
+        return server.isRunning();
+    }
+
+    // ---------------- selector线程 ----------------
+
+    /**
+     * 读取数据并且解析请求，只在selector线程中调用
+     */
+    void onReadable() throws IOException {
+        int n = channel.read(readBuffer);
+        if (n < 0) {
+            boolean idle;
+            synchronized (this) {
+                inputClosed = true;
+                idle = !inFlight;
+            }
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            if (idle) {
+                close();
+            }
+            return;
+        }
+        if (n > 0) {
+            lastActivity = System.currentTimeMillis();
+            parseRequests();
+        }
+    }
+
+    /**
+     * 从读缓冲区中解析出尽可能多的请求
+     */
+    private void parseRequests() {
+        readBuffer.flip();
+        try {
+            while (readBuffer.hasRemaining()) {
+                synchronized (this) {
+                    if (readPaused || inputClosed) {
+                        break;
+                    }
+                }
+                EmbeddedHttpServletRequest request;
+                try {
+                    request = parser.parse(readBuffer);
+                } catch (HttpParseException e) {
+                    synchronized (this) {
+                        inputClosed = true;
+                    }
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                    enqueue(e);
+                    break;
+                }
+                if (request == null) {
+                    if (parser.takeExpectContinue()) {
+                        sendContinue();
+                    }
+                    break;
+                }
+                enqueue(request);
+            }
+        } finally {
+            readBuffer.compact();
+        }
+    }
+
+    /**
+     * 没有其他请求在处理时才回复100 Continue，否则客户端会在等待超时之后直接发送请求体
+     */
+    private void sendContinue() {
+        synchronized (this) {
+            if (inFlight) {
+                return;
+            }
+        }
+        try {
+            write(ByteBuffer.wrap(CONTINUE));
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    private void enqueue(Object item) {
+        synchronized (this) {
+            if (inFlight) {
+                pending.add(item);
+                if (pending.size() >= MAX_PIPELINED_REQUESTS) {
+                    readPaused = true;
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                }
+                return;
+            }
+            inFlight = true;
+        }
+        server.execute(() -> process(item));
+    }
+
+    /**
+     * 排队的请求减少之后继续读取，只在selector线程中调用
+     */
+    private void resumeReading() {
+        synchronized (this) {
+            if (!readPaused || closed) {
+                return;
+            }
+            readPaused = false;
+            if (inputClosed) {
+                return;
+            }
+        }
+        key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+        parseRequests();
+    }
+
+    /**
+     * 继续写出写队列中的数据，只在selector线程中调用
+     */
+    void onWritable() throws IOException {
+        boolean close = false;
+        writeLock.lock();
+        try {
+            while (!writeQueue.isEmpty()) {
+                ByteBuffer buffer = writeQueue.peek();
+                int written = channel.write(buffer);
+                queuedBytes -= written;
+                if (buffer.hasRemaining()) {
+                    break;
+                }
+                writeQueue.poll();
+            }
+            lastActivity = System.currentTimeMillis();
+            if (queuedBytes <= WRITE_HIGH_WATER_MARK / 2) {
+                drained.signalAll();
+            }
+            if (writeQueue.isEmpty()) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                close = closeAfterWrite;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (close) {
+            close();
+        }
+    }
+
+    /**
+     * 检查连接是否空闲超时，只在selector线程中调用
+     */
+    void checkIdle(long now, long idleTimeout) {
+        boolean waitingForWrite;
+        writeLock.lock();
+        try {
+            waitingForWrite = closeAfterWrite || !writeQueue.isEmpty();
+        } finally {
+            writeLock.unlock();
+        }
+        synchronized (this) {
+            // 正在处理的请求不受空闲超时限制，但是写不出去的响应受限制
+            if (inFlight && !waitingForWrite) {
+                return;
+            }
+        }
+        if (now - lastActivity > idleTimeout) {
+            log.debug("连接空闲超时，关闭 : {}", remoteAddress);
+            close();
+        }
+    }
+
+    // ---------------- 工作线程 ----------------
+
+    /**
+     * 依次处理请求，直到没有排队的请求或者请求进入异步处理
+     */
+    private void process(Object item) {
+        while (item != null) {
+            if (item instanceof HttpParseException) {
+                sendParseError((HttpParseException) item);
+                return;
+            }
+            EmbeddedHttpServletRequest request = (EmbeddedHttpServletRequest) item;
+            EmbeddedHttpServletResponse response = new EmbeddedHttpServletResponse(this, request);
+            request.bind(this, response);
+            if (!service(request, response, request, response)) {
+                return;
+            }
+            item = finishExchange(request, response);
+        }
+    }
+
+    /**
+     * 调用servlet处理请求，处理同步派发和service方法返回之前完成的异步请求
+     * @return 请求是否已经处理完，false表示正在等待异步结果
+     */
+    private boolean service(EmbeddedHttpServletRequest request, EmbeddedHttpServletResponse response,
+                            ServletRequest servletRequest, ServletResponse servletResponse) {
+        while (true) {
+            try {
+                server.getServlet().service(servletRequest, servletResponse);
+            } catch (Throwable e) {
+                log.error("请求处理失败 => \"" + request.getRequestURI() + "\"", e);
+                if (!response.isCommitted()) {
+                    response.reset();
+                    try {
+                        response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                    } catch (IOException ignored) {
+                        // 不会发生，sendError只写入缓冲区
+                    }
+                } else {
+                    response.abort();
+                }
+            }
+            EmbeddedAsyncContext asyncContext = request.getEmbeddedAsyncContext();
+            if (asyncContext == null) {
+                return true;
+            }
+            switch (asyncContext.serviceReturned()) {
+                case COMPLETE:
+                    return true;
+                case DISPATCH:
+                    servletRequest = asyncContext.getRequest();
+                    servletResponse = asyncContext.getResponse();
+                    request.clearAsyncContext();
+                    request.setDispatcherType(DispatcherType.ASYNC);
+                    break;
+                default:
+                    waitingAsync = asyncContext;
+                    if (closed) {
+                        // 开启异步处理的同时连接已经关闭
+                        asyncContext.onError(new IOException("连接已经关闭"));
+                    }
+                    return false;
+            }
+        }
+    }
+
+    /**
+     * 异步结果到达之后重新派发请求，在工作线程中调用
+     */
+    void asyncDispatch(EmbeddedAsyncContext asyncContext) {
+        waitingAsync = null;
+        EmbeddedHttpServletRequest request = asyncContext.getEmbeddedRequest();
+        EmbeddedHttpServletResponse response = asyncContext.getEmbeddedResponse();
+        request.clearAsyncContext();
+        request.setDispatcherType(DispatcherType.ASYNC);
+        if (service(request, response, asyncContext.getRequest(), asyncContext.getResponse())) {
+            process(finishExchange(request, response));
+        }
+    }
+
+    /**
+     * 异步请求直接结束，在工作线程中调用
+     */
+    void asyncComplete(EmbeddedAsyncContext asyncContext) {
+        waitingAsync = null;
+        process(finishExchange(asyncContext.getEmbeddedRequest(), asyncContext.getEmbeddedResponse()));
+    }
+
+    /**
+     * 结束当前响应
+     * @return 下一个需要处理的请求，没有时为null
+     */
+    private Object finishExchange(EmbeddedHttpServletRequest request, EmbeddedHttpServletResponse response) {
+        boolean keepAlive;
+        try {
+            keepAlive = response.finish();
+        } catch (IOException e) {
+            log.debug("响应写出失败 : {}", e.toString());
+            keepAlive = false;
+        }
+        EmbeddedAsyncContext asyncContext = request.getLastAsyncContext();
+        if (asyncContext != null) {
+            asyncContext.onComplete();
+        }
+        if (!keepAlive) {
+            closeAfterWrite();
+            return null;
+        }
+        Object next;
+        boolean resume;
+        boolean idle;
+        synchronized (this) {
+            next = pending.poll();
+            inFlight = (next != null);
+            resume = readPaused;
+            idle = (next == null && inputClosed);
+        }
+        if (resume) {
+            server.runInSelector(this::resumeReading);
+        }
+        if (idle) {
+            closeAfterWrite();
+        }
+        return next;
+    }
+
+    /**
+     * 请求格式错误时返回简短的错误响应并且关闭连接
+     */
+    private void sendParseError(HttpParseException e) {
+        log.debug("无法解析的请求 : {} => {}", remoteAddress, e.getMessage());
+        int status = e.getStatus();
+        byte[] body = (status + " " + EmbeddedHttpServletResponse.reasonPhrase(status)).getBytes(StandardCharsets.ISO_8859_1);
+        String head = "HTTP/1.1 " + status + " " + EmbeddedHttpServletResponse.reasonPhrase(status) + "\r\n" +
+                "Content-Type: text/plain\r\n" +
+                "Content-Length: " + body.length + "\r\n" +
+                "Connection: close\r\n\r\n";
+        try {
+            write(ByteBuffer.wrap(head.getBytes(StandardCharsets.ISO_8859_1)), ByteBuffer.wrap(body));
+        } catch (IOException ignored) {
+            // 连接已经不可用
+        }
+        closeAfterWrite();
+    }
+
+    // ---------------- 写出 ----------------
+
+    /**
+     * 写出数据，可以在任意线程中调用；方法返回之后调用者可以继续使用传入的缓冲区
+     * @param buffers 需要写出的数据
+     * @throws IOException 连接已经关闭或者写出超时
+     */
+    void write(ByteBuffer... buffers) throws IOException {
+        if (closed) {
+            throw new IOException("连接已经关闭");
+        }
+        writeLock.lock();
+        try {
+            if (writeQueue.isEmpty()) {
+                long remaining = remaining(buffers);
+                while (remaining > 0) {
+                    long written = channel.write(buffers);
+                    if (written <= 0) {
+                        break;
+                    }
+                    remaining -= written;
+                }
+                lastActivity = System.currentTimeMillis();
+                if (remaining == 0) {
+                    return;
+                }
+            }
+            // 写不完的部分复制到写队列中
+            int length = (int) remaining(buffers);
+            ByteBuffer copy = ByteBuffer.allocate(length);
+            for (ByteBuffer buffer : buffers) {
+                copy.put(buffer);
+            }
+            copy.flip();
+            boolean wasEmpty = writeQueue.isEmpty();
+            writeQueue.add(copy);
+            queuedBytes += length;
+            if (wasEmpty) {
+                server.runInSelector(() -> {
+                    if (key.isValid()) {
+                        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                    }
+                });
+            }
+            if (!server.isSelectorThread()) {
+                awaitDrained();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 写队列超过上限时等待，客户端在空闲超时时间内都没有读取数据时关闭连接
+     */
+    private void awaitDrained() throws IOException {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(server.getIdleTimeout());
+        while (queuedBytes > WRITE_HIGH_WATER_MARK && !closed) {
+            if (nanos <= 0) {
+                close();
+                throw new IOException("响应写出超时");
+            }
+            try {
+                nanos = drained.awaitNanos(nanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("响应写出被中断");
+            }
+        }
+        if (closed) {
+            throw new IOException("连接已经关闭");
+        }
+    }
+
+    private static long remaining(ByteBuffer[] buffers) {
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        return remaining;
+    }
+
+    /**
+     * 写完写队列中的数据之后关闭连接
+     */
+    private void closeAfterWrite() {
+        boolean closeNow;
+        writeLock.lock();
+        try {
+            closeAfterWrite = true;
+            closeNow = writeQueue.isEmpty();
+        } finally {
+            writeLock.unlock();
+        }
+        if (closeNow) {
+            close();
+        }
+    }
+
+    /**
+     * 关闭连接，可以在任意线程中调用
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            writeQueue.clear();
+            queuedBytes = 0;
+            drained.signalAll();
+        } finally {
+            writeLock.unlock();
+        }
+        synchronized (this) {
+            pending.clear();
+        }
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("关闭连接失败", e);
+        }
+        server.connectionClosed(this);
+        EmbeddedAsyncContext asyncContext = waitingAsync;
+        if (asyncContext != null) {
+            waitingAsync = null;
+            server.execute(() -> asyncContext.onError(new IOException("连接已经关闭")));
+        }
+    }
+}
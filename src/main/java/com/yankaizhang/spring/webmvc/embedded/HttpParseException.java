@@ -0,0 +1,22 @@
+package com.yankaizhang.spring.webmvc.embedded;
+
+/**
+ * 无法解析的http请求，返回对应的状态码之后关闭连接
+ * @author dzzhyk
+ * @since 2026-10-18 19:31:10
+ */
+public class HttpParseException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public HttpParseException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,320 @@
+package com.yankaizhang.spring.webmvc.embedded;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 增量的HTTP/1.1请求解析器<br/>
+ * 每次读到新数据之后调用{@link #parse(ByteBuffer)}，请求头和请求体都到齐之后返回一个完整的请求，
+ * 缓冲区中剩下的字节属于下一个流水线请求；请求体完整地保存在内存中，大小受maxRequestSize限制
+ * @author dzzhyk
+ * @since 2026-10-18 19:31:40
+ */
+class HttpRequestParser {
+
+    private static final byte CR = '\r';
+
+    private static final byte LF = '\n';
+
+    private enum State { HEAD, BODY, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, TRAILER }
+
+    private final int maxHeaderSize;
+
+    private final long maxRequestSize;
+
+    private State state = State.HEAD;
+
+    /** 当前请求，请求头解析完成之后创建 */
+    private EmbeddedHttpServletRequest request;
+
+    /** Content-Length请求体的初始缓冲区大小上限，之后随到达的数据增长到Content-Length */
+    private static final int INITIAL_BODY_BUFFER_SIZE = 8192;
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    /** Content-Length请求体 */
+    private byte[] body;
+
+    private int bodyPosition;
+
+    /** Content-Length声明的请求体长度 */
+    private int bodyLength;
+
+    /** chunked请求体 */
+    private ByteArrayOutputStream chunkedBody;
+
+    private long chunkRemaining;
+
+    /** 请求头中带有Expect: 100-continue，需要先回复100 */
+    private boolean expectContinue;
+
+    HttpRequestParser(int maxHeaderSize, long maxRequestSize) {
+        this.maxHeaderSize = maxHeaderSize;
+        this.maxRequestSize = maxRequestSize;
+    }
+
+    /**
+     * 从缓冲区中解析请求
+     * @param buffer 读模式的缓冲区，已经解析的字节会被消费
+     * @return 完整的请求，数据还不够时返回null
+     * @throws HttpParseException 请求格式错误或者超出限制
+     */
+    EmbeddedHttpServletRequest parse(ByteBuffer buffer) throws HttpParseException {
+        while (true) {
+            switch (state) {
+                case HEAD:
+                    if (!parseHead(buffer)) {
+                        return null;
+                    }
+                    break;
+                case BODY:
+                    if (bodyPosition < bodyLength && !buffer.hasRemaining()) {
+                        return null;
+                    }
+                    if (bodyPosition == body.length && bodyPosition < bodyLength) {
+                        // 缓冲区按照实际到达的数据成倍增长，不会超过Content-Length
+                        body = Arrays.copyOf(body, (int) Math.min(bodyLength, body.length * 2L));
+                    }
+                    int n = Math.min(buffer.remaining(), body.length - bodyPosition);
+                    buffer.get(body, bodyPosition, n);
+                    bodyPosition += n;
+                    if (bodyPosition < bodyLength) {
+                        break;
+                    }
+                    return complete(body);
+                case CHUNK_SIZE:
+                    String sizeLine = readLine(buffer, 1024);
+                    if (sizeLine == null) {
+                        return null;
+                    }
+                    int extension = sizeLine.indexOf(';');
+                    String size = (extension >= 0 ? sizeLine.substring(0, extension) : sizeLine).trim();
+                    chunkRemaining = parseChunkSize(size);
+                    if (chunkedBody.size() + chunkRemaining > maxRequestSize) {
+                        throw new HttpParseException(413, "请求体超出限制");
+                    }
+                    state = (chunkRemaining == 0 ? State.TRAILER : State.CHUNK_DATA);
+                    break;
+                case CHUNK_DATA:
+                    int available = (int) Math.min(buffer.remaining(), chunkRemaining);
+                    if (available == 0) {
+                        return null;
+                    }
+                    if (buffer.hasArray()) {
+                        chunkedBody.write(buffer.array(), buffer.arrayOffset() + buffer.position(), available);
+                        buffer.position(buffer.position() + available);
+                    } else {
+                        byte[] chunk = new byte[available];
+                        buffer.get(chunk);
+                        chunkedBody.write(chunk, 0, available);
+                    }
+                    chunkRemaining -= available;
+                    if (chunkRemaining == 0) {
+                        state = State.CHUNK_END;
+                    }
+                    break;
+                case CHUNK_END:
+                    String end = readLine(buffer, 2);
+                    if (end == null) {
+                        return null;
+                    }
+                    if (!end.isEmpty()) {
+                        throw new HttpParseException(400, "chunk数据之后缺少CRLF");
+                    }
+                    state = State.CHUNK_SIZE;
+                    break;
+                case TRAILER:
+                    // 忽略trailer，读到空行结束
+                    String trailer = readLine(buffer, maxHeaderSize);
+                    if (trailer == null) {
+                        return null;
+                    }
+                    if (trailer.isEmpty()) {
+                        return complete(chunkedBody.toByteArray());
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException(state.name());
+            }
+        }
+    }
+
+    /**
+     * 最近一次解析完请求头之后是否需要回复100 Continue，读取之后清除
+     */
+    boolean takeExpectContinue() {
+        boolean expect = expectContinue;
+        expectContinue = false;
+        return expect;
+    }
+
+    private EmbeddedHttpServletRequest complete(byte[] content) {
+        EmbeddedHttpServletRequest completed = request;
+        completed.setBody(content);
+        request = null;
+        body = null;
+        chunkedBody = null;
+        state = State.HEAD;
+        return completed;
+    }
+
+    /**
+     * 查找请求头结束的空行，找到之后解析请求行和请求头
+     */
+    private boolean parseHead(ByteBuffer buffer) throws HttpParseException {
+        int start = buffer.position();
+        int limit = buffer.limit();
+        // 跳过请求之间多余的空行
+        while (start < limit && (buffer.get(start) == CR || buffer.get(start) == LF)) {
+            start++;
+        }
+        buffer.position(start);
+        int end = -1;
+        for (int i = start; i + 3 < limit; i++) {
+            if (buffer.get(i) == CR && buffer.get(i + 1) == LF && buffer.get(i + 2) == CR && buffer.get(i + 3) == LF) {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            if (limit - start >= maxHeaderSize) {
+                throw new HttpParseException(431, "请求头超出限制");
+            }
+            return false;
+        }
+        if (end - start > maxHeaderSize) {
+            throw new HttpParseException(431, "请求头超出限制");
+        }
+        byte[] head = new byte[end - start];
+        buffer.get(head);
+        buffer.position(end + 4);
+        String[] lines = new String(head, StandardCharsets.ISO_8859_1).split("\r\n");
+
+        String[] requestLine = lines[0].split(" ");
+        if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/1.")) {
+            throw new HttpParseException(400, "错误的请求行 : " + lines[0]);
+        }
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 1; i < lines.length; i++) {
+            String line = lines[i];
+            int colon = line.indexOf(':');
+            if (colon <= 0 || line.charAt(0) == ' ' || line.charAt(0) == '\t') {
+                throw new HttpParseException(400, "错误的请求头 : " + line);
+            }
+            String name = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            headers.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+        }
+
+        String target = requestLine[1];
+        int query = target.indexOf('?');
+        String uri = (query >= 0 ? target.substring(0, query) : target);
+        String queryString = (query >= 0 ? target.substring(query + 1) : null);
+        if (!uri.startsWith("/")) {
+            // 绝对形式的请求目标
+            int pathStart = uri.indexOf('/', uri.indexOf("//") + 2);
+            uri = (uri.contains("://") && pathStart > 0 ? uri.substring(pathStart) : "/");
+        }
+        request = new EmbeddedHttpServletRequest(requestLine[0], uri, queryString, requestLine[2], headers);
+
+        List<String> transferEncoding = headers.get("Transfer-Encoding");
+        List<String> contentLength = headers.get("Content-Length");
+        if (transferEncoding != null && contentLength != null) {
+            // 代理和本服务器可能按照不同的头确定请求体的长度，这是请求走私的常见手段，直接拒绝
+            throw new HttpParseException(400, "请求同时包含Transfer-Encoding和Content-Length");
+        }
+        if (transferEncoding != null) {
+            if (!transferEncoding.get(transferEncoding.size() - 1).toLowerCase().endsWith("chunked")) {
+                throw new HttpParseException(501, "不支持的Transfer-Encoding : " + transferEncoding);
+            }
+            chunkedBody = new ByteArrayOutputStream();
+            state = State.CHUNK_SIZE;
+        } else if (contentLength != null) {
+            long length = parseContentLength(contentLength);
+            if (length > maxRequestSize || length > Integer.MAX_VALUE) {
+                throw new HttpParseException(413, "请求体超出限制 : " + length);
+            }
+            // 不按照客户端声明的长度一次分配，请求体的内存随数据到达而增长
+            bodyLength = (int) length;
+            body = (length == 0 ? EMPTY_BODY : new byte[Math.min(bodyLength, INITIAL_BODY_BUFFER_SIZE)]);
+            bodyPosition = 0;
+            state = State.BODY;
+        } else {
+            bodyLength = 0;
+            body = EMPTY_BODY;
+            bodyPosition = 0;
+            state = State.BODY;
+        }
+        List<String> expect = headers.get("Expect");
+        expectContinue = (state != State.BODY || bodyLength > 0) &&
+                expect != null && "100-continue".equalsIgnoreCase(expect.get(0)) &&
+                !"HTTP/1.0".equals(requestLine[2]);
+        return true;
+    }
+
+    /**
+     * 解析Content-Length，重复出现的头或者逗号分隔的多个值必须完全相同
+     */
+    private static long parseContentLength(List<String> values) throws HttpParseException {
+        long length = -1;
+        for (String value : values) {
+            for (String item : value.split(",", -1)) {
+                item = item.trim();
+                if (item.isEmpty() || item.length() > 18) {
+                    throw new HttpParseException(400, "错误的Content-Length : " + values);
+                }
+                for (int i = 0; i < item.length(); i++) {
+                    if (item.charAt(i) < '0' || item.charAt(i) > '9') {
+                        throw new HttpParseException(400, "错误的Content-Length : " + values);
+                    }
+                }
+                long parsed = Long.parseLong(item);
+                if (length >= 0 && parsed != length) {
+                    throw new HttpParseException(400, "Content-Length不一致 : " + values);
+                }
+                length = parsed;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 解析chunk长度，只接受十六进制数字，不接受符号和"0x"前缀
+     */
+    private static long parseChunkSize(String size) throws HttpParseException {
+        if (size.isEmpty() || size.length() > 15) {
+            throw new HttpParseException(400, "错误的chunk长度 : " + size);
+        }
+        for (int i = 0; i < size.length(); i++) {
+            if (Character.digit(size.charAt(i), 16) < 0) {
+                throw new HttpParseException(400, "错误的chunk长度 : " + size);
+            }
+        }
+        return Long.parseLong(size, 16);
+    }
+
+    /**
+     * 读取一行，数据不够时返回null并且不消费缓冲区
+     */
+    private static String readLine(ByteBuffer buffer, int maxLength) throws HttpParseException {
+        int start = buffer.position();
+        for (int i = start; i + 1 < buffer.limit(); i++) {
+            if (buffer.get(i) == CR && buffer.get(i + 1) == LF) {
+                byte[] line = new byte[i - start];
+                buffer.get(line);
+                buffer.position(i + 2);
+                return new String(line, StandardCharsets.ISO_8859_1);
+            }
+            if (i - start > maxLength) {
+                throw new HttpParseException(400, "行长度超出限制");
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.yankaizhang.spring.webmvc.metrics;
+
+/**
+ * 请求派发过程中分别统计耗时的阶段
+ * @author dzzhyk
+ * @since 2026-10-18 18:52:10
+ */
+public enum DispatchStage {
+
+    /** 解析multipart请求 */
+    MULTIPART("multipart"),
+
+    /** 查找handler */
+    MAPPING("mapping"),
+
+    /** 解析handler方法参数 */
+    ARGUMENTS("arguments"),
+
+    /** 执行handler方法 */
+    INVOCATION("invocation"),
+
+    /** 处理返回值以及渲染视图 */
+    RENDERING("rendering");
+
+    private static final DispatchStage[] VALUES = values();
+
+    private final String label;
+
+    DispatchStage(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * 不复制数组的values()
+     */
+    static DispatchStage[] stages() {
+        return VALUES;
+    }
+}
@@ -0,0 +1,59 @@
+package com.yankaizhang.spring.webmvc.metrics;
+
+import com.yankaizhang.spring.web.method.HandlerMethod;
+import com.yankaizhang.spring.webmvc.HandlerMapping;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 派发过程的统计数据，每个{@link HandlerMapping}对应一个{@link HandlerMetrics}<br/>
+ * HandlerMetrics在初始化阶段创建并且保存在HandlerMapping中，请求时不需要查表
+ * @author dzzhyk
+ * @since 2026-10-18 18:56:40
+ */
+public class DispatcherMetrics {
+
+    private final List<HandlerMetrics> handlerMetrics = new CopyOnWriteArrayList<>();
+
+    /** 没有找到handler的请求数 */
+    private final LongAdder unmatchedRequests = new LongAdder();
+
+    /**
+     * 为handler创建统计对象，在初始化阶段调用
+     */
+    public HandlerMetrics register(HandlerMapping handlerMapping) {
+        HandlerMethod method = handlerMapping.getMethod();
+        String handler = method.getBeanType().getSimpleName() + "#" + method.getMethod().getName();
+        String path = (handlerMapping.getUriTemplate() != null ?
+                handlerMapping.getUriTemplate().getTemplate() : handlerMapping.getPattern().pattern());
+        HandlerMetrics metrics = new HandlerMetrics(handler, path);
+        handlerMapping.setMetrics(metrics);
+        handlerMetrics.add(metrics);
+        return metrics;
+    }
+
+    /**
+     * 记录一次请求
+     * @param handlerMapping 处理请求的handler，没有找到时为null
+     * @param timer 请求的各阶段耗时
+     */
+    public void record(HandlerMapping handlerMapping, StageTimer timer) {
+        HandlerMetrics metrics = (handlerMapping != null ? handlerMapping.getMetrics() : null);
+        if (metrics != null) {
+            metrics.record(timer);
+        } else {
+            unmatchedRequests.increment();
+        }
+    }
+
+    public List<HandlerMetrics> getHandlerMetrics() {
+        return Collections.unmodifiableList(handlerMetrics);
+    }
+
+    public long getUnmatchedRequests() {
+        return unmatchedRequests.sum();
+    }
+}
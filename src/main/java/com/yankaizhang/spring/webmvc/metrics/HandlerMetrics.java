@@ -0,0 +1,175 @@
+package com.yankaizhang.spring.webmvc.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一个handler的请求数、失败数以及总耗时和各阶段耗时的直方图<br/>
+ * 直方图在第一次记录时才创建，没有请求的handler不占用直方图的内存
+ * @author dzzhyk
+ * @since 2026-10-18 18:55:20
+ */
+public class HandlerMetrics implements HandlerMetricsMBean {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /** 总耗时直方图在数组中的下标，前面依次是各个阶段 */
+    private static final int TOTAL_INDEX = DispatchStage.stages().length;
+
+    /** controller类名#方法名 */
+    private final String handler;
+
+    /** 映射路径 */
+    private final String path;
+
+    private final LongAdder errors = new LongAdder();
+
+    /** 各阶段和总耗时的直方图，第一次记录之前为null */
+    private volatile LatencyHistogram[] histograms;
+
+    public HandlerMetrics(String handler, String path) {
+        this.handler = handler;
+        this.path = path;
+    }
+
+    /**
+     * 记录一次请求
+     */
+    public void record(StageTimer timer) {
+        LatencyHistogram[] histograms = this.histograms;
+        if (histograms == null) {
+            histograms = initHistograms();
+        }
+        for (DispatchStage stage : DispatchStage.stages()) {
+            histograms[stage.ordinal()].record(timer.getStageNanos(stage));
+        }
+        histograms[TOTAL_INDEX].record(timer.getTotalNanos());
+        if (timer.isFailed()) {
+            errors.increment();
+        }
+    }
+
+    private synchronized LatencyHistogram[] initHistograms() {
+        if (histograms == null) {
+            LatencyHistogram[] created = new LatencyHistogram[TOTAL_INDEX + 1];
+            for (int i = 0; i < created.length; i++) {
+                created[i] = new LatencyHistogram();
+            }
+            histograms = created;
+        }
+        return histograms;
+    }
+
+    /**
+     * 总耗时直方图，还没有请求时为null
+     */
+    public LatencyHistogram getTotalHistogram() {
+        LatencyHistogram[] histograms = this.histograms;
+        return (histograms != null ? histograms[TOTAL_INDEX] : null);
+    }
+
+    /**
+     * 阶段耗时直方图，还没有请求时为null
+     */
+    public LatencyHistogram getStageHistogram(DispatchStage stage) {
+        LatencyHistogram[] histograms = this.histograms;
+        return (histograms != null ? histograms[stage.ordinal()] : null);
+    }
+
+    @Override
+    public String getHandler() {
+        return handler;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public long getRequestCount() {
+        LatencyHistogram total = getTotalHistogram();
+        return (total != null ? total.getCount() : 0);
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        LatencyHistogram total = getTotalHistogram();
+        return (total != null ? total.getMeanNanos() / NANOS_PER_MILLI : 0);
+    }
+
+    @Override
+    public double getP50Millis() {
+        return percentileMillis(getTotalHistogram(), 50);
+    }
+
+    @Override
+    public double getP90Millis() {
+        return percentileMillis(getTotalHistogram(), 90);
+    }
+
+    @Override
+    public double getP99Millis() {
+        return percentileMillis(getTotalHistogram(), 99);
+    }
+
+    @Override
+    public double getP999Millis() {
+        return percentileMillis(getTotalHistogram(), 99.9);
+    }
+
+    @Override
+    public double getMaxMillis() {
+        LatencyHistogram total = getTotalHistogram();
+        return (total != null ? total.getMaxNanos() / NANOS_PER_MILLI : 0);
+    }
+
+    @Override
+    public double getMultipartP99Millis() {
+        return percentileMillis(getStageHistogram(DispatchStage.MULTIPART), 99);
+    }
+
+    @Override
+    public double getMappingP99Millis() {
+        return percentileMillis(getStageHistogram(DispatchStage.MAPPING), 99);
+    }
+
+    @Override
+    public double getArgumentsP99Millis() {
+        return percentileMillis(getStageHistogram(DispatchStage.ARGUMENTS), 99);
+    }
+
+    @Override
+    public double getInvocationP99Millis() {
+        return percentileMillis(getStageHistogram(DispatchStage.INVOCATION), 99);
+    }
+
+    @Override
+    public double getRenderingP99Millis() {
+        return percentileMillis(getStageHistogram(DispatchStage.RENDERING), 99);
+    }
+
+    @Override
+    public void reset() {
+        LatencyHistogram[] histograms = this.histograms;
+        if (histograms != null) {
+            for (LatencyHistogram histogram : histograms) {
+                histogram.reset();
+            }
+        }
+        errors.reset();
+    }
+
+    private static double percentileMillis(LatencyHistogram histogram, double percentile) {
+        return (histogram != null ? histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI : 0);
+    }
+
+    @Override
+    public String toString() {
+        return handler + " [" + path + "]";
+    }
+}
@@ -0,0 +1,44 @@
+package com.yankaizhang.spring.webmvc.metrics;
+
+/**
+ * {@link HandlerMetrics}的JMX接口，耗时单位为毫秒
+ * @author dzzhyk
+ * @since 2026-10-18 18:54:50
+ */
+public interface HandlerMetricsMBean {
+
+    String getHandler();
+
+    String getPath();
+
+    long getRequestCount();
+
+    long getErrorCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+
+    double getMultipartP99Millis();
+
+    double getMappingP99Millis();
+
+    double getArgumentsP99Millis();
+
+    double getInvocationP99Millis();
+
+    double getRenderingP99Millis();
+
+    /**
+     * 清空统计
+     */
+    void reset();
+}
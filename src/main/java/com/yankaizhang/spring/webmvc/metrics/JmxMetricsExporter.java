@@ -0,0 +1,65 @@
+package com.yankaizhang.spring.webmvc.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 把每个handler的统计数据注册为一个MBean<br/>
+ * 名称为 <code>domain:type=HandlerMetrics,name="UserController#get [/user/{id}]"</code>
+ * @author dzzhyk
+ * @since 2026-10-18 18:57:40
+ */
+public class JmxMetricsExporter implements MetricsExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(JmxMetricsExporter.class);
+
+    public static final String DEFAULT_DOMAIN = "com.yankaizhang.spring";
+
+    private final MBeanServer server;
+
+    private final String domain;
+
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+
+    public JmxMetricsExporter() {
+        this(ManagementFactory.getPlatformMBeanServer(), DEFAULT_DOMAIN);
+    }
+
+    public JmxMetricsExporter(MBeanServer server, String domain) {
+        this.server = server;
+        this.domain = domain;
+    }
+
+    @Override
+    public synchronized void export(DispatcherMetrics metrics) {
+        for (HandlerMetrics handlerMetrics : metrics.getHandlerMetrics()) {
+            try {
+                ObjectName name = new ObjectName(domain + ":type=HandlerMetrics,name=" +
+                        ObjectName.quote(handlerMetrics.toString()));
+                server.registerMBean(handlerMetrics, name);
+                registeredNames.add(name);
+            } catch (Exception e) {
+                log.warn("注册handler统计MBean失败 : {} => {}", handlerMetrics, e.toString());
+            }
+        }
+        log.debug("注册了 {} 个handler统计MBean", registeredNames.size());
+    }
+
+    @Override
+    public synchronized void destroy() {
+        for (ObjectName name : registeredNames) {
+            try {
+                server.unregisterMBean(name);
+            } catch (Exception e) {
+                log.debug("注销handler统计MBean失败 : {}", name);
+            }
+        }
+        registeredNames.clear();
+    }
+}
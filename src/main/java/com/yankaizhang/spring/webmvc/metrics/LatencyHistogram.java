@@ -0,0 +1,142 @@
+package com.yankaizhang.spring.webmvc.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁的对数-线性耗时直方图<br/>
+ * 以微秒为单位，每个2的幂区间再等分为8个桶，任意分位数的相对误差不超过12.5%；
+ * 记录只有几次原子操作，不分配对象，不同线程之间不加锁
+ * @author dzzhyk
+ * @since 2026-10-18 18:53:30
+ */
+public class LatencyHistogram {
+
+    /** 每个2的幂区间等分的位数 */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /** 可以区分的最大耗时，单位微秒，约35分钟，更大的耗时计入最后一个桶 */
+    private static final long MAX_TRACKABLE_MICROS = (1L << 31) - 1;
+
+    static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_MICROS) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sumNanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * 记录一次耗时
+     * @param nanos 耗时，单位纳秒
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucketIndex(Math.min(nanos / 1000, MAX_TRACKABLE_MICROS)));
+        count.increment();
+        sumNanos.add(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * 计算耗时所在的桶
+     * @param micros 耗时，单位微秒
+     */
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKET_COUNT) {
+            return (int) micros;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        int subBucket = (int) (micros >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * 桶中最大的耗时，单位微秒
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        return ((long) (SUB_BUCKET_COUNT + subBucket) << shift) + (1L << shift) - 1;
+    }
+
+    /**
+     * 计算分位数
+     * @param percentile 百分位，例如99.9
+     * @return 耗时，单位纳秒，没有记录时为0
+     */
+    public long getValueAtPercentile(double percentile) {
+        return getValuesAtPercentiles(percentile)[0];
+    }
+
+    /**
+     * 遍历一次桶计算多个分位数
+     * @param percentiles 从小到大排列的百分位
+     * @return 对应的耗时，单位纳秒
+     */
+    public long[] getValuesAtPercentiles(double... percentiles) {
+        long[] values = new long[percentiles.length];
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return values;
+        }
+        long max = maxNanos.get();
+        long cumulative = 0;
+        int bucket = -1;
+        for (int p = 0; p < percentiles.length; p++) {
+            long rank = Math.max(1, (long) Math.ceil(percentiles[p] / 100 * total));
+            while (cumulative < rank && bucket < BUCKET_COUNT - 1) {
+                cumulative += snapshot[++bucket];
+            }
+            values[p] = Math.min((bucketUpperBound(bucket) + 1) * 1000 - 1, max);
+        }
+        return values;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public double getMeanNanos() {
+        long n = count.sum();
+        return (n == 0 ? 0 : (double) sumNanos.sum() / n);
+    }
+
+    /**
+     * 清空记录，和并发的记录之间没有原子性保证
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sumNanos.reset();
+        maxNanos.set(0);
+    }
+}
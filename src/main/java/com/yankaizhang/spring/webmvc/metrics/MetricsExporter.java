@@ -0,0 +1,19 @@
+package com.yankaizhang.spring.webmvc.metrics;
+
+/**
+ * 把派发统计数据暴露给外部监控系统
+ * @author dzzhyk
+ * @since 2026-10-18 18:57:15
+ */
+public interface MetricsExporter {
+
+    /**
+     * 开始暴露统计数据，在初始化阶段调用一次
+     */
+    void export(DispatcherMetrics metrics);
+
+    /**
+     * 停止暴露，释放资源
+     */
+    void destroy();
+}
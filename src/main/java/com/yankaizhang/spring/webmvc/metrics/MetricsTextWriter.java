@@ -0,0 +1,117 @@
+package com.yankaizhang.spring.webmvc.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 以Prometheus文本格式输出派发统计数据，用于内置的统计接口<br/>
+ * handler按照p99耗时从大到小排列，直接查看时最慢的handler在最前面
+ * @author dzzhyk
+ * @since 2026-10-18 18:58:30
+ */
+public class MetricsTextWriter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.9", "0.99", "0.999"};
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    public void write(DispatcherMetrics metrics, Writer writer) throws IOException {
+        List<HandlerMetrics> handlers = new ArrayList<>();
+        for (HandlerMetrics handlerMetrics : metrics.getHandlerMetrics()) {
+            if (handlerMetrics.getTotalHistogram() != null) {
+                handlers.add(handlerMetrics);
+            }
+        }
+        // 先计算好p99再排序，排序过程中不重复遍历直方图
+        long[] p99 = new long[handlers.size()];
+        Integer[] order = new Integer[handlers.size()];
+        for (int i = 0; i < handlers.size(); i++) {
+            p99[i] = handlers.get(i).getTotalHistogram().getValueAtPercentile(99);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(p99[b], p99[a]));
+
+        writer.write("# HELP mine_spring_unmatched_requests_total Requests without a matching handler\n");
+        writer.write("# TYPE mine_spring_unmatched_requests_total counter\n");
+        writer.write("mine_spring_unmatched_requests_total " + metrics.getUnmatchedRequests() + "\n");
+
+        writer.write("# HELP mine_spring_requests_total Requests per handler\n");
+        writer.write("# TYPE mine_spring_requests_total counter\n");
+        for (Integer i : order) {
+            HandlerMetrics handler = handlers.get(i);
+            writer.write("mine_spring_requests_total" + labels(handler, null) + " " +
+                    handler.getRequestCount() + "\n");
+        }
+
+        writer.write("# HELP mine_spring_errors_total Failed requests per handler\n");
+        writer.write("# TYPE mine_spring_errors_total counter\n");
+        for (Integer i : order) {
+            HandlerMetrics handler = handlers.get(i);
+            writer.write("mine_spring_errors_total" + labels(handler, null) + " " +
+                    handler.getErrorCount() + "\n");
+        }
+
+        writer.write("# HELP mine_spring_request_duration_seconds Request latency per handler\n");
+        writer.write("# TYPE mine_spring_request_duration_seconds summary\n");
+        for (Integer i : order) {
+            HandlerMetrics handler = handlers.get(i);
+            writeSummary(writer, "mine_spring_request_duration_seconds",
+                    labels(handler, null), handler.getTotalHistogram());
+        }
+
+        writer.write("# HELP mine_spring_stage_duration_seconds Latency of each dispatch stage per handler\n");
+        writer.write("# TYPE mine_spring_stage_duration_seconds summary\n");
+        for (Integer i : order) {
+            HandlerMetrics handler = handlers.get(i);
+            for (DispatchStage stage : DispatchStage.stages()) {
+                writeSummary(writer, "mine_spring_stage_duration_seconds",
+                        labels(handler, stage), handler.getStageHistogram(stage));
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeSummary(Writer writer, String name, String labels,
+                                     LatencyHistogram histogram) throws IOException {
+        long[] values = histogram.getValuesAtPercentiles(PERCENTILES);
+        String prefix = labels.substring(0, labels.length() - 1);
+        for (int i = 0; i < values.length; i++) {
+            writer.write(name + prefix + ",quantile=\"" + QUANTILE_LABELS[i] + "\"} " +
+                    values[i] / NANOS_PER_SECOND + "\n");
+        }
+        writer.write(name + "_sum" + labels + " " + histogram.getSumNanos() / NANOS_PER_SECOND + "\n");
+        writer.write(name + "_count" + labels + " " + histogram.getCount() + "\n");
+    }
+
+    private static String labels(HandlerMetrics handler, DispatchStage stage) {
+        StringBuilder builder = new StringBuilder("{handler=\"");
+        escape(builder, handler.getHandler());
+        builder.append("\",path=\"");
+        escape(builder, handler.getPath());
+        builder.append('"');
+        if (stage != null) {
+            builder.append(",stage=\"").append(stage.getLabel()).append('"');
+        }
+        return builder.append('}').toString();
+    }
+
+    private static void escape(StringBuilder builder, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                builder.append('\\').append(c);
+            } else if (c == '\n') {
+                builder.append("\\n");
+            } else {
+                builder.append(c);
+            }
+        }
+    }
+}
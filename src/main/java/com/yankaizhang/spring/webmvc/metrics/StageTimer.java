@@ -0,0 +1,58 @@
+package com.yankaizhang.spring.webmvc.metrics;
+
+/**
+ * 记录一次请求在各个阶段的耗时<br/>
+ * 每次调用{@link #mark(DispatchStage)}把距离上次标记经过的时间计入该阶段，只在请求线程中使用
+ * @author dzzhyk
+ * @since 2026-10-18 18:52:40
+ */
+public final class StageTimer {
+
+    private final long[] stageNanos = new long[DispatchStage.stages().length];
+
+    private long startNanos;
+
+    private long lastMarkNanos;
+
+    /** 请求处理失败 */
+    private boolean failed;
+
+    /**
+     * 开始计时，清除上次的记录
+     */
+    public void start() {
+        for (int i = 0; i < stageNanos.length; i++) {
+            stageNanos[i] = 0;
+        }
+        failed = false;
+        startNanos = lastMarkNanos = System.nanoTime();
+    }
+
+    /**
+     * 把距离上次标记经过的时间计入该阶段
+     */
+    public void mark(DispatchStage stage) {
+        long now = System.nanoTime();
+        stageNanos[stage.ordinal()] += now - lastMarkNanos;
+        lastMarkNanos = now;
+    }
+
+    public void markFailed() {
+        this.failed = true;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public long getStageNanos(DispatchStage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    /**
+     * 从开始到最后一次标记的总耗时
+     */
+    public long getTotalNanos() {
+        return lastMarkNanos - startNanos;
+    }
+}
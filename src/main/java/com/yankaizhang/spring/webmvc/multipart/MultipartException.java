@@ -0,0 +1,19 @@
+package com.yankaizhang.spring.webmvc.multipart;
+
+/**
+ * 流式解析上传请求过程中的异常
+ * @author dzzhyk
+ * @since 2026-10-18 15:02:37
+ */
+public class MultipartException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public MultipartException(String message) {
+        super(message);
+    }
+
+    public MultipartException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
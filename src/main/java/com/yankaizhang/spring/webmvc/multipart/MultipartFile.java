@@ -1,8 +1,15 @@
 package com.yankaizhang.spring.webmvc.multipart;
 
+import com.yankaizhang.spring.util.StreamUtils;
+
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.zip.Checksum;
 
 /**
  * 上传文件对象实现的接口
@@ -65,4 +72,38 @@ public interface MultipartFile {
      */
     void transferTo(File dest) throws IOException, IllegalStateException;
 
+    /**
+     * 将文件复制到另一个目标路径
+     * 如果目标文件已经存在，则会被替换
+     * @param dest 目标路径
+     * @throws IOException 异常
+     * @throws IllegalStateException 异常
+     */
+    default void transferTo(Path dest) throws IOException, IllegalStateException {
+        transferTo(dest.toFile());
+    }
+
+    /**
+     * 将文件内容写入目标通道，不关闭通道
+     * @param target 目标通道
+     * @return 写出的字节数
+     * @throws IOException 异常
+     */
+    default long transferTo(WritableByteChannel target) throws IOException {
+        return transferTo(target, null);
+    }
+
+    /**
+     * 将文件内容写入目标通道，同时计算校验和，不关闭通道
+     * @param target 目标通道
+     * @param checksum 校验和，比如{@link java.util.zip.CRC32}，可以为null
+     * @return 写出的字节数
+     * @throws IOException 异常
+     */
+    default long transferTo(WritableByteChannel target, Checksum checksum) throws IOException {
+        try (ReadableByteChannel in = Channels.newChannel(getInputStream())) {
+            return StreamUtils.copy(in, target, checksum);
+        }
+    }
+
 }
@@ -0,0 +1,67 @@
+package com.yankaizhang.spring.webmvc.multipart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 流式上传模式下的一个上传部分，可能是普通表单字段，也可能是文件<br/>
+ * 内容只能在迭代到下一个部分之前读取一次，不会暂存到内存或者磁盘
+ * @author dzzhyk
+ * @since 2026-10-18 15:02:37
+ */
+public interface MultipartPart {
+
+    /**
+     * 上传时指定的参数名称
+     * @return 参数名
+     */
+    String getName();
+
+    /**
+     * 原始文件名，普通表单字段返回null
+     * @return 文件原始名称
+     */
+    String getOriginalFilename();
+
+    /**
+     * 该部分的contentType
+     * @return contentType，可能为null
+     */
+    String getContentType();
+
+    /**
+     * 是否为普通表单字段
+     * @return 判断结果
+     */
+    boolean isFormField();
+
+    /**
+     * 获取该部分的头信息
+     * @param name 头名称
+     * @return 头的值，没有时返回null
+     */
+    String getHeader(String name);
+
+    /**
+     * 返回读取该部分内容的读入流，只能读取一次
+     * @return 内容读入流
+     * @throws IOException 读取异常，超出大小限制时也会抛出
+     */
+    InputStream getInputStream() throws IOException;
+
+    /**
+     * 以字符串形式读取全部内容，适合普通表单字段
+     * @return 内容字符串
+     * @throws IOException 读取异常
+     */
+    String getString() throws IOException;
+
+    /**
+     * 把内容直接写入输出流，不关闭输出流
+     * @param out 输出流
+     * @return 写出的字节数
+     * @throws IOException 读写异常
+     */
+    long transferTo(OutputStream out) throws IOException;
+}
@@ -0,0 +1,32 @@
+package com.yankaizhang.spring.webmvc.multipart;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 流式上传模式下按照到达顺序读取的所有上传部分，可以直接作为controller方法的参数<br/>
+ * 只能遍历一次，解析过程中的异常以{@link MultipartException}抛出
+ * @author dzzhyk
+ * @since 2026-10-18 15:02:37
+ */
+public interface MultipartParts extends Iterable<MultipartPart> {
+
+    /**
+     * 返回按照到达顺序遍历上传部分的迭代器，只能调用一次
+     * @return 迭代器
+     */
+    @Override
+    Iterator<MultipartPart> iterator();
+
+    /**
+     * 以{@link Stream}的形式按顺序遍历上传部分
+     * @return 顺序流
+     */
+    default Stream<MultipartPart> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+}
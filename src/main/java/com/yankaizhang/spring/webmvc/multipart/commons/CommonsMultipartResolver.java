@@ -1,11 +1,13 @@
 package com.yankaizhang.spring.webmvc.multipart.commons;
 
 import com.yankaizhang.spring.webmvc.context.ServletContextAware;
+import com.yankaizhang.spring.webmvc.multipart.MultipartParts;
 import com.yankaizhang.spring.webmvc.multipart.MultipartRequest;
 import com.yankaizhang.spring.webmvc.multipart.MultipartResolver;
 import com.yankaizhang.spring.webmvc.multipart.support.AbstractMultipartRequest;
 import com.yankaizhang.spring.webmvc.multipart.support.BaseCommonsFileUploadSupport;
 import com.yankaizhang.spring.webmvc.multipart.support.DefaultMultipartRequest;
+import com.yankaizhang.spring.webmvc.multipart.support.StreamingMultipartRequest;
 import org.apache.commons.fileupload.*;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
 
@@ -32,6 +34,12 @@ public class CommonsMultipartResolver extends BaseCommonsFileUploadSupport
 	 */
 	private static final String TEMP_DIR = "javax.servlet.context.tempdir";
 
+	/**
+	 * 是否使用流式解析，开启之后请求体不会被提前解析和暂存，
+	 * controller需要通过{@link MultipartParts}参数按顺序读取
+	 */
+	private boolean streaming = false;
+
 
 	public CommonsMultipartResolver() {
 		super();
@@ -43,6 +51,10 @@ public class CommonsMultipartResolver extends BaseCommonsFileUploadSupport
 	 */
 	@Override
 	public void setServletContext(ServletContext context) {
+		if (getStorageManager() != null) {
+			// 已经由暂存空间管理器指定了暂存目录
+			return;
+		}
 		File attribute = (File) context.getAttribute(TEMP_DIR);
 		getFileItemFactory().setRepository(attribute);
 	}
@@ -57,6 +69,12 @@ public class CommonsMultipartResolver extends BaseCommonsFileUploadSupport
 		if (null == request){
 			throw new Exception("请求request不能为null");
 		}
+		if (streaming) {
+			return new StreamingMultipartRequest(request, (ServletFileUpload) getFileUpload(), determineEncoding(request));
+		}
+		if (getStorageManager() != null) {
+			getStorageManager().checkQuota(request.getContentLengthLong());
+		}
 		MultipartParsingResult parsingResult = parseRequest(request);
 		return new DefaultMultipartRequest(request, parsingResult.getMultipartFiles(),
 				parsingResult.getMultipartParameters(), parsingResult.getMultipartParameterContentTypes());
@@ -104,6 +122,17 @@ public class CommonsMultipartResolver extends BaseCommonsFileUploadSupport
 		}
 	}
 
+	public boolean isStreaming() {
+		return streaming;
+	}
+
+	/**
+	 * 设置是否使用流式解析，单个文件和总大小的限制仍然有效
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
 	@Override
 	protected FileUpload newFileUpload(FileItemFactory fileItemFactory) {
 		return new ServletFileUpload(fileItemFactory);
@@ -7,10 +7,12 @@ import com.yankaizhang.spring.webmvc.multipart.MultipartFile;
 import org.apache.commons.fileupload.FileItem;
 import org.apache.commons.fileupload.FileItemFactory;
 import org.apache.commons.fileupload.FileUpload;
+import org.apache.commons.fileupload.disk.DiskFileItem;
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.UnsupportedEncodingException;
 import java.util.HashMap;
 import java.util.List;
@@ -39,6 +41,11 @@ public abstract class BaseCommonsFileUploadSupport {
      */
     private final FileUpload fileUpload;
 
+    /**
+     * 上传文件暂存空间管理器，可以为null
+     */
+    private MultipartStorageManager storageManager;
+
     /**
      * 实例化工厂
      */
@@ -99,6 +106,20 @@ public abstract class BaseCommonsFileUploadSupport {
         return encoding;
     }
 
+    public MultipartStorageManager getStorageManager() {
+        return this.storageManager;
+    }
+
+    /**
+     * 设置暂存空间管理器，上传文件会暂存到它管理的目录中，并且在后台删除
+     */
+    public void setStorageManager(MultipartStorageManager storageManager) {
+        this.storageManager = storageManager;
+        if (storageManager != null) {
+            this.fileItemFactory.setRepository(storageManager.getRepository());
+        }
+    }
+
     protected DiskFileItemFactory newFileItemFactory() {
         return new DiskFileItemFactory();
     }
@@ -149,6 +170,12 @@ public abstract class BaseCommonsFileUploadSupport {
                 // multipart file field
                 CommonsMultipartFile file = createMultipartFile(fileItem);
                 multipartFiles.add(file.getName(), file);
+                if (this.storageManager != null && fileItem instanceof DiskFileItem && !fileItem.isInMemory()) {
+                    File storeLocation = ((DiskFileItem) fileItem).getStoreLocation();
+                    if (storeLocation != null) {
+                        this.storageManager.track(storeLocation, fileItem.getSize());
+                    }
+                }
                 logger.debug("Part '" + file.getName() + "', size " + file.getSize() +
                         " bytes, filename='" + file.getOriginalFilename() + "'" +
                         ", storage=" + file.getStorageDescription()
@@ -173,7 +200,7 @@ public abstract class BaseCommonsFileUploadSupport {
             for (MultipartFile file : files) {
                 if (file instanceof CommonsMultipartFile) {
                     CommonsMultipartFile cmf = (CommonsMultipartFile) file;
-                    cmf.getFileItem().delete();
+                    deleteFileItem(cmf.getFileItem());
                     logger.debug(
                         "Cleaning up part '" + cmf.getName() +
                                 "', filename '" + cmf.getOriginalFilename() + "'" +
@@ -184,6 +211,20 @@ public abstract class BaseCommonsFileUploadSupport {
         }
     }
 
+    /**
+     * 删除FileItem，磁盘上的暂存文件交给暂存空间管理器在后台删除
+     */
+    private void deleteFileItem(FileItem fileItem) {
+        if (this.storageManager != null && fileItem instanceof DiskFileItem && !fileItem.isInMemory()) {
+            File storeLocation = ((DiskFileItem) fileItem).getStoreLocation();
+            if (storeLocation != null) {
+                this.storageManager.delete(storeLocation);
+                return;
+            }
+        }
+        fileItem.delete();
+    }
+
     /**
      * 判断编码
      */
@@ -1,9 +1,9 @@
 package com.yankaizhang.spring.webmvc.multipart.support;
 
+import com.yankaizhang.spring.util.StreamUtils;
 import com.yankaizhang.spring.webmvc.multipart.MultipartFile;
 //import org.apache.commons.fileupload.DefaultFileItem;
 import org.apache.commons.fileupload.FileItem;
-import org.apache.commons.fileupload.FileUploadException;
 import org.apache.commons.fileupload.disk.DiskFileItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +11,13 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.util.zip.Checksum;
 
 /**
  * 使用了apache-fileupload包<br/>
@@ -28,6 +35,16 @@ public class CommonsMultipartFile implements MultipartFile {
 	 */
 	private final FileItem fileItem;
 
+	/**
+	 * 暂存文件是否已经被移动到目标位置
+	 */
+	private volatile boolean moved = false;
+
+	/**
+	 * 移动之前记录的文件大小，移动之后fileItem已经读不到暂存文件
+	 */
+	private volatile long movedSize = -1;
+
 	/**
 	 * 根据获取的apache fileItem对象创建本类
 	 */
@@ -64,51 +81,136 @@ public class CommonsMultipartFile implements MultipartFile {
 
 	@Override
 	public long getSize() {
-		return this.fileItem.getSize();
+		return (this.moved ? this.movedSize : this.fileItem.getSize());
 	}
 
 	@Override
 	public byte[] getBytes() {
+		checkNotMoved();
 		return this.fileItem.get();
 	}
 
 	@Override
-	public InputStream getInputStream() throws IOException {
-		return this.fileItem.getInputStream();
+	public void transferTo(File dest) throws IOException, IllegalStateException {
+		transferTo(dest.toPath());
 	}
 
+	/**
+	 * 已经暂存在磁盘上的文件优先使用原子的{@link Files#move}，不在同一个文件系统时使用{@link FileChannel#transferTo}复制，
+	 * 内存中的内容直接写出
+	 */
 	@Override
-	public void transferTo(File dest) throws IOException, IllegalStateException {
-		if (dest.exists() && !dest.delete()) {
-			throw new IOException("Destination file [" + dest.getAbsolutePath() +
+	public void transferTo(Path dest) throws IOException, IllegalStateException {
+		checkNotMoved();
+		if (Files.exists(dest) && !Files.deleteIfExists(dest)) {
+			throw new IOException("Destination file [" + dest.toAbsolutePath() +
 			                      "] already exists and could not be deleted");
 		}
-		try {
-			this.fileItem.write(dest);
-			if (logger.isDebugEnabled()) {
-				String action = "transferred";
-				if (this.fileItem instanceof DiskFileItem) {
-					action = ((DiskFileItem) this.fileItem).getStoreLocation().exists() ? "copied" : "moved";
+		String action;
+		Path storeLocation = getStoreLocation();
+		if (storeLocation != null) {
+			long size = this.fileItem.getSize();
+			try {
+				Files.move(storeLocation, dest, StandardCopyOption.ATOMIC_MOVE);
+				this.movedSize = size;
+				this.moved = true;
+				action = "moved";
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				try (FileChannel in = FileChannel.open(storeLocation, StandardOpenOption.READ);
+				     FileChannel out = openForWrite(dest)) {
+					StreamUtils.transfer(in, 0, in.size(), out);
 				}
-				logger.debug("Multipart file [" + getName() + "] with original file name [" +
-										 getOriginalFilename() + "], stored " + getStorageDescription() + ": " +
-				             action + " to [" + dest.getAbsolutePath() + "]");
+				action = "copied";
 			}
 		}
-		catch (FileUploadException ex) {
-			throw new IllegalStateException(ex.getMessage());
+		else if (this.fileItem.isInMemory()) {
+			try (FileChannel out = openForWrite(dest)) {
+				writeFully(ByteBuffer.wrap(this.fileItem.get()), out);
+			}
+			action = "written";
 		}
-		catch (IOException ex) {
-			throw ex;
+		else {
+			try (ReadableByteChannel in = Channels.newChannel(this.fileItem.getInputStream());
+			     FileChannel out = openForWrite(dest)) {
+				StreamUtils.copy(in, out, null);
+			}
+			action = "transferred";
 		}
-		catch (Exception ex) {
-			logger.error("Could not transfer to file", ex);
-			throw new IOException("文件转写失败: " + ex.getMessage());
+		if (logger.isDebugEnabled()) {
+			logger.debug("Multipart file [" + getName() + "] with original file name [" +
+			             getOriginalFilename() + "]: " + action + " to [" + dest.toAbsolutePath() + "]");
 		}
 	}
 
-	protected String getStorageDescription() {
+	/**
+	 * 磁盘上的文件不需要计算校验和时使用{@link FileChannel#transferTo}
+	 */
+	@Override
+	public long transferTo(WritableByteChannel target, Checksum checksum) throws IOException {
+		checkNotMoved();
+		Path storeLocation = getStoreLocation();
+		if (storeLocation != null) {
+			try (FileChannel in = FileChannel.open(storeLocation, StandardOpenOption.READ)) {
+				if (checksum == null) {
+					return StreamUtils.transfer(in, 0, in.size(), target);
+				}
+				return StreamUtils.copy(in, target, checksum);
+			}
+		}
 		if (this.fileItem.isInMemory()) {
+			byte[] content = this.fileItem.get();
+			if (checksum != null) {
+				checksum.update(content, 0, content.length);
+			}
+			writeFully(ByteBuffer.wrap(content), target);
+			return content.length;
+		}
+		return MultipartFile.super.transferTo(target, checksum);
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		checkNotMoved();
+		return this.fileItem.getInputStream();
+	}
+
+	/**
+	 * 获取暂存在磁盘上的文件，在内存中时返回null
+	 */
+	private Path getStoreLocation() {
+		if (this.fileItem instanceof DiskFileItem && !this.fileItem.isInMemory()) {
+			File storeLocation = ((DiskFileItem) this.fileItem).getStoreLocation();
+			if (storeLocation != null && storeLocation.exists()) {
+				return storeLocation.toPath();
+			}
+		}
+		return null;
+	}
+
+	private void checkNotMoved() {
+		if (this.moved) {
+			throw new IllegalStateException("File [" + getOriginalFilename() +
+			                                "] has already been moved - cannot be transferred again");
+		}
+	}
+
+	private static FileChannel openForWrite(Path dest) throws IOException {
+		return FileChannel.open(dest, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE);
+	}
+
+	private static void writeFully(ByteBuffer buffer, WritableByteChannel target) throws IOException {
+		while (buffer.hasRemaining()) {
+			target.write(buffer);
+		}
+	}
+
+	protected String getStorageDescription() {
+		if (this.moved) {
+			return "moved to destination";
+		}
+		else if (this.fileItem.isInMemory()) {
 			return "in memory";
 		}
 		else if (this.fileItem instanceof DiskFileItem) {
@@ -0,0 +1,81 @@
+package com.yankaizhang.spring.webmvc.multipart.support;
+
+import com.yankaizhang.spring.util.StreamUtils;
+import com.yankaizhang.spring.webmvc.multipart.MultipartPart;
+import org.apache.commons.fileupload.FileItemStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 基于commons-fileupload {@link FileItemStream}的{@link MultipartPart}实现
+ * @author dzzhyk
+ * @since 2026-10-18 15:02:37
+ */
+public class FileItemStreamPart implements MultipartPart {
+
+    private final FileItemStream itemStream;
+
+    private final String encoding;
+
+    public FileItemStreamPart(FileItemStream itemStream, String encoding) {
+        this.itemStream = itemStream;
+        this.encoding = encoding;
+    }
+
+    @Override
+    public String getName() {
+        return itemStream.getFieldName();
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        String name = itemStream.getName();
+        return (name == null || name.isEmpty() ? null : new File(name).getName());
+    }
+
+    @Override
+    public String getContentType() {
+        return itemStream.getContentType();
+    }
+
+    @Override
+    public boolean isFormField() {
+        return itemStream.isFormField();
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return (itemStream.getHeaders() == null ? null : itemStream.getHeaders().getHeader(name));
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return itemStream.openStream();
+    }
+
+    @Override
+    public String getString() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transferTo(out);
+        return out.toString(encoding);
+    }
+
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        try (InputStream in = getInputStream()) {
+            return StreamUtils.copy(in, out);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FileItemStreamPart{" +
+                "name='" + getName() + '\'' +
+                ", originalFilename='" + getOriginalFilename() + '\'' +
+                '}';
+    }
+}
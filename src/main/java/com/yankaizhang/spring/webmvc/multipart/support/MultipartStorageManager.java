@@ -0,0 +1,254 @@
+package com.yankaizhang.spring.webmvc.multipart.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 上传文件暂存空间管理器<br/>
+ * <ul>
+ * <li>默认每个实例使用单独创建的暂存目录，关闭时一起删除
+ * <li>记录暂存文件占用的磁盘空间，超出配额时拒绝新的上传请求
+ * <li>暂存文件在后台线程中删除，不占用请求线程
+ * <li>定期清理超过存活时间仍然没有被删除的孤儿文件，仍然被请求使用的文件不会被清理
+ * </ul>
+ * @author dzzhyk
+ * @since 2026-10-18 15:38:20
+ */
+public class MultipartStorageManager {
+
+    private static final Logger log = LoggerFactory.getLogger(MultipartStorageManager.class);
+
+    /** commons-fileupload暂存文件的前缀 */
+    private static final String TEMP_FILE_PREFIX = "upload_";
+
+    /** commons-fileupload暂存文件的后缀 */
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    /** 默认暂存目录名称的前缀 */
+    public static final String DEFAULT_REPOSITORY_NAME = "mine-spring-upload";
+
+    /** 暂存目录 */
+    private final File repository;
+
+    /** 暂存目录是否由本对象创建，关闭时一起删除 */
+    private final boolean temporary;
+
+    /** 暂存文件占用的磁盘空间上限，小于等于0表示不限制 */
+    private long maxDiskUsage = -1;
+
+    /** 暂存文件的最长存活时间，单位毫秒 */
+    private long maxFileAge = TimeUnit.HOURS.toMillis(1);
+
+    /** 定期清理的间隔，单位毫秒 */
+    private long sweepInterval = TimeUnit.MINUTES.toMillis(10);
+
+    /** 仍然被请求使用的暂存文件，key为绝对路径，value为记录的文件大小 */
+    private final Map<String, Long> trackedFiles = new ConcurrentHashMap<>();
+
+    /** 仍然被请求使用的暂存文件占用的磁盘空间 */
+    private final AtomicLong trackedUsage = new AtomicLong();
+
+    /** 上次清理时统计的其余文件占用的磁盘空间，例如还没有到期的孤儿文件 */
+    private volatile long untrackedUsage;
+
+    /** 后台清理线程 */
+    private ScheduledExecutorService executor;
+
+    public MultipartStorageManager(File repository) {
+        this(repository, false);
+    }
+
+    private MultipartStorageManager(File repository, boolean temporary) {
+        this.repository = repository;
+        this.temporary = temporary;
+    }
+
+    /**
+     * 在parent下创建一个本实例专用的暂存目录，同一台机器上的多个实例不会互相清理对方的暂存文件
+     * @param parent 暂存目录的上级目录，例如容器的临时目录
+     * @return 暂存空间管理器，关闭时删除暂存目录
+     * @throws IOException 无法创建目录
+     */
+    public static MultipartStorageManager createTemporary(File parent) throws IOException {
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("无法创建目录 : " + parent.getAbsolutePath());
+        }
+        File repository = Files.createTempDirectory(parent.toPath(), DEFAULT_REPOSITORY_NAME + "-").toFile();
+        return new MultipartStorageManager(repository, true);
+    }
+
+    /**
+     * 创建暂存目录，清理过期的遗留文件并且启动后台清理线程
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        if (!repository.isDirectory() && !repository.mkdirs()) {
+            log.warn("无法创建上传文件暂存目录 : {}", repository.getAbsolutePath());
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "mine-spring-multipart-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 配置的暂存目录可能被其他正在运行的实例共用，启动时同样只清理超过存活时间的文件
+        executor.execute(() -> sweep(maxFileAge));
+        executor.scheduleWithFixedDelay(() -> sweep(maxFileAge), sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+        log.debug("上传文件暂存目录 : {}, 空间上限 : {} 字节", repository.getAbsolutePath(), maxDiskUsage);
+    }
+
+    /**
+     * 停止后台清理线程，已经提交的删除任务会执行完；自动创建的暂存目录会被删除
+     */
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+        if (temporary) {
+            File[] files = repository.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    deleteQuietly(file);
+                }
+            }
+            deleteQuietly(repository);
+        }
+    }
+
+    /**
+     * 检查剩余的暂存空间是否足够
+     * @param contentLength 上传请求的长度，未知时为-1
+     * @throws Exception 空间不足
+     */
+    public void checkQuota(long contentLength) throws Exception {
+        if (maxDiskUsage <= 0) {
+            return;
+        }
+        long usage = getDiskUsage();
+        if (usage >= maxDiskUsage || (contentLength > 0 && usage + contentLength > maxDiskUsage)) {
+            throw new Exception("上传文件暂存空间不足 : 已使用 " + usage + " 字节, 上限 " + maxDiskUsage + " 字节");
+        }
+    }
+
+    /**
+     * 记录新产生的暂存文件，在调用{@link #delete(File)}之前不会被定期清理
+     * @param file 暂存文件
+     * @param size 文件大小
+     */
+    public void track(File file, long size) {
+        Long previous = trackedFiles.put(file.getAbsolutePath(), size);
+        trackedUsage.addAndGet(size - (previous == null ? 0 : previous));
+    }
+
+    /**
+     * 在后台线程中删除暂存文件
+     * @param file 暂存文件
+     */
+    public void delete(File file) {
+        Long size = trackedFiles.remove(file.getAbsolutePath());
+        if (size != null) {
+            trackedUsage.addAndGet(-size);
+        }
+        ScheduledExecutorService executor = this.executor;
+        if (executor != null) {
+            try {
+                executor.execute(() -> deleteQuietly(file));
+                return;
+            } catch (RejectedExecutionException e) {
+                // 已经关闭，直接删除
+            }
+        }
+        deleteQuietly(file);
+    }
+
+    /**
+     * 清理暂存目录中超过存活时间并且没有被请求使用的文件，重新统计这些文件占用的空间<br/>
+     * 被请求使用的文件由{@link #track}和{@link #delete}单独统计，清理过程不会覆盖它们的更新
+     * @param maxAge 最长存活时间，单位毫秒
+     */
+    void sweep(long maxAge) {
+        File[] files = repository.listFiles((dir, name) ->
+                name.startsWith(TEMP_FILE_PREFIX) && name.endsWith(TEMP_FILE_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() - maxAge;
+        long usage = 0;
+        int deleted = 0;
+        for (File file : files) {
+            if (trackedFiles.containsKey(file.getAbsolutePath())) {
+                continue;
+            }
+            if (file.lastModified() <= deadline) {
+                if (deleteQuietly(file)) {
+                    deleted++;
+                }
+            } else {
+                usage += file.length();
+            }
+        }
+        untrackedUsage = usage;
+        if (deleted > 0) {
+            log.info("清理了 {} 个遗留的上传暂存文件", deleted);
+        }
+    }
+
+    private static boolean deleteQuietly(File file) {
+        try {
+            return Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            log.warn("删除上传暂存文件失败 : " + file.getAbsolutePath(), e);
+            return false;
+        }
+    }
+
+    public File getRepository() {
+        return repository;
+    }
+
+    public long getDiskUsage() {
+        return trackedUsage.get() + untrackedUsage;
+    }
+
+    public long getMaxDiskUsage() {
+        return maxDiskUsage;
+    }
+
+    public void setMaxDiskUsage(long maxDiskUsage) {
+        this.maxDiskUsage = maxDiskUsage;
+    }
+
+    public long getMaxFileAge() {
+        return maxFileAge;
+    }
+
+    public void setMaxFileAge(long maxFileAge) {
+        this.maxFileAge = maxFileAge;
+    }
+
+    public long getSweepInterval() {
+        return sweepInterval;
+    }
+
+    public void setSweepInterval(long sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+}
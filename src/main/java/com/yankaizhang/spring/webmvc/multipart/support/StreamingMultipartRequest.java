@@ -0,0 +1,115 @@
+package com.yankaizhang.spring.webmvc.multipart.support;
+
+import com.yankaizhang.spring.webmvc.multipart.MultipartException;
+import com.yankaizhang.spring.webmvc.multipart.MultipartPart;
+import com.yankaizhang.spring.webmvc.multipart.MultipartParts;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileUploadBase;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 流式上传模式下的文件上传请求<br/>
+ * 请求体不会被提前解析，controller通过{@link #getMultipartParts()}按照到达顺序读取每个部分，
+ * 因此上传的表单字段不会出现在getParameter中，getFile也总是返回null
+ * @author dzzhyk
+ * @since 2026-10-18 15:02:37
+ */
+public class StreamingMultipartRequest extends AbstractMultipartRequest {
+
+    private final ServletFileUpload fileUpload;
+
+    private final String encoding;
+
+    private MultipartParts parts;
+
+    public StreamingMultipartRequest(HttpServletRequest request, ServletFileUpload fileUpload, String encoding) {
+        super(request);
+        this.fileUpload = fileUpload;
+        this.encoding = encoding;
+    }
+
+    /**
+     * 获取按照到达顺序读取的上传部分
+     * @return 上传部分
+     */
+    public synchronized MultipartParts getMultipartParts() {
+        if (parts == null) {
+            parts = new IteratorMultipartParts();
+        }
+        return parts;
+    }
+
+    /**
+     * 流式模式不会产生需要清理的文件
+     */
+    @Override
+    public boolean isResolved() {
+        return false;
+    }
+
+
+    /**
+     * 只能遍历一次的上传部分
+     */
+    private class IteratorMultipartParts implements MultipartParts {
+
+        private boolean iterated = false;
+
+        @Override
+        public synchronized Iterator<MultipartPart> iterator() {
+            if (iterated) {
+                throw new IllegalStateException("上传内容只能读取一次");
+            }
+            iterated = true;
+            FileItemIterator itemIterator;
+            try {
+                itemIterator = fileUpload.getItemIterator(getRequest());
+            } catch (FileUploadException | IOException e) {
+                throw translate(e);
+            }
+            return new Iterator<MultipartPart>() {
+
+                @Override
+                public boolean hasNext() {
+                    try {
+                        return itemIterator.hasNext();
+                    } catch (FileUploadException | IOException e) {
+                        throw translate(e);
+                    }
+                }
+
+                @Override
+                public MultipartPart next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    try {
+                        return new FileItemStreamPart(itemIterator.next(), encoding);
+                    } catch (FileUploadException | IOException e) {
+                        throw translate(e);
+                    }
+                }
+            };
+        }
+
+        private MultipartException translate(Exception e) {
+            Throwable cause = e;
+            if (e instanceof FileUploadBase.FileUploadIOException && e.getCause() != null) {
+                cause = e.getCause();
+            }
+            if (cause instanceof FileUploadBase.SizeLimitExceededException) {
+                return new MultipartException("总上传大小超出限制", cause);
+            }
+            if (cause instanceof FileUploadBase.FileSizeLimitExceededException) {
+                return new MultipartException("单个文件大小超出限制", cause);
+            }
+            return new MultipartException("解析文件上传request失败", e);
+        }
+    }
+}
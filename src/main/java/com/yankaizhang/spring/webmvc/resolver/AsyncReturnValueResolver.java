@@ -0,0 +1,42 @@
+package com.yankaizhang.spring.webmvc.resolver;
+
+import com.yankaizhang.spring.core.MethodParameter;
+import com.yankaizhang.spring.web.method.ReturnValueResolver;
+import com.yankaizhang.spring.web.model.ModelAndViewBuilder;
+import com.yankaizhang.spring.web.request.WebRequest;
+import com.yankaizhang.spring.webmvc.async.DeferredResult;
+import com.yankaizhang.spring.webmvc.async.WebAsyncManager;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 异步返回值解析器，处理以下返回类型
+ * <ul>
+ * <li>{@link CompletionStage}
+ * <li>{@link Callable}
+ * <li>{@link DeferredResult}
+ * </ul>
+ * 该解析器只负责开启异步处理，不会向{@link ModelAndViewBuilder}中写入内容
+ * @author dzzhyk
+ * @since 2026-10-18 12:20:31
+ */
+public class AsyncReturnValueResolver implements ReturnValueResolver {
+
+    private final WebAsyncManager asyncManager;
+
+    public AsyncReturnValueResolver(WebAsyncManager asyncManager) {
+        this.asyncManager = asyncManager;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter parameter) {
+        return WebAsyncManager.isAsyncReturnType(parameter.getParameterType());
+    }
+
+    @Override
+    public void resolveReturnValue(Object returnValue, MethodParameter returnType,
+                                   ModelAndViewBuilder mav, WebRequest webRequest) throws Exception {
+        asyncManager.startAsyncProcessing(webRequest.getRequest(), webRequest.getResponse(), returnValue);
+    }
+}
@@ -0,0 +1,25 @@
+package com.yankaizhang.spring.webmvc.resolver;
+
+import com.yankaizhang.spring.core.MethodParameter;
+import com.yankaizhang.spring.web.method.ArgumentResolver;
+import com.yankaizhang.spring.web.request.WebRequest;
+import com.yankaizhang.spring.webmvc.HandlerExceptionResolver;
+
+/**
+ * {@link com.yankaizhang.spring.webmvc.annotation.ExceptionHandler}方法中异常类型的参数解析
+ * @author dzzhyk
+ * @since 2026-10-18 18:35:30
+ */
+public class ExceptionMethodArgumentResolver implements ArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return Throwable.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, WebRequest webRequest) throws Exception {
+        Object exception = webRequest.getRequest().getAttribute(HandlerExceptionResolver.EXCEPTION_ATTRIBUTE);
+        return (parameter.getParameterType().isInstance(exception) ? exception : null);
+    }
+}
@@ -0,0 +1,216 @@
+package com.yankaizhang.spring.webmvc.resolver;
+
+import com.yankaizhang.spring.core.MethodParameter;
+import com.yankaizhang.spring.util.StreamUtils;
+import com.yankaizhang.spring.web.http.FileResource;
+import com.yankaizhang.spring.web.http.HttpRange;
+import com.yankaizhang.spring.web.method.ReturnValueResolver;
+import com.yankaizhang.spring.web.model.ModelAndViewBuilder;
+import com.yankaizhang.spring.web.request.WebRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 文件返回值解析器，处理{@link File}、{@link Path}和{@link FileResource}类型的返回值<br/>
+ * 支持Range和If-Range请求头，可以返回206部分内容和multipart/byteranges多段内容，
+ * 文件内容使用{@link FileChannel#transferTo}发送，不经过堆内存缓冲区
+ * @author dzzhyk
+ * @since 2026-10-18 13:58:40
+ */
+public class FileResourceReturnValueResolver implements ReturnValueResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(FileResourceReturnValueResolver.class);
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    /** 超过这个数量的多段请求直接返回完整内容 */
+    private static final int MAX_RANGES = 16;
+
+    @Override
+    public boolean supportsReturnType(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return File.class.isAssignableFrom(type) || Path.class.isAssignableFrom(type) ||
+                FileResource.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public void resolveReturnValue(Object returnValue, MethodParameter returnType,
+                                   ModelAndViewBuilder mav, WebRequest webRequest) throws Exception {
+        if (returnValue == null) {
+            return;
+        }
+        FileResource resource = toFileResource(returnValue);
+        HttpServletRequest req = (HttpServletRequest) webRequest.getRequest();
+        HttpServletResponse resp = (HttpServletResponse) webRequest.getResponse();
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(resource.getPath(), BasicFileAttributes.class);
+        } catch (IOException e) {
+            attributes = null;
+        }
+        if (attributes == null || !attributes.isRegularFile()) {
+            log.warn("要返回的文件不存在 => {}", resource.getPath());
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String eTag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+        String contentType = getContentType(resource, req);
+
+        resp.setHeader("Accept-Ranges", "bytes");
+        resp.setHeader("ETag", eTag);
+        resp.setDateHeader("Last-Modified", lastModified);
+        if (resource.isAttachment()) {
+            String filename = URLEncoder.encode(resource.getFilename(), "UTF-8").replace("+", "%20");
+            resp.setHeader("Content-Disposition", "attachment; filename*=UTF-8''" + filename);
+        }
+
+        List<HttpRange> ranges = null;
+        String rangeHeader = req.getHeader("Range");
+        if (rangeHeader != null && matchesIfRange(req, eTag, lastModified)) {
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                log.debug("忽略无法解析的Range请求头 => {}", rangeHeader);
+            }
+            if (ranges != null && !ranges.isEmpty()) {
+                // 只要有一段可以满足就返回可以满足的部分
+                ranges = getSatisfiableRanges(ranges, length);
+                if (ranges.isEmpty()) {
+                    resp.setHeader("Content-Range", "bytes */" + length);
+                    resp.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+            }
+            if (ranges != null && ranges.size() > MAX_RANGES) {
+                ranges = null;
+            }
+        }
+
+        boolean head = "HEAD".equals(req.getMethod());
+        try (FileChannel channel = FileChannel.open(resource.getPath(), StandardOpenOption.READ)) {
+            if (ranges == null || ranges.isEmpty()) {
+                resp.setContentType(contentType);
+                resp.setContentLengthLong(length);
+                if (!head) {
+                    StreamUtils.transfer(channel, 0, length, resp.getOutputStream());
+                }
+            } else if (ranges.size() == 1) {
+                writeSingleRange(resp, channel, ranges.get(0), length, contentType, head);
+            } else {
+                writeMultipleRanges(resp, channel, ranges, length, contentType, head);
+            }
+        }
+    }
+
+    /**
+     * 返回206和一段内容
+     */
+    private void writeSingleRange(HttpServletResponse resp, FileChannel channel, HttpRange range,
+                                  long length, String contentType, boolean head) throws IOException {
+        long start = range.getRangeStart(length);
+        long end = range.getRangeEnd(length);
+        resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        resp.setContentType(contentType);
+        resp.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+        resp.setContentLengthLong(end - start + 1);
+        if (!head) {
+            StreamUtils.transfer(channel, start, end - start + 1, resp.getOutputStream());
+        }
+    }
+
+    /**
+     * 返回206和multipart/byteranges格式的多段内容
+     */
+    private void writeMultipleRanges(HttpServletResponse resp, FileChannel channel, List<HttpRange> ranges,
+                                     long length, String contentType, boolean head) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        resp.setContentType("multipart/byteranges; boundary=" + boundary);
+        if (head) {
+            return;
+        }
+        ServletOutputStream out = resp.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(length);
+            long end = range.getRangeEnd(length);
+            String partHeader = "\r\n--" + boundary + "\r\n" +
+                    "Content-Type: " + contentType + "\r\n" +
+                    "Content-Range: bytes " + start + "-" + end + "/" + length + "\r\n\r\n";
+            out.write(partHeader.getBytes(StandardCharsets.US_ASCII));
+            StreamUtils.transfer(channel, start, end - start + 1, target);
+        }
+        out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    /**
+     * 判断If-Range条件，条件不满足时应该返回完整内容
+     */
+    private boolean matchesIfRange(HttpServletRequest req, String eTag, long lastModified) {
+        String ifRange = req.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return eTag.equals(ifRange);
+        }
+        try {
+            long date = req.getDateHeader("If-Range");
+            return lastModified / 1000 * 1000 <= date;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static List<HttpRange> getSatisfiableRanges(List<HttpRange> ranges, long length) {
+        List<HttpRange> satisfiable = new ArrayList<>(ranges.size());
+        for (HttpRange range : ranges) {
+            if (range.isSatisfiable(length)) {
+                satisfiable.add(range);
+            }
+        }
+        return satisfiable;
+    }
+
+    private String getContentType(FileResource resource, HttpServletRequest req) {
+        if (resource.getContentType() != null) {
+            return resource.getContentType();
+        }
+        Path fileName = resource.getPath().getFileName();
+        String contentType = (fileName == null ? null : req.getServletContext().getMimeType(fileName.toString()));
+        return (contentType == null ? DEFAULT_CONTENT_TYPE : contentType);
+    }
+
+    private static FileResource toFileResource(Object returnValue) {
+        if (returnValue instanceof FileResource) {
+            return (FileResource) returnValue;
+        }
+        if (returnValue instanceof File) {
+            return new FileResource((File) returnValue);
+        }
+        return new FileResource((Path) returnValue);
+    }
+}
@@ -0,0 +1,36 @@
+package com.yankaizhang.spring.webmvc.resolver;
+
+import com.yankaizhang.spring.core.MethodParameter;
+import com.yankaizhang.spring.web.method.ArgumentResolver;
+import com.yankaizhang.spring.web.request.WebRequest;
+import com.yankaizhang.spring.webmvc.multipart.MultipartParts;
+import com.yankaizhang.spring.webmvc.multipart.support.StreamingMultipartRequest;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletRequestWrapper;
+
+/**
+ * 处理{@link MultipartParts}类型的参数，需要文件上传解析器开启流式解析
+ * @author dzzhyk
+ * @since 2026-10-18 15:02:37
+ */
+public class MultipartPartsMethodArgumentResolver implements ArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return MultipartParts.class == parameter.getParameterType();
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, WebRequest webRequest) throws Exception {
+        ServletRequest request = webRequest.getRequest();
+        while (!(request instanceof StreamingMultipartRequest) && request instanceof ServletRequestWrapper) {
+            request = ((ServletRequestWrapper) request).getRequest();
+        }
+        if (!(request instanceof StreamingMultipartRequest)) {
+            throw new Exception("参数 [" + parameter.getParameterName() +
+                    "] 需要流式上传请求，请检查请求类型并开启MultipartResolver的streaming");
+        }
+        return ((StreamingMultipartRequest) request).getMultipartParts();
+    }
+}
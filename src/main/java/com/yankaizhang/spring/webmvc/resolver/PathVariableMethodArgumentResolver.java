@@ -0,0 +1,49 @@
+package com.yankaizhang.spring.webmvc.resolver;
+
+import com.yankaizhang.spring.core.MethodParameter;
+import com.yankaizhang.spring.core.convert.ConversionService;
+import com.yankaizhang.spring.core.convert.support.DefaultConversionService;
+import com.yankaizhang.spring.web.method.ArgumentResolver;
+import com.yankaizhang.spring.web.request.WebRequest;
+import com.yankaizhang.spring.webmvc.HandlerMapping;
+import com.yankaizhang.spring.webmvc.annotation.PathVariable;
+
+import java.util.Map;
+
+/**
+ * 处理标注了{@link PathVariable}的参数，变量值在路由匹配时已经提取好，这里只做类型转换
+ * @author dzzhyk
+ * @since 2026-10-18 16:54:02
+ */
+public class PathVariableMethodArgumentResolver implements ArgumentResolver {
+
+    private final ConversionService conversionService;
+
+    public PathVariableMethodArgumentResolver() {
+        this(DefaultConversionService.getSharedInstance());
+    }
+
+    public PathVariableMethodArgumentResolver(ConversionService conversionService) {
+        this.conversionService = conversionService;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(PathVariable.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object resolveArgument(MethodParameter parameter, WebRequest webRequest) throws Exception {
+        PathVariable annotation = parameter.getParameterAnnotation(PathVariable.class);
+        String name = annotation.value().isEmpty() ? parameter.getParameterName() : annotation.value();
+
+        Map<String, String> uriVariables = (Map<String, String>)
+                webRequest.getRequest().getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String value = (uriVariables == null ? null : uriVariables.get(name));
+        if (value == null) {
+            throw new Exception("映射路径中没有名称为 [" + name + "] 的模板变量");
+        }
+        return conversionService.convert(value, parameter.getParameterType());
+    }
+}
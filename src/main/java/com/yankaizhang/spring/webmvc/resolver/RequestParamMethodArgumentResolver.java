@@ -1,24 +1,35 @@
 package com.yankaizhang.spring.webmvc.resolver;
 
 import com.yankaizhang.spring.core.MethodParameter;
-import com.yankaizhang.spring.util.ClassUtils;
+import com.yankaizhang.spring.core.convert.ConversionService;
+import com.yankaizhang.spring.core.convert.support.DefaultConversionService;
 import com.yankaizhang.spring.web.method.ArgumentResolver;
 import com.yankaizhang.spring.web.request.WebRequest;
 import com.yankaizhang.spring.webmvc.annotation.RequestParam;
-import com.yankaizhang.spring.webmvc.multipart.support.DefaultMultipartRequest;
+import com.yankaizhang.spring.webmvc.multipart.MultipartRequest;
 import com.yankaizhang.spring.webmvc.multipart.support.MultiPartUtils;
 
-import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Array;
+import java.util.*;
 
 
 /**
- * 专门处理标注了{@link RequestParam}的参数对象
+ * 专门处理标注了{@link RequestParam}的参数对象<br/>
+ * 参数值使用{@link ConversionService}转换，数组和集合类型的参数绑定该参数的所有值
  * @author dzzhyk
  * @since 2020-11-28 13:40:35
  */
 public class RequestParamMethodArgumentResolver implements ArgumentResolver {
 
+    private final ConversionService conversionService;
 
+    public RequestParamMethodArgumentResolver() {
+        this(DefaultConversionService.getSharedInstance());
+    }
+
+    public RequestParamMethodArgumentResolver(ConversionService conversionService) {
+        this.conversionService = conversionService;
+    }
 
     @Override
     public boolean supportsParameter(MethodParameter parameter) {
@@ -34,44 +45,73 @@ public class RequestParamMethodArgumentResolver implements ArgumentResolver {
         if (MultiPartUtils.isMultipartArgument(parameter)){
 
             // 如果是文件请求，应该是已经被解析过了
-            DefaultMultipartRequest multipartRequest = (DefaultMultipartRequest) webRequest.getRequest();
+            MultipartRequest multipartRequest = (MultipartRequest) webRequest.getRequest();
             return multipartRequest.getFile(paramName);
 
+        } else if (parameter.getElementType() != null) {
+            // 数组或者集合，绑定所有的参数值
+            String[] values = webRequest.getRequest().getParameterValues(paramName);
+            return convertValues(values, parameter.getParameterType(), parameter.getElementType());
+
         } else {
             String result = webRequest.getRequest().getParameter(paramName);
-            Class<?> parameterType = parameter.getParameterType();
+            return conversionService.convert(result, parameter.getParameterType());
+        }
+    }
 
-            // 尝试将String类型转换为需求的参数类型
-            Object classObject = getParameterObject(result, parameterType);
-            return classObject;
+    /**
+     * 把多个参数值直接转换到目标数组或者集合中<br/>
+     * 只有一个值并且包含逗号时按照逗号分隔
+     * @param values 参数值，可以为null
+     * @param targetType 数组或者集合类型
+     * @param elementType 元素类型
+     * @return 转换结果，没有参数值时返回null
+     */
+    private Object convertValues(String[] values, Class<?> targetType, Class<?> elementType) {
+        if (values == null) {
+            return null;
+        }
+        if (values.length == 1 && values[0].indexOf(',') >= 0) {
+            values = values[0].split(",");
+        }
+        if (targetType.isArray()) {
+            if (elementType == String.class) {
+                return values;
+            }
+            Object array = Array.newInstance(elementType, values.length);
+            for (int i = 0; i < values.length; i++) {
+                Array.set(array, i, conversionService.convert(values[i], elementType));
+            }
+            return array;
         }
+        Collection<Object> collection = createCollection(targetType, values.length);
+        for (String value : values) {
+            collection.add(conversionService.convert(value, elementType));
+        }
+        return collection;
     }
 
+    private static Collection<Object> createCollection(Class<?> collectionType, int size) {
+        if (collectionType.isAssignableFrom(ArrayList.class)) {
+            return new ArrayList<>(size);
+        }
+        if (collectionType.isAssignableFrom(LinkedHashSet.class)) {
+            return new LinkedHashSet<>(size * 2);
+        }
+        if (collectionType.isAssignableFrom(TreeSet.class)) {
+            return new TreeSet<>();
+        }
+        throw new IllegalArgumentException("不支持的集合参数类型 : " + collectionType.getName());
+    }
 
     /**
      * 尝试将当前对象某个参数类型的对象
      */
     public Object getParameterObject(String string, Class<?> clazz) {
+        return conversionService.convert(string, clazz);
+    }
 
-        if (CharSequence.class.isAssignableFrom(clazz)){
-            return string;
-        }
-
-        if (int.class == clazz || Integer.class == clazz) {
-            return Integer.parseInt(string);
-        } else if (double.class == clazz || Double.class == clazz) {
-            return Double.parseDouble(string);
-        } else if (char.class == clazz || Character.class == clazz){
-            return string.toCharArray()[0];
-        } else if (boolean.class == clazz || Boolean.class == clazz){
-            return Boolean.parseBoolean(string);
-        } else if (short.class == clazz || Short.class == clazz){
-            return Short.parseShort(string);
-        } else if (float.class == clazz || Float.class == clazz){
-            return Float.parseFloat(string);
-        } else if (byte.class == clazz || Byte.class == clazz){
-            return Byte.parseByte(string);
-        }
-        return null;
+    public ConversionService getConversionService() {
+        return conversionService;
     }
 }
@@ -1,22 +1,30 @@
 package com.yankaizhang.spring.webmvc.resolver;
 
 import com.yankaizhang.spring.core.MethodParameter;
+import com.yankaizhang.spring.web.http.AcceptHeader;
+import com.yankaizhang.spring.web.http.HttpMessageConverter;
 import com.yankaizhang.spring.web.http.MediaType;
+import com.yankaizhang.spring.web.http.PayloadTooLargeException;
+import com.yankaizhang.spring.web.http.converter.HttpMessageConverterRegistry;
 import com.yankaizhang.spring.web.http.converter.JsonConverter;
 import com.yankaizhang.spring.web.method.ArgumentResolver;
 import com.yankaizhang.spring.web.method.ReturnValueResolver;
 import com.yankaizhang.spring.web.model.ModelAndViewBuilder;
 import com.yankaizhang.spring.web.request.WebRequest;
+import com.yankaizhang.spring.webmvc.HandlerMapping;
 import com.yankaizhang.spring.webmvc.annotation.RequestBody;
 import com.yankaizhang.spring.webmvc.annotation.ResponseBody;
+import com.yankaizhang.spring.webmvc.condition.MediaTypeExpression;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 /**
  * 专门处理请求体{@link RequestBody}对象和响应体{@link ResponseBody}对象<br/>
- * 参数与返回值解析器
+ * 参数与返回值解析器，写出响应体时根据Accept头和映射的produces条件进行内容协商
  * @author dzzhyk
  * @since 2020-11-28 13:40:35
  */
@@ -24,10 +32,15 @@ public class RequestResponseBodyMethodResolver implements ArgumentResolver, Retu
 
     private final Logger log = LoggerFactory.getLogger(this.getClass());
 
-    protected JsonConverter jsonConverter;
+    /** 共享的转换器注册表 */
+    protected final HttpMessageConverterRegistry converterRegistry;
 
     public RequestResponseBodyMethodResolver() {
-        this.jsonConverter = new JsonConverter();
+        this(new HttpMessageConverterRegistry());
+    }
+
+    public RequestResponseBodyMethodResolver(HttpMessageConverterRegistry converterRegistry) {
+        this.converterRegistry = converterRegistry;
     }
 
     @Override
@@ -42,16 +55,20 @@ public class RequestResponseBodyMethodResolver implements ArgumentResolver, Retu
 
         String contentType = webRequest.getRequest().getContentType();
         // 得到包装类
-        MediaType mediaType = MediaType.getMediaType(contentType);
+        MediaType mediaType = MediaType.parse(contentType);
         if (mediaType == null){
             // 如果没有指定contentType，就尝试用默认的contentType类型
             mediaType = JsonConverter.DEFAULT_CONTENT_TYPE;
         }
 
         Object result = null;
-        if (jsonConverter.canRead(parameterType, mediaType)){
+        HttpMessageConverter<Object> converter = converterRegistry.getReadConverter(parameterType, mediaType);
+        if (converter != null){
             try {
-                result = jsonConverter.read(parameterType, webRequest.getRequest());
+                result = converter.read(parameterType, webRequest.getRequest());
+            } catch (PayloadTooLargeException e) {
+                // 交给DispatcherServlet返回413
+                throw e;
             } catch (Exception e) {
                 e.printStackTrace();
                 throw new Exception("解析到requestBody失败 => " + parameter.getParameterName()
@@ -80,19 +97,42 @@ public class RequestResponseBodyMethodResolver implements ArgumentResolver, Retu
 
         Class<?> parameterType = returnType.getParameterType();
 
+        HttpServletRequest request = (HttpServletRequest) webRequest.getRequest();
         ServletResponse response = webRequest.getResponse();
         String contentType = response.getContentType();
 
-        MediaType mediaType = MediaType.getMediaType(contentType);
-        if (mediaType == null){
-            mediaType = JsonConverter.DEFAULT_CONTENT_TYPE;
+        // handler中已经指定了contentType
+        MediaType mediaType = MediaType.parse(contentType);
+        if (mediaType != null){
+            HttpMessageConverter<Object> converter = converterRegistry.getWriteConverter(parameterType, mediaType);
+            if (converter != null){
+                converter.write(returnValue, mediaType, response);
+                return;
+            }
         }
 
-        if (jsonConverter.canWrite(parameterType, mediaType)){
-            jsonConverter.write(returnValue, mediaType, response);
-            return;
+        AcceptHeader accept = AcceptHeader.parse(request.getHeader("Accept"));
+        MediaTypeExpression[] producible =
+                (MediaTypeExpression[]) request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+        if (accept.isWildcard() && producible == null){
+            // 客户端没有偏好，使用默认的json
+            HttpMessageConverter<Object> converter =
+                    converterRegistry.getWriteConverter(parameterType, JsonConverter.DEFAULT_CONTENT_TYPE);
+            if (converter != null){
+                converter.write(returnValue, JsonConverter.DEFAULT_CONTENT_TYPE, response);
+                return;
+            }
+        }
+
+        for (HttpMessageConverterRegistry.NegotiatedConverter candidate :
+                converterRegistry.getWriteConverters(parameterType, accept)) {
+            if (MediaTypeExpression.matchesAny(producible, candidate.getMediaType())){
+                candidate.getConverter().write(returnValue, candidate.getMediaType(), response);
+                return;
+            }
         }
 
-        log.warn("json返回内容可能解析失败 => " + returnType.toString() + ", contentType= " + contentType);
+        log.warn("没有可以接受的返回内容类型 => " + returnType.getMethod() + ", Accept= " + accept);
+        ((HttpServletResponse) response).sendError(HttpServletResponse.SC_NOT_ACCEPTABLE);
     }
 }
@@ -0,0 +1,212 @@
+package com.yankaizhang.spring.webmvc.resolver;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.yankaizhang.spring.core.MethodParameter;
+import com.yankaizhang.spring.web.http.AcceptHeader;
+import com.yankaizhang.spring.web.http.Cursor;
+import com.yankaizhang.spring.web.http.MediaType;
+import com.yankaizhang.spring.web.http.converter.HttpMessageConverterRegistry;
+import com.yankaizhang.spring.web.method.ReturnValueResolver;
+import com.yankaizhang.spring.web.model.ModelAndViewBuilder;
+import com.yankaizhang.spring.web.request.WebRequest;
+import com.yankaizhang.spring.webmvc.HandlerMapping;
+import com.yankaizhang.spring.webmvc.annotation.ResponseBody;
+import com.yankaizhang.spring.webmvc.condition.MediaTypeExpression;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 流式响应体解析器，处理{@link ResponseBody}方法返回的{@link Iterator}、{@link Stream}和{@link Cursor}<br/>
+ * 逐个元素序列化为json数组，客户端偏好 application/x-ndjson 时每行输出一个json对象；
+ * 每写出一定数量的元素或者经过一定时间就刷新一次，内存占用和元素数量无关<br/>
+ * 写出完成、数据源出错或者客户端断开连接之后都会关闭数据源
+ * @author dzzhyk
+ * @since 2026-10-18 18:15:50
+ */
+public class StreamingResponseBodyReturnValueResolver implements ReturnValueResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamingResponseBodyReturnValueResolver.class);
+
+    /** 默认每写出多少个元素刷新一次 */
+    public static final int DEFAULT_FLUSH_COUNT = 256;
+
+    /** 默认距离上次刷新超过多少毫秒就刷新一次 */
+    public static final long DEFAULT_FLUSH_INTERVAL = 500;
+
+    private final HttpMessageConverterRegistry converterRegistry;
+
+    /** 写出单个元素之后不刷新，由这里控制刷新频率 */
+    private final ObjectWriter elementWriter;
+
+    private int flushCount = DEFAULT_FLUSH_COUNT;
+
+    private long flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+    public StreamingResponseBodyReturnValueResolver(HttpMessageConverterRegistry converterRegistry) {
+        this.converterRegistry = converterRegistry;
+        this.elementWriter = converterRegistry.getObjectMapper().writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return (Iterator.class.isAssignableFrom(type) || Stream.class.isAssignableFrom(type)) &&
+                (parameter.hasParameterAnnotation(ResponseBody.class) ||
+                        parameter.getMethod().isAnnotationPresent(ResponseBody.class));
+    }
+
+    @Override
+    public void resolveReturnValue(Object returnValue, MethodParameter returnType,
+                                   ModelAndViewBuilder mav, WebRequest webRequest) throws Exception {
+        HttpServletRequest request = (HttpServletRequest) webRequest.getRequest();
+        HttpServletResponse response = (HttpServletResponse) webRequest.getResponse();
+
+        Iterator<?> iterator;
+        AutoCloseable source;
+        if (returnValue instanceof Stream) {
+            Stream<?> stream = (Stream<?>) returnValue;
+            iterator = stream.iterator();
+            source = stream;
+        } else {
+            iterator = (Iterator<?>) returnValue;
+            source = (returnValue instanceof AutoCloseable ? (AutoCloseable) returnValue : null);
+        }
+
+        try {
+            boolean ndjson = isNdjsonPreferred(request);
+            response.setCharacterEncoding("UTF-8");
+            response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON.getContentType()
+                    : MediaType.APPLICATION_JSON_UTF8.getContentType());
+            writeElements(iterator, ndjson, response);
+        } finally {
+            closeQuietly(source);
+        }
+    }
+
+    /**
+     * 逐个写出元素，客户端断开连接时停止写出
+     */
+    private void writeElements(Iterator<?> iterator, boolean ndjson, HttpServletResponse response) throws Exception {
+        long count = 0;
+        try {
+            JsonGenerator generator = converterRegistry.getObjectMapper().getFactory()
+                    .createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (ndjson) {
+                generator.setRootValueSeparator(null);
+            } else {
+                generator.writeStartArray();
+            }
+
+            long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+            long lastFlush = System.nanoTime();
+            while (iterator != null && iterator.hasNext()) {
+                elementWriter.writeValue(generator, iterator.next());
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+                count++;
+                if (count % flushCount == 0 || System.nanoTime() - lastFlush >= flushIntervalNanos) {
+                    generator.flush();
+                    lastFlush = System.nanoTime();
+                }
+            }
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+            generator.flush();
+        } catch (Exception e) {
+            if (isClientAbort(e)) {
+                log.debug("客户端已经断开连接，已写出 {} 个元素 : {}", count, e.getMessage());
+                return;
+            }
+            if (response.isCommitted()) {
+                // 响应已经开始发送，只能中断输出
+                log.error("流式响应写出失败，已写出 " + count + " 个元素", e);
+                return;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 写出时的IO异常都是由于客户端断开连接，序列化失败的异常不是
+     */
+    private static boolean isClientAbort(Exception e) {
+        return e instanceof IOException && !(e instanceof JsonProcessingException);
+    }
+
+    /**
+     * 根据Accept头和映射的produces条件判断是否使用ndjson
+     */
+    private static boolean isNdjsonPreferred(HttpServletRequest request) {
+        MediaTypeExpression[] producible =
+                (MediaTypeExpression[]) request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+        boolean jsonProducible = MediaTypeExpression.matchesAny(producible, MediaType.APPLICATION_JSON);
+        boolean ndjsonProducible = MediaTypeExpression.matchesAny(producible, MediaType.APPLICATION_NDJSON);
+        if (!ndjsonProducible) {
+            return false;
+        }
+        if (!jsonProducible) {
+            return true;
+        }
+        AcceptHeader accept = AcceptHeader.parse(request.getHeader("Accept"));
+        for (AcceptHeader.MediaRange range : accept.getMediaRanges()) {
+            if (range.getQuality() <= 0) {
+                continue;
+            }
+            if (range.includes(MediaType.APPLICATION_JSON) && accept.getQuality(MediaType.APPLICATION_JSON) > 0) {
+                return false;
+            }
+            if (range.includes(MediaType.APPLICATION_NDJSON) && accept.getQuality(MediaType.APPLICATION_NDJSON) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void closeQuietly(AutoCloseable source) {
+        if (source == null) {
+            return;
+        }
+        try {
+            source.close();
+        } catch (Exception e) {
+            log.warn("关闭流式响应的数据源失败", e);
+        }
+    }
+
+    public int getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * 设置每写出多少个元素刷新一次
+     */
+    public void setFlushCount(int flushCount) {
+        this.flushCount = Math.max(1, flushCount);
+    }
+
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * 设置距离上次刷新超过多少毫秒就刷新一次
+     */
+    public void setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+}
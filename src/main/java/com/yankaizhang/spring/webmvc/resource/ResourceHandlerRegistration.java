@@ -0,0 +1,86 @@
+package com.yankaizhang.spring.webmvc.resource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一组静态资源映射：请求路径模式和资源所在的位置<br/>
+ * 路径模式以 /** 结尾时匹配该前缀下的所有路径，否则只匹配完整路径<br/>
+ * 资源位置支持三种写法
+ * <ul>
+ * <li>classpath:/static/ 类路径下的目录
+ * <li>file:/data/static/ 文件系统中的目录
+ * <li>/static/ web应用根目录下的目录
+ * </ul>
+ * @author dzzhyk
+ * @since 2026-10-18 13:24:05
+ */
+public class ResourceHandlerRegistration {
+
+    private static final String WILDCARD_SUFFIX = "/**";
+
+    private final String[] pathPatterns;
+
+    private final List<String> locations = new ArrayList<>();
+
+    /** Cache-Control的max-age，单位秒，小于0表示不设置 */
+    private int cachePeriod = -1;
+
+    public ResourceHandlerRegistration(String... pathPatterns) {
+        this.pathPatterns = pathPatterns;
+    }
+
+    /**
+     * 添加资源位置，按照添加顺序查找
+     * @param locations 资源位置
+     * @return 当前对象
+     */
+    public ResourceHandlerRegistration addResourceLocations(String... locations) {
+        this.locations.addAll(Arrays.asList(locations));
+        return this;
+    }
+
+    /**
+     * 设置浏览器缓存时间
+     * @param cachePeriod 单位秒，小于0表示不设置
+     * @return 当前对象
+     */
+    public ResourceHandlerRegistration setCachePeriod(int cachePeriod) {
+        this.cachePeriod = cachePeriod;
+        return this;
+    }
+
+    /**
+     * 匹配请求路径
+     * @param lookupPath 已经去掉contextPath的请求路径
+     * @return 相对于资源位置的路径，不匹配返回null
+     */
+    public String getResourcePath(String lookupPath) {
+        for (String pattern : pathPatterns) {
+            if (pattern.endsWith(WILDCARD_SUFFIX)) {
+                String prefix = pattern.substring(0, pattern.length() - WILDCARD_SUFFIX.length() + 1);
+                if (lookupPath.startsWith(prefix)) {
+                    return lookupPath.substring(prefix.length());
+                }
+            } else if (pattern.equals(lookupPath)) {
+                int index = lookupPath.lastIndexOf('/');
+                return lookupPath.substring(index + 1);
+            }
+        }
+        return null;
+    }
+
+    public String[] getPathPatterns() {
+        return pathPatterns;
+    }
+
+    public List<String> getLocations() {
+        return Collections.unmodifiableList(locations);
+    }
+
+    public int getCachePeriod() {
+        return cachePeriod;
+    }
+}
@@ -0,0 +1,72 @@
+package com.yankaizhang.spring.webmvc.resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 静态资源映射的注册表，配置为名称是resourceHandlerRegistry的bean之后生效
+ * <pre>
+ * registry.addResourceHandler("/static/**")
+ *         .addResourceLocations("classpath:/static/")
+ *         .setCachePeriod(3600);
+ * </pre>
+ * @author dzzhyk
+ * @since 2026-10-18 13:24:05
+ */
+public class ResourceHandlerRegistry {
+
+    private final List<ResourceHandlerRegistration> registrations = new ArrayList<>();
+
+    /** 是否尝试发送预先压缩的 .gz 文件 */
+    private boolean gzipEnabled = true;
+
+    /** 可以缓存在内存中的单个文件大小上限 */
+    private int maxCachedFileSize = 64 * 1024;
+
+    /** 内存缓存的总大小上限，小于等于0表示不缓存 */
+    private long maxCacheSize = 8 * 1024 * 1024;
+
+    /**
+     * 添加一组请求路径模式
+     * @param pathPatterns 请求路径模式，比如 /static/**
+     * @return 新的映射对象
+     */
+    public ResourceHandlerRegistration addResourceHandler(String... pathPatterns) {
+        ResourceHandlerRegistration registration = new ResourceHandlerRegistration(pathPatterns);
+        registrations.add(registration);
+        return registration;
+    }
+
+    public boolean hasMappings() {
+        return !registrations.isEmpty();
+    }
+
+    public List<ResourceHandlerRegistration> getRegistrations() {
+        return Collections.unmodifiableList(registrations);
+    }
+
+    public boolean isGzipEnabled() {
+        return gzipEnabled;
+    }
+
+    public void setGzipEnabled(boolean gzipEnabled) {
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    public int getMaxCachedFileSize() {
+        return maxCachedFileSize;
+    }
+
+    public void setMaxCachedFileSize(int maxCachedFileSize) {
+        this.maxCachedFileSize = maxCachedFileSize;
+    }
+
+    public long getMaxCacheSize() {
+        return maxCacheSize;
+    }
+
+    public void setMaxCacheSize(long maxCacheSize) {
+        this.maxCacheSize = maxCacheSize;
+    }
+}
@@ -0,0 +1,340 @@
+package com.yankaizhang.spring.webmvc.resource;
+
+import com.yankaizhang.spring.util.StreamUtils;
+import com.yankaizhang.spring.webmvc.context.ServletContextAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * 静态资源处理器，按照{@link ResourceHandlerRegistry}中的映射直接发送文件<br/>
+ * <ul>
+ * <li>使用ETag和Last-Modified进行协商缓存，资源没有修改时返回304
+ * <li>小文件的内容缓存在内存中，总大小有上限
+ * <li>客户端支持gzip并且存在 .gz 文件时直接发送压缩好的文件
+ * <li>大文件使用{@link FileChannel#transferTo}发送，不经过堆内存缓冲区
+ * </ul>
+ * @author dzzhyk
+ * @since 2026-10-18 13:24:05
+ */
+public class ResourceHttpRequestHandler implements ServletContextAware {
+
+    private static final Logger log = LoggerFactory.getLogger(ResourceHttpRequestHandler.class);
+
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final ResourceHandlerRegistry registry;
+
+    /** 每个映射对应的资源目录 */
+    private final Map<ResourceHandlerRegistration, List<Path>> locationMap = new LinkedHashMap<>();
+
+    /** 小文件内容缓存，按访问顺序排列 */
+    private final LinkedHashMap<Path, CachedContent> contentCache = new LinkedHashMap<>(64, 0.75f, true);
+
+    /** 内存缓存的总字节数 */
+    private long cachedBytes = 0;
+
+    private ServletContext servletContext;
+
+    public ResourceHttpRequestHandler(ResourceHandlerRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 设置web容器上下文，并且解析所有资源位置
+     */
+    @Override
+    public void setServletContext(ServletContext servletContext) {
+        this.servletContext = servletContext;
+        this.locationMap.clear();
+        for (ResourceHandlerRegistration registration : registry.getRegistrations()) {
+            List<Path> locations = new ArrayList<>();
+            for (String location : registration.getLocations()) {
+                Path path = resolveLocation(location);
+                if (path == null) {
+                    log.warn("找不到静态资源目录 : {}", location);
+                    continue;
+                }
+                locations.add(path);
+                log.debug("静态资源映射 : {} => {}", Arrays.toString(registration.getPathPatterns()), path);
+            }
+            locationMap.put(registration, locations);
+        }
+    }
+
+    /**
+     * 尝试把请求作为静态资源处理
+     * @param req 请求
+     * @param resp 响应
+     * @param lookupPath 已经去掉contextPath的请求路径
+     * @return 已经处理返回true，不是静态资源返回false
+     * @throws IOException 读写异常
+     */
+    public boolean handleRequest(HttpServletRequest req, HttpServletResponse resp, String lookupPath)
+            throws IOException {
+        String method = req.getMethod();
+        boolean head = "HEAD".equals(method);
+        if (!head && !"GET".equals(method)) {
+            return false;
+        }
+        for (Map.Entry<ResourceHandlerRegistration, List<Path>> entry : locationMap.entrySet()) {
+            ResourceHandlerRegistration registration = entry.getKey();
+            String resourcePath = registration.getResourcePath(lookupPath);
+            if (resourcePath == null) {
+                continue;
+            }
+            resourcePath = decodePath(resourcePath);
+            if (resourcePath == null || isInvalidPath(resourcePath)) {
+                return false;
+            }
+            for (Path location : entry.getValue()) {
+                Path file = location.resolve(resourcePath).normalize();
+                if (!file.startsWith(location)) {
+                    continue;
+                }
+                BasicFileAttributes attributes = readAttributes(file);
+                if (attributes != null && attributes.isRegularFile()) {
+                    serveResource(req, resp, registration, file, attributes, head);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 发送找到的资源文件
+     */
+    private void serveResource(HttpServletRequest req, HttpServletResponse resp,
+                               ResourceHandlerRegistration registration, Path file,
+                               BasicFileAttributes attributes, boolean head) throws IOException {
+        Path body = file;
+        BasicFileAttributes bodyAttributes = attributes;
+        boolean gzipped = false;
+
+        if (registry.isGzipEnabled()) {
+            resp.setHeader("Vary", "Accept-Encoding");
+            if (acceptsGzip(req)) {
+                Path gzipFile = file.resolveSibling(file.getFileName() + GZIP_SUFFIX);
+                BasicFileAttributes gzipAttributes = readAttributes(gzipFile);
+                if (gzipAttributes != null && gzipAttributes.isRegularFile()) {
+                    body = gzipFile;
+                    bodyAttributes = gzipAttributes;
+                    gzipped = true;
+                }
+            }
+        }
+
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String eTag = buildETag(bodyAttributes, gzipped);
+        resp.setHeader("ETag", eTag);
+        resp.setDateHeader("Last-Modified", lastModified);
+        if (registration.getCachePeriod() >= 0) {
+            resp.setHeader("Cache-Control", "max-age=" + registration.getCachePeriod());
+        }
+
+        if (isNotModified(req, eTag, lastModified)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        resp.setContentType(getContentType(file));
+        if (gzipped) {
+            resp.setHeader("Content-Encoding", "gzip");
+        }
+        long length = bodyAttributes.size();
+        resp.setContentLengthLong(length);
+        if (head) {
+            return;
+        }
+
+        OutputStream out = resp.getOutputStream();
+        if (length <= registry.getMaxCachedFileSize() && registry.getMaxCacheSize() > 0) {
+            out.write(getContent(body, bodyAttributes));
+            out.flush();
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(body, StandardOpenOption.READ)) {
+            StreamUtils.transfer(channel, 0, length, out);
+        }
+    }
+
+    /**
+     * 判断资源是否没有修改，If-None-Match优先于If-Modified-Since
+     */
+    private boolean isNotModified(HttpServletRequest req, String eTag, long lastModified) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if ("*".equals(tag) || eTag.equals(tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = req.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // http日期只精确到秒
+        return ifModifiedSince != -1 && lastModified / 1000 * 1000 <= ifModifiedSince;
+    }
+
+    /**
+     * 获取小文件的内容，文件修改之后重新读取
+     */
+    private byte[] getContent(Path file, BasicFileAttributes attributes) throws IOException {
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        synchronized (contentCache) {
+            CachedContent cached = contentCache.get(file);
+            if (cached != null && cached.lastModified == lastModified && cached.content.length == attributes.size()) {
+                return cached.content;
+            }
+        }
+        byte[] content = Files.readAllBytes(file);
+        synchronized (contentCache) {
+            CachedContent previous = contentCache.put(file, new CachedContent(content, lastModified));
+            if (previous != null) {
+                cachedBytes -= previous.content.length;
+            }
+            cachedBytes += content.length;
+            Iterator<CachedContent> iterator = contentCache.values().iterator();
+            while (cachedBytes > registry.getMaxCacheSize() && iterator.hasNext()) {
+                cachedBytes -= iterator.next().content.length;
+                iterator.remove();
+            }
+        }
+        return content;
+    }
+
+    /**
+     * 清空内存中缓存的文件内容
+     */
+    public void clearCache() {
+        synchronized (contentCache) {
+            contentCache.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    /**
+     * 解析资源位置得到目录
+     */
+    private Path resolveLocation(String location) {
+        try {
+            Path path;
+            if (location.startsWith("classpath:")) {
+                String name = location.substring("classpath:".length());
+                while (name.startsWith("/")) {
+                    name = name.substring(1);
+                }
+                URL url = Thread.currentThread().getContextClassLoader().getResource(name);
+                if (url == null || !"file".equals(url.getProtocol())) {
+                    return null;
+                }
+                path = Paths.get(url.toURI());
+            } else if (location.startsWith("file:")) {
+                path = Paths.get(location.substring("file:".length()));
+            } else {
+                String realPath = (servletContext == null ? null : servletContext.getRealPath(location));
+                if (realPath == null) {
+                    return null;
+                }
+                path = Paths.get(realPath);
+            }
+            path = path.toAbsolutePath().normalize();
+            return Files.isDirectory(path) ? path : null;
+        } catch (Exception e) {
+            log.warn("解析静态资源目录失败 : " + location, e);
+            return null;
+        }
+    }
+
+    private String getContentType(Path file) {
+        String contentType = (servletContext == null ? null : servletContext.getMimeType(file.getFileName().toString()));
+        return (contentType == null ? DEFAULT_CONTENT_TYPE : contentType);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest req) {
+        String acceptEncoding = req.getHeader("Accept-Encoding");
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+
+    private static String buildETag(BasicFileAttributes attributes, boolean gzipped) {
+        return "\"" + Long.toHexString(attributes.lastModifiedTime().toMillis()) + "-" +
+                Long.toHexString(attributes.size()) + (gzipped ? "-gz" : "") + "\"";
+    }
+
+    private static BasicFileAttributes readAttributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 解码请求路径中的%xx，"+"保持原样
+     */
+    private static String decodePath(String path) {
+        if (path.indexOf('%') < 0) {
+            return path;
+        }
+        try {
+            return URLDecoder.decode(path.replace("+", "%2B"), "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 拒绝可能访问到资源目录之外的路径
+     */
+    private static boolean isInvalidPath(String path) {
+        if (path.isEmpty() || path.indexOf('\\') >= 0 || path.indexOf(':') >= 0 || path.indexOf('\0') >= 0) {
+            return true;
+        }
+        for (String segment : path.split("/")) {
+            if ("..".equals(segment)) {
+                return true;
+            }
+        }
+        return path.startsWith("/");
+    }
+
+
+    /**
+     * 缓存的文件内容
+     */
+    private static class CachedContent {
+
+        private final byte[] content;
+
+        private final long lastModified;
+
+        CachedContent(byte[] content, long lastModified) {
+            this.content = content;
+            this.lastModified = lastModified;
+        }
+    }
+}
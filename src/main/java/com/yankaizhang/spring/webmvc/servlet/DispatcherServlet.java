@@ -5,18 +5,56 @@ import com.yankaizhang.spring.beans.holder.BeanWrapper;
 import com.yankaizhang.spring.context.annotation.Bean;
 import com.yankaizhang.spring.context.impl.AnnotationConfigApplicationContext;
 import com.yankaizhang.spring.context.annotation.Controller;
+import com.yankaizhang.spring.context.annotation.ControllerAdvice;
 import com.yankaizhang.spring.web.ViewResolver;
+import com.yankaizhang.spring.core.convert.ConversionService;
+import com.yankaizhang.spring.core.convert.Converter;
+import com.yankaizhang.spring.core.convert.ConverterRegistry;
+import com.yankaizhang.spring.core.convert.support.DefaultConversionService;
+import com.yankaizhang.spring.web.http.HttpMessageConverter;
+import com.yankaizhang.spring.web.http.HttpMethod;
+import com.yankaizhang.spring.web.http.PayloadTooLargeException;
+import com.yankaizhang.spring.web.http.converter.HttpMessageConverterRegistry;
 import com.yankaizhang.spring.web.method.HandlerMethod;
+import com.yankaizhang.spring.web.method.invoker.MethodInvokerFactory;
 import com.yankaizhang.spring.web.model.ModelAndView;
+import com.yankaizhang.spring.web.model.RequestAttributeModel;
+import com.yankaizhang.spring.web.view.HtmlView;
 import com.yankaizhang.spring.web.view.View;
+import com.yankaizhang.spring.web.view.template.HtmlTemplateCache;
 import com.yankaizhang.spring.webmvc.*;
+import com.yankaizhang.spring.webmvc.annotation.ExceptionHandler;
 import com.yankaizhang.spring.webmvc.annotation.RequestMapping;
+import com.yankaizhang.spring.webmvc.async.AsyncRequestTimeoutException;
+import com.yankaizhang.spring.webmvc.async.WebAsyncManager;
+import com.yankaizhang.spring.webmvc.compress.CompressionConfig;
+import com.yankaizhang.spring.webmvc.compress.CompressionHandler;
+import com.yankaizhang.spring.webmvc.condition.RequestConditionException;
+import com.yankaizhang.spring.webmvc.condition.RequestMappingInfo;
+import com.yankaizhang.spring.webmvc.metrics.DispatchStage;
+import com.yankaizhang.spring.webmvc.metrics.DispatcherMetrics;
+import com.yankaizhang.spring.webmvc.metrics.JmxMetricsExporter;
+import com.yankaizhang.spring.webmvc.metrics.MetricsExporter;
+import com.yankaizhang.spring.webmvc.metrics.MetricsTextWriter;
+import com.yankaizhang.spring.webmvc.metrics.StageTimer;
 import com.yankaizhang.spring.webmvc.multipart.MultipartRequest;
 import com.yankaizhang.spring.webmvc.multipart.MultipartResolver;
+import com.yankaizhang.spring.webmvc.context.ServletContextAware;
 import com.yankaizhang.spring.webmvc.multipart.commons.CommonsMultipartResolver;
+import com.yankaizhang.spring.webmvc.multipart.support.BaseCommonsFileUploadSupport;
+import com.yankaizhang.spring.webmvc.multipart.support.MultipartStorageManager;
+import com.yankaizhang.spring.webmvc.resource.ResourceHandlerRegistry;
+import com.yankaizhang.spring.webmvc.resource.ResourceHttpRequestHandler;
+import com.yankaizhang.spring.webmvc.support.DispatchContext;
+import com.yankaizhang.spring.webmvc.support.RouteMatch;
+import com.yankaizhang.spring.webmvc.support.RouteTrie;
+import com.yankaizhang.spring.webmvc.support.UriTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletContext;
@@ -25,11 +63,12 @@ import javax.servlet.annotation.WebInitParam;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Method;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.regex.Pattern;
 
 /**
@@ -43,6 +82,7 @@ import java.util.regex.Pattern;
         displayName = "com.yankaizhang.springframework.webmvc.servlet.DispatcherServlet",
         urlPatterns="/",
         loadOnStartup = -1,
+        asyncSupported = true,
         initParams = {
                 @WebInitParam(name = "contextConfigLocation", value = "classpath:application.properties")
         }
@@ -54,6 +94,9 @@ public class DispatcherServlet extends FrameworkServlet {
     /** 默认文件上传解析器beanName */
     public static final String MULTIPART_RESOLVER_BEAN_NAME = "multipartResolver";
 
+    /** 上传文件暂存空间管理器beanName */
+    public static final String MULTIPART_STORAGE_MANAGER_BEAN_NAME = "multipartStorageManager";
+
     /** 默认视图解析器beanName */
     public static final String VIEW_RESOLVER_BEAN_NAME = "internalResourceViewResolver";
 
@@ -63,13 +106,106 @@ public class DispatcherServlet extends FrameworkServlet {
     /** 视图处理器适配器的beanName */
     public static final String HANDLER_ADAPTER_BEAN_NAME = "handlerAdapter";
 
+    /** 消息转换器注册表的beanName */
+    public static final String MESSAGE_CONVERTER_REGISTRY_BEAN_NAME = "messageConverterRegistry";
+
+    /** handler方法调用策略的beanName */
+    public static final String METHOD_INVOKER_FACTORY_BEAN_NAME = "handlerMethodInvokerFactory";
+
+    /** 静态资源映射注册表的beanName */
+    public static final String RESOURCE_HANDLER_REGISTRY_BEAN_NAME = "resourceHandlerRegistry";
+
+    /** 响应压缩配置的beanName */
+    public static final String COMPRESSION_CONFIG_BEAN_NAME = "compressionConfig";
+
+    /** 请求参数类型转换服务的beanName */
+    public static final String CONVERSION_SERVICE_BEAN_NAME = "conversionService";
+
+    /** 自定义异常处理器的beanName */
+    public static final String HANDLER_EXCEPTION_RESOLVER_BEAN_NAME = "handlerExceptionResolver";
+
+    /** 派发统计导出器的beanName */
+    public static final String METRICS_EXPORTER_BEAN_NAME = "metricsExporter";
+
+    /** 异步请求线程池的beanName */
+    public static final String ASYNC_TASK_EXECUTOR_BEAN_NAME = "asyncTaskExecutor";
+
+    /** 配置文件中的异步请求超时时间，单位毫秒 */
+    private static final String ASYNC_TIMEOUT = "async.timeout";
+
+    /** 配置文件中的上传文件暂存目录 */
+    private static final String MULTIPART_REPOSITORY = "multipart.repository";
+
+    /** 配置文件中的上传文件暂存空间上限，单位字节 */
+    private static final String MULTIPART_MAX_DISK_USAGE = "multipart.maxDiskUsage";
+
+    /** web容器的临时文件目录 */
+    private static final String SERVLET_TEMP_DIR = "javax.servlet.context.tempdir";
+
+    /** 配置文件中是否开启响应压缩 */
+    private static final String COMPRESSION_ENABLED = "compression.enabled";
+
+    /** 配置文件中的响应压缩阈值，单位字节 */
+    private static final String COMPRESSION_MIN_SIZE = "compression.minResponseSize";
+
+    /** 配置文件中需要压缩的contentType，逗号分隔 */
+    private static final String COMPRESSION_MIME_TYPES = "compression.mimeTypes";
+
+    /** 配置文件中gzip请求体解压之后的大小上限，单位字节 */
+    private static final String COMPRESSION_MAX_INFLATED_REQUEST_SIZE = "compression.maxInflatedRequestSize";
+
+    /** 完整打印异常栈的异常类型数量上限，超过之后只打印异常信息 */
+    private static final int MAX_LOGGED_EXCEPTION_TYPES = 256;
+
+    /** 配置文件中是否开启派发统计 */
+    private static final String METRICS_ENABLED = "metrics.enabled";
+
+    /** 配置文件中的统计接口路径，为空表示关闭统计接口 */
+    private static final String METRICS_ENDPOINT = "metrics.endpoint";
+
+    /** 配置文件中是否把统计数据注册为MBean */
+    private static final String METRICS_JMX_ENABLED = "metrics.jmx.enabled";
+
+    /** 默认的统计接口路径 */
+    private static final String DEFAULT_METRICS_ENDPOINT = "/metrics";
+
+    /** 配置文件中的html模板缓存数量上限 */
+    private static final String TEMPLATE_CACHE_LIMIT = "view.template.cacheLimit";
+
+    /** 配置文件中是否检查html模板文件的修改 */
+    private static final String TEMPLATE_CHECK_MODIFIED = "view.template.checkModified";
+
     /**
      * 文件请求解析器
      */
     private MultipartResolver multipartResolver;
+    /** 上传文件暂存空间管理器 */
+    private MultipartStorageManager multipartStorageManager;
     private List<HandlerMapping> handlerMappings = new ArrayList<>();
+    /** 根据handlerMappings构建的路由索引 */
+    private final RouteTrie routeTrie = new RouteTrie();
     private Map<HandlerMapping, HandlerAdapter> handlerAdapterMap = new HashMap<>();
     private List<ViewResolver> viewResolvers = new ArrayList<>();
+    /** 所有handler共享的消息转换器注册表 */
+    private HttpMessageConverterRegistry messageConverterRegistry;
+    /** 异步请求管理器 */
+    private WebAsyncManager asyncManager;
+    /** 所有handler共享的类型转换服务 */
+    private ConversionService conversionService;
+    /** 压缩处理阶段，没有开启压缩时为null */
+    private CompressionHandler compressionHandler;
+    /** 静态资源处理器，没有配置静态资源映射时为null */
+    private ResourceHttpRequestHandler resourceHandler;
+    /** 异常处理器，按顺序尝试 */
+    private List<HandlerExceptionResolver> handlerExceptionResolvers = new ArrayList<>();
+    /** 派发过程的统计数据，没有开启统计时为null */
+    private DispatcherMetrics dispatcherMetrics;
+    /** 统计数据导出器 */
+    private MetricsExporter metricsExporter;
+    /** 统计接口路径，为null表示没有统计接口 */
+    private String metricsEndpoint;
+    /** 已经完整打印过异常栈的异常类型 */
+    private final Set<Class<?>> loggedExceptionTypes = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
     private AnnotationConfigApplicationContext context;
 
@@ -78,6 +214,15 @@ public class DispatcherServlet extends FrameworkServlet {
         super();
     }
 
+    /**
+     * 使用已经创建好的IoC容器和配置，不依赖web容器的初始化参数
+     * @param context IoC容器
+     * @param configProperties 配置
+     */
+    public DispatcherServlet(AnnotationConfigApplicationContext context, Properties configProperties) {
+        super(context, configProperties);
+    }
+
     @Override
     public void init(ServletConfig config) {
         super.init(config);
@@ -92,12 +237,17 @@ public class DispatcherServlet extends FrameworkServlet {
         initLocaleResolver(context);                // 本地化解析
         initThemeResolver(context);                 // 主题解析
 
+        initCompression(context);                   // 请求与响应的压缩
+        initMessageConverters(context);             // 请求体与响应体的消息转换器
+        initConversionService(context);             // 请求参数的类型转换
         initHandlerMappings(context);               // url映射到controller
         initHandlerAdapters(context);               // 多类型参数动态匹配，获得ModelAndView对象
+        initMetrics(context);                       // 派发过程统计
 
         initHandlerExceptionResolvers(context);     // 运行异常处理
         initRequestToViewNameTranslator(context);   // 直接将请求解析到视图名
         initViewResolvers(context);                 // 通过viewResolver将逻辑视图解析为具体视图实现
+        initResourceHandler(context);               // 静态资源处理
         initFlashMapManager(context);               // 初始化Flash映射管理器
 
         log.debug("********** Dispatcher Servlet 初始化完成 **********");
@@ -120,6 +270,134 @@ public class DispatcherServlet extends FrameworkServlet {
             this.multipartResolver = multipartResolver;
             log.debug("获取了已配置 [MultipartResolver] 对象 : " + multipartResolver.getClass());
         }
+        if (this.multipartResolver instanceof BaseCommonsFileUploadSupport){
+            initMultipartStorageManager(context, (BaseCommonsFileUploadSupport) this.multipartResolver);
+        }
+        if (this.multipartResolver instanceof ServletContextAware){
+            ((ServletContextAware) this.multipartResolver).setServletContext(getServletContext());
+        }
+    }
+
+    /**
+     * 初始化上传文件暂存空间管理器，容器中的multipartStorageManager优先于配置文件
+     */
+    private void initMultipartStorageManager(AnnotationConfigApplicationContext context,
+                                             BaseCommonsFileUploadSupport uploadSupport){
+        MultipartStorageManager storageManager = getOptionalBean(context,
+                MULTIPART_STORAGE_MANAGER_BEAN_NAME, MultipartStorageManager.class);
+        if (storageManager == null){
+            Properties properties = getConfigProperties();
+            String repository = properties.getProperty(MULTIPART_REPOSITORY);
+            if (repository != null && !repository.trim().isEmpty()){
+                storageManager = new MultipartStorageManager(new File(repository.trim()));
+            }else{
+                // 没有配置时在临时目录下创建本实例专用的目录
+                Object tempDir = getServletContext().getAttribute(SERVLET_TEMP_DIR);
+                File parent = (tempDir instanceof File ? (File) tempDir : new File(System.getProperty("java.io.tmpdir")));
+                try {
+                    storageManager = MultipartStorageManager.createTemporary(parent);
+                }catch (IOException e){
+                    log.warn("无法创建上传文件暂存目录，将使用默认的暂存方式", e);
+                    return;
+                }
+            }
+            String maxDiskUsage = properties.getProperty(MULTIPART_MAX_DISK_USAGE);
+            if (maxDiskUsage != null && !maxDiskUsage.trim().isEmpty()){
+                try {
+                    storageManager.setMaxDiskUsage(Long.parseLong(maxDiskUsage.trim()));
+                }catch (NumberFormatException e){
+                    log.warn("上传文件暂存空间上限配置错误 : {}，将不限制暂存空间", maxDiskUsage);
+                }
+            }
+        }
+        uploadSupport.setStorageManager(storageManager);
+        storageManager.start();
+        this.multipartStorageManager = storageManager;
+    }
+
+    /**
+     * 初始化压缩处理阶段，容器中的compressionConfig优先于配置文件
+     */
+    private void initCompression(AnnotationConfigApplicationContext context){
+        CompressionConfig config = getOptionalBean(context, COMPRESSION_CONFIG_BEAN_NAME, CompressionConfig.class);
+        if (config == null){
+            Properties properties = getConfigProperties();
+            if (!Boolean.parseBoolean(properties.getProperty(COMPRESSION_ENABLED, "false").trim())){
+                return;
+            }
+            config = new CompressionConfig();
+            String minSize = properties.getProperty(COMPRESSION_MIN_SIZE);
+            if (minSize != null && !minSize.trim().isEmpty()){
+                try {
+                    config.setMinResponseSize(Integer.parseInt(minSize.trim()));
+                }catch (NumberFormatException e){
+                    log.warn("响应压缩阈值配置错误 : {}，将使用默认值 {}", minSize, config.getMinResponseSize());
+                }
+            }
+            String maxInflatedSize = properties.getProperty(COMPRESSION_MAX_INFLATED_REQUEST_SIZE);
+            if (maxInflatedSize != null && !maxInflatedSize.trim().isEmpty()){
+                try {
+                    config.setMaxInflatedRequestSize(Long.parseLong(maxInflatedSize.trim()));
+                }catch (NumberFormatException e){
+                    log.warn("请求体解压上限配置错误 : {}，将使用默认值 {}",
+                            maxInflatedSize, config.getMaxInflatedRequestSize());
+                }
+            }
+            String mimeTypes = properties.getProperty(COMPRESSION_MIME_TYPES);
+            if (mimeTypes != null && !mimeTypes.trim().isEmpty()){
+                config.setMimeTypes(mimeTypes.split(","));
+            }
+        }
+        this.compressionHandler = new CompressionHandler(config);
+        log.debug("开启了请求与响应压缩 : 阈值 {} 字节, contentType {}",
+                config.getMinResponseSize(), config.getMimeTypes());
+    }
+
+    /**
+     * 初始化消息转换器注册表，并且注册容器中所有的{@link HttpMessageConverter}
+     */
+    private void initMessageConverters(AnnotationConfigApplicationContext context){
+        HttpMessageConverterRegistry registry =
+                getOptionalBean(context, MESSAGE_CONVERTER_REGISTRY_BEAN_NAME, HttpMessageConverterRegistry.class);
+        if (registry == null){
+            registry = new HttpMessageConverterRegistry();
+        }
+        try {
+            // 容器按照原始类型返回，这里逐个检查转换为HttpMessageConverter<?>
+            Map<String, ?> converters = context.getBeansOfType(HttpMessageConverter.class);
+            for (Map.Entry<String, ?> entry : converters.entrySet()) {
+                registry.addConverter((HttpMessageConverter<?>) entry.getValue());
+                log.debug("注册了 [HttpMessageConverter] 对象 : " + entry.getKey());
+            }
+        }catch (Exception e){
+            log.warn("获取容器中的 [HttpMessageConverter] 对象失败", e);
+        }
+        this.messageConverterRegistry = registry;
+    }
+
+    /**
+     * 初始化类型转换服务，并且注册容器中所有的{@link Converter}
+     */
+    private void initConversionService(AnnotationConfigApplicationContext context){
+        ConversionService conversionService =
+                getOptionalBean(context, CONVERSION_SERVICE_BEAN_NAME, ConversionService.class);
+        if (conversionService == null){
+            conversionService = new DefaultConversionService();
+        }
+        if (conversionService instanceof ConverterRegistry){
+            ConverterRegistry registry = (ConverterRegistry) conversionService;
+            try {
+                // 容器按照原始类型返回，这里逐个检查转换为Converter<?, ?>
+                Map<String, ?> converters = context.getBeansOfType(Converter.class);
+                for (Map.Entry<String, ?> entry : converters.entrySet()) {
+                    registry.addConverter((Converter<?, ?>) entry.getValue());
+                    log.debug("注册了 [Converter] 对象 : " + entry.getKey());
+                }
+            }catch (Exception e){
+                log.warn("获取容器中的 [Converter] 对象失败", e);
+            }
+        }
+        this.conversionService = conversionService;
     }
 
     /*
@@ -127,7 +405,6 @@ public class DispatcherServlet extends FrameworkServlet {
      */
     private void initFlashMapManager(AnnotationConfigApplicationContext context){}
     private void initRequestToViewNameTranslator(AnnotationConfigApplicationContext context){}
-    private void initHandlerExceptionResolvers(AnnotationConfigApplicationContext context){}
     private void initThemeResolver(AnnotationConfigApplicationContext context){}
     private void initLocaleResolver(AnnotationConfigApplicationContext context){}
 
@@ -154,9 +431,10 @@ public class DispatcherServlet extends FrameworkServlet {
                 if (clazz==null || !clazz.isAnnotationPresent(Controller.class)) continue;
 
                 String[] baseUrls = {};
+                RequestMapping typeMapping = null;
                 if (clazz.isAnnotationPresent(RequestMapping.class)){
-                    RequestMapping requestMapping = clazz.getAnnotation(RequestMapping.class);
-                    baseUrls = requestMapping.value();
+                    typeMapping = clazz.getAnnotation(RequestMapping.class);
+                    baseUrls = typeMapping.value();
                 }
 
                 // 获得了controller对象之后，就把方法包装成HandlerMethod对象吧
@@ -166,6 +444,8 @@ public class DispatcherServlet extends FrameworkServlet {
 
                     RequestMapping requestMapping = method.getAnnotation(RequestMapping.class);
                     String[] methodMappings = requestMapping.value();
+                    // 请求方法、contentType等条件在这里编译一次
+                    RequestMappingInfo mappingInfo = RequestMappingInfo.of(typeMapping, requestMapping);
 
                     // 这里生成的最终url应该是正则表达式形式
                     // 允许同一个controller对应多个mapping
@@ -180,10 +460,7 @@ public class DispatcherServlet extends FrameworkServlet {
                                 }else{
                                     url = (baseUrl + "/" + methodMapping).replaceAll("/+", "/");
                                 }
-                                Pattern pattern = Pattern.compile(url);
-                                handlerMappings.add(
-                                        new HandlerMapping(beanInstance, new HandlerMethod(beanInstance, method), pattern)
-                                );
+                                registerHandlerMapping(beanInstance, method, url, mappingInfo);
                             }
                         }
                     }else{
@@ -191,10 +468,7 @@ public class DispatcherServlet extends FrameworkServlet {
                             // 如果没有controller根路径，则空路径情况需要避免
                             if (!"".equals(methodMapping.trim())){
                                 String url = ("/" + methodMapping).replaceAll("/+", "/");
-                                Pattern pattern = Pattern.compile(url);
-                                handlerMappings.add(
-                                        new HandlerMapping(beanInstance, new HandlerMethod(beanInstance, method), pattern)
-                                );
+                                registerHandlerMapping(beanInstance, method, url, mappingInfo);
                             }
                         }
                     }
@@ -203,6 +477,28 @@ public class DispatcherServlet extends FrameworkServlet {
         }catch (Exception e){
             e.printStackTrace();
         }
+        log.debug("路由索引构建完成 : 字面路径 {} 个, 模板路径 {} 个, 正则路径 {} 个",
+                routeTrie.getLiteralCount(), routeTrie.getTemplateCount(), routeTrie.getPatternCount());
+    }
+
+    /**
+     * 创建HandlerMapping并且加入路由索引
+     */
+    private void registerHandlerMapping(Object beanInstance, Method method, String url,
+                                        RequestMappingInfo mappingInfo){
+        // URI模板在这里解析一次，请求时直接在路由索引中匹配
+        UriTemplate template = UriTemplate.parse(url);
+        Pattern pattern = (template != null ? template.getPattern() : Pattern.compile(url));
+        HandlerMapping handlerMapping =
+                new HandlerMapping(beanInstance, new HandlerMethod(beanInstance, method), pattern);
+        handlerMapping.setMappingInfo(mappingInfo);
+        handlerMapping.setUriTemplate(template);
+        handlerMappings.add(handlerMapping);
+        if (template != null){
+            routeTrie.register(template, handlerMapping);
+        }else{
+            routeTrie.register(url, handlerMapping);
+        }
     }
 
     /**
@@ -211,12 +507,115 @@ public class DispatcherServlet extends FrameworkServlet {
      * 在参数适配器中进行传入参数和传出参数处理
      */
     private void initHandlerAdapters(AnnotationConfigApplicationContext context){
+        initAsyncManager(context);
+        // 所有handler共享同一组参数与返回值解析器
+        HandlerAdapter handlerAdapter = new HandlerAdapter(messageConverterRegistry, asyncManager, conversionService);
+        MethodInvokerFactory invokerFactory =
+                getOptionalBean(context, METHOD_INVOKER_FACTORY_BEAN_NAME, MethodInvokerFactory.class);
+        if (invokerFactory != null){
+            handlerAdapter.setMethodInvokerFactory(invokerFactory);
+            log.debug("获取了已配置 [MethodInvokerFactory] 对象 : " + invokerFactory.getClass());
+        }
+        for (HandlerMapping handlerMapping : handlerMappings) {
+            // 在这里生成每个handler的调用计划，请求时不再重复查找解析器
+            handlerAdapter.prepare(handlerMapping);
+            handlerAdapterMap.put(handlerMapping, handlerAdapter);
+            log.debug("映射路径 : [ {} ] {}", handlerMapping.getPattern(), handlerMapping.getMappingInfo());
+        }
+    }
+
+
+    /**
+     * 初始化异常处理器<br/>
+     * 自定义的异常处理器优先，然后是{@link ExceptionHandler}方法
+     */
+    private void initHandlerExceptionResolvers(AnnotationConfigApplicationContext context){
+        HandlerExceptionResolver customResolver =
+                getOptionalBean(context, HANDLER_EXCEPTION_RESOLVER_BEAN_NAME, HandlerExceptionResolver.class);
+        if (customResolver != null){
+            handlerExceptionResolvers.add(customResolver);
+            log.debug("获取了已配置 [handlerExceptionResolver] 对象 : " + customResolver.getClass());
+        }
+        // 所有handler共享同一个适配器，这里取任意一个即可
+        HandlerAdapter handlerAdapter = handlerAdapterMap.isEmpty() ?
+                new HandlerAdapter(messageConverterRegistry, asyncManager, conversionService) :
+                handlerAdapterMap.values().iterator().next();
+        ExceptionHandlerExceptionResolver exceptionHandlerResolver = new ExceptionHandlerExceptionResolver(handlerAdapter);
+        Map<String, Object> ioc = context.getBeanFactory().getSingletonIoc();
+        for (Object beanInstance : ioc.values()) {
+            if (beanInstance == null) continue;
+            Class<?> clazz = AopUtils.isAopProxy(beanInstance) ? AopUtils.getAopTarget(beanInstance) : beanInstance.getClass();
+            if (clazz != null && clazz.isAnnotationPresent(ControllerAdvice.class)){
+                exceptionHandlerResolver.addAdviceBean(beanInstance, clazz);
+            }
+        }
+        handlerExceptionResolvers.add(exceptionHandlerResolver);
+    }
+
+    /**
+     * 初始化派发统计，容器中的metricsExporter优先于默认的JMX导出
+     */
+    private void initMetrics(AnnotationConfigApplicationContext context){
+        Properties properties = getConfigProperties();
+        if (!Boolean.parseBoolean(properties.getProperty(METRICS_ENABLED, "false").trim())){
+            return;
+        }
+        DispatcherMetrics metrics = new DispatcherMetrics();
         for (HandlerMapping handlerMapping : handlerMappings) {
-            handlerAdapterMap.put(handlerMapping, new HandlerAdapter());
-            log.debug(String.format("映射路径 : [ %s ]", handlerMapping.getPattern()));
+            metrics.register(handlerMapping);
+        }
+        MetricsExporter exporter = getOptionalBean(context, METRICS_EXPORTER_BEAN_NAME, MetricsExporter.class);
+        if (exporter == null && Boolean.parseBoolean(properties.getProperty(METRICS_JMX_ENABLED, "true").trim())){
+            exporter = new JmxMetricsExporter();
         }
+        if (exporter != null){
+            exporter.export(metrics);
+            this.metricsExporter = exporter;
+        }
+        String endpoint = properties.getProperty(METRICS_ENDPOINT, DEFAULT_METRICS_ENDPOINT).trim();
+        if (!endpoint.isEmpty()){
+            this.metricsEndpoint = RouteTrie.normalizePath(endpoint);
+        }
+        this.dispatcherMetrics = metrics;
+        log.debug("开启了派发统计 : 导出器 {}, 统计接口 {}",
+                (exporter != null ? exporter.getClass().getSimpleName() : null), metricsEndpoint);
     }
 
+    /**
+     * 初始化异步请求管理器
+     */
+    private void initAsyncManager(AnnotationConfigApplicationContext context){
+        WebAsyncManager asyncManager = new WebAsyncManager();
+        Executor executor = getOptionalBean(context, ASYNC_TASK_EXECUTOR_BEAN_NAME, Executor.class);
+        if (executor != null){
+            asyncManager.setExecutor(executor);
+            log.debug("获取了已配置 [asyncTaskExecutor] 对象 : " + executor.getClass());
+        }
+        String timeout = getConfigProperties().getProperty(ASYNC_TIMEOUT);
+        if (timeout != null && !timeout.trim().isEmpty()){
+            try {
+                asyncManager.setDefaultTimeout(Long.parseLong(timeout.trim()));
+            }catch (NumberFormatException e){
+                log.warn("异步请求超时时间配置错误 : {}，将使用默认值 {}", timeout, WebAsyncManager.DEFAULT_TIMEOUT);
+            }
+        }
+        this.asyncManager = asyncManager;
+    }
+
+    /**
+     * 尝试从容器中获取可选的组件，容器中没有时返回null
+     */
+    private <T> T getOptionalBean(AnnotationConfigApplicationContext context, String beanName, Class<T> beanClass){
+        if (!context.containsBeanDefinition(beanName)){
+            return null;
+        }
+        try {
+            return context.getBean(beanName, beanClass);
+        }catch (Exception e){
+            log.warn("获取 [" + beanName + "] 对象失败，将使用默认实现", e);
+            return null;
+        }
+    }
 
     /**
      * 注册模板解析器
@@ -237,98 +636,354 @@ public class DispatcherServlet extends FrameworkServlet {
             log.warn("未配置 [internalResourceViewResolver] 将使用默认viewResolver : " + resolver.toString());
             viewResolvers.add(resolver);
         }
+        initTemplateCache();
+    }
+
+    /**
+     * 初始化静态资源处理器
+     */
+    private void initResourceHandler(AnnotationConfigApplicationContext context){
+        ResourceHandlerRegistry registry =
+                getOptionalBean(context, RESOURCE_HANDLER_REGISTRY_BEAN_NAME, ResourceHandlerRegistry.class);
+        if (registry == null || !registry.hasMappings()){
+            log.debug("未配置 [resourceHandlerRegistry] 静态资源请求将转发给容器处理");
+            return;
+        }
+        ResourceHttpRequestHandler handler = new ResourceHttpRequestHandler(registry);
+        handler.setServletContext(getServletContext());
+        this.resourceHandler = handler;
+    }
+
+    /**
+     * 根据配置文件设置html模板缓存
+     */
+    private void initTemplateCache(){
+        HtmlTemplateCache templateCache = HtmlView.getTemplateCache();
+        String cacheLimit = getConfigProperties().getProperty(TEMPLATE_CACHE_LIMIT);
+        if (cacheLimit != null && !cacheLimit.trim().isEmpty()){
+            try {
+                templateCache.setCacheLimit(Integer.parseInt(cacheLimit.trim()));
+            }catch (NumberFormatException e){
+                log.warn("html模板缓存上限配置错误 : {}，将使用默认值 {}", cacheLimit, templateCache.getCacheLimit());
+            }
+        }
+        String checkModified = getConfigProperties().getProperty(TEMPLATE_CHECK_MODIFIED);
+        if (checkModified != null){
+            templateCache.setCheckModified(Boolean.parseBoolean(checkModified.trim()));
+        }
+    }
+
+    /**
+     * HttpServlet不会派发PATCH请求，这里单独处理
+     */
+    @Override
+    protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        if (HttpMethod.PATCH.matches(req.getMethod())){
+            processRequest(req, resp);
+        }else{
+            super.service(req, resp);
+        }
     }
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-        doPost(req, resp);
+        processRequest(req, resp);
     }
 
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        processRequest(req, resp);
+    }
+
+    @Override
+    protected void doPut(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        processRequest(req, resp);
+    }
+
+    @Override
+    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        processRequest(req, resp);
+    }
+
+    /**
+     * 处理所有请求方法的请求，请求方法条件在路由匹配时判断
+     */
+    protected void processRequest(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        HttpServletRequest req = request;
+        HttpServletResponse resp = response;
+        if (compressionHandler != null){
+            req = compressionHandler.wrapRequest(request);
+            resp = compressionHandler.wrapResponse(req, response);
+        }
         try {
             doDispatch(req, resp);
+        }catch (PayloadTooLargeException e){
+            log.warn("请求体过大 => \"{}\" : {}", req.getRequestURI(), e.getMessage());
+            if (!resp.isCommitted()){
+                resp.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            }
         }catch (Exception e){
-            // 目前只是简单的处理
-            resp.setCharacterEncoding("UTF-8");
-            resp.setContentType("text/html;charset=utf-8");
-            StringBuffer buffer = new StringBuffer();
-            DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            LocalDateTime now = LocalDateTime.now();
-            buffer.append("<h1>500 Exception</h1>").append(now.format(dtf))
-                    .append("<br>https://github.com/dzzhyk/mine-spring<br>")
-                    .append("<br>mine-spring 0.0.2<br>");
-            buffer.append("<h2>Error Message</h2>").append(e.getMessage()).append("<hr><h2>StackTrace</h2>");
-            StackTraceElement[] stackTrace = e.getStackTrace();
-            for (StackTraceElement stackTraceElement : stackTrace) {
-                buffer.append(stackTraceElement).append("\n");
+            // 没有被异常处理器处理的异常，只返回状态码，不生成包含异常栈的页面
+            logUncaughtException(req, e);
+            if (!resp.isCommitted()){
+                resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+        }finally {
+            // 异步请求在重新派发之后再结束压缩
+            if (compressionHandler != null && !req.isAsyncStarted()){
+                compressionHandler.finish(resp);
+            }
+        }
+    }
+
+    /**
+     * 每种异常类型只完整打印一次异常栈，大量请求失败时不会反复格式化相同的异常栈
+     */
+    private void logUncaughtException(HttpServletRequest req, Exception e){
+        Class<?> exceptionType = e.getClass();
+        if (log.isDebugEnabled() || (loggedExceptionTypes.size() < MAX_LOGGED_EXCEPTION_TYPES &&
+                loggedExceptionTypes.add(exceptionType))){
+            log.error("请求处理失败 => \"" + req.getRequestURI() + "\"", e);
+        }else{
+            log.error("请求处理失败 => \"{}\" : {}", req.getRequestURI(), e.toString());
+        }
+    }
+
+    /**
+     * 依次尝试异常处理器
+     * @param handlerMapping 抛出异常的handler，可能为null
+     * @return 处理结果
+     * @throws Exception 没有异常处理器能够处理时抛出原异常
+     */
+    private ModelAndView processHandlerException(HttpServletRequest req, HttpServletResponse resp,
+                                                 HandlerMapping handlerMapping, Exception ex) throws Exception {
+        for (HandlerExceptionResolver resolver : handlerExceptionResolvers) {
+            ModelAndView mv = resolver.resolveException(req, resp, handlerMapping, ex);
+            if (mv != null){
+                return mv;
             }
-            resp.getWriter().write(buffer.toString());
         }
+        throw ex;
+    }
+
+    @Override
+    public void destroy() {
+        if (metricsExporter != null){
+            metricsExporter.destroy();
+        }
+        if (asyncManager != null){
+            asyncManager.shutdown();
+        }
+        if (compressionHandler != null){
+            compressionHandler.destroy();
+        }
+        if (multipartStorageManager != null){
+            multipartStorageManager.shutdown();
+        }
+        super.destroy();
     }
 
     private void doDispatch(HttpServletRequest req, HttpServletResponse resp) throws Exception {
         String requestURI = req.getRequestURI();
-        log.debug(String.format("路径请求 : [ %s ]", requestURI));
+        log.debug("路径请求 : [ {} ]", requestURI);
+
+        // 异步处理完成之后重新派发的请求
+        if (req.getDispatcherType() == DispatcherType.ASYNC){
+            WebAsyncManager.AsyncResult asyncResult = WebAsyncManager.getAsyncResult(req);
+            if (asyncResult != null){
+                processAsyncResult(req, resp, asyncResult);
+                return;
+            }
+        }
+
+        if (metricsEndpoint != null && metricsEndpoint.equals(getLookupPath(req)) &&
+                HttpMethod.GET.matches(req.getMethod())){
+            writeMetrics(resp);
+            return;
+        }
 
         HttpServletRequest processedRequest = req;
         boolean multipartRequestParsed = false;
-        processedRequest = checkMultipart(req);
+        boolean asyncStarted = false;
+        HandlerMapping handlerMapping = null;
+        // 当前线程复用的请求包装类、ModelAndViewBuilder和耗时记录
+        DispatchContext context = DispatchContext.acquire(req, resp, dispatcherMetrics != null);
+        StageTimer timer = context.getTimer();
 
-        // 如果两次解析出来的请求不是一个，说明是文件上传请求
-        multipartRequestParsed = (processedRequest != req);
+        try {
+            ModelAndView mv;
+            try {
+                processedRequest = checkMultipart(req);
+                // 如果两次解析出来的请求不是一个，说明是文件上传请求
+                multipartRequestParsed = (processedRequest != req);
+                context.setRequest(processedRequest);
+                if (timer != null){
+                    timer.mark(DispatchStage.MULTIPART);
+                }
 
-        HandlerMapping handlerMapping = getHandlerMapping(processedRequest);
-        if (null == handlerMapping){
-            // 如果没有这个controller，返回404页面
-            log.warn("没有对应的 HandlerMapping => \"{}\", 尝试寻找路径为该URI的静态资源", requestURI);
+                try {
+                    handlerMapping = getHandlerMapping(processedRequest);
+                }catch (RequestConditionException e){
+                    log.debug("请求条件不满足 => \"{}\" : {}", requestURI, e.getMessage());
+                    if (!e.getAllowedMethods().isEmpty()){
+                        resp.setHeader("Allow", getAllowHeader(e.getAllowedMethods()));
+                    }
+                    resp.sendError(e.getStatus());
+                    return;
+                }
+                if (timer != null){
+                    timer.mark(DispatchStage.MAPPING);
+                }
+                if (null == handlerMapping){
+                    // 可能是静态资源，先尝试已经配置的静态资源映射
+                    if (resourceHandler != null && resourceHandler.handleRequest(req, resp, getLookupPath(req))){
+                        return;
+                    }
 
-            // 可能是静态资源，尝试发送到defaultDispatcher
-            RequestDispatcher defaultDispatcher = getServletContext().getNamedDispatcher("default");
-            defaultDispatcher.forward(req, resp);
-        }
+                    // 如果没有这个controller，返回404页面
+                    log.warn("没有对应的 HandlerMapping => \"{}\", 尝试寻找路径为该URI的静态资源", requestURI);
 
-        HandlerAdapter handlerAdapter = getHandlerAdapter(handlerMapping);
-        if (handlerAdapter == null){
-            throw new Exception("没有对应的 HandlerAdapter 实现 => \"" + requestURI + "\"");
-        }
+                    // 尝试发送到defaultDispatcher
+                    RequestDispatcher defaultDispatcher = getServletContext().getNamedDispatcher("default");
+                    defaultDispatcher.forward(req, resp);
+                    return;
+                }
 
-        ModelAndView mv = handlerAdapter.handle(processedRequest, resp, handlerMapping);
+                HandlerAdapter handlerAdapter = getHandlerAdapter(handlerMapping);
+                if (handlerAdapter == null){
+                    throw new Exception("没有对应的 HandlerAdapter 实现 => \"" + requestURI + "\"");
+                }
 
-        // 将request中的attribute加入model
-        parseRequestAttributes(mv, req);
+                mv = handlerAdapter.handle(context, handlerMapping);
 
-        // 处理dispatcher结果，渲染视图
-        processDispatchResult(req, resp, mv);
+                // 已经开启异步处理，容器线程直接返回，结果到达之后会重新派发
+                if (processedRequest.isAsyncStarted()){
+                    asyncStarted = true;
+                    if (multipartRequestParsed){
+                        deferMultipartCleanup(processedRequest);
+                    }
+                    return;
+                }
+            }catch (Exception e){
+                if (timer != null){
+                    timer.markFailed();
+                }
+                mv = processHandlerException(processedRequest, resp, handlerMapping, e);
+            }
 
-        // 清理上传产生的资源文件
-        if (multipartRequestParsed) {
-            if (this.multipartResolver != null){
-                this.multipartResolver.cleanupMultipart((MultipartRequest) processedRequest);
+            // 处理dispatcher结果，渲染视图
+            processDispatchResult(req, resp, mv);
+        }finally {
+            // 清理上传产生的资源文件，发生异常时也需要清理
+            if (!asyncStarted){
+                cleanupMultipart(processedRequest, multipartRequestParsed);
             }
+            // 异步请求只统计容器线程上的耗时
+            if (timer != null){
+                timer.mark(DispatchStage.RENDERING);
+                dispatcherMetrics.record(handlerMapping, timer);
+            }
+            context.release(!asyncStarted);
         }
     }
 
+    /**
+     * 输出统计接口的内容
+     */
+    private void writeMetrics(HttpServletResponse resp) throws IOException {
+        resp.setContentType(MetricsTextWriter.CONTENT_TYPE);
+        resp.setHeader("Cache-Control", "no-cache");
+        new MetricsTextWriter().write(dispatcherMetrics, resp.getWriter());
+    }
 
     /**
-     * 解析request中的attribute，将其加入model
+     * 生成405响应的Allow头
      */
-    private ModelAndView parseRequestAttributes(ModelAndView modelAndView, HttpServletRequest request){
-        if (modelAndView==null){
-            return null;
+    private static String getAllowHeader(Set<HttpMethod> allowedMethods){
+        StringBuilder builder = new StringBuilder();
+        for (HttpMethod method : allowedMethods) {
+            if (builder.length() > 0){
+                builder.append(", ");
+            }
+            builder.append(method.name());
         }
-        Enumeration attributeNames = request.getAttributeNames();
-        Map<String, Object> model = (Map<String, Object>) modelAndView.getModel();
-        if (null == model){
-            model = new HashMap<>();
+        return builder.toString();
+    }
+
+    /**
+     * 清理上传产生的资源文件
+     */
+    private void cleanupMultipart(HttpServletRequest processedRequest, boolean multipartRequestParsed){
+        if (multipartRequestParsed && this.multipartResolver != null) {
+            this.multipartResolver.cleanupMultipart((MultipartRequest) processedRequest);
+        }
+    }
+
+
+    /**
+     * 处理异步结果，按照普通返回值完成渲染
+     */
+    private void processAsyncResult(HttpServletRequest req, HttpServletResponse resp,
+                                    WebAsyncManager.AsyncResult asyncResult) throws Exception {
+        if (asyncResult.hasError() && asyncResult.getError() instanceof AsyncRequestTimeoutException){
+            log.warn("异步请求处理超时 => \"{}\"", req.getRequestURI());
+            if (!resp.isCommitted()){
+                resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            }
+            return;
         }
-        while (attributeNames.hasMoreElements()){
-            String s = (String) attributeNames.nextElement();
-            Object attribute = request.getAttribute(s);
-            model.put(s, attribute);
+
+        HandlerMapping handlerMapping = getHandlerMapping(req);
+        ModelAndView mv;
+        try {
+            if (asyncResult.hasError()){
+                Throwable error = asyncResult.getError();
+                if (error instanceof Exception){
+                    throw (Exception) error;
+                }
+                throw new Exception(error.getMessage(), error);
+            }
+            HandlerAdapter handlerAdapter = getHandlerAdapter(handlerMapping);
+            if (handlerAdapter == null){
+                throw new Exception("没有对应的 HandlerAdapter 实现 => \"" + req.getRequestURI() + "\"");
+            }
+            mv = handlerAdapter.handleAsyncResult(req, resp, handlerMapping, asyncResult.getValue());
+        }catch (Exception e){
+            mv = processHandlerException(req, resp, handlerMapping, e);
         }
-        modelAndView.setModel(model);
-        return modelAndView;
+        processDispatchResult(req, resp, mv);
+    }
+
+    /**
+     * 异步请求结束之后再清理上传产生的资源文件
+     */
+    private void deferMultipartCleanup(HttpServletRequest processedRequest){
+        processedRequest.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                if (multipartResolver != null){
+                    multipartResolver.cleanupMultipart((MultipartRequest) processedRequest);
+                }
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {}
+
+            @Override
+            public void onError(AsyncEvent event) {}
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {}
+        });
+    }
+
+    /**
+     * 把request中的attribute加入model，只在需要渲染视图时调用<br/>
+     * 不复制属性，视图按名称读取时才访问request
+     */
+    private void exposeRequestAttributes(ModelAndView modelAndView, HttpServletRequest request){
+        modelAndView.setModel(new RequestAttributeModel(modelAndView.getModel(), request));
     }
 
     /**
@@ -366,11 +1021,16 @@ public class DispatcherServlet extends FrameworkServlet {
         // 如果mav需要渲染就进行渲染
         if (!mav.isCleared()){
             try {
+                exposeRequestAttributes(mav, req);
                 render(req, resp, mav);
                 mav.setCleared(true);
             }catch (Exception e){
-                log.warn("渲染视图发生错误 : " + mav);
-                e.printStackTrace();
+                // 和未处理的异常一样，每种异常类型只打印一次异常栈，然后返回简短的500响应
+                log.warn("渲染视图发生错误 : {}", mav);
+                logUncaughtException(req, e);
+                if (!resp.isCommitted()){
+                    resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                }
             }
         }
     }
@@ -426,22 +1086,36 @@ public class DispatcherServlet extends FrameworkServlet {
 
     /**
      * 根据相应请求获取对应Handler
+     * @throws RequestConditionException 路径匹配但是请求方法或其他条件不满足
+     */
+    private HandlerMapping getHandlerMapping(HttpServletRequest req) throws RequestConditionException {
+        if (routeTrie.isEmpty()) return null;
+        // 字面路径直接在前缀树中查找，然后是模板路径，找不到再尝试正则表达式
+        RouteMatch match = routeTrie.lookup(getLookupPath(req));
+        if (match == null) return null;
+        // 按请求方法取出候选，再判断其余条件
+        HandlerMapping handlerMapping = match.getCandidates().select(req);
+        if (match.hasUriVariables()){
+            req.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, match.getUriVariables(handlerMapping));
+        }
+        RequestMappingInfo mappingInfo = handlerMapping.getMappingInfo();
+        if (mappingInfo != null && mappingInfo.getProduces().length > 0){
+            req.setAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, mappingInfo.getProduces());
+        }
+        return handlerMapping;
+    }
+
+    /**
+     * 获取去掉contextPath并且规范化之后的请求路径
      */
-    private HandlerMapping getHandlerMapping(HttpServletRequest req){
-        if (handlerMappings.isEmpty()) return null;
+    private String getLookupPath(HttpServletRequest req){
         String url = req.getRequestURI();
 
-        // contextPath是项目部署的url地址，需要替换为空字符
+        // contextPath是项目部署的url地址，需要去掉
         String contextPath = req.getContextPath();
-        url = url.replace(contextPath, "").replaceAll("/+", "/");
-        for (HandlerMapping handler : handlerMappings) {
-
-            // 如果这个url被某个regex匹配到了，就返回这个对应的handler
-            if (handler.getPattern().matcher(url).matches()){
-                return handler;
-            }
+        if (contextPath != null && !contextPath.isEmpty() && url.startsWith(contextPath)){
+            url = url.substring(contextPath.length());
         }
-
-        return null;
+        return RouteTrie.normalizePath(url);
     }
 }
\ No newline at end of file
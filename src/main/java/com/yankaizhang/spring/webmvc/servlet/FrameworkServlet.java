@@ -4,6 +4,7 @@ import com.yankaizhang.spring.context.impl.AnnotationConfigApplicationContext;
 import com.yankaizhang.spring.web.ViewResolver;
 
 import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import java.io.IOException;
 import java.io.InputStream;
@@ -30,8 +31,35 @@ public abstract class FrameworkServlet extends HttpServlet {
 
     public FrameworkServlet() {}
 
+    /**
+     * 使用已经创建好的IoC容器和配置，例如在嵌入式服务器中运行
+     * @param context IoC容器
+     * @param configProperties 配置
+     */
+    public FrameworkServlet(AnnotationConfigApplicationContext context, Properties configProperties) {
+        this.context = context;
+        this.configProperties = configProperties;
+    }
+
     @Override
     public void init(ServletConfig config) {
+        try {
+            // 保存ServletConfig，getServletContext()依赖它
+            super.init(config);
+        } catch (ServletException e) {
+            throw new IllegalStateException(e);
+        }
+        if (context == null){
+            initContext(config);
+        }
+        // 初始化模板解析器中的项目根目录
+        ViewResolver.PROJECT_DIR = config.getServletContext().getRealPath("/");
+    }
+
+    /**
+     * 读取配置文件并且创建IoC容器
+     */
+    private void initContext(ServletConfig config) {
         String location = config.getInitParameter(LOCATION);
         // 目前现在这里读取出basePackage
         InputStream ins = this.getClass()
@@ -50,12 +78,14 @@ public abstract class FrameworkServlet extends HttpServlet {
 
         // 初始化IoC容器
         context = new AnnotationConfigApplicationContext(configProperties.getProperty(BASE_PACKAGE));
-        // 初始化模板解析器中的项目根目录
-        ViewResolver.PROJECT_DIR = config.getServletContext().getRealPath("/");
     }
 
     public AnnotationConfigApplicationContext getContext() {
         return context;
     }
 
+    public Properties getConfigProperties() {
+        return configProperties;
+    }
+
 }
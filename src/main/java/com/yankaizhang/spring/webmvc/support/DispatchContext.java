@@ -0,0 +1,94 @@
+package com.yankaizhang.spring.webmvc.support;
+
+import com.yankaizhang.spring.web.model.ModelAndViewBuilder;
+import com.yankaizhang.spring.web.request.WebRequest;
+import com.yankaizhang.spring.webmvc.metrics.StageTimer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 一次请求派发过程中使用的可变对象，每个线程保存一个，处理完请求之后重置复用<br/>
+ * 同一线程上嵌套的派发（例如include回到DispatcherServlet）使用新创建的对象；
+ * 开启了异步处理的请求不再复用，避免异步线程拿到被下一个请求重置的对象
+ * @author dzzhyk
+ * @since 2026-10-18 19:12:30
+ */
+public final class DispatchContext {
+
+    private static final ThreadLocal<DispatchContext> CURRENT = ThreadLocal.withInitial(DispatchContext::new);
+
+    private final WebRequest webRequest = new WebRequest(null, null);
+
+    private final ModelAndViewBuilder modelAndViewBuilder = new ModelAndViewBuilder();
+
+    private final StageTimer timer = new StageTimer();
+
+    /** 本次请求是否记录耗时 */
+    private boolean timed;
+
+    /** 是否正在被某次派发使用 */
+    private boolean inUse;
+
+    private DispatchContext() {
+    }
+
+    /**
+     * 获取当前线程的派发上下文并且重置
+     * @param req 请求
+     * @param resp 响应
+     * @param timed 是否记录耗时
+     * @return 派发上下文，使用完毕之后需要调用{@link #release(boolean)}
+     */
+    public static DispatchContext acquire(HttpServletRequest req, HttpServletResponse resp, boolean timed) {
+        DispatchContext context = CURRENT.get();
+        if (context.inUse) {
+            context = new DispatchContext();
+        }
+        context.inUse = true;
+        context.webRequest.setRequest(req);
+        context.webRequest.setResponse(resp);
+        context.modelAndViewBuilder.reset();
+        context.timed = timed;
+        if (timed) {
+            context.timer.start();
+        }
+        return context;
+    }
+
+    /**
+     * 派发结束，清除对请求和响应的引用
+     * @param reusable 是否可以被当前线程的下一个请求复用
+     */
+    public void release(boolean reusable) {
+        webRequest.setRequest(null);
+        webRequest.setResponse(null);
+        modelAndViewBuilder.reset();
+        inUse = false;
+        if (!reusable && CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * 替换为解析之后的请求，例如multipart请求
+     */
+    public void setRequest(HttpServletRequest req) {
+        webRequest.setRequest(req);
+    }
+
+    public WebRequest getWebRequest() {
+        return webRequest;
+    }
+
+    public ModelAndViewBuilder getModelAndViewBuilder() {
+        return modelAndViewBuilder;
+    }
+
+    /**
+     * 耗时记录，本次请求不记录耗时时为null
+     */
+    public StageTimer getTimer() {
+        return (timed ? timer : null);
+    }
+}
@@ -0,0 +1,135 @@
+package com.yankaizhang.spring.webmvc.support;
+
+import com.yankaizhang.spring.web.http.HttpMethod;
+import com.yankaizhang.spring.webmvc.HandlerMapping;
+import com.yankaizhang.spring.webmvc.condition.RequestConditionException;
+import com.yankaizhang.spring.webmvc.condition.RequestMappingInfo;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import java.util.*;
+
+/**
+ * 同一个路径上的所有{@link HandlerMapping}<br/>
+ * 启动时按照请求方法分组，请求时先用{@link EnumMap}取出该方法的候选，再逐个判断其余条件；
+ * 同一组内声明了请求方法、条件更多的映射优先
+ * @author dzzhyk
+ * @since 2026-10-18 17:24:33
+ */
+public final class HandlerMappingCandidates {
+
+    private static final HandlerMapping[] EMPTY = new HandlerMapping[0];
+
+    /** 注册顺序的所有映射 */
+    private final List<HandlerMapping> mappings = new ArrayList<>(2);
+
+    /** 按请求方法分组的候选映射 */
+    private final EnumMap<HttpMethod, HandlerMapping[]> candidatesByMethod = new EnumMap<>(HttpMethod.class);
+
+    /** 该路径支持的请求方法 */
+    private Set<HttpMethod> allowedMethods = Collections.emptySet();
+
+    /**
+     * 添加一个映射，条件完全相同的映射只保留先注册的
+     * @return 是否添加成功
+     */
+    boolean add(HandlerMapping handlerMapping) {
+        for (HandlerMapping existing : mappings) {
+            if (Objects.equals(existing.getMappingInfo(), handlerMapping.getMappingInfo())) {
+                return false;
+            }
+        }
+        mappings.add(handlerMapping);
+        rebuild();
+        return true;
+    }
+
+    /**
+     * 重新生成按方法分组的候选数组
+     */
+    private void rebuild() {
+        List<HandlerMapping> sorted = new ArrayList<>(mappings);
+        sorted.sort(Comparator.comparingInt(HandlerMappingCandidates::getPriority).reversed());
+        Set<HttpMethod> allowed = EnumSet.noneOf(HttpMethod.class);
+        for (HttpMethod method : HttpMethod.values()) {
+            List<HandlerMapping> candidates = new ArrayList<>(sorted.size());
+            for (HandlerMapping mapping : sorted) {
+                if (supportsMethod(mapping, method)) {
+                    candidates.add(mapping);
+                }
+            }
+            if (!candidates.isEmpty()) {
+                allowed.add(method);
+            }
+            candidatesByMethod.put(method, candidates.toArray(EMPTY));
+        }
+        this.allowedMethods = Collections.unmodifiableSet(allowed);
+    }
+
+    /**
+     * 判断映射是否支持该请求方法，支持GET的映射同样处理HEAD请求
+     */
+    private static boolean supportsMethod(HandlerMapping mapping, HttpMethod method) {
+        RequestMappingInfo info = mapping.getMappingInfo();
+        if (info == null || info.getMethods().isEmpty()) {
+            return true;
+        }
+        return info.getMethods().contains(method) ||
+                (method == HttpMethod.HEAD && info.getMethods().contains(HttpMethod.GET));
+    }
+
+    private static int getPriority(HandlerMapping mapping) {
+        RequestMappingInfo info = mapping.getMappingInfo();
+        if (info == null) {
+            return 0;
+        }
+        return (info.getMethods().isEmpty() ? 0 : 1000) + info.getConditionCount();
+    }
+
+    /**
+     * 选择满足请求条件的映射
+     * @param request 请求
+     * @return 映射对象
+     * @throws RequestConditionException 路径匹配但是没有满足条件的映射
+     */
+    public HandlerMapping select(HttpServletRequest request) throws RequestConditionException {
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        HandlerMapping[] candidates = (method == null ? null : candidatesByMethod.get(method));
+        if (candidates == null || candidates.length == 0) {
+            throw new RequestConditionException(HttpServletResponse.SC_METHOD_NOT_ALLOWED,
+                    "不支持的请求方法 : " + request.getMethod(), allowedMethods);
+        }
+        boolean consumesFailed = false;
+        boolean producesFailed = false;
+        for (HandlerMapping candidate : candidates) {
+            RequestMappingInfo info = candidate.getMappingInfo();
+            if (info == null || !info.hasConditions()) {
+                return candidate;
+            }
+            if (!info.matchesConsumes(request)) {
+                consumesFailed = true;
+            } else if (!info.matchesProduces(request)) {
+                producesFailed = true;
+            } else if (info.matchesParams(request) && info.matchesHeaders(request)) {
+                return candidate;
+            }
+        }
+        if (consumesFailed) {
+            throw new RequestConditionException(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                    "不支持的请求contentType : " + request.getContentType());
+        }
+        if (producesFailed) {
+            throw new RequestConditionException(HttpServletResponse.SC_NOT_ACCEPTABLE,
+                    "无法返回可接受的contentType : " + request.getHeader("Accept"));
+        }
+        throw new RequestConditionException(HttpServletResponse.SC_BAD_REQUEST, "请求参数或请求头不满足映射条件");
+    }
+
+    public List<HandlerMapping> getMappings() {
+        return Collections.unmodifiableList(mappings);
+    }
+
+    public Set<HttpMethod> getAllowedMethods() {
+        return allowedMethods;
+    }
+}
@@ -0,0 +1,71 @@
+package com.yankaizhang.spring.webmvc.support;
+
+import com.yankaizhang.spring.webmvc.HandlerMapping;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link RouteTrie}的匹配结果：该路径上的候选映射和URI模板变量的值<br/>
+ * 变量名称由最终选中的映射决定，同一路径上的不同模板可以使用不同的变量名
+ * @author dzzhyk
+ * @since 2026-10-18 16:36:44
+ */
+public final class RouteMatch {
+
+    private static final String[] NO_VALUES = new String[0];
+
+    private final HandlerMappingCandidates candidates;
+
+    /** 按照模板中出现顺序排列的变量值，还没有解码 */
+    private final String[] uriVariableValues;
+
+    RouteMatch(HandlerMappingCandidates candidates) {
+        this(candidates, NO_VALUES);
+    }
+
+    RouteMatch(HandlerMappingCandidates candidates, String[] uriVariableValues) {
+        this.candidates = candidates;
+        this.uriVariableValues = uriVariableValues;
+    }
+
+    public HandlerMappingCandidates getCandidates() {
+        return candidates;
+    }
+
+    public boolean hasUriVariables() {
+        return uriVariableValues.length > 0;
+    }
+
+    /**
+     * 使用选中映射的模板变量名称生成变量Map，变量值进行URL解码
+     * @param handlerMapping 选中的映射
+     * @return 模板变量，没有变量时为空Map
+     */
+    public Map<String, String> getUriVariables(HandlerMapping handlerMapping) {
+        UriTemplate template = handlerMapping.getUriTemplate();
+        if (template == null || uriVariableValues.length == 0) {
+            return Collections.emptyMap();
+        }
+        String[] names = template.getVariableNames();
+        Map<String, String> uriVariables = new LinkedHashMap<>(names.length * 2);
+        for (int i = 0; i < names.length && i < uriVariableValues.length; i++) {
+            uriVariables.put(names[i], decode(uriVariableValues[i]));
+        }
+        return Collections.unmodifiableMap(uriVariables);
+    }
+
+    private static String decode(String value) {
+        if (value == null || value.indexOf('%') < 0) {
+            return value;
+        }
+        try {
+            return URLDecoder.decode(value.replace("+", "%2B"), "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return value;
+        }
+    }
+}
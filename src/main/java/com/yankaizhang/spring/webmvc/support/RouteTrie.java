@@ -0,0 +1,361 @@
+package com.yankaizhang.spring.webmvc.support;
+
+import com.yankaizhang.spring.webmvc.HandlerMapping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.regex.Matcher;
+
+/**
+ * {@link HandlerMapping}路由索引<br/>
+ * 不含正则元字符的字面路径按"/"切分后存入一棵分段前缀树，查找耗时只和路径长度有关<br/>
+ * {@link UriTemplate}模板路径也存入前缀树，变量段作为通配子节点，匹配的同时提取变量值，
+ * 每一段优先匹配字面子节点，然后是正则段，最后是变量段<br/>
+ * 含有正则表达式的路径作为后备层，按注册顺序逐个匹配<br/>
+ * 同一路径上可以注册多个条件不同的映射，由{@link HandlerMappingCandidates}按照请求条件选择
+ * @author dzzhyk
+ * @since 2026-10-18 10:12:40
+ */
+public class RouteTrie {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteTrie.class);
+
+    /** 正则表达式中的元字符 */
+    private static final String REGEX_META_CHARS = "\\^$.|?*+()[]{}";
+
+    /** 前缀树根节点，对应路径开头的"/" */
+    private final Node root = new Node();
+
+    /** 后备层：正则表达式形式的映射，按正则表达式分组并保持注册顺序 */
+    private final Map<String, RouteMatch> patternMappings = new LinkedHashMap<>();
+
+    /** 正则表达式映射数量 */
+    private int patternCount = 0;
+
+    /** 字面路径映射数量 */
+    private int literalCount = 0;
+
+    /** 模板路径映射数量 */
+    private int templateCount = 0;
+
+    /** 单个模板中最多的变量数量 */
+    private int maxVariableCount = 0;
+
+    /**
+     * 注册一个映射
+     * @param url 已经规范化的映射路径
+     * @param handlerMapping 映射对象
+     */
+    public void register(String url, HandlerMapping handlerMapping) {
+        UriTemplate template = UriTemplate.parse(url);
+        if (template != null) {
+            register(template, handlerMapping);
+            return;
+        }
+        if (!isLiteralPath(url)) {
+            RouteMatch match = patternMappings.computeIfAbsent(url,
+                    key -> new RouteMatch(new HandlerMappingCandidates()));
+            if (addHandlerMapping(match, url, handlerMapping)) {
+                patternCount++;
+            }
+            return;
+        }
+        Node node = root;
+        int start = 1;
+        int length = url.length();
+        while (true) {
+            int end = url.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.getOrCreateChild(url.substring(start, end));
+            if (end >= length) {
+                break;
+            }
+            start = end + 1;
+        }
+        if (addHandlerMapping(node.getOrCreateMatch(), url, handlerMapping)) {
+            literalCount++;
+        }
+    }
+
+    /**
+     * 注册一个URI模板映射
+     * @param template 启动时解析好的模板
+     * @param handlerMapping 映射对象
+     */
+    public void register(UriTemplate template, HandlerMapping handlerMapping) {
+        Node node = root;
+        for (UriTemplate.Segment segment : template.getSegments()) {
+            switch (segment.getType()) {
+                case LITERAL:
+                    node = node.getOrCreateChild(segment.getText());
+                    break;
+                case VARIABLE:
+                    node = node.getOrCreateVariableChild();
+                    break;
+                default:
+                    node = node.getOrCreatePatternChild(segment);
+                    break;
+            }
+        }
+        node.variableCount = template.getVariableNames().length;
+        if (addHandlerMapping(node.getOrCreateMatch(), template.getTemplate(), handlerMapping)) {
+            templateCount++;
+            maxVariableCount = Math.max(maxVariableCount, template.getVariableNames().length);
+        }
+    }
+
+    private boolean addHandlerMapping(RouteMatch match, String url, HandlerMapping handlerMapping) {
+        if (!match.getCandidates().add(handlerMapping)) {
+            log.warn("路径 [ {} ] 重复映射，保留先注册的处理器 => {}", url, handlerMapping.getMethod());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 查找能够处理该路径的映射，同时提取URI模板变量<br/>
+     * 字面路径优先，然后是模板路径，最后按顺序尝试正则表达式；
+     * 字面路径和正则路径返回注册时创建好的结果对象，不产生新的对象
+     * @param lookupPath 已经去掉contextPath并规范化的请求路径
+     * @return 匹配结果，找不到返回null
+     */
+    public RouteMatch lookup(String lookupPath) {
+        RouteMatch match = matchLiteral(lookupPath);
+        if (match != null) {
+            return match;
+        }
+        if (templateCount > 0 && !lookupPath.isEmpty() && lookupPath.charAt(0) == '/') {
+            String[] values = new String[maxVariableCount];
+            Node node = matchTemplate(root, lookupPath, 1, values, 0);
+            if (node != null) {
+                return createTemplateMatch(node, values);
+            }
+        }
+        for (RouteMatch patternMatch : patternMappings.values()) {
+            if (patternMatch.getCandidates().getMappings().get(0).getPattern().matcher(lookupPath).matches()) {
+                return patternMatch;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 在前缀树中逐段查找字面路径
+     */
+    private RouteMatch matchLiteral(String lookupPath) {
+        int length = lookupPath.length();
+        if (length == 0 || lookupPath.charAt(0) != '/') {
+            return null;
+        }
+        Node node = root;
+        int start = 1;
+        while (true) {
+            int end = lookupPath.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.getChild(lookupPath.substring(start, end));
+            if (node == null) {
+                return null;
+            }
+            if (end >= length) {
+                return node.match;
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * 深度优先匹配模板路径，变量值写入values
+     * @param node 当前节点
+     * @param path 请求路径
+     * @param start 当前段的开始位置
+     * @param values 变量值缓冲区
+     * @param count 已经提取的变量数量
+     * @return 匹配到的叶子节点，找不到返回null
+     */
+    private Node matchTemplate(Node node, String path, int start, String[] values, int count) {
+        int end = path.indexOf('/', start);
+        boolean last = (end < 0);
+        if (last) {
+            end = path.length();
+        }
+        String segment = path.substring(start, end);
+
+        Node child = node.getChild(segment);
+        if (child != null) {
+            Node result = last ? (child.match != null ? child : null)
+                    : matchTemplate(child, path, end + 1, values, count);
+            if (result != null) {
+                return result;
+            }
+        }
+        if (node.patternChildren != null) {
+            for (PatternChild patternChild : node.patternChildren) {
+                Matcher matcher = patternChild.segment.getPattern().matcher(segment);
+                if (!matcher.matches()) {
+                    continue;
+                }
+                int[] groups = patternChild.segment.getGroupIndexes();
+                for (int i = 0; i < groups.length; i++) {
+                    values[count + i] = matcher.group(groups[i]);
+                }
+                Node result = last ? (patternChild.node.match != null ? patternChild.node : null)
+                        : matchTemplate(patternChild.node, path, end + 1, values, count + groups.length);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        if (node.variableChild != null && !segment.isEmpty()) {
+            values[count] = segment;
+            Node result = last ? (node.variableChild.match != null ? node.variableChild : null)
+                    : matchTemplate(node.variableChild, path, end + 1, values, count + 1);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 根据叶子节点记录的变量数量创建匹配结果
+     */
+    private static RouteMatch createTemplateMatch(Node node, String[] values) {
+        if (node.variableCount == 0) {
+            // 模板匹配过程中经过的都是字面段
+            return node.match;
+        }
+        return new RouteMatch(node.match.getCandidates(), Arrays.copyOf(values, node.variableCount));
+    }
+
+    public boolean isEmpty() {
+        return literalCount == 0 && templateCount == 0 && patternCount == 0;
+    }
+
+    public int getLiteralCount() {
+        return literalCount;
+    }
+
+    public int getTemplateCount() {
+        return templateCount;
+    }
+
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    /**
+     * 判断映射路径是否为不含正则元字符的字面路径
+     */
+    public static boolean isLiteralPath(String url) {
+        if (url == null || url.isEmpty() || url.charAt(0) != '/') {
+            return false;
+        }
+        for (int i = 0; i < url.length(); i++) {
+            if (REGEX_META_CHARS.indexOf(url.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 将连续的"/"合并为一个，不使用正则表达式
+     */
+    public static String normalizePath(String path) {
+        if (path == null || !path.contains("//")) {
+            return path;
+        }
+        StringBuilder builder = new StringBuilder(path.length());
+        char prev = 0;
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '/' && prev == '/') {
+                continue;
+            }
+            builder.append(c);
+            prev = c;
+        }
+        return builder.toString();
+    }
+
+
+    /**
+     * 前缀树节点，每个节点对应路径中的一段
+     */
+    private static class Node {
+
+        private Map<String, Node> children;
+
+        /** 正则段子节点，按注册顺序匹配 */
+        private List<PatternChild> patternChildren;
+
+        /** 变量段子节点，匹配任意非空段 */
+        private Node variableChild;
+
+        /** 注册时创建好的匹配结果 */
+        private RouteMatch match;
+
+        /** 模板路径的变量数量 */
+        private int variableCount;
+
+        RouteMatch getOrCreateMatch() {
+            if (match == null) {
+                match = new RouteMatch(new HandlerMappingCandidates());
+            }
+            return match;
+        }
+
+        Node getChild(String segment) {
+            return children == null ? null : children.get(segment);
+        }
+
+        Node getOrCreateChild(String segment) {
+            if (children == null) {
+                children = new HashMap<>(8);
+            }
+            return children.computeIfAbsent(segment, s -> new Node());
+        }
+
+        Node getOrCreateVariableChild() {
+            if (variableChild == null) {
+                variableChild = new Node();
+            }
+            return variableChild;
+        }
+
+        Node getOrCreatePatternChild(UriTemplate.Segment segment) {
+            if (patternChildren == null) {
+                patternChildren = new ArrayList<>(2);
+            }
+            for (PatternChild child : patternChildren) {
+                if (child.segment.getPattern().pattern().equals(segment.getPattern().pattern())) {
+                    return child.node;
+                }
+            }
+            PatternChild child = new PatternChild(segment, new Node());
+            patternChildren.add(child);
+            return child.node;
+        }
+    }
+
+
+    /**
+     * 正则段子节点
+     */
+    private static class PatternChild {
+
+        private final UriTemplate.Segment segment;
+
+        private final Node node;
+
+        PatternChild(UriTemplate.Segment segment, Node node) {
+            this.segment = segment;
+            this.node = node;
+        }
+    }
+}
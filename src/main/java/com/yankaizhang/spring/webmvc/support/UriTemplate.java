@@ -0,0 +1,279 @@
+package com.yankaizhang.spring.webmvc.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 启动时解析好的URI模板，例如 /users/{id} 或者 /files/{name:[a-z]+}.{ext}<br/>
+ * 模板按"/"切分为多段：
+ * <ul>
+ * <li>字面段：直接比较字符串
+ * <li>变量段：整段只有一个没有正则的{name}，匹配任意非空段，不使用正则表达式
+ * <li>正则段：带有正则的变量或者变量和字面量混合，整段编译为一个{@link Pattern}
+ * </ul>
+ * 模板中花括号之外的"."按照字面量处理，其他正则元字符会使整个路径按照正则表达式处理
+ * @author dzzhyk
+ * @since 2026-10-18 16:31:08
+ */
+public class UriTemplate {
+
+    /** 正则表达式中的元字符 */
+    private static final String REGEX_META_CHARS = "\\^$.|?*+()[]{}";
+
+    /** 变量段的默认匹配规则 */
+    private static final String DEFAULT_VARIABLE_REGEX = "[^/]+";
+
+    private final String template;
+
+    private final Segment[] segments;
+
+    /** 所有变量名称，按照在模板中出现的顺序 */
+    private final String[] variableNames;
+
+    /** 等价的完整正则表达式 */
+    private final Pattern pattern;
+
+    private UriTemplate(String template, Segment[] segments, String[] variableNames, Pattern pattern) {
+        this.template = template;
+        this.segments = segments;
+        this.variableNames = variableNames;
+        this.pattern = pattern;
+    }
+
+    /**
+     * 解析URI模板
+     * @param url 已经规范化的映射路径
+     * @return 解析结果，不含变量或者不是合法的模板时返回null
+     */
+    public static UriTemplate parse(String url) {
+        if (url == null || url.isEmpty() || url.charAt(0) != '/' || url.indexOf('{') < 0) {
+            return null;
+        }
+        List<String> rawSegments = splitSegments(url);
+        if (rawSegments == null) {
+            return null;
+        }
+        List<Segment> segments = new ArrayList<>(rawSegments.size());
+        List<String> variableNames = new ArrayList<>();
+        StringBuilder regex = new StringBuilder(url.length() + 16);
+        for (String raw : rawSegments) {
+            Segment segment = parseSegment(raw);
+            if (segment == null) {
+                return null;
+            }
+            segments.add(segment);
+            Collections.addAll(variableNames, segment.variableNames);
+            regex.append('/').append(segment.regex);
+        }
+        if (variableNames.isEmpty()) {
+            return null;
+        }
+        return new UriTemplate(url, segments.toArray(new Segment[0]),
+                variableNames.toArray(new String[0]), Pattern.compile(regex.toString()));
+    }
+
+    /**
+     * 按照"/"切分，花括号内部的"/"不切分
+     */
+    private static List<String> splitSegments(String url) {
+        List<String> segments = new ArrayList<>();
+        int depth = 0;
+        int start = 1;
+        for (int i = 1; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}') {
+                depth--;
+            } else if (c == '/' && depth == 0) {
+                segments.add(url.substring(start, i));
+                start = i + 1;
+            }
+        }
+        if (depth != 0) {
+            return null;
+        }
+        segments.add(url.substring(start));
+        return segments;
+    }
+
+    /**
+     * 解析一段模板
+     */
+    private static Segment parseSegment(String raw) {
+        List<String> names = new ArrayList<>(2);
+        List<Integer> groups = new ArrayList<>(2);
+        StringBuilder regex = new StringBuilder(raw.length() + 8);
+        StringBuilder literal = new StringBuilder();
+        boolean customRegex = false;
+        int groupCount = 0;
+        int i = 0;
+        while (i < raw.length()) {
+            char c = raw.charAt(i);
+            if (c != '{') {
+                if (c != '.' && REGEX_META_CHARS.indexOf(c) >= 0) {
+                    // 花括号之外的正则表达式，交给正则后备层处理，模板中的"."按照字面量处理
+                    return null;
+                }
+                literal.append(c);
+                i++;
+                continue;
+            }
+            int end = findClosingBrace(raw, i);
+            if (end < 0) {
+                return null;
+            }
+            String variable = raw.substring(i + 1, end);
+            int colon = variable.indexOf(':');
+            String name = (colon < 0 ? variable : variable.substring(0, colon));
+            if (!isVariableName(name) || names.contains(name)) {
+                return null;
+            }
+            String variableRegex = DEFAULT_VARIABLE_REGEX;
+            if (colon >= 0) {
+                variableRegex = variable.substring(colon + 1);
+                customRegex = true;
+            }
+            int innerGroups;
+            try {
+                innerGroups = Pattern.compile(variableRegex).matcher("").groupCount();
+            } catch (Exception e) {
+                throw new IllegalArgumentException("URI模板 [" + raw + "] 中变量 " + name + " 的正则表达式错误", e);
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+            regex.append('(').append(variableRegex).append(')');
+            names.add(name);
+            groups.add(groupCount + 1);
+            groupCount += 1 + innerGroups;
+            i = end + 1;
+        }
+        if (names.isEmpty()) {
+            return new Segment(SegmentType.LITERAL, raw, Pattern.quote(raw), null, new String[0], null);
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        String[] variableNames = names.toArray(new String[0]);
+        if (names.size() == 1 && !customRegex && raw.length() == variableNames[0].length() + 2) {
+            return new Segment(SegmentType.VARIABLE, raw, regex.toString(), null, variableNames, null);
+        }
+        int[] groupIndexes = new int[groups.size()];
+        for (int j = 0; j < groupIndexes.length; j++) {
+            groupIndexes[j] = groups.get(j);
+        }
+        return new Segment(SegmentType.PATTERN, raw, regex.toString(),
+                Pattern.compile(regex.toString()), variableNames, groupIndexes);
+    }
+
+    private static int findClosingBrace(String raw, int open) {
+        int depth = 0;
+        for (int i = open; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 变量名称以字母或下划线开头，只包含字母、数字、下划线、"-"和"."
+     */
+    private static boolean isVariableName(String name) {
+        if (name.isEmpty() || !(Character.isLetter(name.charAt(0)) || name.charAt(0) == '_')) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public Segment[] getSegments() {
+        return segments;
+    }
+
+    public String[] getVariableNames() {
+        return variableNames;
+    }
+
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+
+    public enum SegmentType {
+        LITERAL, VARIABLE, PATTERN
+    }
+
+
+    /**
+     * 模板中的一段
+     */
+    public static final class Segment {
+
+        private final SegmentType type;
+
+        private final String text;
+
+        /** 该段等价的正则表达式 */
+        private final String regex;
+
+        /** 正则段编译好的正则表达式 */
+        private final Pattern pattern;
+
+        private final String[] variableNames;
+
+        /** 正则段中每个变量对应的分组序号 */
+        private final int[] groupIndexes;
+
+        Segment(SegmentType type, String text, String regex, Pattern pattern,
+                String[] variableNames, int[] groupIndexes) {
+            this.type = type;
+            this.text = text;
+            this.regex = regex;
+            this.pattern = pattern;
+            this.variableNames = variableNames;
+            this.groupIndexes = groupIndexes;
+        }
+
+        public SegmentType getType() {
+            return type;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public Pattern getPattern() {
+            return pattern;
+        }
+
+        public String[] getVariableNames() {
+            return variableNames;
+        }
+
+        public int[] getGroupIndexes() {
+            return groupIndexes;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.yankaizhang.spring.core.convert.support;
+
+import com.yankaizhang.spring.core.convert.ConversionFailedException;
+import com.yankaizhang.spring.core.convert.Converter;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link DefaultConversionService}的内置转换、查找缓存和自定义转换器
+ * @author dzzhyk
+ * @since 2026-10-18 20:11:30
+ */
+public class DefaultConversionServiceTest {
+
+    private final DefaultConversionService conversionService = new DefaultConversionService();
+
+    @Test
+    public void convertsBuiltInTypes() {
+        assertEquals(Integer.valueOf(42), conversionService.convert(" 42 ", int.class));
+        assertEquals(Long.valueOf(7), conversionService.convert("7", Long.class));
+        assertEquals(Boolean.TRUE, conversionService.convert("on", boolean.class));
+        assertEquals(LocalDate.of(2026, 10, 18), conversionService.convert("2026-10-18", LocalDate.class));
+        assertEquals(TimeUnit.SECONDS, conversionService.convert("SECONDS", TimeUnit.class));
+        assertEquals(Integer.valueOf(3), conversionService.convert(3L, Integer.class));
+        assertEquals("12", conversionService.convert(12, String.class));
+    }
+
+    @Test
+    public void emptyStringIsNull() {
+        assertNull(conversionService.convert(" ", Integer.class));
+        try {
+            conversionService.convert("", int.class);
+            fail("null不能转换为基本类型");
+        } catch (ConversionFailedException e) {
+            assertNull(e.getCause());
+        }
+    }
+
+    @Test
+    public void failuresAreWrapped() {
+        try {
+            conversionService.convert("abc", Integer.class);
+            fail("应该转换失败");
+        } catch (ConversionFailedException e) {
+            assertTrue(e.getCause() instanceof NumberFormatException);
+        }
+        assertFalse(conversionService.canConvert(String.class, Thread.class));
+    }
+
+    @Test
+    public void lookupsAreCachedPerSourceAndTargetType() {
+        Converter<Object, Object> converter = conversionService.getConverter(String.class, Integer.class);
+        assertSame(converter, conversionService.getConverter(String.class, Integer.class));
+        assertSame(converter, conversionService.getConverter(String.class, int.class));
+        assertNotSame(converter, conversionService.getConverter(String.class, Long.class));
+        assertNull(conversionService.getConverter(String.class, Thread.class));
+    }
+
+    @Test
+    public void registeringConverterClearsCache() {
+        assertFalse(conversionService.canConvert(String.class, Thread.class));
+        conversionService.addConverter(new StringToThreadConverter());
+        assertTrue(conversionService.canConvert(String.class, Thread.class));
+        assertEquals("worker", conversionService.convert("worker", Thread.class).getName());
+    }
+
+
+    private static final class StringToThreadConverter implements Converter<String, Thread> {
+
+        @Override
+        public Thread convert(String source) {
+            return new Thread(source);
+        }
+    }
+}
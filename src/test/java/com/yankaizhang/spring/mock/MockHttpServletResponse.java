@@ -0,0 +1,373 @@
+package com.yankaizhang.spring.mock;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.util.*;
+
+/**
+ * 在内存中模拟的响应，可以在多次调用之间复用<br/>
+ * 响应体写入一个固定大小的缓冲区，写满之后从头覆盖，只记录写出的总字节数，
+ * 这样测量结果中不包含响应体不断扩容的开销
+ * @author dzzhyk
+ * @since 2026-10-18 19:41:00
+ */
+public class MockHttpServletResponse implements HttpServletResponse {
+
+    private static final String DEFAULT_CHARSET = "ISO-8859-1";
+
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    private final ContentOutputStream outputStream = new ContentOutputStream(64 * 1024);
+
+    private PrintWriter writer;
+
+    private String writerEncoding;
+
+    private int status = SC_OK;
+
+    private String contentType;
+
+    private String characterEncoding;
+
+    private long contentLength = -1;
+
+    private boolean committed = false;
+
+    private boolean outputStreamUsed = false;
+
+    private boolean writerUsed = false;
+
+    /**
+     * 清除上一次调用的状态，保留已经创建的缓冲区和writer
+     */
+    @Override
+    public void reset() {
+        if (writer != null) {
+            writer.flush();
+        }
+        headers.clear();
+        outputStream.count = 0;
+        outputStream.total = 0;
+        writerUsed = false;
+        status = SC_OK;
+        contentType = null;
+        characterEncoding = null;
+        contentLength = -1;
+        committed = false;
+        outputStreamUsed = false;
+    }
+
+    /**
+     * 写出的响应体字节数
+     */
+    public long getContentSize() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return outputStream.total;
+    }
+
+    /**
+     * 缓冲区中的响应体，响应体超过缓冲区大小时只有最后一部分
+     */
+    public String getContentAsString() throws UnsupportedEncodingException {
+        if (writer != null) {
+            writer.flush();
+        }
+        return new String(outputStream.buffer, 0, outputStream.count, getCharacterEncoding());
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    // ---------------- 状态码和响应头 ----------------
+
+    @Override
+    public void setStatus(int sc) {
+        this.status = sc;
+    }
+
+    @Override
+    @Deprecated
+    public void setStatus(int sc, String sm) {
+        this.status = sc;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int sc) {
+        sendError(sc, null);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) {
+        this.status = sc;
+        this.committed = true;
+    }
+
+    @Override
+    public void sendRedirect(String location) {
+        this.status = SC_FOUND;
+        setHeader("Location", location);
+        this.committed = true;
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if ("Content-Type".equalsIgnoreCase(name)) {
+            setContentType(value);
+            return;
+        }
+        List<String> values = new ArrayList<>(1);
+        values.add(value);
+        headers.put(name, values);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, String.valueOf(date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, String.valueOf(date));
+    }
+
+    @Override
+    public String getHeader(String name) {
+        if ("Content-Type".equalsIgnoreCase(name)) {
+            return getContentType();
+        }
+        List<String> values = headers.get(name);
+        return (values == null ? null : values.get(0));
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return (values == null ? Collections.<String>emptyList() : values);
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return headers.keySet();
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        addHeader("Set-Cookie", cookie.getName() + "=" + cookie.getValue());
+    }
+
+    @Override
+    public String encodeURL(String url) {
+        return url;
+    }
+
+    @Override
+    public String encodeRedirectURL(String url) {
+        return url;
+    }
+
+    @Override
+    @Deprecated
+    public String encodeUrl(String url) {
+        return url;
+    }
+
+    @Override
+    @Deprecated
+    public String encodeRedirectUrl(String url) {
+        return url;
+    }
+
+    // ---------------- 内容类型和编码 ----------------
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding == null ? DEFAULT_CHARSET : characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        this.characterEncoding = charset;
+    }
+
+    @Override
+    public String getContentType() {
+        if (contentType == null) {
+            return null;
+        }
+        return characterEncoding == null ? contentType : contentType + ";charset=" + characterEncoding;
+    }
+
+    @Override
+    public void setContentType(String type) {
+        if (type == null) {
+            this.contentType = null;
+            return;
+        }
+        int index = type.toLowerCase().indexOf(";charset=");
+        if (index >= 0) {
+            this.characterEncoding = type.substring(index + 9).trim();
+            this.contentType = type.substring(0, index).trim();
+        } else {
+            this.contentType = type;
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        this.contentLength = len;
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        this.contentLength = len;
+    }
+
+    @Override
+    public void setLocale(Locale loc) {}
+
+    @Override
+    public Locale getLocale() {
+        return Locale.getDefault();
+    }
+
+    // ---------------- 响应体 ----------------
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writerUsed) {
+            throw new IllegalStateException("getWriter()已经被调用");
+        }
+        outputStreamUsed = true;
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws UnsupportedEncodingException {
+        if (outputStreamUsed) {
+            throw new IllegalStateException("getOutputStream()已经被调用");
+        }
+        String encoding = getCharacterEncoding();
+        if (writer == null || !encoding.equals(writerEncoding)) {
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, encoding));
+            writerEncoding = encoding;
+        }
+        writerUsed = true;
+        return writer;
+    }
+
+    @Override
+    public void setBufferSize(int size) {}
+
+    @Override
+    public int getBufferSize() {
+        return outputStream.buffer.length;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+        committed = true;
+    }
+
+    @Override
+    public void resetBuffer() {
+        outputStream.count = 0;
+        outputStream.total = 0;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+
+    /**
+     * 循环使用固定缓冲区的输出流
+     */
+    private class ContentOutputStream extends ServletOutputStream {
+
+        private final byte[] buffer;
+
+        private int count = 0;
+
+        private long total = 0;
+
+        ContentOutputStream(int size) {
+            this.buffer = new byte[size];
+        }
+
+        @Override
+        public void write(int b) {
+            if (count == buffer.length) {
+                count = 0;
+            }
+            buffer[count++] = (byte) b;
+            total++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            total += len;
+            while (len > 0) {
+                if (count == buffer.length) {
+                    count = 0;
+                }
+                int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() {
+            committed = true;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
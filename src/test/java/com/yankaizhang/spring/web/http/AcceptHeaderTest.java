@@ -0,0 +1,128 @@
+package com.yankaizhang.spring.web.http;
+
+import com.yankaizhang.spring.web.http.AcceptHeader.MediaRange;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link AcceptHeader}的解析和偏好排序
+ * @author dzzhyk
+ * @since 2026-10-18 20:05:09
+ */
+public class AcceptHeaderTest {
+
+    @Test
+    public void missingHeaderAcceptsAll() {
+        assertSame(AcceptHeader.ALL, AcceptHeader.parse(null));
+        assertTrue(AcceptHeader.ALL.isWildcard());
+        assertTrue(AcceptHeader.parse("*/*").isWildcard());
+        assertFalse(AcceptHeader.parse("text/html").isWildcard());
+    }
+
+    @Test
+    public void orderedByQuality() {
+        assertRanges("text/html;q=0.5, application/json, */*;q=0.1",
+                "application/json", "text/html;q=0.5", "*/*;q=0.1");
+    }
+
+    @Test
+    public void moreSpecificRangeFirstOnEqualQuality() {
+        assertRanges("*/*, text/*, text/html", "text/html", "text/*", "*/*");
+    }
+
+    @Test
+    public void originalOrderKeptOnTie() {
+        assertRanges("application/json, text/html", "application/json", "text/html");
+        assertRanges("text/html, application/json", "text/html", "application/json");
+    }
+
+    @Test
+    public void zeroQualityIsKeptLast() {
+        AcceptHeader accept = AcceptHeader.parse("text/html;q=0, */*");
+        assertRanges(accept, "*/*", "text/html;q=0.0");
+        assertEquals(0, accept.getMediaRanges().get(1).getQuality(), 0);
+    }
+
+    @Test
+    public void qualityIsClampedAndMalformedQualityIsZero() {
+        List<MediaRange> ranges = AcceptHeader.parse("text/a;q=2, text/b;q=-1, text/c;q=abc").getMediaRanges();
+        assertEquals("a", ranges.get(0).getSubtype());
+        assertEquals(1.0, ranges.get(0).getQuality(), 0);
+        assertEquals(0, ranges.get(1).getQuality(), 0);
+        assertEquals(0, ranges.get(2).getQuality(), 0);
+    }
+
+    @Test
+    public void nonFiniteQualityIsZero() {
+        List<MediaRange> ranges = AcceptHeader.parse("text/a;q=NaN, text/b;q=Infinity, text/c;q=-Infinity")
+                .getMediaRanges();
+        for (MediaRange range : ranges) {
+            assertEquals(range.toString(), 0, range.getQuality(), 0);
+        }
+    }
+
+    @Test
+    public void qualityOfMediaTypeComesFromMostSpecificRange() {
+        AcceptHeader accept = AcceptHeader.parse("application/json;q=0, text/*;q=0.5, text/html;q=0.8, */*;q=0.1");
+        assertEquals(0, accept.getQuality(MediaType.APPLICATION_JSON), 0);
+        assertEquals(0.8, accept.getQuality(MediaType.TEXT_HTML), 0);
+        assertEquals(0.5, accept.getQuality(MediaType.TEXT_PLAIN), 0);
+        assertEquals(0.1, accept.getQuality(MediaType.APPLICATION_SMILE), 0);
+
+        assertEquals(0, AcceptHeader.parse("text/html").getQuality(MediaType.APPLICATION_JSON), 0);
+        assertEquals(1.0, AcceptHeader.ALL.getQuality(MediaType.APPLICATION_JSON), 0);
+    }
+
+    @Test
+    public void caseAndWhitespaceAreIgnored() {
+        List<MediaRange> ranges = AcceptHeader.parse(" TEXT/HTML ; Q=0.3 , Application/Json").getMediaRanges();
+        assertEquals("application", ranges.get(0).getType());
+        assertEquals("json", ranges.get(0).getSubtype());
+        assertEquals("text", ranges.get(1).getType());
+        assertEquals(0.3, ranges.get(1).getQuality(), 0);
+    }
+
+    @Test
+    public void malformedRangesAreSkipped() {
+        assertRanges("html, /json, text/, text/html", "text/html");
+        assertSame(AcceptHeader.ALL, AcceptHeader.parse("html, /json"));
+        assertSame(AcceptHeader.ALL, AcceptHeader.parse(""));
+        assertRanges("*", "*/*");
+    }
+
+    @Test
+    public void parsedHeadersAreCached() {
+        assertSame(AcceptHeader.parse("application/json, text/plain"),
+                AcceptHeader.parse("application/json, text/plain"));
+    }
+
+    @Test
+    public void rangeIncludesMediaType() {
+        MediaRange text = AcceptHeader.parse("text/*").getMediaRanges().get(0);
+        assertTrue(text.includes(MediaType.TEXT_HTML));
+        assertTrue(text.includes(MediaType.TEXT_PLAIN));
+        assertFalse(text.includes(MediaType.APPLICATION_JSON));
+
+        MediaRange all = AcceptHeader.ALL.getMediaRanges().get(0);
+        assertTrue(all.includes(MediaType.APPLICATION_JSON));
+        assertFalse(all.includes(MediaType.JSON));
+    }
+
+
+    private static void assertRanges(String header, String... expected) {
+        assertRanges(AcceptHeader.parse(header), expected);
+    }
+
+    private static void assertRanges(AcceptHeader accept, String... expected) {
+        List<String> actual = new ArrayList<>();
+        for (MediaRange range : accept.getMediaRanges()) {
+            actual.add(range.toString());
+        }
+        assertEquals(Arrays.asList(expected), actual);
+    }
+}
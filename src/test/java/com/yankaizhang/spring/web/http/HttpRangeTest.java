@@ -0,0 +1,104 @@
+package com.yankaizhang.spring.web.http;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link HttpRange}的解析和范围计算
+ * @author dzzhyk
+ * @since 2026-10-18 20:02:10
+ */
+public class HttpRangeTest {
+
+    @Test
+    public void emptyHeaderHasNoRanges() {
+        assertTrue(HttpRange.parseRanges(null).isEmpty());
+        assertTrue(HttpRange.parseRanges("").isEmpty());
+    }
+
+    @Test
+    public void closedRange() {
+        HttpRange range = single("bytes=0-499");
+        assertTrue(range.isSatisfiable(1000));
+        assertEquals(0, range.getRangeStart(1000));
+        assertEquals(499, range.getRangeEnd(1000));
+    }
+
+    @Test
+    public void closedRangeIsClampedToLength() {
+        HttpRange range = single("bytes=500-1999");
+        assertEquals(500, range.getRangeStart(1000));
+        assertEquals(999, range.getRangeEnd(1000));
+    }
+
+    @Test
+    public void openEndedRange() {
+        HttpRange range = single("bytes=500-");
+        assertEquals(500, range.getRangeStart(1000));
+        assertEquals(999, range.getRangeEnd(1000));
+        assertEquals("500-", range.toString());
+    }
+
+    @Test
+    public void suffixRange() {
+        HttpRange range = single("bytes=-200");
+        assertTrue(range.isSatisfiable(1000));
+        assertEquals(800, range.getRangeStart(1000));
+        assertEquals(999, range.getRangeEnd(1000));
+        assertEquals("-200", range.toString());
+    }
+
+    @Test
+    public void suffixLongerThanResourceCoversWholeResource() {
+        HttpRange range = single("bytes=-5000");
+        assertEquals(0, range.getRangeStart(1000));
+        assertEquals(999, range.getRangeEnd(1000));
+    }
+
+    @Test
+    public void unsatisfiableRanges() {
+        assertFalse(single("bytes=1000-").isSatisfiable(1000));
+        assertFalse(single("bytes=1000-1200").isSatisfiable(1000));
+        assertFalse(single("bytes=-0").isSatisfiable(1000));
+        assertFalse(single("bytes=-10").isSatisfiable(0));
+    }
+
+    @Test
+    public void multipleRangesKeepOrder() {
+        List<HttpRange> ranges = HttpRange.parseRanges("bytes=0-9, 20-29,-5");
+        assertEquals(3, ranges.size());
+        assertEquals("0-9", ranges.get(0).toString());
+        assertEquals("20-29", ranges.get(1).toString());
+        assertEquals("-5", ranges.get(2).toString());
+    }
+
+    @Test
+    public void emptyListElementsAreIgnored() {
+        List<HttpRange> ranges = HttpRange.parseRanges("bytes=0-1, ,5-6,");
+        assertEquals(2, ranges.size());
+        assertEquals("5-6", ranges.get(1).toString());
+    }
+
+    @Test
+    public void malformedHeadersAreRejected() {
+        String[] headers = {"items=0-1", "bytes=", "bytes=5", "bytes=-", "bytes=9-3", "bytes=a-b",
+                "bytes=1-2-3", "bytes=--5", "bytes=+1-2", "bytes= , "};
+        for (String header : headers) {
+            try {
+                HttpRange.parseRanges(header);
+                fail("应当拒绝 " + header);
+            } catch (IllegalArgumentException expected) {
+                // 期望的异常
+            }
+        }
+    }
+
+    private static HttpRange single(String header) {
+        List<HttpRange> ranges = HttpRange.parseRanges(header);
+        assertEquals(1, ranges.size());
+        return ranges.get(0);
+    }
+}
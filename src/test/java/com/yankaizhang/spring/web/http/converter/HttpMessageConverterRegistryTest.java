@@ -0,0 +1,54 @@
+package com.yankaizhang.spring.web.http.converter;
+
+import com.yankaizhang.spring.web.http.AcceptHeader;
+import com.yankaizhang.spring.web.http.MediaType;
+import com.yankaizhang.spring.web.http.converter.HttpMessageConverterRegistry.NegotiatedConverter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link HttpMessageConverterRegistry}的内容协商
+ * @author dzzhyk
+ * @since 2026-10-18 20:09:14
+ */
+public class HttpMessageConverterRegistryTest {
+
+    private final HttpMessageConverterRegistry registry = new HttpMessageConverterRegistry();
+
+    @Test
+    public void followsClientPreference() {
+        assertMediaTypes(Map.class, "application/x-jackson-smile, application/json;q=0.5",
+                "application/x-jackson-smile", "application/json");
+        assertMediaTypes(String.class, "text/plain, */*;q=0.1",
+                "text/plain", "application/json", "application/x-jackson-smile");
+    }
+
+    @Test
+    public void zeroQualityExcludesType() {
+        assertMediaTypes(Map.class, "application/json;q=0, */*", "application/x-jackson-smile");
+        assertMediaTypes(String.class, "application/json;q=0, */*", "application/x-jackson-smile", "text/plain");
+        assertMediaTypes(String.class, "*/*;q=0", new String[0]);
+    }
+
+    @Test
+    public void nonFiniteQualityExcludesType() {
+        assertMediaTypes(Map.class, "application/json;q=NaN, */*", "application/x-jackson-smile");
+        assertMediaTypes(Map.class, "application/json;q=Infinity", new String[0]);
+    }
+
+
+    private void assertMediaTypes(Class<?> clazz, String accept, String... expected) {
+        List<String> actual = new ArrayList<>();
+        for (NegotiatedConverter candidate : registry.getWriteConverters(clazz, AcceptHeader.parse(accept))) {
+            MediaType mediaType = candidate.getMediaType();
+            actual.add(mediaType.getType() + "/" + mediaType.getSubtype());
+        }
+        assertEquals(accept, Arrays.asList(expected), actual);
+    }
+}
@@ -0,0 +1,78 @@
+package com.yankaizhang.spring.web.http.converter;
+
+import com.yankaizhang.spring.mock.MockHttpServletRequest;
+import com.yankaizhang.spring.web.http.PayloadTooLargeException;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link StringConverter}读取请求体和请求体大小限制
+ * @author dzzhyk
+ * @since 2026-10-18 20:09:14
+ */
+public class StringConverterTest {
+
+    private final StringConverter converter = new StringConverter();
+
+    @Test
+    public void readsBody() throws Exception {
+        assertEquals("你好", converter.read(String.class, request("你好".getBytes(StandardCharsets.UTF_8), false)));
+        assertEquals("", converter.read(String.class, request(new byte[0], false)));
+    }
+
+    @Test
+    public void declaredLengthOverLimitIsRejected() throws Exception {
+        converter.setMaxBodySize(16);
+        assertEquals(16, ((String) converter.read(String.class, request(body(16), false))).length());
+        assertTooLarge(request(body(17), false));
+    }
+
+    @Test
+    public void bodyOverLimitIsRejectedWithoutContentLength() {
+        converter.setMaxBodySize(16);
+        assertTooLarge(request(body(17), true));
+        // Content-Length只是提示，超过上限的请求体在读取时被拒绝
+        converter.setMaxBodySize(5000);
+        assertTooLarge(request(body(5001), true));
+    }
+
+
+    private void assertTooLarge(MockHttpServletRequest request) {
+        try {
+            converter.read(String.class, request);
+            fail("请求体应该超出限制");
+        } catch (PayloadTooLargeException e) {
+            assertEquals(converter.getMaxBodySize(), e.getMaxSize());
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static byte[] body(int length) {
+        byte[] content = new byte[length];
+        Arrays.fill(content, (byte) 'a');
+        return content;
+    }
+
+    /**
+     * @param hideLength 为true时不提供Content-Length，和分块传输的请求一样
+     */
+    private static MockHttpServletRequest request(byte[] content, boolean hideLength) {
+        MockHttpServletRequest request = hideLength ? new MockHttpServletRequest("POST", "/") {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        } : new MockHttpServletRequest("POST", "/");
+        return request.setContent(content, "text/plain");
+    }
+}
@@ -0,0 +1,67 @@
+package com.yankaizhang.spring.web.method.support;
+
+import com.yankaizhang.spring.web.http.converter.HttpMessageConverterRegistry;
+import com.yankaizhang.spring.web.method.HandlerMethod;
+import com.yankaizhang.spring.webmvc.HandlerAdapter;
+import com.yankaizhang.spring.webmvc.annotation.RequestParam;
+import com.yankaizhang.spring.webmvc.async.WebAsyncManager;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link InvocableHandlerMethod}生成调用计划
+ * @author dzzhyk
+ * @since 2026-10-18 20:10:47
+ */
+public class InvocableHandlerMethodTest {
+
+    private final WebAsyncManager asyncManager = new WebAsyncManager();
+
+    private final HandlerAdapter handlerAdapter = new HandlerAdapter(new HttpMessageConverterRegistry(), asyncManager);
+
+    @After
+    public void shutdown() {
+        asyncManager.shutdown();
+    }
+
+    @Test
+    public void resolvableParameters() throws Exception {
+        InvocableHandlerMethod method = create("resolvable", String.class, HttpServletRequest.class);
+        assertEquals(2, method.getMethodParameters().length);
+    }
+
+    @Test
+    public void unresolvableParameterFailsFast() throws Exception {
+        try {
+            create("unresolvable", String.class, Thread.class);
+            fail("没有解析器的参数应该在生成调用计划时失败");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Handlers.unresolvable("));
+            assertTrue(e.getMessage(), e.getMessage().contains("参数位置 1"));
+            assertTrue(e.getMessage(), e.getMessage().contains("java.lang.Thread"));
+        }
+    }
+
+
+    private InvocableHandlerMethod create(String name, Class<?>... parameterTypes) throws Exception {
+        Handlers handlers = new Handlers();
+        return handlerAdapter.createInvocableMethod(
+                new HandlerMethod(handlers, Handlers.class.getMethod(name, parameterTypes)));
+    }
+
+
+    public static class Handlers {
+
+        public String resolvable(@RequestParam("id") String id, HttpServletRequest request) {
+            return id;
+        }
+
+        public String unresolvable(@RequestParam("id") String id, Thread thread) {
+            return id;
+        }
+    }
+}
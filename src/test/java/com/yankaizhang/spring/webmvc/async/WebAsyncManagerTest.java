@@ -0,0 +1,200 @@
+package com.yankaizhang.spring.webmvc.async;
+
+import com.yankaizhang.spring.webmvc.async.WebAsyncManager.AsyncResult;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletRequest;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link WebAsyncManager}的结果派发、超时和客户端断开
+ * @author dzzhyk
+ * @since 2026-10-18 20:08:36
+ */
+public class WebAsyncManagerTest {
+
+    private final WebAsyncManager asyncManager = new WebAsyncManager();
+
+    private final TestAsyncContext asyncContext = new TestAsyncContext();
+
+    @After
+    public void shutdown() {
+        asyncManager.shutdown();
+    }
+
+    @Test
+    public void completedFutureIsDispatched() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        asyncManager.startAsyncProcessing(asyncContext.request, null, future);
+        assertEquals(0, asyncContext.dispatchCount);
+
+        future.complete("ok");
+        assertEquals(1, asyncContext.dispatchCount);
+        assertEquals("ok", asyncContext.result().getValue());
+    }
+
+    @Test
+    public void futureTimeoutDispatchesTimeoutAndKeepsControllerFuture() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        asyncManager.startAsyncProcessing(asyncContext.request, null, future);
+
+        asyncContext.fireTimeout();
+        assertEquals(1, asyncContext.dispatchCount);
+        assertTrue(asyncContext.result().getError() instanceof AsyncRequestTimeoutException);
+        // controller返回的future可能还被别处使用，不能被取消
+        assertFalse(future.isCancelled());
+
+        future.complete("late");
+        assertEquals(1, asyncContext.dispatchCount);
+    }
+
+    @Test
+    public void callableTimeoutDispatchesTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        Callable<String> callable = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+                return "late";
+            } finally {
+                finished.countDown();
+            }
+        };
+        asyncManager.startAsyncProcessing(asyncContext.request, null, callable);
+
+        asyncContext.fireTimeout();
+        assertEquals(1, asyncContext.dispatchCount);
+        assertTrue(asyncContext.result().getError() instanceof AsyncRequestTimeoutException);
+
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(1, asyncContext.dispatchCount);
+    }
+
+    @Test
+    public void deferredResultTimeoutUsesTimeoutResult() {
+        DeferredResult<String> deferredResult = new DeferredResult<>(1000L, "fallback");
+        asyncManager.startAsyncProcessing(asyncContext.request, null, deferredResult);
+        assertEquals(1000L, asyncContext.timeout);
+
+        asyncContext.fireTimeout();
+        assertEquals(1, asyncContext.dispatchCount);
+        assertEquals("fallback", asyncContext.result().getValue());
+    }
+
+    @Test
+    public void errorCompletesWithoutDispatch() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        asyncManager.startAsyncProcessing(asyncContext.request, null, future);
+
+        asyncContext.fireError();
+        assertTrue(asyncContext.completed);
+        assertFalse(future.isCancelled());
+
+        future.complete("ignored");
+        assertEquals(0, asyncContext.dispatchCount);
+    }
+
+
+    /**
+     * 只实现异步处理用到的方法，超时和错误事件由测试主动触发
+     */
+    private static final class TestAsyncContext {
+
+        private final Map<String, Object> attributes = new HashMap<>();
+
+        private final List<AsyncListener> listeners = new ArrayList<>();
+
+        private AsyncContext context;
+
+        private final ServletRequest request;
+
+        private int dispatchCount;
+
+        private boolean completed;
+
+        private long timeout;
+
+        TestAsyncContext() {
+            ClassLoader classLoader = getClass().getClassLoader();
+            request = (ServletRequest) Proxy.newProxyInstance(classLoader, new Class<?>[]{ServletRequest.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "startAsync":
+                                return this.context;
+                            case "setAttribute":
+                                attributes.put((String) args[0], args[1]);
+                                return null;
+                            case "getAttribute":
+                                return attributes.get(args[0]);
+                            case "removeAttribute":
+                                attributes.remove(args[0]);
+                                return null;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+            context = (AsyncContext) Proxy.newProxyInstance(classLoader, new Class<?>[]{AsyncContext.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getRequest":
+                                return request;
+                            case "getResponse":
+                                return null;
+                            case "setTimeout":
+                                timeout = (Long) args[0];
+                                return null;
+                            case "addListener":
+                                listeners.add((AsyncListener) args[0]);
+                                return null;
+                            case "dispatch":
+                                dispatchCount++;
+                                return null;
+                            case "complete":
+                                completed = true;
+                                return null;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        AsyncResult result() {
+            return WebAsyncManager.getAsyncResult(request);
+        }
+
+        void fireTimeout() {
+            for (AsyncListener listener : listeners) {
+                try {
+                    listener.onTimeout(new AsyncEvent(context));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        void fireError() {
+            for (AsyncListener listener : listeners) {
+                try {
+                    listener.onError(new AsyncEvent(context));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+}
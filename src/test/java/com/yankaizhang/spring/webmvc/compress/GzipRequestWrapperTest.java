@@ -0,0 +1,101 @@
+package com.yankaizhang.spring.webmvc.compress;
+
+import com.yankaizhang.spring.mock.MockHttpServletRequest;
+import com.yankaizhang.spring.web.http.PayloadTooLargeException;
+import com.yankaizhang.spring.web.http.converter.JsonConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link GzipRequestWrapper}解压请求体和解压大小限制
+ * @author dzzhyk
+ * @since 2026-10-18 20:10:02
+ */
+public class GzipRequestWrapperTest {
+
+    @Test
+    public void inflatesBody() throws Exception {
+        GzipRequestWrapper request = wrap("hello gzip".getBytes(StandardCharsets.UTF_8), 10);
+        assertEquals(-1, request.getContentLength());
+        assertEquals("hello gzip", new String(readAll(request.getInputStream()), StandardCharsets.UTF_8));
+        assertTrue(request.getInputStream().isFinished());
+    }
+
+    @Test
+    public void inflatedSizeOverLimitIsRejected() throws Exception {
+        // 1MB的0压缩之后只有1KB左右
+        GzipRequestWrapper request = wrap(new byte[1024 * 1024], 64 * 1024);
+        InputStream in = request.getInputStream();
+        try {
+            readAll(in);
+            fail("解压之后的请求体应该超出限制");
+        } catch (PayloadTooLargeException e) {
+            assertEquals(64 * 1024, e.getMaxSize());
+        }
+        // 超出之后继续读取也会失败
+        try {
+            in.read();
+            fail("超出限制之后不应该继续读取");
+        } catch (PayloadTooLargeException e) {
+            assertEquals(64 * 1024, e.getMaxSize());
+        }
+    }
+
+    @Test
+    public void byteByByteReadsAreCounted() throws Exception {
+        InputStream in = wrap(new byte[16], 8).getInputStream();
+        for (int i = 0; i < 8; i++) {
+            assertEquals(0, in.read());
+        }
+        try {
+            in.read();
+            fail("第9个字节应该超出限制");
+        } catch (PayloadTooLargeException e) {
+            assertEquals(8, e.getMaxSize());
+        }
+    }
+
+    @Test
+    public void limitFailureReachesJsonReader() throws Exception {
+        byte[] json = "{\"name\":\"aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa\"}".getBytes(StandardCharsets.UTF_8);
+        JsonConverter converter = new JsonConverter(new ObjectMapper());
+        assertEquals(1, ((Map<?, ?>) converter.read(Map.class, wrap(json, json.length))).size());
+        try {
+            converter.read(Map.class, wrap(json, 16));
+            fail("解压之后的请求体应该超出限制");
+        } catch (PayloadTooLargeException e) {
+            assertEquals(16, e.getMaxSize());
+        }
+    }
+
+
+    private static GzipRequestWrapper wrap(byte[] content, long maxInflatedSize) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(content);
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/")
+                .setContent(compressed.toByteArray(), "application/json")
+                .addHeader("Content-Encoding", "gzip");
+        return new GzipRequestWrapper(request, maxInflatedSize);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
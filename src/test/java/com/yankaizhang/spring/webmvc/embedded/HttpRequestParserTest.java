@@ -0,0 +1,250 @@
+package com.yankaizhang.spring.webmvc.embedded;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link HttpRequestParser}的请求解析、请求体分帧和各种错误请求
+ * @author dzzhyk
+ * @since 2026-10-18 20:05:52
+ */
+public class HttpRequestParserTest {
+
+    private int maxHeaderSize = 1024;
+
+    private HttpRequestParser parser = new HttpRequestParser(maxHeaderSize, 1024);
+
+    @Test
+    public void simpleGet() throws Exception {
+        ByteBuffer buffer = bytes("GET /a/b?x=1&y=2 HTTP/1.1\r\nHost: localhost\r\nX-Test:  v \r\n\r\n");
+        EmbeddedHttpServletRequest request = parser.parse(buffer);
+        assertNotNull(request);
+        assertEquals("GET", request.getMethod());
+        assertEquals("/a/b", request.getRequestURI());
+        assertEquals("x=1&y=2", request.getQueryString());
+        assertEquals("HTTP/1.1", request.getProtocol());
+        assertEquals("localhost", request.getHeader("HOST"));
+        assertEquals("v", request.getHeader("x-test"));
+        assertEquals(0, request.getContentLength());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void absoluteFormTarget() throws Exception {
+        EmbeddedHttpServletRequest request = parser.parse(bytes("GET http://localhost:8080/p?q HTTP/1.1\r\n\r\n"));
+        assertEquals("/p", request.getRequestURI());
+        assertEquals("q", request.getQueryString());
+    }
+
+    @Test
+    public void pipelinedRequests() throws Exception {
+        ByteBuffer buffer = bytes("GET /1 HTTP/1.1\r\n\r\n" +
+                "POST /2 HTTP/1.1\r\nContent-Length: 3\r\n\r\nabc" +
+                "\r\nGET /3 HTTP/1.1\r\n\r\n");
+        assertEquals("/1", parser.parse(buffer).getRequestURI());
+        EmbeddedHttpServletRequest second = parser.parse(buffer);
+        assertEquals("/2", second.getRequestURI());
+        assertEquals("abc", body(second));
+        // 请求之间多余的空行被跳过
+        assertEquals("/3", parser.parse(buffer).getRequestURI());
+        assertNull(parser.parse(buffer));
+    }
+
+    @Test
+    public void incrementalContentLengthBody() throws Exception {
+        EmbeddedHttpServletRequest request = parseByteByByte(
+                "POST /upload HTTP/1.1\r\nContent-Length: 11\r\n\r\nhello world");
+        assertEquals("hello world", body(request));
+        assertEquals(11, request.getContentLength());
+    }
+
+    @Test
+    public void bodyLargerThanInitialBuffer() throws Exception {
+        byte[] content = new byte[20000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        parser = new HttpRequestParser(1024, 1 << 20);
+        assertNull(parser.parse(bytes("POST / HTTP/1.1\r\nContent-Length: 20000\r\n\r\n")));
+        EmbeddedHttpServletRequest request = null;
+        for (int offset = 0; offset < content.length; offset += 1000) {
+            assertNull(request);
+            request = parser.parse(ByteBuffer.wrap(content, offset, 1000));
+        }
+        assertNotNull(request);
+        assertEquals(new String(content, StandardCharsets.ISO_8859_1), body(request));
+    }
+
+    @Test
+    public void declaredLengthIsNotAllocatedUpFront() throws Exception {
+        // 只声明了很大的Content-Length，实际没有发送数据时不应该分配对应大小的内存
+        parser = new HttpRequestParser(1024, Long.MAX_VALUE);
+        assertNull(parser.parse(bytes("POST / HTTP/1.1\r\nContent-Length: 2000000000\r\n\r\nabc")));
+        // 超出数组长度的请求体即使没有配置上限也不能接受
+        try {
+            new HttpRequestParser(1024, Long.MAX_VALUE)
+                    .parse(bytes("POST / HTTP/1.1\r\nContent-Length: 3000000000\r\n\r\n"));
+            fail("请求体长度超出数组长度");
+        } catch (HttpParseException e) {
+            assertEquals(413, e.getStatus());
+        }
+    }
+
+    @Test
+    public void chunkedBody() throws Exception {
+        String chunked = "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n" +
+                "4\r\nWiki\r\n5;name=value\r\npedia\r\nA\r\n in chunks\r\n0\r\nX-Trailer: ignored\r\n\r\n";
+        assertEquals("Wikipedia in chunks", body(parser.parse(bytes(chunked))));
+        assertEquals("Wikipedia in chunks", body(parseByteByByte(chunked)));
+    }
+
+    @Test
+    public void chunkedAfterOtherCodings() throws Exception {
+        EmbeddedHttpServletRequest request = parser.parse(bytes(
+                "POST / HTTP/1.1\r\nTransfer-Encoding: gzip, chunked\r\n\r\n0\r\n\r\n"));
+        assertNotNull(request);
+    }
+
+    @Test
+    public void headerTooLarge() {
+        maxHeaderSize = 64;
+        assertStatus(431, "GET / HTTP/1.1\r\nX-Long: " + repeat('a', 64));
+        assertStatus(431, "GET / HTTP/1.1\r\nX-Long: " + repeat('a', 64) + "\r\n\r\n");
+    }
+
+    @Test
+    public void bodyTooLarge() {
+        assertStatus(413, "POST / HTTP/1.1\r\nContent-Length: 1025\r\n\r\n");
+        assertStatus(413, "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n401\r\n");
+        assertStatus(413, "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n" +
+                "200\r\n" + repeat('a', 512) + "\r\n201\r\n");
+    }
+
+    @Test
+    public void transferEncodingWithContentLengthIsRejected() {
+        assertStatus(400, "POST / HTTP/1.1\r\nContent-Length: 5\r\nTransfer-Encoding: chunked\r\n\r\n");
+        assertStatus(400, "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\nContent-Length: 0\r\n\r\n");
+    }
+
+    @Test
+    public void differingContentLengthsAreRejected() {
+        assertStatus(400, "POST / HTTP/1.1\r\nContent-Length: 5\r\nContent-Length: 6\r\n\r\nhello!");
+        assertStatus(400, "POST / HTTP/1.1\r\nContent-Length: 5, 6\r\n\r\nhello!");
+    }
+
+    @Test
+    public void identicalContentLengthsAreAccepted() throws Exception {
+        assertEquals("hello", body(parser.parse(bytes(
+                "POST / HTTP/1.1\r\nContent-Length: 5\r\nContent-Length: 5\r\n\r\nhello"))));
+        assertEquals("hello", body(parser.parse(bytes(
+                "POST / HTTP/1.1\r\nContent-Length: 5, 5\r\n\r\nhello"))));
+    }
+
+    @Test
+    public void malformedContentLength() {
+        assertStatus(400, "POST / HTTP/1.1\r\nContent-Length: +5\r\n\r\nhello");
+        assertStatus(400, "POST / HTTP/1.1\r\nContent-Length: -1\r\n\r\n");
+        assertStatus(400, "POST / HTTP/1.1\r\nContent-Length: 0x5\r\n\r\n");
+        assertStatus(400, "POST / HTTP/1.1\r\nContent-Length: \r\n\r\n");
+        assertStatus(400, "POST / HTTP/1.1\r\nContent-Length: 5,\r\n\r\n");
+        assertStatus(400, "POST / HTTP/1.1\r\nContent-Length: 1234567890123456789\r\n\r\n");
+    }
+
+    @Test
+    public void malformedChunks() {
+        String head = "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n";
+        assertStatus(400, head + "zz\r\n");
+        assertStatus(400, head + "+a\r\n");
+        assertStatus(400, head + "-1\r\n");
+        assertStatus(400, head + "\r\n");
+        assertStatus(400, head + "3\r\nabcde\r\n");
+    }
+
+    @Test
+    public void unsupportedTransferEncoding() {
+        assertStatus(501, "POST / HTTP/1.1\r\nTransfer-Encoding: gzip\r\n\r\n");
+    }
+
+    @Test
+    public void malformedRequestLineOrHeaders() {
+        assertStatus(400, "GET /\r\n\r\n");
+        assertStatus(400, "GET / HTTP/2.0\r\n\r\n");
+        assertStatus(400, "GET / HTTP/1.1\r\nNoColon\r\n\r\n");
+        assertStatus(400, "GET / HTTP/1.1\r\nX-A: 1\r\n folded\r\n\r\n");
+    }
+
+    @Test
+    public void expectContinue() throws Exception {
+        assertNull(parser.parse(bytes("POST / HTTP/1.1\r\nExpect: 100-continue\r\nContent-Length: 5\r\n\r\n")));
+        assertTrue(parser.takeExpectContinue());
+        assertFalse(parser.takeExpectContinue());
+
+        parser = new HttpRequestParser(1024, 1024);
+        parser.parse(bytes("POST / HTTP/1.1\r\nExpect: 100-continue\r\nContent-Length: 0\r\n\r\n"));
+        assertFalse(parser.takeExpectContinue());
+
+        parser = new HttpRequestParser(1024, 1024);
+        parser.parse(bytes("POST / HTTP/1.0\r\nExpect: 100-continue\r\nContent-Length: 5\r\n\r\n"));
+        assertFalse(parser.takeExpectContinue());
+    }
+
+
+    /**
+     * 每次只多给一个字节，模拟网络上一点一点到达的数据
+     */
+    private EmbeddedHttpServletRequest parseByteByByte(String text) throws HttpParseException {
+        byte[] data = text.getBytes(StandardCharsets.ISO_8859_1);
+        ByteBuffer buffer = ByteBuffer.allocate(data.length);
+        EmbeddedHttpServletRequest request = null;
+        for (int i = 0; i < data.length; i++) {
+            assertNull("第 " + i + " 个字节之前就解析出了请求", request);
+            buffer.put(data[i]);
+            buffer.flip();
+            request = parser.parse(buffer);
+            buffer.compact();
+        }
+        assertNotNull(request);
+        return request;
+    }
+
+    /**
+     * 解析失败之后连接会被关闭，每个错误请求使用新的解析器
+     */
+    private void assertStatus(int status, String text) {
+        try {
+            EmbeddedHttpServletRequest request = new HttpRequestParser(maxHeaderSize, 1024).parse(bytes(text));
+            fail("应该解析失败，实际得到 " + (request == null ? "null" : request.getRequestURI()));
+        } catch (HttpParseException e) {
+            assertEquals(e.getMessage(), status, e.getStatus());
+        }
+    }
+
+    private static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static String body(EmbeddedHttpServletRequest request) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        InputStream in = request.getInputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            out.write(b);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,78 @@
+package com.yankaizhang.spring.webmvc.multipart.support;
+
+import org.apache.commons.fileupload.disk.DiskFileItem;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link CommonsMultipartFile}转存文件之后的状态
+ * @author dzzhyk
+ * @since 2026-10-18 20:12:15
+ */
+public class CommonsMultipartFileTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sizeIsKeptAfterMove() throws Exception {
+        CommonsMultipartFile file = createFile("hello upload", 0);
+        assertEquals(12, file.getSize());
+
+        Path dest = folder.getRoot().toPath().resolve("dest.txt");
+        file.transferTo(dest);
+        assertEquals("hello upload", new String(Files.readAllBytes(dest), StandardCharsets.UTF_8));
+        assertEquals(12, file.getSize());
+        assertFalse(file.isEmpty());
+        assertEquals("a.txt", file.getOriginalFilename());
+    }
+
+    @Test
+    public void contentCannotBeReadAfterMove() throws Exception {
+        CommonsMultipartFile file = createFile("hello upload", 0);
+        file.transferTo(folder.getRoot().toPath().resolve("dest.txt"));
+        try {
+            file.getBytes();
+            fail("移动之后不能再读取内容");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("a.txt"));
+        }
+        try {
+            file.getInputStream();
+            fail("移动之后不能再读取内容");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("a.txt"));
+        }
+    }
+
+    @Test
+    public void inMemoryFileCanBeTransferredRepeatedly() throws Exception {
+        CommonsMultipartFile file = createFile("small", 1024);
+        file.transferTo(folder.getRoot().toPath().resolve("first.txt"));
+        file.transferTo(folder.getRoot().toPath().resolve("second.txt"));
+        assertEquals("small", new String(file.getBytes(), StandardCharsets.UTF_8));
+        assertEquals(5, file.getSize());
+    }
+
+
+    /**
+     * @param sizeThreshold 超过这个字节数的内容暂存到磁盘
+     */
+    private CommonsMultipartFile createFile(String content, int sizeThreshold) throws IOException {
+        DiskFileItem fileItem = new DiskFileItem("file", "text/plain", false, "a.txt",
+                sizeThreshold, folder.newFolder());
+        try (OutputStream out = fileItem.getOutputStream()) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return new CommonsMultipartFile(fileItem);
+    }
+}
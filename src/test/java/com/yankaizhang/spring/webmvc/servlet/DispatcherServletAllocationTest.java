@@ -0,0 +1,197 @@
+package com.yankaizhang.spring.webmvc.servlet;
+
+import com.yankaizhang.spring.context.annotation.Controller;
+import com.yankaizhang.spring.context.impl.AnnotationConfigApplicationContext;
+import com.yankaizhang.spring.mock.MockHttpServletRequest;
+import com.yankaizhang.spring.mock.MockHttpServletResponse;
+import com.yankaizhang.spring.webmvc.annotation.PathVariable;
+import com.yankaizhang.spring.webmvc.annotation.RequestMapping;
+import com.yankaizhang.spring.webmvc.annotation.RequestParam;
+import com.yankaizhang.spring.webmvc.annotation.ResponseBody;
+import com.yankaizhang.spring.webmvc.embedded.EmbeddedServletContext;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 请求处理流程的内存分配回归测试<br/>
+ * 预热之后用{@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}统计当前线程
+ * 处理一个请求平均分配的字节数，防止请求路径上重新出现不必要的对象分配；
+ * 测量期间框架日志调到INFO级别，和生产环境一致，JVM不支持按线程统计分配时跳过
+ * @author dzzhyk
+ * @since 2026-10-18 20:07:40
+ */
+public class DispatcherServletAllocationTest {
+
+    private static final int WARMUP_REQUESTS = 20000;
+
+    private static final int MEASURED_REQUESTS = 10000;
+
+    private com.sun.management.ThreadMXBean threadMXBean;
+
+    private DispatcherServlet servlet;
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private final Logger frameworkLogger = (Logger) LoggerFactory.getLogger("com.yankaizhang.spring");
+
+    private Level originalLevel;
+
+    @Before
+    public void setup() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        Properties properties = new Properties();
+        properties.setProperty("metrics.jmx.enabled", "false");
+        servlet = createDispatcherServlet(properties);
+
+        originalLevel = frameworkLogger.getLevel();
+        frameworkLogger.setLevel(Level.INFO);
+    }
+
+    @After
+    public void destroy() {
+        if (servlet != null) {
+            frameworkLogger.setLevel(originalLevel);
+            servlet.destroy();
+        }
+    }
+
+    @Test
+    public void stringResponse() throws Exception {
+        MockHttpServletRequest request = createRequest("GET", "/alloc/ping");
+        assertEquals("\"pong\"", dispatch(request));
+        assertAllocatedBytesPerRequest(request, 1024);
+    }
+
+    @Test
+    public void jsonResponseWithUriVariable() throws Exception {
+        MockHttpServletRequest request = createRequest("GET", "/alloc/items/42");
+        assertEquals("{\"id\":42,\"name\":\"item\"}", dispatch(request));
+        assertAllocatedBytesPerRequest(request, 2560);
+    }
+
+    @Test
+    public void jsonResponseWithRequestParam() throws Exception {
+        MockHttpServletRequest request = createRequest("GET", "/alloc/items").setQueryString("id=7");
+        assertEquals("{\"id\":7,\"name\":\"item\"}", dispatch(request));
+        assertAllocatedBytesPerRequest(request, 1536);
+    }
+
+
+    /**
+     * 预热之后测量平均每个请求分配的字节数<br/>
+     * 各个请求的上限大约是JDK 17上实测值的两倍（440、1200、750字节），留出不同JDK之间的差异
+     */
+    private void assertAllocatedBytesPerRequest(MockHttpServletRequest request, long maxBytes) throws Exception {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            service(request);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            service(request);
+        }
+        long bytesPerRequest = (threadMXBean.getThreadAllocatedBytes(threadId) - before) / MEASURED_REQUESTS;
+        assertEquals(200, response.getStatus());
+        assertTrue(request.getRequestURI() + " 每个请求分配 " + bytesPerRequest + " 字节，超过上限 " + maxBytes,
+                bytesPerRequest <= maxBytes);
+    }
+
+    private void service(MockHttpServletRequest request) throws Exception {
+        request.reset();
+        response.reset();
+        servlet.service(request, response);
+    }
+
+    private String dispatch(MockHttpServletRequest request) throws Exception {
+        service(request);
+        assertEquals(200, response.getStatus());
+        return response.getContentAsString();
+    }
+
+    private MockHttpServletRequest createRequest(String method, String uri) {
+        return new MockHttpServletRequest(method, uri)
+                .setServletContext(servlet.getServletContext())
+                .addHeader("Accept", "application/json");
+    }
+
+    private static DispatcherServlet createDispatcherServlet(Properties properties) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(AllocationController.class);
+        DispatcherServlet servlet = new DispatcherServlet(context, properties);
+        ServletContext servletContext = new EmbeddedServletContext("", new File(System.getProperty("java.io.tmpdir")));
+        servlet.init(new ServletConfig() {
+            @Override
+            public String getServletName() {
+                return "dispatcherServlet";
+            }
+
+            @Override
+            public ServletContext getServletContext() {
+                return servletContext;
+            }
+
+            @Override
+            public String getInitParameter(String name) {
+                return null;
+            }
+
+            @Override
+            public Enumeration<String> getInitParameterNames() {
+                return Collections.emptyEnumeration();
+            }
+        });
+        return servlet;
+    }
+
+
+    @Controller
+    @RequestMapping("/alloc")
+    public static class AllocationController {
+
+        @RequestMapping("/ping")
+        @ResponseBody
+        public String ping() {
+            return "pong";
+        }
+
+        @RequestMapping("/items/{id}")
+        @ResponseBody
+        public Map<String, Object> item(@PathVariable("id") int id) {
+            return createItem(id);
+        }
+
+        @RequestMapping("/items")
+        @ResponseBody
+        public Map<String, Object> itemByParam(@RequestParam("id") int id) {
+            return createItem(id);
+        }
+
+        private static Map<String, Object> createItem(int id) {
+            Map<String, Object> item = new LinkedHashMap<>(4);
+            item.put("id", id);
+            item.put("name", "item");
+            return item;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.yankaizhang.spring.webmvc.support;
+
+import com.yankaizhang.spring.web.http.HttpMethod;
+import com.yankaizhang.spring.web.method.HandlerMethod;
+import com.yankaizhang.spring.webmvc.HandlerMapping;
+import com.yankaizhang.spring.webmvc.annotation.RequestMapping;
+import com.yankaizhang.spring.webmvc.condition.RequestConditionException;
+import com.yankaizhang.spring.webmvc.condition.RequestMappingInfo;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link HandlerMappingCandidates}按请求方法分组和按条件选择映射
+ * @author dzzhyk
+ * @since 2026-10-18 20:04:25
+ */
+public class HandlerMappingCandidatesTest {
+
+    private final Handlers handlers = new Handlers();
+
+    private final HandlerMappingCandidates candidates = new HandlerMappingCandidates();
+
+    @Test
+    public void mappingWithoutMethodsAcceptsAnyMethod() throws Exception {
+        HandlerMapping any = add("any");
+        assertSame(any, select(request("GET")));
+        assertSame(any, select(request("DELETE")));
+        assertEquals(EnumSet.allOf(HttpMethod.class), candidates.getAllowedMethods());
+    }
+
+    @Test
+    public void selectsByMethod() throws Exception {
+        HandlerMapping get = add("get");
+        HandlerMapping post = add("post");
+        assertSame(get, select(request("GET")));
+        assertSame(post, select(request("POST")));
+    }
+
+    @Test
+    public void headIsServedByGet() throws Exception {
+        HandlerMapping get = add("get");
+        assertSame(get, select(request("HEAD")));
+        assertTrue(candidates.getAllowedMethods().contains(HttpMethod.HEAD));
+    }
+
+    @Test
+    public void unsupportedMethodReportsAllowedMethods() throws Exception {
+        add("get");
+        add("post");
+        RequestConditionException e = selectFailure(request("PUT"));
+        assertEquals(405, e.getStatus());
+        assertEquals(EnumSet.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.POST), e.getAllowedMethods());
+
+        assertEquals(405, selectFailure(request("BREW")).getStatus());
+    }
+
+    @Test
+    public void declaredMethodWinsOverAnyMethod() throws Exception {
+        HandlerMapping any = add("any");
+        HandlerMapping get = add("get");
+        assertSame(get, select(request("GET")));
+        assertSame(any, select(request("DELETE")));
+    }
+
+    @Test
+    public void moreConditionsWin() throws Exception {
+        HandlerMapping plain = add("get");
+        HandlerMapping versioned = add("getVersion2");
+        assertSame(versioned, select(request("GET").param("v", "2")));
+        assertSame(plain, select(request("GET").param("v", "1")));
+        assertSame(plain, select(request("GET")));
+    }
+
+    @Test
+    public void duplicateConditionsAreRejected() throws Exception {
+        add("get");
+        assertFalse(candidates.add(mapping("get")));
+        assertEquals(1, candidates.getMappings().size());
+    }
+
+    @Test
+    public void unsupportedContentType() throws Exception {
+        HandlerMapping json = add("postJson");
+        assertSame(json, select(request("POST").contentType("application/json;charset=UTF-8")));
+        assertEquals(415, selectFailure(request("POST").contentType("text/plain")).getStatus());
+        // 没有contentType按照application/octet-stream处理
+        assertEquals(415, selectFailure(request("POST")).getStatus());
+    }
+
+    @Test
+    public void notAcceptable() throws Exception {
+        HandlerMapping json = add("getJson");
+        assertSame(json, select(request("GET")));
+        assertSame(json, select(request("GET").header("Accept", "*/*")));
+        assertSame(json, select(request("GET").header("Accept", "text/html, application/*;q=0.8")));
+        assertEquals(406, selectFailure(request("GET").header("Accept", "text/html")).getStatus());
+    }
+
+    @Test
+    public void unsatisfiedParamsOrHeaders() throws Exception {
+        HandlerMapping guarded = add("getGuarded");
+        assertSame(guarded, select(request("GET").param("id", "1").header("X-Token", "t")));
+        assertEquals(400, selectFailure(request("GET").param("id", "1")).getStatus());
+        assertEquals(400, selectFailure(request("GET").header("X-Token", "t")).getStatus());
+    }
+
+    @Test
+    public void contentTypeFailureTakesPrecedence() throws Exception {
+        add("postJson");
+        add("postXml");
+        RequestConditionException e = selectFailure(request("POST").contentType("text/plain")
+                .header("Accept", "text/html"));
+        assertEquals(415, e.getStatus());
+    }
+
+
+    private HandlerMapping add(String handlerName) throws Exception {
+        HandlerMapping handlerMapping = mapping(handlerName);
+        assertTrue(candidates.add(handlerMapping));
+        return handlerMapping;
+    }
+
+    private HandlerMapping mapping(String handlerName) throws Exception {
+        Method method = Handlers.class.getMethod(handlerName);
+        HandlerMapping handlerMapping = new HandlerMapping(handlers, new HandlerMethod(handlers, method),
+                Pattern.compile("/test"));
+        handlerMapping.setMappingInfo(RequestMappingInfo.of(null, method.getAnnotation(RequestMapping.class)));
+        return handlerMapping;
+    }
+
+    private HandlerMapping select(TestRequest request) throws RequestConditionException {
+        return candidates.select(request.toRequest());
+    }
+
+    private RequestConditionException selectFailure(TestRequest request) {
+        try {
+            fail("应该没有满足条件的映射 : " + select(request).getMethod());
+            return null;
+        } catch (RequestConditionException e) {
+            return e;
+        }
+    }
+
+    private static TestRequest request(String method) {
+        return new TestRequest(method);
+    }
+
+
+    public static class Handlers {
+
+        @RequestMapping
+        public void any() {
+        }
+
+        @RequestMapping(method = HttpMethod.GET)
+        public void get() {
+        }
+
+        @RequestMapping(method = HttpMethod.GET, params = "v=2")
+        public void getVersion2() {
+        }
+
+        @RequestMapping(method = HttpMethod.GET, produces = "application/json")
+        public void getJson() {
+        }
+
+        @RequestMapping(method = HttpMethod.GET, params = "id", headers = "X-Token")
+        public void getGuarded() {
+        }
+
+        @RequestMapping(method = HttpMethod.POST)
+        public void post() {
+        }
+
+        @RequestMapping(method = HttpMethod.POST, consumes = "application/json", produces = "application/json")
+        public void postJson() {
+        }
+
+        @RequestMapping(method = HttpMethod.POST, consumes = "application/xml")
+        public void postXml() {
+        }
+    }
+
+
+    /**
+     * 只实现选择映射用到的方法
+     */
+    private static final class TestRequest {
+
+        private final String method;
+
+        private final Map<String, String> params = new HashMap<>();
+
+        private final Map<String, String> headers = new HashMap<>();
+
+        private TestRequest(String method) {
+            this.method = method;
+        }
+
+        TestRequest param(String name, String value) {
+            params.put(name, value);
+            return this;
+        }
+
+        TestRequest header(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+
+        TestRequest contentType(String contentType) {
+            return header("Content-Type", contentType);
+        }
+
+        HttpServletRequest toRequest() {
+            return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{HttpServletRequest.class}, (proxy, m, args) -> {
+                        switch (m.getName()) {
+                            case "getMethod":
+                                return method;
+                            case "getContentType":
+                                return headers.get("Content-Type");
+                            case "getHeader":
+                                return headers.get(args[0]);
+                            case "getParameter":
+                                return params.get(args[0]);
+                            default:
+                                throw new UnsupportedOperationException(m.getName());
+                        }
+                    });
+        }
+    }
+}
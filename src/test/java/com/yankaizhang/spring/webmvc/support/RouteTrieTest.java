@@ -0,0 +1,219 @@
+package com.yankaizhang.spring.webmvc.support;
+
+import com.yankaizhang.spring.web.http.HttpMethod;
+import com.yankaizhang.spring.web.method.HandlerMethod;
+import com.yankaizhang.spring.webmvc.HandlerMapping;
+import com.yankaizhang.spring.webmvc.annotation.RequestMapping;
+import com.yankaizhang.spring.webmvc.condition.RequestMappingInfo;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link RouteTrie}的字面路径、模板路径和正则路径匹配
+ * @author dzzhyk
+ * @since 2026-10-18 20:03:47
+ */
+public class RouteTrieTest {
+
+    private final Handlers handlers = new Handlers();
+
+    private final RouteTrie trie = new RouteTrie();
+
+    @Test
+    public void literalPaths() throws Exception {
+        HandlerMapping list = register("/users/list", "any");
+        HandlerMapping users = register("/users", "any");
+
+        assertSame(list, single("/users/list"));
+        assertSame(users, single("/users"));
+        assertFalse(trie.lookup("/users").hasUriVariables());
+        assertNull(trie.lookup("/users/none"));
+        assertNull(trie.lookup("/users/"));
+        assertNull(trie.lookup(""));
+        assertEquals(2, trie.getLiteralCount());
+    }
+
+    @Test
+    public void rootPath() throws Exception {
+        HandlerMapping root = register("/", "any");
+        assertSame(root, single("/"));
+        assertNull(trie.lookup("/index"));
+    }
+
+    @Test
+    public void literalSegmentWinsOverVariable() throws Exception {
+        HandlerMapping me = register("/users/me", "any");
+        HandlerMapping byId = register("/users/{id}", "any");
+
+        assertSame(me, single("/users/me"));
+        assertSame(byId, single("/users/42"));
+        assertEquals(Collections.singletonMap("id", "42"), variables("/users/42"));
+    }
+
+    @Test
+    public void backtracksFromLiteralToVariable() throws Exception {
+        HandlerMapping literal = register("/a/b/d", "any");
+        HandlerMapping template = register("/a/{x}/c", "any");
+
+        assertSame(literal, single("/a/b/d"));
+        // "b"的字面子节点下没有"c"，回退到变量子节点
+        assertSame(template, single("/a/b/c"));
+        assertEquals(Collections.singletonMap("x", "b"), variables("/a/b/c"));
+    }
+
+    @Test
+    public void backtracksFromPatternToVariable() throws Exception {
+        HandlerMapping number = register("/p/{n:\\d+}/x", "any");
+        HandlerMapping any = register("/p/{s}/y", "any");
+
+        assertSame(number, single("/p/12/x"));
+        assertEquals(Collections.singletonMap("n", "12"), variables("/p/12/x"));
+        assertSame(any, single("/p/12/y"));
+        assertEquals(Collections.singletonMap("s", "12"), variables("/p/12/y"));
+        assertNull(trie.lookup("/p/ab/x"));
+    }
+
+    @Test
+    public void patternSegmentWinsOverVariable() throws Exception {
+        HandlerMapping json = register("/files/{name}.json", "any");
+        HandlerMapping plain = register("/files/{id}", "any");
+
+        assertSame(json, single("/files/a.json"));
+        assertEquals(Collections.singletonMap("name", "a"), variables("/files/a.json"));
+        assertSame(plain, single("/files/a"));
+        assertEquals(Collections.singletonMap("id", "a"), variables("/files/a"));
+    }
+
+    @Test
+    public void variableNamesComeFromSelectedMapping() throws Exception {
+        HandlerMapping get = register("/u/{id}", "get");
+        HandlerMapping post = register("/u/{name}", "post");
+        assertEquals(2, trie.getTemplateCount());
+
+        RouteMatch match = trie.lookup("/u/7");
+        assertNotNull(match);
+        assertEquals(2, match.getCandidates().getMappings().size());
+        assertEquals(Collections.singletonMap("id", "7"), match.getUriVariables(get));
+        assertEquals(Collections.singletonMap("name", "7"), match.getUriVariables(post));
+    }
+
+    @Test
+    public void variableCountOnSharedPrefix() throws Exception {
+        register("/a/{x}/b/{y}", "any");
+        register("/a/{x}", "any");
+
+        RouteMatch shortMatch = trie.lookup("/a/1");
+        assertNotNull(shortMatch);
+        assertEquals(Collections.singletonMap("x", "1"), variables("/a/1"));
+
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("x", "1");
+        expected.put("y", "2");
+        assertEquals(expected, variables("/a/1/b/2"));
+        assertNull(trie.lookup("/a/1/b"));
+    }
+
+    @Test
+    public void variableDoesNotMatchEmptySegment() throws Exception {
+        register("/u/{id}", "any");
+        assertNull(trie.lookup("/u/"));
+        assertNull(trie.lookup("/u"));
+    }
+
+    @Test
+    public void uriVariablesAreDecoded() throws Exception {
+        register("/u/{id}", "any");
+        assertEquals("a b", variables("/u/a%20b").get("id"));
+        assertEquals("a+b", variables("/u/a+b").get("id"));
+        assertEquals("%zz", variables("/u/%zz").get("id"));
+    }
+
+    @Test
+    public void regexFallbackInRegistrationOrder() throws Exception {
+        HandlerMapping digits = register("/r/[0-9]+", "any");
+        HandlerMapping anything = register("/r/.*", "get");
+        HandlerMapping template = register("/t/{id}", "any");
+        assertEquals(2, trie.getPatternCount());
+        assertEquals(1, trie.getTemplateCount());
+
+        assertSame(digits, single("/r/12"));
+        assertSame(anything, single("/r/ab"));
+        assertSame(template, single("/t/12"));
+        assertNull(trie.lookup("/x"));
+    }
+
+    @Test
+    public void duplicateMappingKeepsFirst() throws Exception {
+        HandlerMapping first = register("/dup", "get");
+        register("/dup", "get");
+        HandlerMapping post = register("/dup", "post");
+
+        assertEquals(2, trie.getLiteralCount());
+        RouteMatch match = trie.lookup("/dup");
+        assertEquals(2, match.getCandidates().getMappings().size());
+        assertSame(first, match.getCandidates().getMappings().get(0));
+        assertSame(post, match.getCandidates().getMappings().get(1));
+    }
+
+    @Test
+    public void pathHelpers() {
+        assertEquals("/a/b/", RouteTrie.normalizePath("//a///b//"));
+        assertEquals("/a/b", RouteTrie.normalizePath("/a/b"));
+        assertTrue(RouteTrie.isLiteralPath("/a/b-c_d"));
+        // 映射路径中的"."按照正则表达式处理，和原来的正则匹配保持一致
+        assertFalse(RouteTrie.isLiteralPath("/a/b.json"));
+        assertFalse(RouteTrie.isLiteralPath("/a/.*"));
+        assertFalse(RouteTrie.isLiteralPath("/a/{id}"));
+        assertFalse(RouteTrie.isLiteralPath("a/b"));
+        assertTrue(new RouteTrie().isEmpty());
+    }
+
+
+    private HandlerMapping register(String url, String handlerName) throws Exception {
+        Method method = Handlers.class.getMethod(handlerName);
+        UriTemplate template = UriTemplate.parse(url);
+        Pattern pattern = (template != null ? template.getPattern() : Pattern.compile(url));
+        HandlerMapping handlerMapping = new HandlerMapping(handlers, new HandlerMethod(handlers, method), pattern);
+        handlerMapping.setMappingInfo(RequestMappingInfo.of(null, method.getAnnotation(RequestMapping.class)));
+        handlerMapping.setUriTemplate(template);
+        trie.register(url, handlerMapping);
+        return handlerMapping;
+    }
+
+    private HandlerMapping single(String path) {
+        RouteMatch match = trie.lookup(path);
+        assertNotNull(path, match);
+        assertEquals(path, 1, match.getCandidates().getMappings().size());
+        return match.getCandidates().getMappings().get(0);
+    }
+
+    private Map<String, String> variables(String path) {
+        RouteMatch match = trie.lookup(path);
+        assertNotNull(path, match);
+        assertTrue(path, match.hasUriVariables());
+        return match.getUriVariables(match.getCandidates().getMappings().get(0));
+    }
+
+
+    public static class Handlers {
+
+        @RequestMapping
+        public void any() {
+        }
+
+        @RequestMapping(method = HttpMethod.GET)
+        public void get() {
+        }
+
+        @RequestMapping(method = HttpMethod.POST)
+        public void post() {
+        }
+    }
+}
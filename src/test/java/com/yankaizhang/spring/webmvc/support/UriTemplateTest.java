@@ -0,0 +1,125 @@
+package com.yankaizhang.spring.webmvc.support;
+
+import com.yankaizhang.spring.webmvc.support.UriTemplate.Segment;
+import com.yankaizhang.spring.webmvc.support.UriTemplate.SegmentType;
+import org.junit.Test;
+
+import java.util.regex.Matcher;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link UriTemplate}的模板解析和按段切分
+ * @author dzzhyk
+ * @since 2026-10-18 20:03:12
+ */
+public class UriTemplateTest {
+
+    @Test
+    public void pathWithoutVariablesIsNotTemplate() {
+        assertNull(UriTemplate.parse(null));
+        assertNull(UriTemplate.parse(""));
+        assertNull(UriTemplate.parse("/users/list"));
+        assertNull(UriTemplate.parse("users/{id}"));
+    }
+
+    @Test
+    public void invalidTemplatesAreRejected() {
+        assertNull(UriTemplate.parse("/users/{id"));
+        assertNull(UriTemplate.parse("/users/id}"));
+        assertNull(UriTemplate.parse("/users/{}"));
+        assertNull(UriTemplate.parse("/users/{1id}"));
+        assertNull(UriTemplate.parse("/users/{id}-{id}"));
+        // 花括号之外的正则表达式交给正则后备层
+        assertNull(UriTemplate.parse("/users/[0-9]+/{id}"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidVariableRegex() {
+        UriTemplate.parse("/users/{id:[0-9}");
+    }
+
+    @Test
+    public void literalAndVariableSegments() {
+        UriTemplate template = UriTemplate.parse("/users/{id}/orders");
+        assertNotNull(template);
+        assertArrayEquals(new String[]{"id"}, template.getVariableNames());
+        Segment[] segments = template.getSegments();
+        assertEquals(3, segments.length);
+        assertEquals(SegmentType.LITERAL, segments[0].getType());
+        assertEquals("users", segments[0].getText());
+        assertEquals(SegmentType.VARIABLE, segments[1].getType());
+        assertEquals(SegmentType.LITERAL, segments[2].getType());
+
+        assertTrue(template.getPattern().matcher("/users/42/orders").matches());
+        assertFalse(template.getPattern().matcher("/users/42/43/orders").matches());
+        assertFalse(template.getPattern().matcher("/users//orders").matches());
+    }
+
+    @Test
+    public void dotInSegmentIsLiteral() {
+        UriTemplate template = UriTemplate.parse("/files/{name}.json");
+        assertNotNull(template);
+        Segment segment = template.getSegments()[1];
+        assertEquals(SegmentType.PATTERN, segment.getType());
+        assertTrue(segment.getPattern().matcher("a.json").matches());
+        assertFalse(segment.getPattern().matcher("a-json").matches());
+    }
+
+    @Test
+    public void multipleVariablesInOneSegment() {
+        UriTemplate template = UriTemplate.parse("/files/{name}.{ext}");
+        assertNotNull(template);
+        Segment segment = template.getSegments()[1];
+        assertEquals(SegmentType.PATTERN, segment.getType());
+        assertArrayEquals(new String[]{"name", "ext"}, segment.getVariableNames());
+        assertArrayEquals(new int[]{1, 2}, segment.getGroupIndexes());
+
+        Matcher matcher = segment.getPattern().matcher("report.2020.pdf");
+        assertTrue(matcher.matches());
+        assertEquals("report.2020", matcher.group(1));
+        assertEquals("pdf", matcher.group(2));
+    }
+
+    @Test
+    public void customRegexMakesPatternSegment() {
+        UriTemplate template = UriTemplate.parse("/users/{id:\\d+}");
+        assertNotNull(template);
+        Segment segment = template.getSegments()[1];
+        assertEquals(SegmentType.PATTERN, segment.getType());
+        assertTrue(segment.getPattern().matcher("42").matches());
+        assertFalse(segment.getPattern().matcher("abc").matches());
+    }
+
+    @Test
+    public void bracesInsideVariableRegex() {
+        UriTemplate template = UriTemplate.parse("/lang/{code:[a-z]{2}}/{page}");
+        assertNotNull(template);
+        assertArrayEquals(new String[]{"code", "page"}, template.getVariableNames());
+        assertEquals(3, template.getSegments().length);
+        assertTrue(template.getPattern().matcher("/lang/zh/index").matches());
+        assertFalse(template.getPattern().matcher("/lang/zho/index").matches());
+    }
+
+    @Test
+    public void slashInsideBracesDoesNotSplit() {
+        UriTemplate template = UriTemplate.parse("/static/{path:[a-z]+/[a-z]+}");
+        assertNotNull(template);
+        assertEquals(2, template.getSegments().length);
+        assertEquals("{path:[a-z]+/[a-z]+}", template.getSegments()[1].getText());
+        assertTrue(template.getPattern().matcher("/static/css/main").matches());
+    }
+
+    @Test
+    public void groupsInsideVariableRegexAreSkipped() {
+        UriTemplate template = UriTemplate.parse("/items/{kind:(new|old)}-{id}");
+        assertNotNull(template);
+        Segment segment = template.getSegments()[1];
+        assertArrayEquals(new int[]{1, 3}, segment.getGroupIndexes());
+
+        Matcher matcher = segment.getPattern().matcher("old-7");
+        assertTrue(matcher.matches());
+        assertEquals("old", matcher.group(segment.getGroupIndexes()[0]));
+        assertEquals("7", matcher.group(segment.getGroupIndexes()[1]));
+    }
+}